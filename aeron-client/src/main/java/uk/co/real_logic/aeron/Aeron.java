@@ -124,6 +124,20 @@ public final class Aeron implements AutoCloseable {
         return conductor.addPublication(channel, streamId);
     }
 
+    /**
+     * Add an {@link ExclusivePublication} for publishing messages to subscribers from a single thread.
+     *
+     * Unlike {@link #addPublication(String, int)} a new session is always created rather than sharing the
+     * session of an existing publication on the same channel and stream.
+     *
+     * @param channel  for receiving the messages known to the media layer.
+     * @param streamId within the channel scope.
+     * @return the new ExclusivePublication.
+     */
+    public ExclusivePublication addExclusivePublication(final String channel, final int streamId) {
+        return conductor.addExclusivePublication(channel, streamId);
+    }
+
     /**
      * Add a new {@link Subscription} for subscribing to messages from publishers.
      *
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron;
+
+import uk.co.real_logic.agrona.BitUtil;
+import uk.co.real_logic.agrona.IoUtil;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of off-heap buffers, in power of two size classes, used for reassembling fragmented messages.
+ *
+ * Released buffers are kept for reuse. The total length of buffers allocated, whether in use or pooled, is capped.
+ * When an allocation would exceed the cap the pooled buffers are freed first.
+ *
+ * <b>Note:</b> This class is NOT threadsafe.
+ */
+class AssemblyBufferPool implements AutoCloseable {
+    /**
+     * Minimum length of a buffer acquired from the pool.
+     */
+    public static final int MIN_BUFFER_LENGTH = BufferBuilder.INITIAL_CAPACITY;
+
+    private static final int MIN_SIZE_CLASS_SHIFT = Integer.numberOfTrailingZeros(MIN_BUFFER_LENGTH);
+
+    private final long maxAllocatedLength;
+    private final ArrayDeque<UnsafeBuffer>[] freeBuffersBySizeClass;
+    private long allocatedLength = 0;
+    private long pooledLength = 0;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    AssemblyBufferPool(final long maxAllocatedLength) {
+        this.maxAllocatedLength = maxAllocatedLength;
+        freeBuffersBySizeClass = new ArrayDeque[Integer.SIZE - MIN_SIZE_CLASS_SHIFT];
+        for (int i = 0; i < freeBuffersBySizeClass.length; i++) {
+            freeBuffersBySizeClass[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Acquire a buffer with at least the required capacity.
+     *
+     * @param minLength required capacity of the buffer.
+     * @return a buffer with at least the required capacity or null if it would exceed the cap on allocation.
+     */
+    UnsafeBuffer acquire(final int minLength) {
+        UnsafeBuffer buffer = null;
+        if (minLength <= (1 << (Integer.SIZE - 2))) {
+            final int length = BitUtil.findNextPositivePowerOfTwo(Math.max(MIN_BUFFER_LENGTH, minLength));
+            final ArrayDeque<UnsafeBuffer> freeBuffers = freeBuffersBySizeClass[sizeClass(length)];
+
+            buffer = freeBuffers.pollFirst();
+            if (null != buffer) {
+                pooledLength -= length;
+            } else {
+                if (allocatedLength + length > maxAllocatedLength) {
+                    freePooledBuffers();
+                }
+
+                if (allocatedLength + length <= maxAllocatedLength) {
+                    buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(length));
+                    allocatedLength += length;
+                }
+            }
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Release a buffer back to the pool for reuse.
+     *
+     * @param buffer previously acquired from the pool.
+     */
+    void release(final UnsafeBuffer buffer) {
+        final int length = buffer.capacity();
+        freeBuffersBySizeClass[sizeClass(length)].addFirst(buffer);
+        pooledLength += length;
+    }
+
+    /**
+     * Total length of buffers allocated whether in use or pooled.
+     *
+     * @return total length of buffers allocated whether in use or pooled.
+     */
+    long allocatedLength() {
+        return allocatedLength;
+    }
+
+    /**
+     * Length of buffers which have been released and are available for reuse.
+     *
+     * @return length of buffers which have been released and are available for reuse.
+     */
+    long pooledLength() {
+        return pooledLength;
+    }
+
+    /**
+     * Free the buffers held in the pool. Buffers in use are not affected.
+     */
+    public void close() {
+        freePooledBuffers();
+    }
+
+    private void freePooledBuffers() {
+        for (final ArrayDeque<UnsafeBuffer> freeBuffers : freeBuffersBySizeClass) {
+            UnsafeBuffer buffer;
+            while (null != (buffer = freeBuffers.pollFirst())) {
+                allocatedLength -= buffer.capacity();
+                IoUtil.unmap(buffer.byteBuffer());
+            }
+        }
+
+        pooledLength = 0;
+    }
+
+    private static int sizeClass(final int length) {
+        return Integer.numberOfTrailingZeros(length) - MIN_SIZE_CLASS_SHIFT;
+    }
+}
@@ -21,6 +21,7 @@ import uk.co.real_logic.aeron.exceptions.RegistrationException;
 import uk.co.real_logic.agrona.ErrorHandler;
 import uk.co.real_logic.agrona.ManagedResource;
 import uk.co.real_logic.agrona.collections.Long2LongHashMap;
+import uk.co.real_logic.agrona.collections.Long2ObjectHashMap;
 import uk.co.real_logic.agrona.concurrent.Agent;
 import uk.co.real_logic.agrona.concurrent.EpochClock;
 import uk.co.real_logic.agrona.concurrent.NanoClock;
@@ -58,6 +59,7 @@ class ClientConductor implements Agent, DriverListener {
     private final LogBuffersFactory logBuffersFactory;
     private final ActivePublications activePublications = new ActivePublications();
     private final ActiveSubscriptions activeSubscriptions = new ActiveSubscriptions();
+    private final Long2ObjectHashMap<ExclusivePublication> exclusivePublications = new Long2ObjectHashMap<>();
     private final ArrayList<ManagedResource> managedResources = new ArrayList<>();
     private final UnsafeBuffer counterValuesBuffer;
     private final DriverProxy driverProxy;
@@ -101,6 +103,7 @@ class ClientConductor implements Agent, DriverListener {
 
     public synchronized void onClose() {
         activePublications.close();
+        closeExclusivePublications();
         activeSubscriptions.close();
         managedResources.forEach(ManagedResource::delete);
     }
@@ -141,6 +144,45 @@ class ClientConductor implements Agent, DriverListener {
         doWorkUntil(correlationId, timeout, publication.channel());
     }
 
+    public synchronized ExclusivePublication addExclusivePublication(final String channel, final int streamId) {
+        verifyDriverIsActive();
+
+        final long correlationId = driverProxy.addExclusivePublication(channel, streamId);
+        final long timeout = nanoClock.nanoTime() + driverTimeoutNs;
+
+        doWorkUntil(correlationId, timeout, channel);
+
+        return exclusivePublications.get(correlationId);
+    }
+
+    public synchronized void releaseExclusivePublication(final ExclusivePublication publication) {
+        verifyDriverIsActive();
+
+        final long correlationId = driverProxy.removePublication(publication.registrationId());
+        exclusivePublications.remove(publication.registrationId());
+        final long timeout = nanoClock.nanoTime() + driverTimeoutNs;
+
+        doWorkUntil(correlationId, timeout, publication.channel());
+    }
+
+    public synchronized void addDestination(final Publication publication, final String destinationChannel) {
+        verifyDriverIsActive();
+
+        final long correlationId = driverProxy.addDestination(publication.registrationId(), destinationChannel);
+        final long timeout = nanoClock.nanoTime() + driverTimeoutNs;
+
+        doWorkUntil(correlationId, timeout, destinationChannel);
+    }
+
+    public synchronized void removeDestination(final Publication publication, final String destinationChannel) {
+        verifyDriverIsActive();
+
+        final long correlationId = driverProxy.removeDestination(publication.registrationId(), destinationChannel);
+        final long timeout = nanoClock.nanoTime() + driverTimeoutNs;
+
+        doWorkUntil(correlationId, timeout, destinationChannel);
+    }
+
     public synchronized Subscription addSubscription(final String channel, final int streamId) {
         verifyDriverIsActive();
 
@@ -185,6 +227,25 @@ class ClientConductor implements Agent, DriverListener {
         activePublications.put(channel, streamId, publication);
     }
 
+    public void onNewExclusivePublication(
+            final String channel,
+            final int streamId,
+            final int sessionId,
+            final int publicationLimitId,
+            final String logFileName,
+            final long correlationId) {
+        final ExclusivePublication publication = new ExclusivePublication(
+                this,
+                channel,
+                streamId,
+                sessionId,
+                new UnsafeBufferPosition(counterValuesBuffer, publicationLimitId),
+                logBuffersFactory.map(logFileName),
+                correlationId);
+
+        exclusivePublications.put(correlationId, publication);
+    }
+
     public void onAvailableImage(
             final int streamId,
             final int sessionId,
@@ -243,6 +304,10 @@ class ClientConductor implements Agent, DriverListener {
         managedResources.add(managedResource);
     }
 
+    private void closeExclusivePublications() {
+        new ArrayList<>(exclusivePublications.values()).forEach(ExclusivePublication::release);
+    }
+
     private void checkDriverHeartbeat() {
         final long now = epochClock.time();
         final long currentDriverKeepaliveTime = driverProxy.timeOfLastDriverKeepalive();
@@ -299,6 +364,7 @@ class ClientConductor implements Agent, DriverListener {
 
         if (now > (timeOfLastDoWork + interServiceTimeoutNs)) {
             activePublications.close();
+            closeExclusivePublications();
             activeSubscriptions.close();
 
             throw new ConductorServiceTimeoutException(
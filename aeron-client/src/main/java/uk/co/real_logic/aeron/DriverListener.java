@@ -29,6 +29,14 @@ interface DriverListener {
             String logFileName,
             long correlationId);
 
+    void onNewExclusivePublication(
+            String channel,
+            int streamId,
+            int sessionId,
+            int publicationLimitId,
+            String logFileName,
+            long correlationId);
+
     void onAvailableImage(
             int streamId,
             int sessionId,
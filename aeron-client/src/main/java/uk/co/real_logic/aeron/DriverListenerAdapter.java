@@ -80,6 +80,24 @@ class DriverListenerAdapter implements MessageHandler {
                 break;
             }
 
+            case ON_EXCLUSIVE_PUBLICATION_READY: {
+                publicationReady.wrap(buffer, index);
+
+                final long correlationId = publicationReady.correlationId();
+                if (correlationId == activeCorrelationId) {
+                    listener.onNewExclusivePublication(
+                            expectedChannel,
+                            publicationReady.streamId(),
+                            publicationReady.sessionId(),
+                            publicationReady.publicationLimitCounterId(),
+                            publicationReady.logFileName(),
+                            correlationId);
+
+                    lastReceivedCorrelationId = correlationId;
+                }
+                break;
+            }
+
             case ON_AVAILABLE_IMAGE: {
                 imageReady.wrap(buffer, index);
 
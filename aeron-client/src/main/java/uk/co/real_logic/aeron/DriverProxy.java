@@ -16,6 +16,7 @@
 package uk.co.real_logic.aeron;
 
 import uk.co.real_logic.aeron.command.CorrelatedMessageFlyweight;
+import uk.co.real_logic.aeron.command.DestinationMessageFlyweight;
 import uk.co.real_logic.aeron.command.PublicationMessageFlyweight;
 import uk.co.real_logic.aeron.command.RemoveMessageFlyweight;
 import uk.co.real_logic.aeron.command.SubscriptionMessageFlyweight;
@@ -41,6 +42,7 @@ public class DriverProxy {
     private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(MSG_BUFFER_CAPACITY));
     private final PublicationMessageFlyweight publicationMessage = new PublicationMessageFlyweight();
     private final SubscriptionMessageFlyweight subscriptionMessage = new SubscriptionMessageFlyweight();
+    private final DestinationMessageFlyweight destinationMessage = new DestinationMessageFlyweight();
 
     private final RemoveMessageFlyweight removeMessage = new RemoveMessageFlyweight();
     // the heartbeats come from the client conductor thread, so keep the flyweights and buffer separate
@@ -54,6 +56,7 @@ public class DriverProxy {
 
         publicationMessage.wrap(buffer, 0);
         subscriptionMessage.wrap(buffer, 0);
+        destinationMessage.wrap(buffer, 0);
 
         correlatedMessage.wrap(keepaliveBuffer, 0);
         removeMessage.wrap(buffer, 0);
@@ -66,21 +69,11 @@ public class DriverProxy {
     }
 
     public long addPublication(final String channel, final int streamId) {
-        final long correlationId = toDriverCommandBuffer.nextCorrelationId();
-
-        publicationMessage
-                .clientId(clientId)
-                .correlationId(correlationId);
-
-        publicationMessage
-                .streamId(streamId)
-                .channel(channel);
-
-        if (!toDriverCommandBuffer.write(ADD_PUBLICATION, buffer, 0, publicationMessage.length())) {
-            throw new IllegalStateException("could not write publication message");
-        }
+        return sendPublicationMessage(ADD_PUBLICATION, channel, streamId);
+    }
 
-        return correlationId;
+    public long addExclusivePublication(final String channel, final int streamId) {
+        return sendPublicationMessage(ADD_EXCLUSIVE_PUBLICATION, channel, streamId);
     }
 
     public long removePublication(final long registrationId) {
@@ -95,6 +88,14 @@ public class DriverProxy {
         return correlationId;
     }
 
+    public long addDestination(final long registrationId, final String destinationChannel) {
+        return sendDestinationMessage(ADD_DESTINATION, registrationId, destinationChannel);
+    }
+
+    public long removeDestination(final long registrationId, final String destinationChannel) {
+        return sendDestinationMessage(REMOVE_DESTINATION, registrationId, destinationChannel);
+    }
+
     public long addSubscription(final String channel, final int streamId) {
         final long registrationId = -1;
         final long correlationId = toDriverCommandBuffer.nextCorrelationId();
@@ -127,6 +128,42 @@ public class DriverProxy {
         return correlationId;
     }
 
+    private long sendPublicationMessage(final int msgTypeId, final String channel, final int streamId) {
+        final long correlationId = toDriverCommandBuffer.nextCorrelationId();
+
+        publicationMessage
+                .clientId(clientId)
+                .correlationId(correlationId);
+
+        publicationMessage
+                .streamId(streamId)
+                .channel(channel);
+
+        if (!toDriverCommandBuffer.write(msgTypeId, buffer, 0, publicationMessage.length())) {
+            throw new IllegalStateException("could not write publication message");
+        }
+
+        return correlationId;
+    }
+
+    private long sendDestinationMessage(final int msgTypeId, final long registrationId, final String destinationChannel) {
+        final long correlationId = toDriverCommandBuffer.nextCorrelationId();
+
+        destinationMessage
+                .clientId(clientId)
+                .correlationId(correlationId);
+
+        destinationMessage
+                .registrationCorrelationId(registrationId)
+                .channel(destinationChannel);
+
+        if (!toDriverCommandBuffer.write(msgTypeId, buffer, 0, destinationMessage.length())) {
+            throw new IllegalStateException("could not write destination message");
+        }
+
+        return correlationId;
+    }
+
     public void sendClientKeepalive() {
         correlatedMessage
                 .clientId(clientId)
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron;
+
+import uk.co.real_logic.aeron.logbuffer.*;
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.agrona.concurrent.status.ReadablePosition;
+
+import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.*;
+import static uk.co.real_logic.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+
+/**
+ * Aeron Publisher API for sending messages to subscribers of a given channel and streamId pair from a single thread.
+ * Exclusive publications are created via {@link Aeron#addExclusivePublication(String, int)} and each has its own
+ * session.
+ *
+ * As only one thread appends to the log the position of the tail is kept in fields of this object and published
+ * to the log with ordered stores rather than claimed with an atomic increment, and terms are rotated without
+ * contention with other publishers.
+ *
+ * The APIs used to send are all non-blocking and return the same values as {@link Publication}.
+ *
+ * <b>Note:</b> ExclusivePublication instances are NOT threadsafe for offer and claim methods.
+ *
+ * @see Aeron#addExclusivePublication(String, int)
+ */
+public class ExclusivePublication implements AutoCloseable {
+    private final long registrationId;
+    private final int streamId;
+    private final int sessionId;
+    private final int termBufferLength;
+    private final int maxPayloadLength;
+    private final ReadablePosition positionLimit;
+    private final ExclusiveTermAppender[] termAppenders = new ExclusiveTermAppender[PARTITION_COUNT];
+    private final UnsafeBuffer logMetaDataBuffer;
+    private final HeaderWriter headerWriter;
+    private final LogBuffers logBuffers;
+    private final ClientConductor clientConductor;
+    private final String channel;
+
+    private int activePartitionIndex;
+    private int termId;
+    private int termOffset;
+    private long termBeginPosition;
+    private volatile boolean isClosed = false;
+
+    ExclusivePublication(
+            final ClientConductor clientConductor,
+            final String channel,
+            final int streamId,
+            final int sessionId,
+            final ReadablePosition positionLimit,
+            final LogBuffers logBuffers,
+            final long registrationId) {
+        final UnsafeBuffer[] buffers = logBuffers.atomicBuffers();
+        final UnsafeBuffer logMetaDataBuffer = buffers[LOG_META_DATA_SECTION_INDEX];
+
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            termAppenders[i] = new ExclusiveTermAppender(buffers[i], buffers[i + PARTITION_COUNT]);
+        }
+
+        this.termBufferLength = logBuffers.termLength();
+        this.maxPayloadLength = mtuLength(logMetaDataBuffer) - HEADER_LENGTH;
+        this.clientConductor = clientConductor;
+        this.channel = channel;
+        this.streamId = streamId;
+        this.sessionId = sessionId;
+        this.logMetaDataBuffer = logMetaDataBuffer;
+        this.registrationId = registrationId;
+        this.positionLimit = positionLimit;
+        this.logBuffers = logBuffers;
+        this.headerWriter = new HeaderWriter(defaultFrameHeader(logMetaDataBuffer));
+
+        final int positionBitsToShift = Integer.numberOfTrailingZeros(termBufferLength);
+        final int activeIndex = activePartitionIndex(logMetaDataBuffer);
+        final long rawTail = termAppenders[activeIndex].rawTailVolatile();
+
+        this.activePartitionIndex = activeIndex;
+        this.termId = termId(rawTail);
+        this.termOffset = termOffset(rawTail, termBufferLength);
+        this.termBeginPosition = computeTermBeginPosition(
+                termId, positionBitsToShift, LogBufferDescriptor.initialTermId(logMetaDataBuffer));
+    }
+
+    /**
+     * Get the length in bytes for each term partition in the log buffer.
+     *
+     * @return the length in bytes for each term partition in the log buffer.
+     */
+    public int termBufferLength() {
+        return termBufferLength;
+    }
+
+    /**
+     * Media address for delivery to the channel.
+     *
+     * @return Media address for delivery to the channel.
+     */
+    public String channel() {
+        return channel;
+    }
+
+    /**
+     * Stream identity for scoping within the channel media address.
+     *
+     * @return Stream identity for scoping within the channel media address.
+     */
+    public int streamId() {
+        return streamId;
+    }
+
+    /**
+     * Session under which messages are published. Identifies this ExclusivePublication instance.
+     *
+     * @return the session id for this publication.
+     */
+    public int sessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Maximum message length supported in bytes.
+     *
+     * @return maximum message length supported in bytes.
+     */
+    public int maxMessageLength() {
+        return FrameDescriptor.computeMaxMessageLength(termBufferLength);
+    }
+
+    /**
+     * Has this {@link ExclusivePublication} been connected to a {@link Subscription}?
+     *
+     * @return true if this {@link ExclusivePublication} been connected to a {@link Subscription} otherwise false.
+     */
+    public boolean hasBeenConnected() {
+        return !isClosed && positionLimit.getVolatile() > 0;
+    }
+
+    /**
+     * Release resources used by this ExclusivePublication. Exclusive publications are not shared so are not
+     * reference counted.
+     */
+    public void close() {
+        synchronized (clientConductor) {
+            release();
+        }
+    }
+
+    /**
+     * Has this object been closed and should no longer be used?
+     *
+     * @return true if it has been closed otherwise false.
+     */
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    /**
+     * Release resources and forcibly close the ExclusivePublication.
+     */
+    void release() {
+        if (!isClosed) {
+            isClosed = true;
+            clientConductor.releaseExclusivePublication(this);
+            logBuffers.close();
+        }
+    }
+
+    /**
+     * Get the current position to which the publication has advanced for this stream.
+     *
+     * This should only be called from the publishing thread.
+     *
+     * @return the current position to which the publication has advanced for this stream or {@link Publication#CLOSED}.
+     */
+    public long position() {
+        long position = Publication.CLOSED;
+        if (!isClosed) {
+            position = termBeginPosition + termOffset;
+        }
+
+        return position;
+    }
+
+    /**
+     * Get the position limit beyond which this {@link ExclusivePublication} will be back pressured.
+     *
+     * This should only be used as a guide to determine when back pressure is likely to be applied.
+     *
+     * @return the position limit beyond which this {@link ExclusivePublication} will be back pressured.
+     */
+    public long positionLimit() {
+        if (isClosed) {
+            return Publication.CLOSED;
+        }
+
+        return positionLimit.getVolatile();
+    }
+
+    /**
+     * Non-blocking publish of a buffer containing a message.
+     *
+     * @param buffer containing message.
+     * @return The new stream position, otherwise {@link Publication#NOT_CONNECTED}, {@link Publication#BACK_PRESSURED},
+     * {@link Publication#ADMIN_ACTION} or {@link Publication#CLOSED}.
+     */
+    public long offer(final DirectBuffer buffer) {
+        return offer(buffer, 0, buffer.capacity());
+    }
+
+    /**
+     * Non-blocking publish of a partial buffer containing a message.
+     *
+     * @param buffer containing message.
+     * @param offset offset in the buffer at which the encoded message begins.
+     * @param length in bytes of the encoded message.
+     * @return The new stream position, otherwise {@link Publication#NOT_CONNECTED}, {@link Publication#BACK_PRESSURED},
+     * {@link Publication#ADMIN_ACTION} or {@link Publication#CLOSED}.
+     */
+    public long offer(final DirectBuffer buffer, final int offset, final int length) {
+        long newPosition = Publication.CLOSED;
+        if (!isClosed) {
+            final long limit = positionLimit.getVolatile();
+            final long position = termBeginPosition + termOffset;
+
+            if (position < limit) {
+                final ExclusiveTermAppender termAppender = termAppenders[activePartitionIndex];
+                final int result;
+                if (length <= maxPayloadLength) {
+                    result = termAppender.appendUnfragmentedMessage(termId, termOffset, headerWriter, buffer, offset, length);
+                } else {
+                    checkForMaxMessageLength(length);
+                    result = termAppender.appendFragmentedMessage(
+                            termId, termOffset, headerWriter, buffer, offset, length, maxPayloadLength);
+                }
+
+                newPosition = newPosition(result);
+            } else if (0 == limit) {
+                newPosition = Publication.NOT_CONNECTED;
+            } else {
+                newPosition = Publication.BACK_PRESSURED;
+            }
+        }
+
+        return newPosition;
+    }
+
+    /**
+     * Try to claim a range in the publication log into which a message can be written with zero copy semantics.
+     * Once the message has been written then {@link BufferClaim#commit()} should be called thus making it available.
+     *
+     * <b>Note:</b> This method can only be used for message lengths less than MTU length minus header.
+     *
+     * @param length      of the range to claim, in bytes..
+     * @param bufferClaim to be populated if the claim succeeds.
+     * @return The new stream position, otherwise {@link Publication#NOT_CONNECTED}, {@link Publication#BACK_PRESSURED},
+     * {@link Publication#ADMIN_ACTION} or {@link Publication#CLOSED}.
+     * @throws IllegalArgumentException if the length is greater than max payload length within an MTU.
+     * @see Publication#tryClaim(int, BufferClaim)
+     */
+    public long tryClaim(final int length, final BufferClaim bufferClaim) {
+        long newPosition = Publication.CLOSED;
+        if (!isClosed) {
+            checkForMaxPayloadLength(length);
+
+            final long limit = positionLimit.getVolatile();
+            final long position = termBeginPosition + termOffset;
+
+            if (position < limit) {
+                final int result = termAppenders[activePartitionIndex].claim(
+                        termId, termOffset, headerWriter, length, bufferClaim);
+                newPosition = newPosition(result);
+            } else if (0 == limit) {
+                newPosition = Publication.NOT_CONNECTED;
+            } else {
+                newPosition = Publication.BACK_PRESSURED;
+            }
+        }
+
+        return newPosition;
+    }
+
+    /**
+     * Return the registration id used to register this ExclusivePublication with the media driver.
+     *
+     * @return registration id
+     */
+    public long registrationId() {
+        return registrationId;
+    }
+
+    private long newPosition(final int resultingOffset) {
+        long newPosition = Publication.ADMIN_ACTION;
+        if (resultingOffset > 0) {
+            termOffset = resultingOffset;
+            newPosition = termBeginPosition + resultingOffset;
+        } else {
+            final int nextIndex = nextPartitionIndex(activePartitionIndex);
+            final int nextNextIndex = nextPartitionIndex(nextIndex);
+
+            termId++;
+            termOffset = 0;
+            termBeginPosition += termBufferLength;
+
+            termAppenders[nextIndex].tailTermId(termId);
+            termAppenders[nextNextIndex].statusOrdered(NEEDS_CLEANING);
+            LogBufferDescriptor.activePartitionIndex(logMetaDataBuffer, nextIndex);
+            activePartitionIndex = nextIndex;
+        }
+
+        return newPosition;
+    }
+
+    private void checkForMaxPayloadLength(final int length) {
+        if (length > maxPayloadLength) {
+            throw new IllegalArgumentException(String.format(
+                    "Claim exceeds maxPayloadLength of %d, length=%d", maxPayloadLength, length));
+        }
+    }
+
+    private void checkForMaxMessageLength(final int length) {
+        final int maxMessageLength = maxMessageLength();
+        if (length > maxMessageLength) {
+            throw new IllegalArgumentException(String.format(
+                    "Encoded message exceeds maxMessageLength of %d, length=%d", maxMessageLength, length));
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+
+import java.util.Arrays;
+
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static uk.co.real_logic.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static uk.co.real_logic.agrona.BitUtil.align;
+
+/**
+ * A view over a whole message which has been reassembled from fragments by an {@link InPlaceFragmentAssembler}.
+ *
+ * When the fragments are laid out one after another in the same term buffer the view references them in place and
+ * the payload is the sequence of slices in {@link #buffer()} between {@link #fragmentOffset(int)} and
+ * {@link #fragmentOffset(int)} + {@link #fragmentLength(int)}. Otherwise the fragments have been copied to a
+ * single contiguous slice. The payload can also be read as a contiguous window of {@link #length()} bytes via the
+ * get methods which skip over the inner fragment headers.
+ *
+ * The view is only valid for the duration of the callback in which it is delivered. Data which needs to be kept must
+ * be copied out.
+ */
+public class FragmentedMessage {
+    private static final int INITIAL_FRAGMENT_CAPACITY = 8;
+
+    private final int initialBufferLength;
+    private DirectBuffer buffer;
+    private BufferBuilder builder;
+    private int[] offsets = new int[INITIAL_FRAGMENT_CAPACITY];
+    private int[] lengths = new int[INITIAL_FRAGMENT_CAPACITY];
+    private int fragmentCount = 0;
+    private int length = 0;
+    private boolean isCopied = false;
+
+    FragmentedMessage(final int initialBufferLength) {
+        this.initialBufferLength = initialBufferLength;
+    }
+
+    /**
+     * The buffer containing the fragments of the message.
+     *
+     * @return the buffer containing the fragments of the message.
+     */
+    public DirectBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * The length of the message payload across all fragments.
+     *
+     * @return length of the message payload across all fragments.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * The number of slices the payload is split into in {@link #buffer()}.
+     *
+     * @return number of slices the payload is split into in {@link #buffer()}.
+     */
+    public int fragmentCount() {
+        return fragmentCount;
+    }
+
+    /**
+     * The offset in the buffer at which the payload of a fragment begins.
+     *
+     * @param index of the fragment.
+     * @return offset in the buffer at which the payload of the fragment begins.
+     */
+    public int fragmentOffset(final int index) {
+        return offsets[index];
+    }
+
+    /**
+     * The length of the payload of a fragment.
+     *
+     * @param index of the fragment.
+     * @return length of the payload of the fragment.
+     */
+    public int fragmentLength(final int index) {
+        return lengths[index];
+    }
+
+    /**
+     * Is the message referenced in place in the term buffer or has it been copied to be reassembled.
+     *
+     * @return true if the message is referenced in place in the term buffer otherwise false.
+     */
+    public boolean isInPlace() {
+        return !isCopied;
+    }
+
+    /**
+     * Get bytes from the message payload as if it were contiguous, skipping over the fragment headers.
+     *
+     * @param index     in the message payload from which the bytes are got.
+     * @param dstBuffer into which the bytes are copied.
+     * @param dstIndex  in the destination buffer at which the bytes are copied.
+     * @param length    of the bytes to get.
+     */
+    public void getBytes(final int index, final MutableDirectBuffer dstBuffer, final int dstIndex, final int length) {
+        int fragmentIndex = 0;
+        int fragmentStart = 0;
+        int position = index;
+        int remaining = length;
+        while (remaining > 0) {
+            while (position >= fragmentStart + lengths[fragmentIndex]) {
+                fragmentStart += lengths[fragmentIndex++];
+            }
+
+            final int offsetInFragment = position - fragmentStart;
+            final int bytes = Math.min(remaining, lengths[fragmentIndex] - offsetInFragment);
+            buffer.getBytes(offsets[fragmentIndex] + offsetInFragment, dstBuffer, dstIndex + (position - index), bytes);
+
+            position += bytes;
+            remaining -= bytes;
+        }
+    }
+
+    /**
+     * Get bytes from the message payload as if it were contiguous, skipping over the fragment headers.
+     *
+     * @param index    in the message payload from which the bytes are got.
+     * @param dst      into which the bytes are copied.
+     * @param dstIndex in the destination array at which the bytes are copied.
+     * @param length   of the bytes to get.
+     */
+    public void getBytes(final int index, final byte[] dst, final int dstIndex, final int length) {
+        int fragmentIndex = 0;
+        int fragmentStart = 0;
+        int position = index;
+        int remaining = length;
+        while (remaining > 0) {
+            while (position >= fragmentStart + lengths[fragmentIndex]) {
+                fragmentStart += lengths[fragmentIndex++];
+            }
+
+            final int offsetInFragment = position - fragmentStart;
+            final int bytes = Math.min(remaining, lengths[fragmentIndex] - offsetInFragment);
+            buffer.getBytes(offsets[fragmentIndex] + offsetInFragment, dst, dstIndex + (position - index), bytes);
+
+            position += bytes;
+            remaining -= bytes;
+        }
+    }
+
+    FragmentedMessage reset(final DirectBuffer buffer) {
+        this.buffer = buffer;
+        fragmentCount = 0;
+        length = 0;
+        isCopied = false;
+
+        return this;
+    }
+
+    boolean isEmpty() {
+        return 0 == fragmentCount;
+    }
+
+    boolean isContiguousWith(final DirectBuffer buffer, final int offset) {
+        final int lastIndex = fragmentCount - 1;
+
+        return !isCopied &&
+                buffer == this.buffer &&
+                offset == offsets[lastIndex] + align(lengths[lastIndex] + HEADER_LENGTH, FRAME_ALIGNMENT);
+    }
+
+    void append(final int offset, final int length) {
+        if (fragmentCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, fragmentCount * 2);
+            lengths = Arrays.copyOf(lengths, fragmentCount * 2);
+        }
+
+        offsets[fragmentCount] = offset;
+        lengths[fragmentCount] = length;
+        fragmentCount++;
+        this.length += length;
+    }
+
+    void appendCopy(final DirectBuffer srcBuffer, final int srcOffset, final int length) {
+        if (null == builder) {
+            builder = new BufferBuilder(initialBufferLength);
+        }
+
+        if (!isCopied) {
+            builder.reset();
+            for (int i = 0; i < fragmentCount; i++) {
+                builder.append(buffer, offsets[i], lengths[i]);
+            }
+
+            isCopied = true;
+        }
+
+        builder.append(srcBuffer, srcOffset, length);
+
+        buffer = builder.buffer();
+        offsets[0] = 0;
+        lengths[0] = builder.limit();
+        fragmentCount = 1;
+        this.length = builder.limit();
+    }
+}
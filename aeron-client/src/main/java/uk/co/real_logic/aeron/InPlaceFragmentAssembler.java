@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron;
+
+import uk.co.real_logic.aeron.logbuffer.FragmentHandler;
+import uk.co.real_logic.aeron.logbuffer.Header;
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.collections.Int2ObjectHashMap;
+
+import java.util.function.IntFunction;
+
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.*;
+
+/**
+ * A {@link FragmentHandler} that sits in a chain-of-responsibility pattern that reassembles fragmented messages
+ * so that the next handler in the chain only sees whole messages, avoiding a copy where possible.
+ *
+ * Fragments of a message from a publication are laid out one after another in the same term buffer. When this is
+ * detected the whole message is delegated as a {@link FragmentedMessage} view over the fragments in the term without
+ * copy. Should a fragment not follow on from the previous one, e.g. it is in a different buffer, then the fragments
+ * are copied to a session based buffer for reassembly as with a {@link FragmentAssembler}.
+ *
+ * The view is only valid for the duration of the callback so a handler which needs to keep the data must copy it.
+ * When sessions go inactive see {@link UnavailableImageHandler}, it is possible to free the session state by calling
+ * {@link #freeSessionBuffer(int)}.
+ */
+public class InPlaceFragmentAssembler implements FragmentHandler {
+    private final FragmentedMessageHandler delegate;
+    private final AssemblyHeader assemblyHeader = new AssemblyHeader();
+    private final FragmentedMessage unfragmentedMessage;
+    private final Int2ObjectHashMap<FragmentedMessage> messageBySessionIdMap = new Int2ObjectHashMap<>();
+    private final IntFunction<FragmentedMessage> messageFunc;
+
+    /**
+     * Construct an adapter to reassemble message fragments and delegate on only whole messages.
+     *
+     * @param delegate onto which whole messages are forwarded.
+     */
+    public InPlaceFragmentAssembler(final FragmentedMessageHandler delegate) {
+        this(delegate, BufferBuilder.INITIAL_CAPACITY);
+    }
+
+    /**
+     * Construct an adapter to reassemble message fragments and delegate on only whole messages.
+     *
+     * @param delegate            onto which whole messages are forwarded.
+     * @param initialBufferLength to be used for each session should fragments need to be copied for reassembly.
+     */
+    public InPlaceFragmentAssembler(final FragmentedMessageHandler delegate, final int initialBufferLength) {
+        this.delegate = delegate;
+        unfragmentedMessage = new FragmentedMessage(initialBufferLength);
+        messageFunc = (ignore) -> new FragmentedMessage(initialBufferLength);
+    }
+
+    /**
+     * The implementation of {@link FragmentHandler} that reassembles and forwards whole messages.
+     *
+     * @param buffer containing the data.
+     * @param offset at which the data begins.
+     * @param length of the data in bytes.
+     * @param header representing the meta data for the data.
+     */
+    public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header) {
+        final byte flags = header.flags();
+
+        if ((flags & UNFRAGMENTED) == UNFRAGMENTED) {
+            unfragmentedMessage.reset(buffer).append(offset, length);
+            delegate.onMessage(unfragmentedMessage, header);
+        } else {
+            if ((flags & BEGIN_FRAG_FLAG) == BEGIN_FRAG_FLAG) {
+                final FragmentedMessage message = messageBySessionIdMap.computeIfAbsent(header.sessionId(), messageFunc);
+                message.reset(buffer).append(offset, length);
+            } else {
+                final FragmentedMessage message = messageBySessionIdMap.get(header.sessionId());
+                if (null != message && !message.isEmpty()) {
+                    if (message.isContiguousWith(buffer, offset)) {
+                        message.append(offset, length);
+                    } else {
+                        message.appendCopy(buffer, offset, length);
+                    }
+
+                    if ((flags & END_FRAG_FLAG) == END_FRAG_FLAG) {
+                        delegate.onMessage(message, assemblyHeader.reset(header, message.length()));
+                        message.reset(null);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Free the state for an existing session to reduce memory pressure when an image goes inactive.
+     *
+     * @param sessionId to have its state freed
+     * @return true if the state has been freed otherwise false.
+     */
+    public boolean freeSessionBuffer(final int sessionId) {
+        return null != messageBySessionIdMap.remove(sessionId);
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron;
+
+import uk.co.real_logic.aeron.logbuffer.FragmentHandler;
+import uk.co.real_logic.aeron.logbuffer.Header;
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.collections.Int2ObjectHashMap;
+import uk.co.real_logic.agrona.concurrent.NanoClock;
+import uk.co.real_logic.agrona.concurrent.SystemNanoClock;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.*;
+
+/**
+ * A {@link FragmentHandler} that sits in a chain-of-responsibility pattern that reassembles fragmented messages
+ * so that the next handler in the chain only sees whole messages.
+ *
+ * Unfragmented messages are delegated without copy. Fragmented messages are copied to an off-heap buffer taken from
+ * a pool for reassembly before delegation, and the buffer is returned to the pool once the message is complete so
+ * memory is not held for sessions which are idle.
+ *
+ * The total memory allocated for reassembly is capped. Incomplete messages which receive no fragments for longer
+ * than the stale timeout are evicted. When a buffer cannot be acquired within the cap, even after stale messages
+ * have been evicted, the message being assembled is dropped.
+ *
+ * <b>Note:</b> This class is NOT threadsafe.
+ */
+public class PooledFragmentAssembler implements FragmentHandler, AutoCloseable {
+    /**
+     * Default cap on the total length of off-heap buffers allocated for reassembly.
+     */
+    public static final long DEFAULT_MAX_ASSEMBLY_LENGTH = 64 * 1024 * 1024;
+
+    /**
+     * Default time after which an incomplete message with no new fragments is evicted.
+     */
+    public static final long DEFAULT_STALE_TIMEOUT_NS = TimeUnit.SECONDS.toNanos(10);
+
+    private final FragmentHandler delegate;
+    private final AssemblyHeader assemblyHeader = new AssemblyHeader();
+    private final NanoClock nanoClock;
+    private final long staleTimeoutNs;
+    private final AssemblyBufferPool bufferPool;
+    private final Int2ObjectHashMap<SessionAssembly> assemblyBySessionIdMap = new Int2ObjectHashMap<>();
+    private final ArrayDeque<SessionAssembly> freeAssemblies = new ArrayDeque<>();
+    private final ArrayList<SessionAssembly> staleAssemblies = new ArrayList<>();
+    private long nextStaleCheckNs;
+    private long bytesInFlight = 0;
+    private long evictionCount = 0;
+    private long dropCount = 0;
+
+    /**
+     * Construct an adapter to reassemble message fragments and delegate on only whole messages.
+     *
+     * @param delegate onto which whole messages are forwarded.
+     */
+    public PooledFragmentAssembler(final FragmentHandler delegate) {
+        this(delegate, DEFAULT_MAX_ASSEMBLY_LENGTH, DEFAULT_STALE_TIMEOUT_NS, new SystemNanoClock());
+    }
+
+    /**
+     * Construct an adapter to reassemble message fragments and delegate on only whole messages.
+     *
+     * @param delegate          onto which whole messages are forwarded.
+     * @param maxAssemblyLength cap on the total length of off-heap buffers allocated for reassembly.
+     * @param staleTimeoutNs    after which an incomplete message with no new fragments is evicted.
+     * @param nanoClock         for measuring the time since a fragment was last received for a message.
+     */
+    public PooledFragmentAssembler(
+            final FragmentHandler delegate,
+            final long maxAssemblyLength,
+            final long staleTimeoutNs,
+            final NanoClock nanoClock) {
+        this.delegate = delegate;
+        this.staleTimeoutNs = staleTimeoutNs;
+        this.nanoClock = nanoClock;
+        bufferPool = new AssemblyBufferPool(maxAssemblyLength);
+        nextStaleCheckNs = nanoClock.nanoTime() + staleTimeoutNs;
+    }
+
+    /**
+     * The implementation of {@link FragmentHandler} that reassembles and forwards whole messages.
+     *
+     * @param buffer containing the data.
+     * @param offset at which the data begins.
+     * @param length of the data in bytes.
+     * @param header representing the meta data for the data.
+     */
+    public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header) {
+        final byte flags = header.flags();
+
+        if ((flags & UNFRAGMENTED) == UNFRAGMENTED) {
+            delegate.onFragment(buffer, offset, length, header);
+        } else {
+            final long nowNs = nanoClock.nanoTime();
+            if (nowNs >= nextStaleCheckNs) {
+                evictStaleMessages(nowNs);
+            }
+
+            final int sessionId = header.sessionId();
+            SessionAssembly assembly = assemblyBySessionIdMap.get(sessionId);
+
+            if ((flags & BEGIN_FRAG_FLAG) == BEGIN_FRAG_FLAG) {
+                if (null != assembly) {
+                    releaseAssembly(sessionId, assembly);
+                }
+
+                assembly = beginAssembly(sessionId, nowNs);
+            }
+
+            if (null != assembly) {
+                if (assembly.ensureCapacity(length, nowNs)) {
+                    assembly.append(buffer, offset, length);
+                    bytesInFlight += length;
+
+                    if ((flags & END_FRAG_FLAG) == END_FRAG_FLAG) {
+                        final int msgLength = assembly.limit;
+                        delegate.onFragment(assembly.buffer, 0, msgLength, assemblyHeader.reset(header, msgLength));
+                        releaseAssembly(sessionId, assembly);
+                    }
+                } else {
+                    releaseAssembly(sessionId, assembly);
+                    dropCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Evict incomplete messages which have not received a fragment within the stale timeout.
+     *
+     * @param nowNs current time in nanoseconds.
+     * @return the number of messages evicted.
+     */
+    public int evictStaleMessages(final long nowNs) {
+        for (final SessionAssembly assembly : assemblyBySessionIdMap.values()) {
+            if (nowNs - assembly.lastFragmentNs > staleTimeoutNs) {
+                staleAssemblies.add(assembly);
+            }
+        }
+
+        final int evicted = staleAssemblies.size();
+        for (int i = 0; i < evicted; i++) {
+            final SessionAssembly assembly = staleAssemblies.get(i);
+            releaseAssembly(assembly.sessionId, assembly);
+        }
+
+        staleAssemblies.clear();
+        evictionCount += evicted;
+        nextStaleCheckNs = nowNs + staleTimeoutNs;
+
+        return evicted;
+    }
+
+    /**
+     * Free the buffer for any incomplete message from a session, e.g. when an image goes inactive,
+     * see {@link UnavailableImageHandler}.
+     *
+     * @param sessionId to have its buffer freed
+     * @return true if a buffer has been freed otherwise false.
+     */
+    public boolean freeSessionBuffer(final int sessionId) {
+        final SessionAssembly assembly = assemblyBySessionIdMap.get(sessionId);
+        if (null != assembly) {
+            releaseAssembly(sessionId, assembly);
+        }
+
+        return null != assembly;
+    }
+
+    /**
+     * Number of bytes of fragments held for messages which are not yet complete.
+     *
+     * @return number of bytes of fragments held for messages which are not yet complete.
+     */
+    public long bytesInFlight() {
+        return bytesInFlight;
+    }
+
+    /**
+     * Total length of the off-heap buffers allocated for reassembly, whether in use or pooled.
+     *
+     * @return total length of the off-heap buffers allocated for reassembly.
+     */
+    public long allocatedLength() {
+        return bufferPool.allocatedLength();
+    }
+
+    /**
+     * Number of incomplete messages evicted for being stale.
+     *
+     * @return number of incomplete messages evicted for being stale.
+     */
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Number of messages dropped because a buffer could not be acquired within the cap on assembly memory.
+     *
+     * @return number of messages dropped because a buffer could not be acquired.
+     */
+    public long dropCount() {
+        return dropCount;
+    }
+
+    /**
+     * Discard any incomplete messages and free the off-heap buffers.
+     */
+    public void close() {
+        for (final SessionAssembly assembly : assemblyBySessionIdMap.values()) {
+            staleAssemblies.add(assembly);
+        }
+
+        for (final SessionAssembly assembly : staleAssemblies) {
+            releaseAssembly(assembly.sessionId, assembly);
+        }
+
+        staleAssemblies.clear();
+        bufferPool.close();
+    }
+
+    private SessionAssembly beginAssembly(final int sessionId, final long nowNs) {
+        SessionAssembly assembly = freeAssemblies.pollFirst();
+        if (null == assembly) {
+            assembly = new SessionAssembly();
+        }
+
+        assembly.sessionId = sessionId;
+        assembly.lastFragmentNs = nowNs;
+        assembly.limit = 0;
+        assembly.buffer = null;
+        assemblyBySessionIdMap.put(sessionId, assembly);
+
+        return assembly;
+    }
+
+    private void releaseAssembly(final int sessionId, final SessionAssembly assembly) {
+        assemblyBySessionIdMap.remove(sessionId);
+        bytesInFlight -= assembly.limit;
+
+        if (null != assembly.buffer) {
+            bufferPool.release(assembly.buffer);
+            assembly.buffer = null;
+        }
+
+        assembly.limit = 0;
+        freeAssemblies.addFirst(assembly);
+    }
+
+    private UnsafeBuffer acquireBuffer(final int minLength, final long nowNs) {
+        UnsafeBuffer buffer = bufferPool.acquire(minLength);
+        if (null == buffer && evictStaleMessages(nowNs) > 0) {
+            buffer = bufferPool.acquire(minLength);
+        }
+
+        return buffer;
+    }
+
+    private final class SessionAssembly {
+        int sessionId;
+        int limit;
+        long lastFragmentNs;
+        UnsafeBuffer buffer;
+
+        boolean ensureCapacity(final int length, final long nowNs) {
+            lastFragmentNs = nowNs;
+
+            final int requiredCapacity = limit + length;
+            boolean hasCapacity = null != buffer && requiredCapacity <= buffer.capacity();
+
+            if (!hasCapacity && requiredCapacity >= 0) {
+                final UnsafeBuffer newBuffer = acquireBuffer(requiredCapacity, nowNs);
+                if (null != newBuffer) {
+                    if (null != buffer) {
+                        newBuffer.putBytes(0, buffer, 0, limit);
+                        bufferPool.release(buffer);
+                    }
+
+                    buffer = newBuffer;
+                    hasCapacity = true;
+                }
+            }
+
+            return hasCapacity;
+        }
+
+        void append(final DirectBuffer srcBuffer, final int srcOffset, final int length) {
+            buffer.putBytes(limit, srcBuffer, srcOffset, length);
+            limit += length;
+        }
+    }
+}
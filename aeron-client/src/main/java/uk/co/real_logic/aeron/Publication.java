@@ -20,8 +20,10 @@ import uk.co.real_logic.agrona.DirectBuffer;
 import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.agrona.concurrent.status.ReadablePosition;
 
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
 import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.*;
 import static uk.co.real_logic.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static uk.co.real_logic.agrona.BitUtil.align;
 
 /**
  * Aeron Publisher API for sending messages to subscribers of a given channel and streamId pair. Publishers
@@ -270,6 +272,110 @@ public class Publication implements AutoCloseable {
         return newPosition;
     }
 
+    /**
+     * Non-blocking publish of a message gathered from a sequence of buffer segments, e.g. a protocol header followed
+     * by a body held in a separate buffer. The segments are copied directly into the log without first being staged
+     * in a single buffer.
+     *
+     * @param vectors containing the segments of the message in order.
+     * @return The new stream position, otherwise a negative error value {@link #NOT_CONNECTED}, {@link #BACK_PRESSURED},
+     * {@link #ADMIN_ACTION} or {@link #CLOSED}.
+     * @throws IllegalArgumentException if a vector has a negative length or the total length of the message is greater
+     * than {@link #maxMessageLength()}.
+     */
+    public long offer(final DirectBufferVector[] vectors) {
+        final int length = DirectBufferVector.validateAndComputeLength(vectors);
+        long newPosition = CLOSED;
+        if (!isClosed) {
+            final long limit = positionLimit.getVolatile();
+            final int partitionIndex = activePartitionIndex(logMetaDataBuffer);
+            final TermAppender termAppender = termAppenders[partitionIndex];
+            final long rawTail = termAppender.rawTailVolatile();
+            final long termOffset = rawTail & 0xFFFF_FFFFL;
+            final long position = computeTermBeginPosition(termId(rawTail), positionBitsToShift, initialTermId) + termOffset;
+
+            if (position < limit) {
+                final long result;
+                if (length <= maxPayloadLength) {
+                    result = termAppender.appendUnfragmentedMessage(headerWriter, vectors, length);
+                } else {
+                    checkForMaxMessageLength(length);
+                    result = termAppender.appendFragmentedMessage(headerWriter, vectors, length, maxPayloadLength);
+                }
+
+                newPosition = newPosition(partitionIndex, (int) termOffset, position, result);
+            } else if (0 == limit) {
+                newPosition = NOT_CONNECTED;
+            } else {
+                newPosition = BACK_PRESSURED;
+            }
+        }
+
+        return newPosition;
+    }
+
+    /**
+     * Non-blocking publish of a batch of messages with the space in the log for them reserved in a single operation.
+     *
+     * Messages are appended in order from {@link MessageBatch#index()} and consumed from the batch as they are
+     * appended. The same checks against the position limit are made as if each message were offered in turn so the
+     * batch may only be partially appended when back pressure is reached. If the batch crosses the end of a term then
+     * the messages which fit are appended and the term is rotated. The batch should be offered again until
+     * {@link MessageBatch#isComplete()}.
+     *
+     * <pre>{@code
+     *     while (!batch.isComplete())
+     *     {
+     *         if (publication.offerBatch(batch) < 0L)
+     *         {
+     *             // handle back pressure or retry on admin action
+     *         }
+     *     }
+     * }</pre>
+     *
+     * @param batch of messages each of which is no longer than MTU length minus header.
+     * @return The new stream position after the messages appended, otherwise {@link #NOT_CONNECTED},
+     * {@link #BACK_PRESSURED}, {@link #ADMIN_ACTION} or {@link #CLOSED} in which case no messages were appended.
+     * @throws IllegalArgumentException if the length of a message is greater than max payload length within an MTU.
+     */
+    public long offerBatch(final MessageBatch batch) {
+        long newPosition = CLOSED;
+        if (!isClosed) {
+            final long limit = positionLimit.getVolatile();
+            final int partitionIndex = activePartitionIndex(logMetaDataBuffer);
+            final TermAppender termAppender = termAppenders[partitionIndex];
+            final long rawTail = termAppender.rawTailVolatile();
+            final long termOffset = rawTail & 0xFFFF_FFFFL;
+            final long position = computeTermBeginPosition(termId(rawTail), positionBitsToShift, initialTermId) + termOffset;
+
+            if (batch.isComplete()) {
+                newPosition = position;
+            } else if (position < limit) {
+                int count = 0;
+                int requiredLength = 0;
+                for (int i = batch.index(), size = batch.size(); i < size && (position + requiredLength) < limit; i++) {
+                    final int length = batch.length(i);
+                    checkForMaxPayloadLength(length);
+                    requiredLength += align(length + HEADER_LENGTH, FRAME_ALIGNMENT);
+                    count++;
+                }
+
+                final long result = termAppender.appendBatch(headerWriter, batch, count, requiredLength);
+                if (TermAppender.termOffset(result) == logBuffers.termLength()) {
+                    rotateTerm(partitionIndex, TermAppender.termId(result));
+                }
+
+                newPosition = newPosition(partitionIndex, (int) termOffset, position, result);
+            } else if (0 == limit) {
+                newPosition = NOT_CONNECTED;
+            } else {
+                newPosition = BACK_PRESSURED;
+            }
+        }
+
+        return newPosition;
+    }
+
     /**
      * Try to claim a range in the publication log into which a message can be written with zero copy semantics.
      * Once the message has been written then {@link BufferClaim#commit()} should be called thus making it available.
@@ -328,6 +434,94 @@ public class Publication implements AutoCloseable {
         return newPosition;
     }
 
+    /**
+     * Try to claim a range in the publication log into which a message, which may be longer than the max payload
+     * length, can be written with zero copy semantics. The range is split into fragments with the headers already
+     * written so the payload can be written either fragment by fragment or as a contiguous window. Once the message
+     * has been written then {@link FragmentedBufferClaim#commit()} should be called thus making all the fragments
+     * available to subscribers in one step.
+     *
+     * <b>Note:</b> This method can only be used for message lengths up to {@link #maxMessageLength()}.
+     *
+     * <pre>{@code
+     *     final FragmentedBufferClaim bufferClaim = new FragmentedBufferClaim(); // Can be stored and reused
+     *
+     *     if (publication.tryClaim(messageLength, bufferClaim) > 0L)
+     *     {
+     *         try
+     *         {
+     *              bufferClaim.putBytes(0, headerBuffer, 0, headerLength);
+     *              bufferClaim.putBytes(headerLength, bodyBuffer, 0, bodyLength);
+     *         }
+     *         finally
+     *         {
+     *             bufferClaim.commit();
+     *         }
+     *     }
+     * }</pre>
+     *
+     * @param length      of the message to claim, in bytes.
+     * @param bufferClaim to be populated if the claim succeeds.
+     * @return The new stream position, otherwise {@link #NOT_CONNECTED}, {@link #BACK_PRESSURED},
+     * {@link #ADMIN_ACTION} or {@link #CLOSED}.
+     * @throws IllegalArgumentException if the length is greater than {@link #maxMessageLength()}.
+     * @see FragmentedBufferClaim#commit()
+     * @see FragmentedBufferClaim#abort()
+     */
+    public long tryClaim(final int length, final FragmentedBufferClaim bufferClaim) {
+        long newPosition = CLOSED;
+        if (!isClosed) {
+            checkForMaxMessageLength(length);
+
+            final long limit = positionLimit.getVolatile();
+            final int partitionIndex = activePartitionIndex(logMetaDataBuffer);
+            final TermAppender termAppender = termAppenders[partitionIndex];
+            final long rawTail = termAppender.rawTailVolatile();
+            final long termOffset = rawTail & 0xFFFF_FFFFL;
+            final long position = computeTermBeginPosition(termId(rawTail), positionBitsToShift, initialTermId) + termOffset;
+
+            if (position < limit) {
+                final long result = termAppender.claim(headerWriter, length, maxPayloadLength, bufferClaim);
+                newPosition = newPosition(partitionIndex, (int) termOffset, position, result);
+            } else if (0 == limit) {
+                newPosition = NOT_CONNECTED;
+            } else {
+                newPosition = BACK_PRESSURED;
+            }
+        }
+
+        return newPosition;
+    }
+
+    /**
+     * Add a destination to which this Publication will send when its channel is in manual control mode,
+     * e.g. "aeron:udp?control=host:port|control-mode=manual".
+     *
+     * @param destinationChannel identifying the destination, e.g. "aeron:udp?remote=host:port".
+     * @throws IllegalStateException if the publication is closed.
+     */
+    public void addDestination(final String destinationChannel) {
+        if (isClosed) {
+            throw new IllegalStateException("Publication is closed");
+        }
+
+        clientConductor.addDestination(this, destinationChannel);
+    }
+
+    /**
+     * Remove a previously added destination from this Publication when its channel is in manual control mode.
+     *
+     * @param destinationChannel identifying the destination, e.g. "aeron:udp?remote=host:port".
+     * @throws IllegalStateException if the publication is closed.
+     */
+    public void removeDestination(final String destinationChannel) {
+        if (isClosed) {
+            throw new IllegalStateException("Publication is closed");
+        }
+
+        clientConductor.removeDestination(this, destinationChannel);
+    }
+
     /**
      * Return the registration id used to register this Publication with the media driver.
      *
@@ -352,17 +546,21 @@ public class Publication implements AutoCloseable {
         if (termOffset > 0) {
             newPosition = (position - currentTail) + termOffset;
         } else if (termOffset == TermAppender.TRIPPED) {
-            final int nextIndex = nextPartitionIndex(index);
-            final int nextNextIndex = nextPartitionIndex(nextIndex);
-
-            termAppenders[nextIndex].tailTermId(TermAppender.termId(result) + 1);
-            termAppenders[nextNextIndex].statusOrdered(NEEDS_CLEANING);
-            LogBufferDescriptor.activePartitionIndex(logMetaDataBuffer, nextIndex);
+            rotateTerm(index, TermAppender.termId(result));
         }
 
         return newPosition;
     }
 
+    private void rotateTerm(final int index, final int termId) {
+        final int nextIndex = nextPartitionIndex(index);
+        final int nextNextIndex = nextPartitionIndex(nextIndex);
+
+        termAppenders[nextIndex].tailTermId(termId + 1);
+        termAppenders[nextNextIndex].statusOrdered(NEEDS_CLEANING);
+        LogBufferDescriptor.activePartitionIndex(logMetaDataBuffer, nextIndex);
+    }
+
     private void checkForMaxPayloadLength(final int length) {
         if (length > maxPayloadLength) {
             throw new IllegalArgumentException(String.format(
@@ -30,6 +30,10 @@ public class ControlProtocolEvents {
      * Remove Publication
      */
     public static final int REMOVE_PUBLICATION = 0x02;
+    /**
+     * Add Exclusive Publication
+     */
+    public static final int ADD_EXCLUSIVE_PUBLICATION = 0x03;
     /**
      * Add Subscriber
      */
@@ -42,6 +46,14 @@ public class ControlProtocolEvents {
      * Keepalive from Client
      */
     public static final int CLIENT_KEEPALIVE = 0x06;
+    /**
+     * Add Destination to a Publication
+     */
+    public static final int ADD_DESTINATION = 0x07;
+    /**
+     * Remove Destination from a Publication
+     */
+    public static final int REMOVE_DESTINATION = 0x08;
 
     // Media Driver to Clients
 
@@ -65,4 +77,8 @@ public class ControlProtocolEvents {
      * Inform client of timeout and removal of inactive image
      */
     public static final int ON_UNAVAILABLE_IMAGE = 0x0F05;
+    /**
+     * New exclusive publication Buffer Notification
+     */
+    public static final int ON_EXCLUSIVE_PUBLICATION_READY = 0x0F06;
 }
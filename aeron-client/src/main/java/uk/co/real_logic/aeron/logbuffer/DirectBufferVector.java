@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.logbuffer;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+
+/**
+ * A range of a {@link DirectBuffer} which is one segment of a message gathered from multiple buffers, e.g. a protocol
+ * header held separately from the body it precedes.
+ *
+ * Vectors can be reset and reused to avoid allocation.
+ */
+public class DirectBufferVector {
+    private DirectBuffer buffer;
+    private int offset;
+    private int length;
+
+    public DirectBufferVector() {
+    }
+
+    public DirectBufferVector(final DirectBuffer buffer, final int offset, final int length) {
+        reset(buffer, offset, length);
+    }
+
+    /**
+     * Reset the vector to reference a new range.
+     *
+     * @param buffer containing the segment.
+     * @param offset in the buffer at which the segment begins.
+     * @param length in bytes of the segment.
+     * @return this for a fluent API.
+     */
+    public DirectBufferVector reset(final DirectBuffer buffer, final int offset, final int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+
+        return this;
+    }
+
+    public DirectBuffer buffer() {
+        return buffer;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Validate the vectors and compute the total length of the message they make up.
+     *
+     * @param vectors making up the message.
+     * @return the total length of the message in bytes.
+     * @throws IllegalArgumentException if a segment has a negative length or the total overflows.
+     */
+    public static int validateAndComputeLength(final DirectBufferVector[] vectors) {
+        int messageLength = 0;
+        for (final DirectBufferVector vector : vectors) {
+            if (vector.length < 0) {
+                throw new IllegalArgumentException("length=" + vector.length + " < 0");
+            }
+
+            messageLength += vector.length;
+            if (messageLength < 0) {
+                throw new IllegalArgumentException("length overflow with vector length=" + vector.length);
+            }
+        }
+
+        return messageLength;
+    }
+}
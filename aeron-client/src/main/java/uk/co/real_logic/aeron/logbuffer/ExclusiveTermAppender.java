@@ -0,0 +1,252 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.logbuffer;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.END_FRAG_FLAG;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.PADDING_FRAME_TYPE;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.frameFlags;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.frameLengthOrdered;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.frameType;
+import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.TERM_STATUS_OFFSET;
+import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.TERM_TAIL_COUNTER_OFFSET;
+import static uk.co.real_logic.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static uk.co.real_logic.agrona.BitUtil.align;
+
+/**
+ * Term buffer appender for a single producer writing an append-only log.
+ *
+ * <b>Note:</b> This class is NOT threadsafe.
+ *
+ * The producer tracks the term id and offset of the tail itself and passes them in on each append. The tail counter
+ * in the meta data is then published with an ordered store rather than advanced with an atomic increment as done by
+ * the {@link TermAppender}, and a term can only be tripped once so there is no failed append to handle.
+ *
+ * Messages are appended to a term using the same framing protocol, as described in {@link FrameDescriptor}, as the
+ * {@link TermAppender} so the log can be consumed in the same way.
+ */
+public class ExclusiveTermAppender {
+    /**
+     * The append operation tripped the end of the buffer and needs to rotate.
+     */
+    public static final int TRIPPED = TermAppender.TRIPPED;
+
+    private final UnsafeBuffer termBuffer;
+    private final UnsafeBuffer metaDataBuffer;
+
+    /**
+     * Construct a view over a term buffer and state buffer for appending frames.
+     *
+     * @param termBuffer     for where messages are stored.
+     * @param metaDataBuffer for where the state of the writer is stored.
+     */
+    public ExclusiveTermAppender(final UnsafeBuffer termBuffer, final UnsafeBuffer metaDataBuffer) {
+        this.termBuffer = termBuffer;
+        this.metaDataBuffer = metaDataBuffer;
+    }
+
+    /**
+     * Get the raw value current tail value in a volatile memory ordering fashion.
+     *
+     * @return the current tail value.
+     */
+    public long rawTailVolatile() {
+        return metaDataBuffer.getLongVolatile(TERM_TAIL_COUNTER_OFFSET);
+    }
+
+    /**
+     * Set the value for the tail counter.
+     *
+     * @param termId for the tail counter
+     */
+    public void tailTermId(final int termId) {
+        metaDataBuffer.putLong(TERM_TAIL_COUNTER_OFFSET, ((long) termId) << 32);
+    }
+
+    /**
+     * Set the status of the log buffer with StoreStore memory ordering semantics.
+     *
+     * @param status to be set for the log buffer.
+     */
+    public void statusOrdered(final int status) {
+        metaDataBuffer.putIntOrdered(TERM_STATUS_OFFSET, status);
+    }
+
+    /**
+     * Claim length of a the term buffer for writing in the message with zero copy semantics.
+     *
+     * @param termId      for the current term.
+     * @param termOffset  in the term at which to claim.
+     * @param header      for writing the default header.
+     * @param length      of the message to be written.
+     * @param bufferClaim to be updated with the claimed region.
+     * @return the resulting offset of the term after the append on success otherwise {@link #TRIPPED} if a padding
+     * record was inserted at the end.
+     */
+    public int claim(
+            final int termId,
+            final int termOffset,
+            final HeaderWriter header,
+            final int length,
+            final BufferClaim bufferClaim) {
+        final int frameLength = length + HEADER_LENGTH;
+        final int alignedLength = align(frameLength, FRAME_ALIGNMENT);
+
+        final UnsafeBuffer termBuffer = this.termBuffer;
+        final int termLength = termBuffer.capacity();
+
+        int resultingOffset = termOffset + alignedLength;
+        if (resultingOffset > (termLength - HEADER_LENGTH)) {
+            resultingOffset = handleEndOfLogCondition(termBuffer, termOffset, header, termLength, termId);
+        } else {
+            putRawTailOrdered(termId, resultingOffset);
+            header.write(termBuffer, termOffset, frameLength, termId);
+            bufferClaim.wrap(termBuffer, termOffset, frameLength);
+        }
+
+        return resultingOffset;
+    }
+
+    /**
+     * Append an unfragmented message to the the term buffer.
+     *
+     * @param termId     for the current term.
+     * @param termOffset in the term at which to append.
+     * @param header     for writing the default header.
+     * @param srcBuffer  containing the message.
+     * @param srcOffset  at which the message begins.
+     * @param length     of the message in the source buffer.
+     * @return the resulting offset of the term after the append on success otherwise {@link #TRIPPED} if a padding
+     * record was inserted at the end.
+     */
+    public int appendUnfragmentedMessage(
+            final int termId,
+            final int termOffset,
+            final HeaderWriter header,
+            final DirectBuffer srcBuffer,
+            final int srcOffset,
+            final int length) {
+        final int frameLength = length + HEADER_LENGTH;
+        final int alignedLength = align(frameLength, FRAME_ALIGNMENT);
+
+        final UnsafeBuffer termBuffer = this.termBuffer;
+        final int termLength = termBuffer.capacity();
+
+        int resultingOffset = termOffset + alignedLength;
+        if (resultingOffset > (termLength - HEADER_LENGTH)) {
+            resultingOffset = handleEndOfLogCondition(termBuffer, termOffset, header, termLength, termId);
+        } else {
+            putRawTailOrdered(termId, resultingOffset);
+            header.write(termBuffer, termOffset, frameLength, termId);
+            termBuffer.putBytes(termOffset + HEADER_LENGTH, srcBuffer, srcOffset, length);
+            frameLengthOrdered(termBuffer, termOffset, frameLength);
+        }
+
+        return resultingOffset;
+    }
+
+    /**
+     * Append a fragmented message to the the term buffer.
+     * The message will be split up into fragments of MTU length minus header.
+     *
+     * @param termId           for the current term.
+     * @param termOffset       in the term at which to append.
+     * @param header           for writing the default header.
+     * @param srcBuffer        containing the message.
+     * @param srcOffset        at which the message begins.
+     * @param length           of the message in the source buffer.
+     * @param maxPayloadLength that the message will be fragmented into.
+     * @return the resulting offset of the term after the append on success otherwise {@link #TRIPPED} if a padding
+     * record was inserted at the end.
+     */
+    public int appendFragmentedMessage(
+            final int termId,
+            final int termOffset,
+            final HeaderWriter header,
+            final DirectBuffer srcBuffer,
+            final int srcOffset,
+            final int length,
+            final int maxPayloadLength) {
+        final int numMaxPayloads = length / maxPayloadLength;
+        final int remainingPayload = length % maxPayloadLength;
+        final int lastFrameLength = remainingPayload > 0 ? align(remainingPayload + HEADER_LENGTH, FRAME_ALIGNMENT) : 0;
+        final int requiredLength = (numMaxPayloads * (maxPayloadLength + HEADER_LENGTH)) + lastFrameLength;
+
+        final UnsafeBuffer termBuffer = this.termBuffer;
+        final int termLength = termBuffer.capacity();
+
+        int resultingOffset = termOffset + requiredLength;
+        if (resultingOffset > (termLength - HEADER_LENGTH)) {
+            resultingOffset = handleEndOfLogCondition(termBuffer, termOffset, header, termLength, termId);
+        } else {
+            putRawTailOrdered(termId, resultingOffset);
+
+            int offset = termOffset;
+            byte flags = BEGIN_FRAG_FLAG;
+            int remaining = length;
+            do {
+                final int bytesToWrite = Math.min(remaining, maxPayloadLength);
+                final int frameLength = bytesToWrite + HEADER_LENGTH;
+                final int alignedLength = align(frameLength, FRAME_ALIGNMENT);
+
+                header.write(termBuffer, offset, frameLength, termId);
+                termBuffer.putBytes(
+                        offset + HEADER_LENGTH,
+                        srcBuffer,
+                        srcOffset + (length - remaining),
+                        bytesToWrite);
+
+                if (remaining <= maxPayloadLength) {
+                    flags |= END_FRAG_FLAG;
+                }
+
+                frameFlags(termBuffer, offset, flags);
+                frameLengthOrdered(termBuffer, offset, frameLength);
+
+                flags = 0;
+                offset += alignedLength;
+                remaining -= bytesToWrite;
+            }
+            while (remaining > 0);
+        }
+
+        return resultingOffset;
+    }
+
+    private int handleEndOfLogCondition(
+            final UnsafeBuffer termBuffer,
+            final int termOffset,
+            final HeaderWriter header,
+            final int termLength,
+            final int termId) {
+        final int paddingLength = termLength - termOffset;
+
+        putRawTailOrdered(termId, termLength);
+        header.write(termBuffer, termOffset, paddingLength, termId);
+        frameType(termBuffer, termOffset, PADDING_FRAME_TYPE);
+        frameLengthOrdered(termBuffer, termOffset, paddingLength);
+
+        return TRIPPED;
+    }
+
+    private void putRawTailOrdered(final int termId, final int termOffset) {
+        metaDataBuffer.putLongOrdered(TERM_TAIL_COUNTER_OFFSET, TermAppender.pack(termId, termOffset));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.logbuffer;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.concurrent.AtomicBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteOrder;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static uk.co.real_logic.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static uk.co.real_logic.aeron.protocol.HeaderFlyweight.FRAME_LENGTH_FIELD_OFFSET;
+import static uk.co.real_logic.aeron.protocol.HeaderFlyweight.HDR_TYPE_PAD;
+import static uk.co.real_logic.aeron.protocol.HeaderFlyweight.TYPE_FIELD_OFFSET;
+
+/**
+ * Represents a claimed range in a buffer for recording a message, which may be longer than the max payload length,
+ * without copy semantics for later commit. The range is split into fragments with their headers already in place.
+ *
+ * The payload can be accessed as a sequence of slices, one per fragment, in {@link #buffer()} between
+ * {@link #fragmentOffset(int)} and {@link #fragmentOffset(int)} + {@link #fragmentLength(int)}, or as a single
+ * contiguous window of {@link #length()} bytes via the put methods which skip over the inner fragment headers.
+ *
+ * When filled with message data use {@link #commit()} to make all the fragments available to subscribers at once.
+ * If the claimed space is no longer required it can be aborted by calling {@link #abort()}.
+ */
+public class FragmentedBufferClaim {
+    private final UnsafeBuffer buffer = new UnsafeBuffer(0, 0);
+    private int length;
+    private int maxPayloadLength;
+    private int fragmentCount;
+
+    /**
+     * Wrap a region of an underlying log buffer so can can represent a claimed space for use by a publisher.
+     *
+     * @param buffer           to be wrapped.
+     * @param offset           at which the claimed region begins including space for the first header.
+     * @param regionLength     of the underlying claimed region including space for all the headers.
+     * @param length           of the message payload.
+     * @param maxPayloadLength of each fragment of the message.
+     */
+    public void wrap(
+            final AtomicBuffer buffer,
+            final int offset,
+            final int regionLength,
+            final int length,
+            final int maxPayloadLength) {
+        this.buffer.wrap(buffer, offset, regionLength);
+        this.length = length;
+        this.maxPayloadLength = maxPayloadLength;
+        this.fragmentCount = Math.max(1, (length + maxPayloadLength - 1) / maxPayloadLength);
+    }
+
+    /**
+     * The referenced buffer to be used.
+     *
+     * @return the referenced buffer to be used.
+     */
+    public MutableDirectBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * The length of the claimed message payload across all fragments.
+     *
+     * @return length of the claimed message payload across all fragments.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * The number of fragments the message has been split into.
+     *
+     * @return number of fragments the message has been split into.
+     */
+    public int fragmentCount() {
+        return fragmentCount;
+    }
+
+    /**
+     * The offset in the buffer at which the payload for a fragment begins.
+     *
+     * @param index of the fragment.
+     * @return offset in the buffer at which the payload for the fragment begins.
+     */
+    public int fragmentOffset(final int index) {
+        return (index * (maxPayloadLength + HEADER_LENGTH)) + HEADER_LENGTH;
+    }
+
+    /**
+     * The length of the payload for a fragment.
+     *
+     * @param index of the fragment.
+     * @return length of the payload for the fragment.
+     */
+    public int fragmentLength(final int index) {
+        return index < (fragmentCount - 1) ? maxPayloadLength : length - (index * maxPayloadLength);
+    }
+
+    /**
+     * Put bytes into the claimed message payload as if it were contiguous, skipping over the fragment headers.
+     *
+     * @param index     in the message payload at which the bytes are put.
+     * @param srcBuffer containing the bytes.
+     * @param srcIndex  in the source buffer at which the bytes begin.
+     * @param length    of the bytes to put.
+     */
+    public void putBytes(final int index, final DirectBuffer srcBuffer, final int srcIndex, final int length) {
+        int position = index;
+        int remaining = length;
+        while (remaining > 0) {
+            final int offsetInFragment = position % maxPayloadLength;
+            final int bytes = Math.min(remaining, maxPayloadLength - offsetInFragment);
+            buffer.putBytes(
+                    fragmentOffset(position / maxPayloadLength) + offsetInFragment,
+                    srcBuffer,
+                    srcIndex + (position - index),
+                    bytes);
+
+            position += bytes;
+            remaining -= bytes;
+        }
+    }
+
+    /**
+     * Put bytes into the claimed message payload as if it were contiguous, skipping over the fragment headers.
+     *
+     * @param index    in the message payload at which the bytes are put.
+     * @param src      containing the bytes.
+     * @param srcIndex in the source array at which the bytes begin.
+     * @param length   of the bytes to put.
+     */
+    public void putBytes(final int index, final byte[] src, final int srcIndex, final int length) {
+        int position = index;
+        int remaining = length;
+        while (remaining > 0) {
+            final int offsetInFragment = position % maxPayloadLength;
+            final int bytes = Math.min(remaining, maxPayloadLength - offsetInFragment);
+            buffer.putBytes(
+                    fragmentOffset(position / maxPayloadLength) + offsetInFragment,
+                    src,
+                    srcIndex + (position - index),
+                    bytes);
+
+            position += bytes;
+            remaining -= bytes;
+        }
+    }
+
+    /**
+     * Commit the message to the log buffer so that is it available to subscribers.
+     *
+     * Frame lengths are set from the last fragment to the first so subscribers, which stop at the first fragment
+     * without a length, see either none or all of the message.
+     */
+    public void commit() {
+        for (int i = fragmentCount - 1; i >= 0; i--) {
+            final int frameOffset = fragmentOffset(i) - HEADER_LENGTH;
+            putFrameLengthOrdered(frameOffset, fragmentLength(i) + HEADER_LENGTH);
+        }
+    }
+
+    /**
+     * Abort a claim of the message space to the log buffer so that log can progress ignoring this claim.
+     *
+     * The whole claimed region is turned into a single padding frame.
+     */
+    public void abort() {
+        buffer.putShort(TYPE_FIELD_OFFSET, (short) HDR_TYPE_PAD, LITTLE_ENDIAN);
+        putFrameLengthOrdered(0, buffer.capacity());
+    }
+
+    private void putFrameLengthOrdered(final int frameOffset, final int frameLength) {
+        int value = frameLength;
+        if (ByteOrder.nativeOrder() != LITTLE_ENDIAN) {
+            value = Integer.reverseBytes(value);
+        }
+
+        buffer.putIntOrdered(frameOffset + FRAME_LENGTH_FIELD_OFFSET, value);
+    }
+}
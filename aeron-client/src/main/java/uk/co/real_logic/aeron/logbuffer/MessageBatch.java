@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.logbuffer;
+
+import uk.co.real_logic.agrona.DirectBuffer;
+
+import java.util.Arrays;
+
+/**
+ * A batch of messages, each a range of a {@link DirectBuffer}, to be offered to a publication in one operation.
+ *
+ * Messages are consumed from the batch in order as they are appended to the log. {@link #index()} is the index of
+ * the next message to be appended so an offer which only appends part of the batch can be continued by offering
+ * the same batch again until {@link #isComplete()}.
+ *
+ * The batch holds references to the buffers added and can be reused after a {@link #reset()}.
+ *
+ * <b>Note:</b> This class is NOT threadsafe.
+ */
+public class MessageBatch {
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    private DirectBuffer[] buffers;
+    private int[] offsets;
+    private int[] lengths;
+    private int size = 0;
+    private int index = 0;
+
+    public MessageBatch() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public MessageBatch(final int initialCapacity) {
+        buffers = new DirectBuffer[initialCapacity];
+        offsets = new int[initialCapacity];
+        lengths = new int[initialCapacity];
+    }
+
+    /**
+     * Add a message contained in a whole buffer to the end of the batch.
+     *
+     * @param buffer containing the message.
+     * @return this for a fluent API.
+     */
+    public MessageBatch add(final DirectBuffer buffer) {
+        return add(buffer, 0, buffer.capacity());
+    }
+
+    /**
+     * Add a message contained in a range of a buffer to the end of the batch.
+     *
+     * @param buffer containing the message.
+     * @param offset in the buffer at which the message begins.
+     * @param length in bytes of the message.
+     * @return this for a fluent API.
+     */
+    public MessageBatch add(final DirectBuffer buffer, final int offset, final int length) {
+        if (size == buffers.length) {
+            final int newCapacity = Math.max(1, size * 2);
+            buffers = Arrays.copyOf(buffers, newCapacity);
+            offsets = Arrays.copyOf(offsets, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+        }
+
+        buffers[size] = buffer;
+        offsets[size] = offset;
+        lengths[size] = length;
+        size++;
+
+        return this;
+    }
+
+    /**
+     * Number of messages added to the batch.
+     *
+     * @return number of messages added to the batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Index of the next message in the batch to be appended to the log.
+     *
+     * @return index of the next message in the batch to be appended to the log.
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * Number of messages which have yet to be appended to the log.
+     *
+     * @return number of messages which have yet to be appended to the log.
+     */
+    public int remaining() {
+        return size - index;
+    }
+
+    /**
+     * Have all the messages in the batch been appended to the log?
+     *
+     * @return true if all the messages in the batch have been appended to the log otherwise false.
+     */
+    public boolean isComplete() {
+        return index >= size;
+    }
+
+    /**
+     * Remove all messages from the batch so it can be reused.
+     */
+    public void reset() {
+        Arrays.fill(buffers, 0, size, null);
+        size = 0;
+        index = 0;
+    }
+
+    /**
+     * Buffer containing the message at an index in the batch.
+     *
+     * @param i index of the message.
+     * @return buffer containing the message.
+     */
+    public DirectBuffer buffer(final int i) {
+        return buffers[i];
+    }
+
+    /**
+     * Offset in the buffer at which the message at an index in the batch begins.
+     *
+     * @param i index of the message.
+     * @return offset in the buffer at which the message begins.
+     */
+    public int offset(final int i) {
+        return offsets[i];
+    }
+
+    /**
+     * Length of the message at an index in the batch.
+     *
+     * @param i index of the message.
+     * @return length of the message in bytes.
+     */
+    public int length(final int i) {
+        return lengths[i];
+    }
+
+    /**
+     * Mark messages as having been appended to the log.
+     *
+     * @param count of messages appended.
+     */
+    void advance(final int count) {
+        index += count;
+    }
+}
@@ -143,6 +143,62 @@ public class TermAppender {
         return resultingOffset;
     }
 
+    /**
+     * Claim length of a the term buffer for writing in a message, which may be longer than the max payload length,
+     * with zero copy semantics. The headers for all the fragments, including the fragment flags, are written before
+     * returning but the frames are not visible to subscribers until committed.
+     *
+     * @param header           for writing the default header.
+     * @param length           of the message to be written.
+     * @param maxPayloadLength that the message will be fragmented into.
+     * @param bufferClaim      to be updated with the claimed region.
+     * @return the resulting offset of the term after the append on success otherwise {@link #TRIPPED} or {@link #FAILED}
+     * packed with the termId if a padding record was inserted at the end.
+     */
+    public long claim(
+            final HeaderWriter header,
+            final int length,
+            final int maxPayloadLength,
+            final FragmentedBufferClaim bufferClaim) {
+        final int requiredLength = length > 0 ? computeFragmentedFrameLength(length, maxPayloadLength) : HEADER_LENGTH;
+        final long rawTail = getAndAddRawTail(requiredLength);
+        final int termId = termId(rawTail);
+        final long termOffset = rawTail & 0xFFFF_FFFFL;
+
+        final UnsafeBuffer termBuffer = this.termBuffer;
+        final int termLength = termBuffer.capacity();
+
+        long resultingOffset = termOffset + requiredLength;
+        if (resultingOffset > (termLength - HEADER_LENGTH)) {
+            resultingOffset = handleEndOfLogCondition(termBuffer, termOffset, header, termLength, termId);
+        } else {
+            int offset = (int) termOffset;
+            byte flags = BEGIN_FRAG_FLAG;
+            int remaining = length;
+            do {
+                final int bytesToWrite = Math.min(remaining, maxPayloadLength);
+                final int frameLength = bytesToWrite + HEADER_LENGTH;
+
+                header.write(termBuffer, offset, frameLength, termId);
+
+                if (remaining <= maxPayloadLength) {
+                    flags |= END_FRAG_FLAG;
+                }
+
+                frameFlags(termBuffer, offset, flags);
+
+                flags = 0;
+                offset += align(frameLength, FRAME_ALIGNMENT);
+                remaining -= bytesToWrite;
+            }
+            while (remaining > 0);
+
+            bufferClaim.wrap(termBuffer, (int) termOffset, requiredLength, length, maxPayloadLength);
+        }
+
+        return resultingOffset;
+    }
+
     /**
      * Append an unfragmented message to the the term buffer.
      *
@@ -194,10 +250,7 @@ public class TermAppender {
             final int srcOffset,
             final int length,
             final int maxPayloadLength) {
-        final int numMaxPayloads = length / maxPayloadLength;
-        final int remainingPayload = length % maxPayloadLength;
-        final int lastFrameLength = remainingPayload > 0 ? align(remainingPayload + HEADER_LENGTH, FRAME_ALIGNMENT) : 0;
-        final int requiredLength = (numMaxPayloads * (maxPayloadLength + HEADER_LENGTH)) + lastFrameLength;
+        final int requiredLength = computeFragmentedFrameLength(length, maxPayloadLength);
         final long rawTail = getAndAddRawTail(requiredLength);
         final int termId = termId(rawTail);
         final long termOffset = rawTail & 0xFFFF_FFFFL;
@@ -241,6 +294,163 @@ public class TermAppender {
         return resultingOffset;
     }
 
+    /**
+     * Append an unfragmented message gathered from a sequence of buffer segments to the term buffer. The segments are
+     * copied directly into the term in order to avoid staging them in a single buffer first.
+     *
+     * @param header  for writing the default header.
+     * @param vectors containing the segments of the message in order.
+     * @param length  of the message which is the sum of the lengths of the vectors.
+     * @return the resulting offset of the term after the append on success otherwise {@link #TRIPPED} or {@link #FAILED}
+     * packed with the termId if a padding record was inserted at the end.
+     */
+    public long appendUnfragmentedMessage(final HeaderWriter header, final DirectBufferVector[] vectors, final int length) {
+        final int frameLength = length + HEADER_LENGTH;
+        final int alignedLength = align(frameLength, FRAME_ALIGNMENT);
+        final long rawTail = getAndAddRawTail(alignedLength);
+        final long termOffset = rawTail & 0xFFFF_FFFFL;
+
+        final UnsafeBuffer termBuffer = this.termBuffer;
+        final int termLength = termBuffer.capacity();
+
+        long resultingOffset = termOffset + alignedLength;
+        if (resultingOffset > (termLength - HEADER_LENGTH)) {
+            resultingOffset = handleEndOfLogCondition(termBuffer, termOffset, header, termLength, termId(rawTail));
+        } else {
+            final int offset = (int) termOffset;
+            header.write(termBuffer, offset, frameLength, termId(rawTail));
+
+            int payloadOffset = offset + HEADER_LENGTH;
+            for (final DirectBufferVector vector : vectors) {
+                termBuffer.putBytes(payloadOffset, vector.buffer(), vector.offset(), vector.length());
+                payloadOffset += vector.length();
+            }
+
+            frameLengthOrdered(termBuffer, offset, frameLength);
+        }
+
+        return resultingOffset;
+    }
+
+    /**
+     * Append a fragmented message gathered from a sequence of buffer segments to the term buffer.
+     * The message will be split up into fragments of MTU length minus header and a fragment may span segments.
+     *
+     * @param header           for writing the default header.
+     * @param vectors          containing the segments of the message in order.
+     * @param length           of the message which is the sum of the lengths of the vectors.
+     * @param maxPayloadLength that the message will be fragmented into.
+     * @return the resulting offset of the term after the append on success otherwise {@link #TRIPPED} or {@link #FAILED}
+     * packed with the termId if a padding record was inserted at the end.
+     */
+    public long appendFragmentedMessage(
+            final HeaderWriter header, final DirectBufferVector[] vectors, final int length, final int maxPayloadLength) {
+        final int requiredLength = computeFragmentedFrameLength(length, maxPayloadLength);
+        final long rawTail = getAndAddRawTail(requiredLength);
+        final int termId = termId(rawTail);
+        final long termOffset = rawTail & 0xFFFF_FFFFL;
+
+        final UnsafeBuffer termBuffer = this.termBuffer;
+        final int termLength = termBuffer.capacity();
+
+        long resultingOffset = termOffset + requiredLength;
+        if (resultingOffset > (termLength - HEADER_LENGTH)) {
+            resultingOffset = handleEndOfLogCondition(termBuffer, termOffset, header, termLength, termId);
+        } else {
+            int offset = (int) termOffset;
+            byte flags = BEGIN_FRAG_FLAG;
+            int remaining = length;
+            int vectorIndex = 0;
+            int vectorOffset = 0;
+            do {
+                final int bytesToWrite = Math.min(remaining, maxPayloadLength);
+                final int frameLength = bytesToWrite + HEADER_LENGTH;
+                final int alignedLength = align(frameLength, FRAME_ALIGNMENT);
+
+                header.write(termBuffer, offset, frameLength, termId);
+
+                int bytesWritten = 0;
+                while (bytesWritten < bytesToWrite) {
+                    final DirectBufferVector vector = vectors[vectorIndex];
+                    final int bytes = Math.min(bytesToWrite - bytesWritten, vector.length() - vectorOffset);
+                    termBuffer.putBytes(
+                            offset + HEADER_LENGTH + bytesWritten,
+                            vector.buffer(),
+                            vector.offset() + vectorOffset,
+                            bytes);
+
+                    bytesWritten += bytes;
+                    vectorOffset += bytes;
+                    if (vectorOffset >= vector.length()) {
+                        vectorIndex++;
+                        vectorOffset = 0;
+                    }
+                }
+
+                if (remaining <= maxPayloadLength) {
+                    flags |= END_FRAG_FLAG;
+                }
+
+                frameFlags(termBuffer, offset, flags);
+                frameLengthOrdered(termBuffer, offset, frameLength);
+
+                flags = 0;
+                offset += alignedLength;
+                remaining -= bytesToWrite;
+            }
+            while (remaining > 0);
+        }
+
+        return resultingOffset;
+    }
+
+    /**
+     * Append a batch of unfragmented messages to the term buffer by reserving the space for all of them with a single
+     * tail increment. Messages are taken from the {@link MessageBatch#index()} onwards and consumed from the batch as
+     * they are appended.
+     *
+     * If the reserved range crosses the end of the term then the messages which fit before the end are appended, the
+     * remainder of the term is padded, and the rest of the batch is left to be appended to the next term.
+     *
+     * @param header         for writing the default header.
+     * @param batch          of messages each of which is no longer than the max payload length.
+     * @param count          of messages to be appended from the batch.
+     * @param requiredLength of the term for the frames of the messages, i.e. the sum of their aligned frame lengths.
+     * @return the resulting offset of the term after the append on success. If the batch crossed the end of the term
+     * then the term length is returned when some messages were appended before the padding otherwise {@link #TRIPPED}.
+     * {@link #FAILED} is returned when the term has already been tripped. The termId is packed into the result
+     * in these cases.
+     */
+    public long appendBatch(final HeaderWriter header, final MessageBatch batch, final int count, final int requiredLength) {
+        final long rawTail = getAndAddRawTail(requiredLength);
+        final int termId = termId(rawTail);
+        final long termOffset = rawTail & 0xFFFF_FFFFL;
+
+        final UnsafeBuffer termBuffer = this.termBuffer;
+        final int termLength = termBuffer.capacity();
+
+        long resultingOffset = termOffset + requiredLength;
+        if (resultingOffset > (termLength - HEADER_LENGTH)) {
+            resultingOffset = FAILED;
+
+            if (termOffset <= (termLength - HEADER_LENGTH)) {
+                final int offset = appendBatchFrames(
+                        termBuffer, (int) termOffset, termLength - HEADER_LENGTH, header, batch, count, termId);
+                final int paddingLength = termLength - offset;
+                header.write(termBuffer, offset, paddingLength, termId);
+                frameType(termBuffer, offset, PADDING_FRAME_TYPE);
+                frameLengthOrdered(termBuffer, offset, paddingLength);
+
+                resultingOffset = offset > termOffset ? termLength : TRIPPED;
+            }
+
+            resultingOffset = pack(termId, (int) resultingOffset);
+        } else {
+            appendBatchFrames(termBuffer, (int) termOffset, (int) resultingOffset, header, batch, count, termId);
+        }
+
+        return resultingOffset;
+    }
 
     /**
      * Pack the values for termOffset and termId into a long for returning on the stack.
@@ -273,6 +483,14 @@ public class TermAppender {
         return (int) (result >>> 32);
     }
 
+    private static int computeFragmentedFrameLength(final int length, final int maxPayloadLength) {
+        final int numMaxPayloads = length / maxPayloadLength;
+        final int remainingPayload = length % maxPayloadLength;
+        final int lastFrameLength = remainingPayload > 0 ? align(remainingPayload + HEADER_LENGTH, FRAME_ALIGNMENT) : 0;
+
+        return (numMaxPayloads * (maxPayloadLength + HEADER_LENGTH)) + lastFrameLength;
+    }
+
     private long handleEndOfLogCondition(
             final UnsafeBuffer termBuffer,
             final long termOffset,
@@ -294,6 +512,38 @@ public class TermAppender {
         return pack(termId, resultingOffset);
     }
 
+    private static int appendBatchFrames(
+            final UnsafeBuffer termBuffer,
+            final int termOffset,
+            final int limit,
+            final HeaderWriter header,
+            final MessageBatch batch,
+            final int count,
+            final int termId) {
+        int offset = termOffset;
+        int appended = 0;
+
+        for (int i = batch.index(), end = i + count; i < end; i++) {
+            final int length = batch.length(i);
+            final int frameLength = length + HEADER_LENGTH;
+            final int alignedLength = align(frameLength, FRAME_ALIGNMENT);
+            if (offset + alignedLength > limit) {
+                break;
+            }
+
+            header.write(termBuffer, offset, frameLength, termId);
+            termBuffer.putBytes(offset + HEADER_LENGTH, batch.buffer(i), batch.offset(i), length);
+            frameLengthOrdered(termBuffer, offset, frameLength);
+
+            offset += alignedLength;
+            appended++;
+        }
+
+        batch.advance(appended);
+
+        return offset;
+    }
+
     private long getAndAddRawTail(final int alignedLength) {
         return metaDataBuffer.getAndAddLong(TERM_TAIL_COUNTER_OFFSET, alignedLength);
     }
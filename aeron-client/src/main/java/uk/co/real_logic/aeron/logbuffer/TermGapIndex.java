@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.logbuffer;
+
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.frameLengthVolatile;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.termOffsetOffset;
+import static uk.co.real_logic.aeron.logbuffer.TermGapScanner.GapHandler;
+import static uk.co.real_logic.aeron.logbuffer.TermGapScanner.scanToGap;
+import static uk.co.real_logic.aeron.logbuffer.TermGapScanner.scanToGapEnd;
+
+/**
+ * Incremental index of the gaps in a replicated term buffer between the completed rebuild and the high-water-mark.
+ *
+ * Frames which have been verified as received are not scanned again. Each scan only re-examines the known gaps, for
+ * frames which have since filled them, and the range received beyond the previous scan. The cost of a scan is therefore
+ * proportional to the missing and newly received data rather than the length of the receiver window.
+ *
+ * A range is only accepted as received when it is walked frame by frame from a frame which has been committed with a
+ * length and a matching term offset, so a frame partially copied into a gap is treated as missing until it is complete.
+ *
+ * <b>Note:</b> This class is not threadsafe and should be used by a single thread for a single image.
+ */
+public class TermGapIndex {
+    private final int capacity;
+    private int[] gapBegins;
+    private int[] gapEnds;
+    private int[] scratchBegins;
+    private int[] scratchEnds;
+
+    private int termId;
+    private int gapCount = 0;
+    private int scanLimit = 0;
+
+    /**
+     * Create an index which tracks up to a maximum number of gaps at a time.
+     *
+     * @param capacity for the number of gaps tracked, beyond which the remainder of the term is left unscanned.
+     */
+    public TermGapIndex(final int capacity) {
+        this.capacity = capacity;
+
+        gapBegins = new int[capacity];
+        gapEnds = new int[capacity];
+        scratchBegins = new int[capacity];
+        scratchEnds = new int[capacity];
+    }
+
+    /**
+     * The number of gaps currently known in the term.
+     *
+     * @return number of gaps currently known in the term.
+     */
+    public int gapCount() {
+        return gapCount;
+    }
+
+    /**
+     * Scan for changes since the previous scan from the rebuildOffset up to the high-water-mark. Each gap, up to the
+     * capacity of the index, will be reported to the {@link GapHandler} in order of offset.
+     *
+     * A change of term resets the index.
+     *
+     * @param termBuffer    to be scanned for gaps.
+     * @param termId        of the current term buffer.
+     * @param rebuildOffset at which the rebuild has completed.
+     * @param hwmOffset     at which to stop scanning.
+     * @param handler       to call for each gap found.
+     * @return offset of last contiguous frame
+     */
+    public int scan(
+            final UnsafeBuffer termBuffer,
+            final int termId,
+            final int rebuildOffset,
+            final int hwmOffset,
+            final GapHandler handler) {
+        if (termId != this.termId || rebuildOffset > scanLimit) {
+            this.termId = termId;
+            gapCount = 0;
+            scanLimit = rebuildOffset;
+        }
+
+        if (hwmOffset > scanLimit) {
+            final int lastIndex = gapCount - 1;
+            if (gapCount > 0 && gapEnds[lastIndex] == scanLimit) {
+                gapEnds[lastIndex] = hwmOffset;
+                scanLimit = hwmOffset;
+            } else if (gapCount < capacity) {
+                gapBegins[gapCount] = scanLimit;
+                gapEnds[gapCount] = hwmOffset;
+                gapCount++;
+                scanLimit = hwmOffset;
+            }
+        }
+
+        updateGaps(termBuffer, rebuildOffset);
+
+        for (int i = 0; i < gapCount; i++) {
+            handler.onGap(termId, termBuffer, gapBegins[i], gapEnds[i] - gapBegins[i]);
+        }
+
+        return gapCount > 0 ? gapBegins[0] : scanLimit;
+    }
+
+    private void updateGaps(final UnsafeBuffer termBuffer, final int rebuildOffset) {
+        final int[] newBegins = scratchBegins;
+        final int[] newEnds = scratchEnds;
+        int newCount = 0;
+
+        for (int i = 0; i < gapCount; i++) {
+            final int gapEnd = gapEnds[i];
+            int offset = Math.max(gapBegins[i], rebuildOffset);
+
+            while (offset < gapEnd) {
+                if (newCount == capacity) {
+                    scanLimit = offset;
+                    break;
+                }
+
+                final int gapBeginOffset = scanToGap(termBuffer, offset, gapEnd);
+                if (gapBeginOffset >= gapEnd) {
+                    if (gapEnd == scanLimit) {
+                        scanLimit = gapBeginOffset;
+                    }
+                    break;
+                }
+
+                int gapEndOffset = Math.min(scanToGapEnd(termBuffer, gapBeginOffset, gapEnd), gapEnd);
+                while (gapEndOffset < gapEnd && !isCommittedFrame(termBuffer, gapEndOffset)) {
+                    gapEndOffset = Math.min(scanToGapEnd(termBuffer, gapEndOffset, gapEnd), gapEnd);
+                }
+
+                newBegins[newCount] = gapBeginOffset;
+                newEnds[newCount] = gapEndOffset;
+                newCount++;
+                offset = gapEndOffset;
+            }
+
+            if (newCount == capacity && scanLimit < gapEnd) {
+                break;
+            }
+        }
+
+        scratchBegins = gapBegins;
+        scratchEnds = gapEnds;
+        gapBegins = newBegins;
+        gapEnds = newEnds;
+        gapCount = newCount;
+    }
+
+    private static boolean isCommittedFrame(final UnsafeBuffer termBuffer, final int termOffset) {
+        return frameLengthVolatile(termBuffer, termOffset) > 0 &&
+                termBuffer.getInt(termOffsetOffset(termOffset), LITTLE_ENDIAN) == termOffset;
+    }
+}
@@ -56,34 +56,48 @@ public class TermGapScanner {
      * @return offset of last contiguous frame
      */
     public static int scanForGap(
-            final UnsafeBuffer termBuffer, final int termId, int rebuildOffset, final int hwmOffset, final GapHandler handler) {
+            final UnsafeBuffer termBuffer,
+            final int termId,
+            final int rebuildOffset,
+            final int hwmOffset,
+            final GapHandler handler) {
+        final int gapBeginOffset = scanToGap(termBuffer, rebuildOffset, hwmOffset);
+        if (gapBeginOffset < hwmOffset) {
+            final int gapEndOffset = scanToGapEnd(termBuffer, gapBeginOffset, hwmOffset);
+            handler.onGap(termId, termBuffer, gapBeginOffset, gapEndOffset - gapBeginOffset);
+        }
+
+        return gapBeginOffset;
+    }
+
+    static int scanToGap(final UnsafeBuffer termBuffer, final int offset, final int hwmOffset) {
+        int scanOffset = offset;
         do {
-            final int frameLength = frameLengthVolatile(termBuffer, rebuildOffset);
+            final int frameLength = frameLengthVolatile(termBuffer, scanOffset);
             if (frameLength <= 0) {
                 break;
             }
 
-            rebuildOffset += align(frameLength, FRAME_ALIGNMENT);
+            scanOffset += align(frameLength, FRAME_ALIGNMENT);
         }
-        while (rebuildOffset < hwmOffset);
+        while (scanOffset < hwmOffset);
 
-        final int gapBeginOffset = rebuildOffset;
-        if (rebuildOffset < hwmOffset) {
-            final int limit = hwmOffset - HEADER_LENGTH;
+        return scanOffset;
+    }
 
-            while (rebuildOffset < limit) {
-                rebuildOffset += FRAME_ALIGNMENT;
+    static int scanToGapEnd(final UnsafeBuffer termBuffer, final int gapBeginOffset, final int hwmOffset) {
+        final int limit = hwmOffset - HEADER_LENGTH;
+        int scanOffset = gapBeginOffset;
 
-                if (0 != termBuffer.getIntVolatile(rebuildOffset)) {
-                    rebuildOffset -= HEADER_LENGTH;
-                    break;
-                }
-            }
+        while (scanOffset < limit) {
+            scanOffset += FRAME_ALIGNMENT;
 
-            final int gapLength = (rebuildOffset - gapBeginOffset) + HEADER_LENGTH;
-            handler.onGap(termId, termBuffer, gapBeginOffset, gapLength);
+            if (0 != termBuffer.getIntVolatile(scanOffset)) {
+                scanOffset -= HEADER_LENGTH;
+                break;
+            }
         }
 
-        return gapBeginOffset;
+        return scanOffset + HEADER_LENGTH;
     }
 }
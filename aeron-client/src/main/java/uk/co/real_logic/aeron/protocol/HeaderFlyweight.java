@@ -61,6 +61,10 @@ public class HeaderFlyweight extends UnsafeBuffer {
      * header type SETUP
      */
     public static final int HDR_TYPE_SETUP = 0x05;
+    /**
+     * header type RTTM
+     */
+    public static final int HDR_TYPE_RTTM = 0x06;
     /**
      * header type EXT
      */
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.protocol;
+
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+/**
+ * Flyweight for an RTT Measurement Packet
+ *
+ * A receiver sends a measurement with its own timestamp to the source, along with its current estimate of the round
+ * trip time, and the source replies with the {@link #REPLY_FLAG} set echoing the timestamp back. The receiver can then
+ * take a round trip time sample from the echoed timestamp less the delay the source took to reply.
+ */
+public class RttMeasurementFlyweight extends HeaderFlyweight {
+    /**
+     * Length of the RTT Measurement Packet
+     */
+    public static final int HEADER_LENGTH = 40;
+
+    /**
+     * Set in a reply from the source echoing a measurement from the receiver
+     */
+    public static final short REPLY_FLAG = 0x80;
+
+    private static final int SESSION_ID_FIELD_OFFSET = 8;
+    private static final int STREAM_ID_FIELD_OFFSET = 12;
+    private static final int ECHO_TIMESTAMP_FIELD_OFFSET = 16;
+    private static final int RECEPTION_DELTA_FIELD_OFFSET = 24;
+    private static final int RTT_FIELD_OFFSET = 32;
+
+    public RttMeasurementFlyweight() {
+    }
+
+    public RttMeasurementFlyweight(final ByteBuffer buffer) {
+        super(buffer);
+    }
+
+    public RttMeasurementFlyweight(final UnsafeBuffer buffer) {
+        super(buffer);
+    }
+
+    /**
+     * return session id field
+     *
+     * @return session id field
+     */
+    public int sessionId() {
+        return getInt(SESSION_ID_FIELD_OFFSET, LITTLE_ENDIAN);
+    }
+
+    /**
+     * set session id field
+     *
+     * @param sessionId field value
+     * @return flyweight
+     */
+    public RttMeasurementFlyweight sessionId(final int sessionId) {
+        putInt(SESSION_ID_FIELD_OFFSET, sessionId, LITTLE_ENDIAN);
+
+        return this;
+    }
+
+    /**
+     * return stream id field
+     *
+     * @return stream id field
+     */
+    public int streamId() {
+        return getInt(STREAM_ID_FIELD_OFFSET, LITTLE_ENDIAN);
+    }
+
+    /**
+     * set stream id field
+     *
+     * @param streamId field value
+     * @return flyweight
+     */
+    public RttMeasurementFlyweight streamId(final int streamId) {
+        putInt(STREAM_ID_FIELD_OFFSET, streamId, LITTLE_ENDIAN);
+
+        return this;
+    }
+
+    /**
+     * return echo timestamp field in nanoseconds of the receiver clock
+     *
+     * @return echo timestamp field
+     */
+    public long echoTimestamp() {
+        return getLong(ECHO_TIMESTAMP_FIELD_OFFSET, LITTLE_ENDIAN);
+    }
+
+    /**
+     * set echo timestamp field
+     *
+     * @param timestamp field value in nanoseconds of the receiver clock
+     * @return flyweight
+     */
+    public RttMeasurementFlyweight echoTimestamp(final long timestamp) {
+        putLong(ECHO_TIMESTAMP_FIELD_OFFSET, timestamp, LITTLE_ENDIAN);
+
+        return this;
+    }
+
+    /**
+     * return reception delta field in nanoseconds between the source receiving the measurement and replying
+     *
+     * @return reception delta field
+     */
+    public long receptionDelta() {
+        return getLong(RECEPTION_DELTA_FIELD_OFFSET, LITTLE_ENDIAN);
+    }
+
+    /**
+     * set reception delta field
+     *
+     * @param delta field value in nanoseconds
+     * @return flyweight
+     */
+    public RttMeasurementFlyweight receptionDelta(final long delta) {
+        putLong(RECEPTION_DELTA_FIELD_OFFSET, delta, LITTLE_ENDIAN);
+
+        return this;
+    }
+
+    /**
+     * return round trip time field in nanoseconds as currently estimated by the receiver
+     *
+     * @return round trip time field
+     */
+    public long rtt() {
+        return getLong(RTT_FIELD_OFFSET, LITTLE_ENDIAN);
+    }
+
+    /**
+     * set round trip time field
+     *
+     * @param rtt field value in nanoseconds
+     * @return flyweight
+     */
+    public RttMeasurementFlyweight rtt(final long rtt) {
+        putLong(RTT_FIELD_OFFSET, rtt, LITTLE_ENDIAN);
+
+        return this;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.aeron.logbuffer.BufferClaim;
+import uk.co.real_logic.aeron.logbuffer.TermAppender;
+import uk.co.real_logic.aeron.protocol.DataHeaderFlyweight;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.agrona.concurrent.status.ReadablePosition;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.PADDING_FRAME_TYPE;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.typeOffset;
+import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.*;
+import static uk.co.real_logic.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static uk.co.real_logic.agrona.BitUtil.align;
+
+public class ExclusivePublicationTest {
+    private static final String CHANNEL = "udp://localhost:40124";
+    private static final int STREAM_ID_1 = 2;
+    private static final int SESSION_ID_1 = 13;
+    private static final int TERM_ID_1 = 1;
+    private static final int CORRELATION_ID = 2000;
+    private static final int MTU_LENGTH = 4096;
+    private static final int MESSAGE_LENGTH = 1000;
+    private static final int ALIGNED_FRAME_LENGTH = align(MESSAGE_LENGTH + HEADER_LENGTH, FRAME_ALIGNMENT);
+
+    private final UnsafeBuffer sendBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(MESSAGE_LENGTH));
+    private final UnsafeBuffer logMetaDataBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(LOG_META_DATA_LENGTH));
+    private final UnsafeBuffer[] termBuffers = new UnsafeBuffer[PARTITION_COUNT];
+    private final UnsafeBuffer[] termMetaDataBuffers = new UnsafeBuffer[PARTITION_COUNT];
+    private final UnsafeBuffer[] buffers = new UnsafeBuffer[(PARTITION_COUNT * 2) + 1];
+
+    private final ClientConductor conductor = mock(ClientConductor.class);
+    private final LogBuffers logBuffers = mock(LogBuffers.class);
+    private final ReadablePosition publicationLimit = mock(ReadablePosition.class);
+    private ExclusivePublication publication;
+
+    @Before
+    public void setUp() {
+        when(publicationLimit.getVolatile()).thenReturn(Long.MAX_VALUE);
+        when(logBuffers.atomicBuffers()).thenReturn(buffers);
+        when(logBuffers.termLength()).thenReturn(TERM_MIN_LENGTH);
+
+        initialTermId(logMetaDataBuffer, TERM_ID_1);
+        mtuLength(logMetaDataBuffer, MTU_LENGTH);
+        storeDefaultFrameHeader(
+                logMetaDataBuffer, DataHeaderFlyweight.createDefaultHeader(SESSION_ID_1, STREAM_ID_1, TERM_ID_1));
+
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            termBuffers[i] = new UnsafeBuffer(ByteBuffer.allocateDirect(TERM_MIN_LENGTH));
+            termMetaDataBuffers[i] = new UnsafeBuffer(ByteBuffer.allocateDirect(TERM_META_DATA_LENGTH));
+
+            buffers[i] = termBuffers[i];
+            buffers[i + PARTITION_COUNT] = termMetaDataBuffers[i];
+        }
+        buffers[LOG_META_DATA_SECTION_INDEX] = logMetaDataBuffer;
+
+        initialiseTailWithTermId(termMetaDataBuffers[0], TERM_ID_1);
+
+        publication = new ExclusivePublication(
+                conductor,
+                CHANNEL,
+                STREAM_ID_1,
+                SESSION_ID_1,
+                publicationLimit,
+                logBuffers,
+                CORRELATION_ID);
+    }
+
+    @Test
+    public void shouldEnsureThePublicationIsOpenBeforeOfferAndClaim() {
+        publication.close();
+
+        assertTrue(publication.isClosed());
+        assertThat(publication.position(), is(Publication.CLOSED));
+        assertThat(publication.offer(sendBuffer), is(Publication.CLOSED));
+        assertThat(publication.tryClaim(MESSAGE_LENGTH, new BufferClaim()), is(Publication.CLOSED));
+    }
+
+    @Test
+    public void shouldReportInitialPosition() {
+        assertThat(publication.position(), is(0L));
+    }
+
+    @Test
+    public void shouldNotOfferWhenNotConnected() {
+        when(publicationLimit.getVolatile()).thenReturn(0L);
+
+        assertThat(publication.offer(sendBuffer), is(Publication.NOT_CONNECTED));
+    }
+
+    @Test
+    public void shouldPublishTailWithOrderedStoreOnOffer() {
+        assertThat(publication.offer(sendBuffer), is((long) ALIGNED_FRAME_LENGTH));
+        assertThat(publication.offer(sendBuffer), is((long) ALIGNED_FRAME_LENGTH * 2));
+
+        final long rawTail = termMetaDataBuffers[0].getLongVolatile(TERM_TAIL_COUNTER_OFFSET);
+        assertThat(rawTail, is(TermAppender.pack(TERM_ID_1, ALIGNED_FRAME_LENGTH * 2)));
+        assertThat(termBuffers[0].getInt(ALIGNED_FRAME_LENGTH), is(MESSAGE_LENGTH + HEADER_LENGTH));
+        assertThat(publication.position(), is((long) ALIGNED_FRAME_LENGTH * 2));
+    }
+
+    @Test
+    public void shouldRotateToNextTermWhenTripped() {
+        final int framesPerTerm = (TERM_MIN_LENGTH - HEADER_LENGTH) / ALIGNED_FRAME_LENGTH;
+        for (int i = 0; i < framesPerTerm; i++) {
+            assertThat(publication.offer(sendBuffer), is((long) ALIGNED_FRAME_LENGTH * (i + 1)));
+        }
+
+        final int paddingOffset = framesPerTerm * ALIGNED_FRAME_LENGTH;
+        assertThat(publication.offer(sendBuffer), is(Publication.ADMIN_ACTION));
+
+        assertThat(termBuffers[0].getShort(typeOffset(paddingOffset)), is((short) PADDING_FRAME_TYPE));
+        assertThat(termMetaDataBuffers[1].getLong(TERM_TAIL_COUNTER_OFFSET), is(TermAppender.pack(TERM_ID_1 + 1, 0)));
+        assertThat(termMetaDataBuffers[2].getInt(TERM_STATUS_OFFSET), is(NEEDS_CLEANING));
+        assertThat(activePartitionIndex(logMetaDataBuffer), is(1));
+        assertThat(publication.position(), is((long) TERM_MIN_LENGTH));
+
+        assertThat(publication.offer(sendBuffer), is((long) TERM_MIN_LENGTH + ALIGNED_FRAME_LENGTH));
+        assertThat(termBuffers[1].getInt(0), is(MESSAGE_LENGTH + HEADER_LENGTH));
+    }
+
+    @Test
+    public void shouldReleaseResourcesIdempotently() throws Exception {
+        publication.close();
+        publication.close();
+
+        verify(logBuffers, times(1)).close();
+        verify(conductor, times(1)).releaseExclusivePublication(publication);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.aeron.logbuffer.FrameDescriptor;
+import uk.co.real_logic.aeron.logbuffer.Header;
+import uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor;
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteOrder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+
+public class InPlaceFragmentAssemblerTest {
+    private static final int SESSION_ID = 777;
+    private static final int INITIAL_TERM_ID = 3;
+
+    private final UnsafeBuffer termBuffer = mock(UnsafeBuffer.class);
+    private final Header header = spy(new Header(INITIAL_TERM_ID, LogBufferDescriptor.TERM_MIN_LENGTH));
+
+    private int messageCount = 0;
+    private boolean isInPlace;
+    private int fragmentCount;
+    private DirectBuffer messageBuffer;
+    private byte[] messageBytes;
+    private byte messageFlags;
+    private int messageSessionId;
+
+    private final InPlaceFragmentAssembler adapter = new InPlaceFragmentAssembler(
+            (message, assembledHeader) ->
+            {
+                messageCount++;
+                isInPlace = message.isInPlace();
+                fragmentCount = message.fragmentCount();
+                messageBuffer = message.buffer();
+                messageBytes = new byte[message.length()];
+                message.getBytes(0, messageBytes, 0, message.length());
+                messageFlags = assembledHeader.flags();
+                messageSessionId = assembledHeader.sessionId();
+            });
+
+    @Before
+    public void setUp() {
+        header.buffer(termBuffer);
+        when(termBuffer.getInt(anyInt(), any(ByteOrder.class))).thenReturn(SESSION_ID);
+    }
+
+    @Test
+    public void shouldPassThroughUnfragmentedMessageInPlace() {
+        when(header.flags()).thenReturn(FrameDescriptor.UNFRAGMENTED);
+        final UnsafeBuffer srcBuffer = new UnsafeBuffer(new byte[128]);
+        srcBuffer.setMemory(8, 32, (byte) 65);
+
+        adapter.onFragment(srcBuffer, 8, 32, header);
+
+        assertThat(messageCount, is(1));
+        assertTrue(isInPlace);
+        assertThat(fragmentCount, is(1));
+        assertThat(messageBuffer, sameInstance(srcBuffer));
+        assertThat(messageBytes.length, is(32));
+        assertThat(messageBytes[31], is((byte) 65));
+    }
+
+    @Test
+    public void shouldAssembleContiguousFragmentsInPlace() {
+        when(header.flags())
+                .thenReturn(FrameDescriptor.BEGIN_FRAG_FLAG)
+                .thenReturn((byte) 0)
+                .thenReturn(FrameDescriptor.END_FRAG_FLAG);
+
+        final UnsafeBuffer srcBuffer = new UnsafeBuffer(new byte[4096]);
+        final int length = 480;
+        final int frameLength = length + HEADER_LENGTH;
+        for (int i = 0; i < 3; i++) {
+            srcBuffer.setMemory((i * frameLength) + HEADER_LENGTH, length, (byte) (65 + i));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            adapter.onFragment(srcBuffer, (i * frameLength) + HEADER_LENGTH, length, header);
+        }
+
+        assertThat(messageCount, is(1));
+        assertTrue(isInPlace);
+        assertThat(fragmentCount, is(3));
+        assertThat(messageBuffer, sameInstance(srcBuffer));
+        assertThat(messageBytes.length, is(length * 3));
+        for (int i = 0; i < messageBytes.length; i++) {
+            assertThat("same at i=" + i, messageBytes[i], is((byte) (65 + (i / length))));
+        }
+
+        assertThat(messageSessionId, is(SESSION_ID));
+        assertThat(messageFlags, is(FrameDescriptor.UNFRAGMENTED));
+    }
+
+    @Test
+    public void shouldCopyFragmentsWhichAreNotContiguous() {
+        when(header.flags())
+                .thenReturn(FrameDescriptor.BEGIN_FRAG_FLAG)
+                .thenReturn(FrameDescriptor.END_FRAG_FLAG);
+
+        final UnsafeBuffer srcBufferOne = new UnsafeBuffer(new byte[1024]);
+        final UnsafeBuffer srcBufferTwo = new UnsafeBuffer(new byte[1024]);
+        final int length = 256;
+        srcBufferOne.setMemory(HEADER_LENGTH, length, (byte) 65);
+        srcBufferTwo.setMemory(HEADER_LENGTH, length, (byte) 66);
+
+        adapter.onFragment(srcBufferOne, HEADER_LENGTH, length, header);
+        adapter.onFragment(srcBufferTwo, HEADER_LENGTH, length, header);
+
+        assertThat(messageCount, is(1));
+        assertFalse(isInPlace);
+        assertThat(fragmentCount, is(1));
+        assertThat(messageBytes.length, is(length * 2));
+        for (int i = 0; i < messageBytes.length; i++) {
+            assertThat("same at i=" + i, messageBytes[i], is((byte) (65 + (i / length))));
+        }
+    }
+
+    @Test
+    public void shouldDropFragmentsWithoutBegin() {
+        when(header.flags())
+                .thenReturn((byte) 0)
+                .thenReturn(FrameDescriptor.END_FRAG_FLAG);
+
+        final UnsafeBuffer srcBuffer = new UnsafeBuffer(new byte[1024]);
+
+        adapter.onFragment(srcBuffer, HEADER_LENGTH, 256, header);
+        adapter.onFragment(srcBuffer, HEADER_LENGTH * 2 + 256, 256, header);
+
+        assertThat(messageCount, is(0));
+    }
+
+    @Test
+    public void shouldFreeSessionBuffer() {
+        when(header.flags()).thenReturn(FrameDescriptor.BEGIN_FRAG_FLAG);
+
+        adapter.onFragment(new UnsafeBuffer(new byte[1024]), HEADER_LENGTH, 256, header);
+
+        assertTrue(adapter.freeSessionBuffer(SESSION_ID));
+        assertFalse(adapter.freeSessionBuffer(SESSION_ID));
+    }
+}
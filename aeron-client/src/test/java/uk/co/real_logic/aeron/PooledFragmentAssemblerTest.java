@@ -0,0 +1,156 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import uk.co.real_logic.aeron.logbuffer.FragmentHandler;
+import uk.co.real_logic.aeron.logbuffer.FrameDescriptor;
+import uk.co.real_logic.aeron.logbuffer.Header;
+import uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor;
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.concurrent.NanoClock;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteOrder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PooledFragmentAssemblerTest {
+    private static final int SESSION_ID = 777;
+    private static final int INITIAL_TERM_ID = 3;
+    private static final long STALE_TIMEOUT_NS = 1000;
+    private static final long MAX_ASSEMBLY_LENGTH = 4 * AssemblyBufferPool.MIN_BUFFER_LENGTH;
+
+    private final FragmentHandler delegateFragmentHandler = mock(FragmentHandler.class);
+    private final NanoClock nanoClock = mock(NanoClock.class);
+    private final UnsafeBuffer termBuffer = mock(UnsafeBuffer.class);
+    private final Header header = spy(new Header(INITIAL_TERM_ID, LogBufferDescriptor.TERM_MIN_LENGTH));
+    private final PooledFragmentAssembler adapter =
+            new PooledFragmentAssembler(delegateFragmentHandler, MAX_ASSEMBLY_LENGTH, STALE_TIMEOUT_NS, nanoClock);
+
+    @Before
+    public void setUp() {
+        header.buffer(termBuffer);
+        when(termBuffer.getInt(anyInt(), any(ByteOrder.class))).thenReturn(SESSION_ID);
+    }
+
+    @After
+    public void tearDown() {
+        adapter.close();
+    }
+
+    @Test
+    public void shouldPassThroughUnfragmentedMessage() {
+        when(header.flags()).thenReturn(FrameDescriptor.UNFRAGMENTED);
+        final UnsafeBuffer srcBuffer = new UnsafeBuffer(new byte[128]);
+
+        adapter.onFragment(srcBuffer, 8, 32, header);
+
+        verify(delegateFragmentHandler, times(1)).onFragment(srcBuffer, 8, 32, header);
+        assertThat(adapter.allocatedLength(), is(0L));
+    }
+
+    @Test
+    public void shouldAssembleMessageLargerThanInitialBufferAndReuseBuffer() {
+        when(header.flags())
+                .thenReturn(FrameDescriptor.BEGIN_FRAG_FLAG)
+                .thenReturn(FrameDescriptor.END_FRAG_FLAG)
+                .thenReturn(FrameDescriptor.BEGIN_FRAG_FLAG)
+                .thenReturn(FrameDescriptor.END_FRAG_FLAG);
+
+        final UnsafeBuffer srcBuffer = new UnsafeBuffer(new byte[AssemblyBufferPool.MIN_BUFFER_LENGTH * 2]);
+        final int length = srcBuffer.capacity() / 2;
+        srcBuffer.setMemory(0, length, (byte) 65);
+        srcBuffer.setMemory(length, length, (byte) 66);
+
+        adapter.onFragment(srcBuffer, 0, length, header);
+        assertThat(adapter.bytesInFlight(), is((long) length));
+
+        final ArgumentCaptor<DirectBuffer> bufferArg = ArgumentCaptor.forClass(DirectBuffer.class);
+        doAnswer(
+                (invocation) ->
+                {
+                    final DirectBuffer buffer = (DirectBuffer) invocation.getArguments()[0];
+                    for (int i = 0; i < srcBuffer.capacity(); i++) {
+                        assertThat("same at i=" + i, buffer.getByte(i), is(srcBuffer.getByte(i)));
+                    }
+
+                    return null;
+                })
+                .when(delegateFragmentHandler).onFragment(any(DirectBuffer.class), eq(0), eq(length * 2), any(Header.class));
+
+        adapter.onFragment(srcBuffer, length, length, header);
+        adapter.onFragment(srcBuffer, 0, length, header);
+        adapter.onFragment(srcBuffer, length, length, header);
+
+        verify(delegateFragmentHandler, times(2)).onFragment(
+                bufferArg.capture(), eq(0), eq(length * 2), any(Header.class));
+        assertThat(adapter.bytesInFlight(), is(0L));
+        assertThat(adapter.allocatedLength(), is((long) AssemblyBufferPool.MIN_BUFFER_LENGTH * 3));
+    }
+
+    @Test
+    public void shouldEvictStaleMessage() {
+        when(header.flags()).thenReturn(FrameDescriptor.BEGIN_FRAG_FLAG);
+        final UnsafeBuffer srcBuffer = new UnsafeBuffer(new byte[1024]);
+
+        when(nanoClock.nanoTime()).thenReturn(0L);
+        adapter.onFragment(srcBuffer, 0, 512, header);
+        assertThat(adapter.bytesInFlight(), is(512L));
+
+        when(header.flags()).thenReturn(FrameDescriptor.END_FRAG_FLAG);
+        when(nanoClock.nanoTime()).thenReturn(STALE_TIMEOUT_NS + 1);
+        adapter.onFragment(srcBuffer, 512, 512, header);
+
+        verifyZeroInteractions(delegateFragmentHandler);
+        assertThat(adapter.evictionCount(), is(1L));
+        assertThat(adapter.bytesInFlight(), is(0L));
+    }
+
+    @Test
+    public void shouldDropMessageWhenAssemblyMemoryIsExhausted() {
+        when(header.flags())
+                .thenReturn(FrameDescriptor.BEGIN_FRAG_FLAG)
+                .thenReturn((byte) 0);
+        final int length = (int) MAX_ASSEMBLY_LENGTH / 2;
+        final UnsafeBuffer srcBuffer = new UnsafeBuffer(new byte[length]);
+
+        adapter.onFragment(srcBuffer, 0, length, header);
+        adapter.onFragment(srcBuffer, 0, length, header);
+
+        assertThat(adapter.dropCount(), is(1L));
+        assertThat(adapter.bytesInFlight(), is(0L));
+        assertFalse(adapter.freeSessionBuffer(SESSION_ID));
+        assertThat(adapter.allocatedLength(), is((long) length));
+    }
+
+    @Test
+    public void shouldFreeSessionBuffer() {
+        when(header.flags()).thenReturn(FrameDescriptor.BEGIN_FRAG_FLAG);
+
+        adapter.onFragment(new UnsafeBuffer(new byte[1024]), 0, 512, header);
+
+        assertTrue(adapter.freeSessionBuffer(SESSION_ID));
+        assertFalse(adapter.freeSessionBuffer(SESSION_ID));
+        assertThat(adapter.bytesInFlight(), is(0L));
+    }
+}
@@ -18,7 +18,10 @@ package uk.co.real_logic.aeron;
 import org.junit.Before;
 import org.junit.Test;
 import uk.co.real_logic.aeron.logbuffer.BufferClaim;
+import uk.co.real_logic.aeron.logbuffer.DirectBufferVector;
+import uk.co.real_logic.aeron.logbuffer.FragmentedBufferClaim;
 import uk.co.real_logic.aeron.logbuffer.FrameDescriptor;
+import uk.co.real_logic.aeron.logbuffer.MessageBatch;
 
 import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.agrona.concurrent.status.ReadablePosition;
@@ -30,7 +33,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
 import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.*;
+import static uk.co.real_logic.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static uk.co.real_logic.agrona.BitUtil.align;
 
 public class PublicationTest {
     private static final String CHANNEL = "udp://localhost:40124";
@@ -39,6 +45,7 @@ public class PublicationTest {
     private static final int TERM_ID_1 = 1;
     private static final int CORRELATION_ID = 2000;
     private static final int SEND_BUFFER_CAPACITY = 1024;
+    private static final int MTU_LENGTH = 4096;
 
     private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(SEND_BUFFER_CAPACITY);
     private final UnsafeBuffer atomicSendBuffer = new UnsafeBuffer(sendBuffer);
@@ -59,6 +66,7 @@ public class PublicationTest {
         when(logBuffers.termLength()).thenReturn(TERM_MIN_LENGTH);
 
         initialTermId(logMetaDataBuffer, TERM_ID_1);
+        mtuLength(logMetaDataBuffer, MTU_LENGTH);
 
         for (int i = 0; i < PARTITION_COUNT; i++) {
             termBuffers[i] = new UnsafeBuffer(ByteBuffer.allocateDirect(TERM_MIN_LENGTH));
@@ -124,6 +132,113 @@ public class PublicationTest {
         assertThat(publication.maxMessageLength(), is(FrameDescriptor.computeMaxMessageLength(TERM_MIN_LENGTH)));
     }
 
+    @Test
+    public void shouldOfferBatchUpToPositionLimit() {
+        final int messageLength = 1000;
+        final long alignedFrameLength = align(messageLength + HEADER_LENGTH, FRAME_ALIGNMENT);
+        final MessageBatch batch = new MessageBatch();
+        for (int i = 0; i < 5; i++) {
+            batch.add(atomicSendBuffer, 0, messageLength);
+        }
+
+        assertThat(publication.offerBatch(batch), is(alignedFrameLength * 2));
+        assertThat(batch.index(), is(2));
+        assertThat(publication.position(), is(alignedFrameLength * 2));
+
+        assertThat(publication.offerBatch(batch), is(Publication.BACK_PRESSURED));
+        assertThat(batch.index(), is(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectBatchWithMessageLongerThanMaxPayloadLength() {
+        final MessageBatch batch = new MessageBatch().add(new UnsafeBuffer(new byte[MTU_LENGTH]));
+
+        publication.offerBatch(batch);
+    }
+
+    @Test
+    public void shouldOfferGatheredMessageFragmentedAcrossVectors() {
+        final int headerLength = 24;
+        final int bodyLength = MTU_LENGTH + 100;
+        final UnsafeBuffer header = new UnsafeBuffer(new byte[headerLength]);
+        final UnsafeBuffer body = new UnsafeBuffer(new byte[bodyLength]);
+        for (int i = 0; i < headerLength; i++) {
+            header.putByte(i, (byte) 'h');
+        }
+        for (int i = 0; i < bodyLength; i++) {
+            body.putByte(i, (byte) i);
+        }
+
+        final DirectBufferVector[] vectors =
+                {new DirectBufferVector(header, 0, headerLength), new DirectBufferVector(body, 0, bodyLength)};
+        final int maxPayloadLength = MTU_LENGTH - HEADER_LENGTH;
+        final int lastPayloadLength = headerLength + bodyLength - maxPayloadLength;
+        final long expectedPosition = MTU_LENGTH + align(lastPayloadLength + HEADER_LENGTH, FRAME_ALIGNMENT);
+
+        assertThat(publication.offer(vectors), is(expectedPosition));
+
+        final UnsafeBuffer termBuffer = termBuffers[0];
+        for (int i = 0; i < headerLength; i++) {
+            assertThat(termBuffer.getByte(HEADER_LENGTH + i), is((byte) 'h'));
+        }
+        for (int i = 0; i < bodyLength; i++) {
+            final int payloadIndex = headerLength + i;
+            final int termOffset = payloadIndex < maxPayloadLength ?
+                    HEADER_LENGTH + payloadIndex :
+                    MTU_LENGTH + HEADER_LENGTH + (payloadIndex - maxPayloadLength);
+            assertThat(termBuffer.getByte(termOffset), is((byte) i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectGatheredMessageWithNegativeVectorLength() {
+        publication.offer(new DirectBufferVector[]{new DirectBufferVector(atomicSendBuffer, 0, -1)});
+    }
+
+    @Test
+    public void shouldMakeAllFragmentsOfClaimVisibleOnCommit() {
+        final int maxPayloadLength = MTU_LENGTH - HEADER_LENGTH;
+        final int length = maxPayloadLength + 100;
+        final UnsafeBuffer srcBuffer = new UnsafeBuffer(new byte[length]);
+        for (int i = 0; i < length; i++) {
+            srcBuffer.putByte(i, (byte) i);
+        }
+
+        final FragmentedBufferClaim bufferClaim = new FragmentedBufferClaim();
+        final long expectedPosition = MTU_LENGTH + align(100 + HEADER_LENGTH, FRAME_ALIGNMENT);
+        assertThat(publication.tryClaim(length, bufferClaim), is(expectedPosition));
+        assertThat(bufferClaim.fragmentCount(), is(2));
+
+        bufferClaim.putBytes(0, srcBuffer, 0, length);
+
+        final UnsafeBuffer termBuffer = termBuffers[0];
+        assertThat(FrameDescriptor.frameLengthVolatile(termBuffer, 0), is(-MTU_LENGTH));
+        assertThat(FrameDescriptor.frameLengthVolatile(termBuffer, MTU_LENGTH), is(-(100 + HEADER_LENGTH)));
+
+        bufferClaim.commit();
+
+        assertThat(FrameDescriptor.frameLengthVolatile(termBuffer, 0), is(MTU_LENGTH));
+        assertThat(FrameDescriptor.frameLengthVolatile(termBuffer, MTU_LENGTH), is(100 + HEADER_LENGTH));
+        assertThat(termBuffer.getByte(FrameDescriptor.flagsOffset(0)), is(FrameDescriptor.BEGIN_FRAG_FLAG));
+        assertThat(termBuffer.getByte(FrameDescriptor.flagsOffset(MTU_LENGTH)), is(FrameDescriptor.END_FRAG_FLAG));
+        assertThat(termBuffer.getByte(HEADER_LENGTH + maxPayloadLength - 1), is((byte) (maxPayloadLength - 1)));
+        assertThat(termBuffer.getByte(MTU_LENGTH + HEADER_LENGTH), is((byte) maxPayloadLength));
+    }
+
+    @Test
+    public void shouldAbortFragmentedClaimAsSinglePaddingFrame() {
+        final int length = MTU_LENGTH * 2;
+        final FragmentedBufferClaim bufferClaim = new FragmentedBufferClaim();
+        final long position = publication.tryClaim(length, bufferClaim);
+        assertThat(bufferClaim.fragmentCount(), is(3));
+
+        bufferClaim.abort();
+
+        final UnsafeBuffer termBuffer = termBuffers[0];
+        assertTrue(FrameDescriptor.isPaddingFrame(termBuffer, 0));
+        assertThat((long) FrameDescriptor.frameLengthVolatile(termBuffer, 0), is(position));
+    }
+
     @Test
     public void shouldUnmapBuffersWhenReleased() throws Exception {
         publication.close();
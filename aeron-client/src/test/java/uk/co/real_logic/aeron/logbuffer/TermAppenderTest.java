@@ -26,6 +26,7 @@ import java.nio.ByteBuffer;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.*;
 import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.TERM_META_DATA_LENGTH;
@@ -195,6 +196,67 @@ public class TermAppenderTest {
         inOrder.verify(termBuffer, times(1)).putIntOrdered(tail, frameLength);
     }
 
+    @Test
+    public void shouldAppendGatheredFrameToEmptyLog() {
+        final int headerLength = DEFAULT_HEADER.capacity();
+        final UnsafeBuffer bufferOne = new UnsafeBuffer(new byte[64]);
+        final UnsafeBuffer bufferTwo = new UnsafeBuffer(new byte[128]);
+        final DirectBufferVector[] vectors =
+                {new DirectBufferVector(bufferOne, 8, 12), new DirectBufferVector(bufferTwo, 0, 20)};
+        final int msgLength = 32;
+        final int frameLength = msgLength + headerLength;
+        final int alignedFrameLength = align(frameLength, FRAME_ALIGNMENT);
+        final int tail = 0;
+
+        when(metaDataBuffer.getAndAddLong(TERM_TAIL_COUNTER_OFFSET, alignedFrameLength))
+                .thenReturn(TermAppender.pack(TERM_ID, tail));
+
+        assertThat(termAppender.appendUnfragmentedMessage(headerWriter, vectors, msgLength), is((long) alignedFrameLength));
+
+        final InOrder inOrder = inOrder(termBuffer, metaDataBuffer, headerWriter);
+        inOrder.verify(metaDataBuffer, times(1)).getAndAddLong(TERM_TAIL_COUNTER_OFFSET, alignedFrameLength);
+        inOrder.verify(headerWriter, times(1)).write(termBuffer, tail, frameLength, TERM_ID);
+        inOrder.verify(termBuffer, times(1)).putBytes(headerLength, bufferOne, 8, 12);
+        inOrder.verify(termBuffer, times(1)).putBytes(headerLength + 12, bufferTwo, 0, 20);
+        inOrder.verify(termBuffer, times(1)).putIntOrdered(tail, frameLength);
+    }
+
+    @Test
+    public void shouldFragmentGatheredMessageWithVectorSpanningFrames() {
+        final int headerLength = DEFAULT_HEADER.capacity();
+        final int msgLength = MAX_PAYLOAD_LENGTH + 1;
+        final int lengthOne = 16;
+        final int lengthTwo = msgLength - lengthOne;
+        final int frameLength = headerLength + 1;
+        final int requiredCapacity = align(headerLength + 1, FRAME_ALIGNMENT) + MAX_FRAME_LENGTH;
+        final UnsafeBuffer bufferOne = new UnsafeBuffer(new byte[lengthOne]);
+        final UnsafeBuffer bufferTwo = new UnsafeBuffer(new byte[lengthTwo]);
+        final DirectBufferVector[] vectors =
+                {new DirectBufferVector(bufferOne, 0, lengthOne), new DirectBufferVector(bufferTwo, 0, lengthTwo)};
+        int tail = 0;
+
+        when(metaDataBuffer.getAndAddLong(TERM_TAIL_COUNTER_OFFSET, requiredCapacity))
+                .thenReturn(TermAppender.pack(TERM_ID, tail));
+
+        assertThat(termAppender.appendFragmentedMessage(
+                headerWriter, vectors, msgLength, MAX_PAYLOAD_LENGTH), is((long) requiredCapacity));
+
+        final InOrder inOrder = inOrder(termBuffer, metaDataBuffer, headerWriter);
+        inOrder.verify(metaDataBuffer, times(1)).getAndAddLong(TERM_TAIL_COUNTER_OFFSET, requiredCapacity);
+
+        inOrder.verify(headerWriter, times(1)).write(termBuffer, tail, MAX_FRAME_LENGTH, TERM_ID);
+        inOrder.verify(termBuffer, times(1)).putBytes(tail + headerLength, bufferOne, 0, lengthOne);
+        inOrder.verify(termBuffer, times(1)).putBytes(tail + headerLength + lengthOne, bufferTwo, 0, lengthTwo - 1);
+        inOrder.verify(termBuffer, times(1)).putByte(flagsOffset(tail), BEGIN_FRAG_FLAG);
+        inOrder.verify(termBuffer, times(1)).putIntOrdered(tail, MAX_FRAME_LENGTH);
+
+        tail = MAX_FRAME_LENGTH;
+        inOrder.verify(headerWriter, times(1)).write(termBuffer, tail, frameLength, TERM_ID);
+        inOrder.verify(termBuffer, times(1)).putBytes(tail + headerLength, bufferTwo, lengthTwo - 1, 1);
+        inOrder.verify(termBuffer, times(1)).putByte(flagsOffset(tail), END_FRAG_FLAG);
+        inOrder.verify(termBuffer, times(1)).putIntOrdered(tail, frameLength);
+    }
+
     @Test
     public void shouldClaimRegionForZeroCopyEncoding() {
         final int headerLength = DEFAULT_HEADER.capacity();
@@ -219,4 +281,113 @@ public class TermAppenderTest {
         inOrder.verify(metaDataBuffer, times(1)).getAndAddLong(TERM_TAIL_COUNTER_OFFSET, alignedFrameLength);
         inOrder.verify(headerWriter, times(1)).write(termBuffer, tail, frameLength, TERM_ID);
     }
+
+    @Test
+    public void shouldClaimFragmentedRegionWithHeadersWrittenUpFront() {
+        final int msgLength = MAX_PAYLOAD_LENGTH + 1;
+        final int headerLength = DEFAULT_HEADER.capacity();
+        final int requiredCapacity = align(headerLength + 1, FRAME_ALIGNMENT) + MAX_FRAME_LENGTH;
+        final FragmentedBufferClaim bufferClaim = new FragmentedBufferClaim();
+        final int tail = 0;
+
+        when(metaDataBuffer.getAndAddLong(TERM_TAIL_COUNTER_OFFSET, requiredCapacity))
+                .thenReturn(TermAppender.pack(TERM_ID, tail));
+
+        assertThat(termAppender.claim(
+                headerWriter, msgLength, MAX_PAYLOAD_LENGTH, bufferClaim), is((long) requiredCapacity));
+
+        assertThat(bufferClaim.length(), is(msgLength));
+        assertThat(bufferClaim.fragmentCount(), is(2));
+        assertThat(bufferClaim.fragmentOffset(0), is(headerLength));
+        assertThat(bufferClaim.fragmentLength(0), is(MAX_PAYLOAD_LENGTH));
+        assertThat(bufferClaim.fragmentOffset(1), is(MAX_FRAME_LENGTH + headerLength));
+        assertThat(bufferClaim.fragmentLength(1), is(1));
+
+        final InOrder inOrder = inOrder(termBuffer, metaDataBuffer, headerWriter);
+        inOrder.verify(metaDataBuffer, times(1)).getAndAddLong(TERM_TAIL_COUNTER_OFFSET, requiredCapacity);
+        inOrder.verify(headerWriter, times(1)).write(termBuffer, tail, MAX_FRAME_LENGTH, TERM_ID);
+        inOrder.verify(termBuffer, times(1)).putByte(flagsOffset(tail), BEGIN_FRAG_FLAG);
+        inOrder.verify(headerWriter, times(1)).write(termBuffer, MAX_FRAME_LENGTH, headerLength + 1, TERM_ID);
+        inOrder.verify(termBuffer, times(1)).putByte(flagsOffset(MAX_FRAME_LENGTH), END_FRAG_FLAG);
+        verify(termBuffer, never()).putIntOrdered(anyInt(), anyInt());
+    }
+
+    @Test
+    public void shouldAppendBatchWithSingleTailIncrement() {
+        final int headerLength = DEFAULT_HEADER.capacity();
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[128]);
+        final int msgLength = 20;
+        final int frameLength = msgLength + headerLength;
+        final int alignedFrameLength = align(frameLength, FRAME_ALIGNMENT);
+        final int requiredLength = alignedFrameLength * 3;
+        final MessageBatch batch = new MessageBatch().add(buffer, 0, msgLength).add(buffer, 0, msgLength);
+        batch.add(buffer, 0, msgLength);
+
+        when(metaDataBuffer.getAndAddLong(TERM_TAIL_COUNTER_OFFSET, requiredLength))
+                .thenReturn(TermAppender.pack(TERM_ID, 0));
+
+        assertThat(termAppender.appendBatch(headerWriter, batch, 3, requiredLength), is((long) requiredLength));
+        assertTrue(batch.isComplete());
+
+        final InOrder inOrder = inOrder(termBuffer, metaDataBuffer, headerWriter);
+        inOrder.verify(metaDataBuffer, times(1)).getAndAddLong(TERM_TAIL_COUNTER_OFFSET, requiredLength);
+        for (int i = 0; i < 3; i++) {
+            final int tail = i * alignedFrameLength;
+            inOrder.verify(headerWriter, times(1)).write(termBuffer, tail, frameLength, TERM_ID);
+            inOrder.verify(termBuffer, times(1)).putBytes(tail + headerLength, buffer, 0, msgLength);
+            inOrder.verify(termBuffer, times(1)).putIntOrdered(tail, frameLength);
+        }
+        verify(metaDataBuffer, times(1)).getAndAddLong(anyInt(), anyLong());
+    }
+
+    @Test
+    public void shouldAppendPartOfBatchThatFitsAndPadToEndOfTerm() {
+        final int headerLength = DEFAULT_HEADER.capacity();
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[128]);
+        final int msgLength = 120;
+        final int frameLength = msgLength + headerLength;
+        final int alignedFrameLength = align(frameLength, FRAME_ALIGNMENT);
+        final int requiredLength = alignedFrameLength * 2;
+        final int tail = TERM_BUFFER_LENGTH - (alignedFrameLength + headerLength);
+        final int paddingOffset = tail + alignedFrameLength;
+        final MessageBatch batch = new MessageBatch().add(buffer, 0, msgLength).add(buffer, 0, msgLength);
+
+        when(metaDataBuffer.getAndAddLong(TERM_TAIL_COUNTER_OFFSET, requiredLength))
+                .thenReturn(TermAppender.pack(TERM_ID, tail));
+
+        final long expectResult = TermAppender.pack(TERM_ID, TERM_BUFFER_LENGTH);
+        assertThat(termAppender.appendBatch(headerWriter, batch, 2, requiredLength), is(expectResult));
+        assertThat(batch.index(), is(1));
+        assertThat(batch.remaining(), is(1));
+
+        final InOrder inOrder = inOrder(termBuffer, metaDataBuffer, headerWriter);
+        inOrder.verify(metaDataBuffer, times(1)).getAndAddLong(TERM_TAIL_COUNTER_OFFSET, requiredLength);
+        inOrder.verify(headerWriter, times(1)).write(termBuffer, tail, frameLength, TERM_ID);
+        inOrder.verify(termBuffer, times(1)).putBytes(tail + headerLength, buffer, 0, msgLength);
+        inOrder.verify(termBuffer, times(1)).putIntOrdered(tail, frameLength);
+        inOrder.verify(headerWriter, times(1)).write(termBuffer, paddingOffset, headerLength, TERM_ID);
+        inOrder.verify(termBuffer, times(1)).putShort(
+                typeOffset(paddingOffset), (short) PADDING_FRAME_TYPE, LITTLE_ENDIAN);
+        inOrder.verify(termBuffer, times(1)).putIntOrdered(paddingOffset, headerLength);
+    }
+
+    @Test
+    public void shouldTripWithoutAppendingWhenFirstMessageOfBatchDoesNotFit() {
+        final int headerLength = DEFAULT_HEADER.capacity();
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[128]);
+        final int msgLength = 120;
+        final int alignedFrameLength = align(msgLength + headerLength, FRAME_ALIGNMENT);
+        final int tail = TERM_BUFFER_LENGTH - alignedFrameLength;
+        final MessageBatch batch = new MessageBatch().add(buffer, 0, msgLength);
+
+        when(metaDataBuffer.getAndAddLong(TERM_TAIL_COUNTER_OFFSET, alignedFrameLength))
+                .thenReturn(TermAppender.pack(TERM_ID, tail));
+
+        final long expectResult = TermAppender.pack(TERM_ID, TRIPPED);
+        assertThat(termAppender.appendBatch(headerWriter, batch, 1, alignedFrameLength), is(expectResult));
+        assertThat(batch.index(), is(0));
+
+        verify(headerWriter, times(1)).write(termBuffer, tail, alignedFrameLength, TERM_ID);
+        verify(termBuffer, times(1)).putShort(typeOffset(tail), (short) PADDING_FRAME_TYPE, LITTLE_ENDIAN);
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.logbuffer;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import uk.co.real_logic.aeron.protocol.DataHeaderFlyweight;
+import uk.co.real_logic.aeron.protocol.HeaderFlyweight;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class TermGapIndexTest {
+    private static final int TERM_BUFFER_LENGTH = LogBufferDescriptor.TERM_MIN_LENGTH;
+    private static final int TERM_ID = 7;
+    private static final int FRAME_LENGTH = DataHeaderFlyweight.HEADER_LENGTH * 2;
+
+    private final UnsafeBuffer termBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(TERM_BUFFER_LENGTH));
+    private final UnsafeBuffer packet = new UnsafeBuffer(new byte[FRAME_LENGTH]);
+    private final DataHeaderFlyweight dataHeader = new DataHeaderFlyweight(packet);
+    private final TermGapScanner.GapHandler gapHandler = mock(TermGapScanner.GapHandler.class);
+    private final TermGapIndex gapIndex = new TermGapIndex(4);
+
+    @Test
+    public void shouldReportAllGapsUpToHighWaterMark() {
+        insertFrame(0);
+        insertFrame(2);
+        insertFrame(5);
+
+        assertThat(gapIndex.scan(termBuffer, TERM_ID, 0, offsetOf(6), gapHandler), is(offsetOf(1)));
+
+        final InOrder inOrder = inOrder(gapHandler);
+        inOrder.verify(gapHandler).onGap(TERM_ID, termBuffer, offsetOf(1), FRAME_LENGTH);
+        inOrder.verify(gapHandler).onGap(TERM_ID, termBuffer, offsetOf(3), FRAME_LENGTH * 2);
+        verifyNoMoreInteractions(gapHandler);
+    }
+
+    @Test
+    public void shouldAdvanceWhenGapIsFilled() {
+        insertFrame(0);
+        insertFrame(2);
+        gapIndex.scan(termBuffer, TERM_ID, 0, offsetOf(3), gapHandler);
+
+        insertFrame(1);
+        reset(gapHandler);
+
+        assertThat(gapIndex.scan(termBuffer, TERM_ID, 0, offsetOf(3), gapHandler), is(offsetOf(3)));
+        assertThat(gapIndex.gapCount(), is(0));
+        verifyZeroInteractions(gapHandler);
+    }
+
+    @Test
+    public void shouldSplitGapWhenFilledInMiddle() {
+        insertFrame(0);
+        insertFrame(4);
+        gapIndex.scan(termBuffer, TERM_ID, 0, offsetOf(5), gapHandler);
+
+        insertFrame(2);
+        reset(gapHandler);
+
+        assertThat(gapIndex.scan(termBuffer, TERM_ID, 0, offsetOf(5), gapHandler), is(offsetOf(1)));
+
+        final InOrder inOrder = inOrder(gapHandler);
+        inOrder.verify(gapHandler).onGap(TERM_ID, termBuffer, offsetOf(1), FRAME_LENGTH);
+        inOrder.verify(gapHandler).onGap(TERM_ID, termBuffer, offsetOf(3), FRAME_LENGTH);
+        verifyNoMoreInteractions(gapHandler);
+    }
+
+    @Test
+    public void shouldNotRescanFramesAlreadyReceived() {
+        insertFrame(0);
+        insertFrame(2);
+        insertFrame(3);
+        gapIndex.scan(termBuffer, TERM_ID, 0, offsetOf(4), gapHandler);
+
+        termBuffer.putIntOrdered(offsetOf(3), 0);
+        reset(gapHandler);
+
+        assertThat(gapIndex.scan(termBuffer, TERM_ID, 0, offsetOf(4), gapHandler), is(offsetOf(1)));
+
+        verify(gapHandler).onGap(TERM_ID, termBuffer, offsetOf(1), FRAME_LENGTH);
+        verifyNoMoreInteractions(gapHandler);
+    }
+
+    @Test
+    public void shouldTreatPartiallyInsertedFrameAsGap() {
+        insertFrame(0);
+        insertFrame(3);
+        termBuffer.putLong(offsetOf(1) + DataHeaderFlyweight.HEADER_LENGTH, -1L);
+
+        assertThat(gapIndex.scan(termBuffer, TERM_ID, 0, offsetOf(4), gapHandler), is(offsetOf(1)));
+
+        verify(gapHandler).onGap(TERM_ID, termBuffer, offsetOf(1), FRAME_LENGTH * 2);
+        verifyNoMoreInteractions(gapHandler);
+    }
+
+    @Test
+    public void shouldPickUpGapsBeyondCapacityOnceEarlierGapsAreFilled() {
+        final TermGapIndex gapIndex = new TermGapIndex(1);
+        insertFrame(0);
+        insertFrame(2);
+        insertFrame(4);
+        gapIndex.scan(termBuffer, TERM_ID, 0, offsetOf(5), gapHandler);
+
+        verify(gapHandler).onGap(TERM_ID, termBuffer, offsetOf(1), FRAME_LENGTH);
+        verifyNoMoreInteractions(gapHandler);
+
+        insertFrame(1);
+        reset(gapHandler);
+
+        assertThat(gapIndex.scan(termBuffer, TERM_ID, 0, offsetOf(5), gapHandler), is(offsetOf(3)));
+
+        verify(gapHandler).onGap(TERM_ID, termBuffer, offsetOf(3), FRAME_LENGTH);
+        verifyNoMoreInteractions(gapHandler);
+    }
+
+    @Test
+    public void shouldResetOnChangeOfTerm() {
+        insertFrame(0);
+        insertFrame(2);
+        gapIndex.scan(termBuffer, TERM_ID, 0, offsetOf(3), gapHandler);
+
+        termBuffer.setMemory(0, TERM_BUFFER_LENGTH, (byte) 0);
+        insertFrame(0);
+        reset(gapHandler);
+
+        assertThat(gapIndex.scan(termBuffer, TERM_ID + 1, 0, offsetOf(1), gapHandler), is(offsetOf(1)));
+        verifyZeroInteractions(gapHandler);
+    }
+
+    private void insertFrame(final int index) {
+        final int termOffset = offsetOf(index);
+        dataHeader
+                .termId(TERM_ID)
+                .termOffset(termOffset)
+                .frameLength(FRAME_LENGTH)
+                .headerType(HeaderFlyweight.HDR_TYPE_DATA)
+                .flags(DataHeaderFlyweight.BEGIN_AND_END_FLAGS)
+                .version(HeaderFlyweight.CURRENT_VERSION);
+
+        TermRebuilder.insert(termBuffer, termOffset, packet, FRAME_LENGTH);
+    }
+
+    private static int offsetOf(final int index) {
+        return index * FRAME_LENGTH;
+    }
+}
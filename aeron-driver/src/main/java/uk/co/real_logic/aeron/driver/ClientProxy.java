@@ -27,6 +27,7 @@ import java.util.List;
 
 import static uk.co.real_logic.aeron.command.ControlProtocolEvents.*;
 import static uk.co.real_logic.aeron.driver.event.EventCode.CMD_OUT_AVAILABLE_IMAGE;
+import static uk.co.real_logic.aeron.driver.event.EventCode.CMD_OUT_EXCLUSIVE_PUBLICATION_READY;
 import static uk.co.real_logic.aeron.driver.event.EventCode.CMD_OUT_PUBLICATION_READY;
 
 /**
@@ -104,18 +105,22 @@ public class ClientProxy {
             final int sessionId,
             final String logFileName,
             final int positionCounterId) {
-        publicationReady
-                .sessionId(sessionId)
-                .streamId(streamId)
-                .correlationId(registrationId)
-                .publicationLimitCounterId(positionCounterId)
-                .logFileName(logFileName);
-
-        final int length = publicationReady.length();
+        final int length = publicationReady(registrationId, streamId, sessionId, logFileName, positionCounterId);
         transmitter.transmit(ON_PUBLICATION_READY, buffer, 0, length);
         logger.log(CMD_OUT_PUBLICATION_READY, buffer, 0, length);
     }
 
+    public void onExclusivePublicationReady(
+            final long registrationId,
+            final int streamId,
+            final int sessionId,
+            final String logFileName,
+            final int positionCounterId) {
+        final int length = publicationReady(registrationId, streamId, sessionId, logFileName, positionCounterId);
+        transmitter.transmit(ON_EXCLUSIVE_PUBLICATION_READY, buffer, 0, length);
+        logger.log(CMD_OUT_EXCLUSIVE_PUBLICATION_READY, buffer, 0, length);
+    }
+
     public void operationSucceeded(final long correlationId) {
         correlatedMessage.clientId(0).correlationId(correlationId);
 
@@ -133,4 +138,20 @@ public class ClientProxy {
         transmitter.transmit(ON_UNAVAILABLE_IMAGE, buffer, 0, length);
         logger.log(EventCode.CMD_OUT_ON_UNAVAILABLE_IMAGE, buffer, 0, length);
     }
+
+    private int publicationReady(
+            final long registrationId,
+            final int streamId,
+            final int sessionId,
+            final String logFileName,
+            final int positionCounterId) {
+        publicationReady
+                .sessionId(sessionId)
+                .streamId(streamId)
+                .correlationId(registrationId)
+                .publicationLimitCounterId(positionCounterId)
+                .logFileName(logFileName);
+
+        return publicationReady.length();
+    }
 }
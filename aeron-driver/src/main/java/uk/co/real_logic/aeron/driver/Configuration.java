@@ -20,6 +20,7 @@ import uk.co.real_logic.agrona.BitUtil;
 import uk.co.real_logic.agrona.LangUtil;
 import uk.co.real_logic.agrona.concurrent.BackoffIdleStrategy;
 import uk.co.real_logic.agrona.concurrent.IdleStrategy;
+import uk.co.real_logic.agrona.concurrent.SleepingIdleStrategy;
 import uk.co.real_logic.agrona.concurrent.broadcast.BroadcastBufferDescriptor;
 import uk.co.real_logic.agrona.concurrent.ringbuffer.RingBufferDescriptor;
 
@@ -71,6 +72,11 @@ public class Configuration {
      */
     public static final String INITIAL_WINDOW_LENGTH_PROP_NAME = "aeron.rcv.initial.window.length";
 
+    /**
+     * Property name for length up to which a receiver window may grow. 0 means limited by the socket SO_RCVBUF.
+     */
+    public static final String MAX_WINDOW_LENGTH_PROP_NAME = "aeron.rcv.max.window.length";
+
     /**
      * Property name for status message timeout in nanoseconds
      */
@@ -236,9 +242,36 @@ public class Configuration {
     public static final FeedbackDelayGenerator RETRANSMIT_UNICAST_LINGER_GENERATOR = () -> RETRANSMIT_UNICAST_LINGER_DEFAULT_NS;
 
     /**
-     * Default max number of active retransmissions per Term
+     * Default interval at which an image measures the round trip time to its source
+     */
+    public static final long RTT_MEASUREMENT_INTERVAL_DEFAULT_NS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Multiple of the smoothed round trip time used for unicast NAK delay and retransmit linger once it is measured.
+     * The fixed unicast defaults above are used until the first measurement and as the upper bound.
+     */
+    public static final int RTT_DELAY_MULTIPLIER_DEFAULT = 2;
+
+    /**
+     * Lower bound for unicast NAK delay and retransmit linger derived from the round trip time
+     */
+    public static final long RTT_MIN_DELAY_DEFAULT_NS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    /**
+     * Property name for the max number of retransmits a {@link NetworkPublication} will have active at once. The
+     * retransmit actions are allocated on demand up to this max and further NAKs are dropped.
+     */
+    public static final String MAX_RETRANSMITS_PROP_NAME = "aeron.retransmit.max.actions";
+
+    /**
+     * Default max number of active retransmissions per publication
      */
-    public static final int MAX_RETRANSMITS_DEFAULT = 16;
+    public static final int MAX_RETRANSMITS_DEFAULT = 1024;
+
+    /**
+     * Max number of gaps a receiver will NAK in one pass, packed as NAK frames into a single datagram.
+     */
+    public static final int NAK_MAX_GAPS_DEFAULT = 16;
 
     /**
      * Default initial window length for flow control sender to receiver purposes
@@ -254,6 +287,21 @@ public class Configuration {
      */
     public static final int INITIAL_WINDOW_LENGTH_DEFAULT = 128 * 1024;
 
+    /**
+     * Default max window length of 0 so a receiver window may grow up to the socket SO_RCVBUF.
+     */
+    public static final int MAX_WINDOW_LENGTH_DEFAULT = 0;
+
+    /**
+     * Length below which a receiver window will not shrink when subscribers lag, bounded by the initial window length.
+     */
+    public static final int MIN_WINDOW_LENGTH_DEFAULT = 32 * 1024;
+
+    /**
+     * Min interval between adjustments of a receiver window so the consumption rate is measured over a useful period.
+     */
+    public static final long WINDOW_ADJUST_MIN_INTERVAL_DEFAULT_NS = TimeUnit.MILLISECONDS.toNanos(1);
+
     /**
      * Max timeout between SMs.
      */
@@ -340,6 +388,13 @@ public class Configuration {
     public static final String SHARED_IDLE_STRATEGY = getProperty(
             SHARED_IDLE_STRATEGY_PROP_NAME, DEFAULT_IDLE_STRATEGY);
 
+    /**
+     * {@link IdleStrategy} to be employed by the {@link LogCleaner} when it runs as a dedicated agent.
+     */
+    public static final String LOG_CLEANER_IDLE_STRATEGY_PROP_NAME = "aeron.log.cleaner.idle.strategy";
+    public static final String LOG_CLEANER_IDLE_STRATEGY = getProperty(
+            LOG_CLEANER_IDLE_STRATEGY_PROP_NAME, DEFAULT_IDLE_STRATEGY);
+
     /**
      * Capacity for the command queues used between driver agents.
      */
@@ -370,12 +425,73 @@ public class Configuration {
 
     /**
      * {@link FlowControl} to be employed for multicast channels.
+     *
+     * {@link MaxMulticastFlowControl} follows the fastest receiver and {@link MinMulticastFlowControl} the slowest.
      */
     public static final String MULTICAST_FLOW_CONTROL_STRATEGY_PROP_NAME =
             "aeron.multicast.flow.control.strategy";
     public static final String MULTICAST_FLOW_CONTROL_STRATEGY = getProperty(
             MULTICAST_FLOW_CONTROL_STRATEGY_PROP_NAME, "uk.co.real_logic.aeron.driver.MaxMulticastFlowControl");
 
+    /**
+     * {@link CongestionControl} to be employed for publications on channels which do not select one with the
+     * "congestion-control" URI parameter. May be "none", "loss", "delay", or a class name.
+     *
+     * {@link StaticWindowCongestionControl} leaves the sender limited only by flow control.
+     */
+    public static final String CONGESTION_CONTROL_STRATEGY_PROP_NAME = "aeron.congestion.control.strategy";
+    public static final String CONGESTION_CONTROL_STRATEGY = getProperty(
+            CONGESTION_CONTROL_STRATEGY_PROP_NAME, "uk.co.real_logic.aeron.driver.StaticWindowCongestionControl");
+
+    /**
+     * Initial congestion window in MTUs before any loss or delay has been observed.
+     */
+    public static final int CONGESTION_WINDOW_INITIAL_MTUS_DEFAULT = 10;
+
+    /**
+     * Congestion window in MTUs below which a congestion control will not go.
+     */
+    public static final int CONGESTION_WINDOW_MIN_MTUS_DEFAULT = 2;
+
+    /**
+     * Min interval between reductions of a congestion window for loss, used until the RTT has been measured, so a burst
+     * of NAKs for the same loss event is only reacted to once.
+     */
+    public static final long CONGESTION_LOSS_MIN_INTERVAL_DEFAULT_NS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Data queued in the network, in MTUs, below which {@link DelayBasedCongestionControl} grows the window.
+     */
+    public static final int DELAY_CONGESTION_ALPHA_MTUS_DEFAULT = 2;
+
+    /**
+     * Data queued in the network, in MTUs, above which {@link DelayBasedCongestionControl} shrinks the window.
+     */
+    public static final int DELAY_CONGESTION_BETA_MTUS_DEFAULT = 4;
+
+    /**
+     * Property name for the rate, in bytes per second, at which publications are paced when their channel does not give
+     * a "pacing-rate". 0 means publications are not paced.
+     */
+    public static final String PACING_RATE_PROP_NAME = "aeron.pacing.rate";
+    public static final long PACING_RATE_DEFAULT = 0;
+
+    /**
+     * Property name for the burst, in bytes, allowed to a paced publication after being idle when its channel does not
+     * give a "pacing-burst". Kept below the default SO_RCVBUF so a burst does not overflow receivers.
+     */
+    public static final String PACING_BURST_LENGTH_PROP_NAME = "aeron.pacing.burst.length";
+    public static final int PACING_BURST_LENGTH_DEFAULT = 64 * 1024;
+
+    /**
+     * Timeout after which a receiver that has not sent a status message is no longer tracked by
+     * {@link MinMulticastFlowControl}.
+     */
+    public static final String MIN_FLOW_CONTROL_RECEIVER_TIMEOUT_PROP_NAME = "aeron.min.flow.control.receiver.timeout";
+    public static final long MIN_FLOW_CONTROL_RECEIVER_TIMEOUT_DEFAULT_NS = TimeUnit.SECONDS.toNanos(2);
+    public static final long MIN_FLOW_CONTROL_RECEIVER_TIMEOUT_NS = getLong(
+            MIN_FLOW_CONTROL_RECEIVER_TIMEOUT_PROP_NAME, MIN_FLOW_CONTROL_RECEIVER_TIMEOUT_DEFAULT_NS);
+
     /**
      * Length of the maximum transport unit of the media driver's protocol
      */
@@ -383,6 +499,128 @@ public class Configuration {
     public static final int MTU_LENGTH_DEFAULT = 4096;
     public static final int MTU_LENGTH = getInteger(MTU_LENGTH_PROP_NAME, MTU_LENGTH_DEFAULT);
 
+    /**
+     * Property name for the max number of bytes a {@link NetworkPublication} may send in a single {@link Sender}
+     * duty cycle.
+     */
+    public static final String SEND_BURST_LENGTH_PROP_NAME = "aeron.sender.burst.length";
+
+    /**
+     * Default max bytes sent per publication per {@link Sender} duty cycle.
+     */
+    public static final int SEND_BURST_LENGTH_DEFAULT = 64 * 1024;
+
+    /**
+     * Property name for the max number of datagrams a {@link NetworkPublication} may send in a single {@link Sender}
+     * duty cycle.
+     */
+    public static final String SEND_BURST_DATAGRAMS_PROP_NAME = "aeron.sender.burst.datagrams";
+
+    /**
+     * Default max datagrams sent per publication per {@link Sender} duty cycle.
+     */
+    public static final int SEND_BURST_DATAGRAMS_DEFAULT = 16;
+
+    /**
+     * Property name for the max number of bytes a {@link NetworkPublication} may retransmit in a single {@link Sender}
+     * duty cycle so a burst of NAKs does not starve new data.
+     */
+    public static final String RETRANSMIT_BURST_LENGTH_PROP_NAME = "aeron.retransmit.burst.length";
+
+    /**
+     * Default max bytes retransmitted per publication per {@link Sender} duty cycle.
+     */
+    public static final int RETRANSMIT_BURST_LENGTH_DEFAULT = 64 * 1024;
+
+    /**
+     * Property name for the max number of bytes read from a single transport in one poll before moving on.
+     */
+    public static final String RECEIVE_BURST_LENGTH_PROP_NAME = "aeron.rcv.burst.length";
+
+    /**
+     * Default max bytes read from a single transport in one poll.
+     */
+    public static final int RECEIVE_BURST_LENGTH_DEFAULT = 64 * 1024;
+
+    /**
+     * Property name for the max number of datagrams read from a single transport in one poll before moving on.
+     */
+    public static final String RECEIVE_BURST_DATAGRAMS_PROP_NAME = "aeron.rcv.burst.datagrams";
+
+    /**
+     * Default max datagrams read from a single transport in one poll.
+     */
+    public static final int RECEIVE_BURST_DATAGRAMS_DEFAULT = 16;
+
+    /**
+     * Property name for enabling the receive of in order data packets directly into the term buffer of an image.
+     */
+    public static final String RECEIVE_ZERO_COPY_PROP_NAME = "aeron.rcv.zero.copy";
+
+    /**
+     * Property name for the max bytes of log buffer zeroed by the {@link LogCleaner} in one duty cycle.
+     */
+    public static final String LOG_CLEANING_BUDGET_PROP_NAME = "aeron.log.cleaning.budget";
+
+    /**
+     * Default max bytes of log buffer zeroed in one duty cycle.
+     */
+    public static final int LOG_CLEANING_BUDGET_DEFAULT = 64 * 1024;
+
+    /**
+     * Property name for running the {@link LogCleaner} as a dedicated agent on its own thread rather than as part of
+     * the {@link DriverConductor} duty cycle. Ignored for {@link ThreadingMode#SHARED}.
+     */
+    public static final String LOG_CLEANER_DEDICATED_PROP_NAME = "aeron.log.cleaner.dedicated";
+
+    /**
+     * Property name for the number of log buffers kept mapped and ready for use for each publication term length.
+     * When greater than zero a {@link uk.co.real_logic.aeron.driver.buffer.RawLogPool} agent refills the pool on its own thread.
+     */
+    public static final String LOG_POOL_SIZE_PROP_NAME = "aeron.log.pool.size";
+
+    /**
+     * Default number of pooled log buffers for each term length. Pooling is disabled by default.
+     */
+    public static final int LOG_POOL_SIZE_DEFAULT = 0;
+
+    /**
+     * Time the {@link uk.co.real_logic.aeron.driver.buffer.RawLogPool} agent sleeps for when it has no work to do.
+     */
+    public static final long LOG_POOL_IDLE_SLEEP_NS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Property name for the time a closed log is held before it is zeroed and returned to the
+     * {@link uk.co.real_logic.aeron.driver.buffer.RawLogPool}. Clients may keep the log mapped for their resource linger
+     * after the driver closes it so this must cover that linger.
+     */
+    public static final String LOG_POOL_RECYCLE_DELAY_PROP_NAME = "aeron.log.pool.recycle.delay";
+
+    /**
+     * Default time a closed log is held before it is recycled into the pool.
+     */
+    public static final long LOG_POOL_RECYCLE_DELAY_DEFAULT_NS = TimeUnit.SECONDS.toNanos(10);
+
+    /**
+     * Number of {@link Sender} agents, each on its own thread, when running in {@link ThreadingMode#SHARDED} mode.
+     */
+    public static final String SENDER_SHARD_COUNT_PROP_NAME = "aeron.sender.shard.count";
+
+    /**
+     * Default number of {@link Sender} agents when running in {@link ThreadingMode#SHARDED} mode.
+     */
+    public static final int SENDER_SHARD_COUNT_DEFAULT = 2;
+
+    /**
+     * Number of {@link Receiver} agents, each on its own thread, when running in {@link ThreadingMode#SHARDED} mode.
+     */
+    public static final String RECEIVER_SHARD_COUNT_PROP_NAME = "aeron.receiver.shard.count";
+
+    /**
+     * Default number of {@link Receiver} agents when running in {@link ThreadingMode#SHARDED} mode.
+     */
+    public static final int RECEIVER_SHARD_COUNT_DEFAULT = 2;
+
     public static final String THREADING_MODE_PROP_NAME = "aeron.threading.mode";
     public static final String THREADING_MODE_DEFAULT = DEDICATED.name();
 
@@ -391,6 +629,18 @@ public class Configuration {
      */
     public static final long HEARTBEAT_TIMEOUT_NS = TimeUnit.SECONDS.toNanos(1);
 
+    /**
+     * Tick resolution of the {@link DeadlineTimerWheel}s the driver agents keep timeouts in. Must be a power of 2,
+     * approx 1ms.
+     */
+    public static final long TIMER_WHEEL_TICK_RESOLUTION_NS = 1 << 20;
+
+    /**
+     * Ticks per {@link DeadlineTimerWheel} for the conductor and receivers so one rotation covers the
+     * {@link #HEARTBEAT_TIMEOUT_NS} check interval. Must be a power of 2.
+     */
+    public static final int TIMER_WHEEL_TICKS_PER_WHEEL = 1024;
+
     public static final String SEND_CHANNEL_ENDPOINT_SUPPLIER_PROP_NAME = "aeron.SendChannelEndpoint.supplier";
 
     public static final String SEND_CHANNEL_ENDPOINT_SUPPLIER_DEFAULT =
@@ -444,6 +694,72 @@ public class Configuration {
         }
     }
 
+    /**
+     * Validate that the send burst allows for at least one full MTU datagram per duty cycle.
+     *
+     * @param sendBurstLength    to be validated.
+     * @param sendBurstDatagrams to be validated.
+     * @param mtuLength          against which to validate.
+     */
+    public static void validateSendBurst(final int sendBurstLength, final int sendBurstDatagrams, final int mtuLength) {
+        if (mtuLength > sendBurstLength) {
+            throw new IllegalStateException("Send burst length must be >= to MTU length: " + mtuLength);
+        }
+
+        if (sendBurstDatagrams < 1) {
+            throw new IllegalStateException("Send burst datagrams must be >= 1: " + sendBurstDatagrams);
+        }
+    }
+
+    /**
+     * Validate that the receive burst allows for at least one datagram per poll of a transport.
+     *
+     * @param receiveBurstLength    to be validated.
+     * @param receiveBurstDatagrams to be validated.
+     */
+    public static void validateReceiveBurst(final int receiveBurstLength, final int receiveBurstDatagrams) {
+        if (receiveBurstLength < 1) {
+            throw new IllegalStateException("Receive burst length must be >= 1: " + receiveBurstLength);
+        }
+
+        if (receiveBurstDatagrams < 1) {
+            throw new IllegalStateException("Receive burst datagrams must be >= 1: " + receiveBurstDatagrams);
+        }
+    }
+
+    /**
+     * Validate that the log cleaning budget allows progress.
+     *
+     * @param logCleaningBudget to be validated.
+     */
+    public static void validateLogCleaningBudget(final int logCleaningBudget) {
+        if (logCleaningBudget < 1) {
+            throw new IllegalStateException("Log cleaning budget must be >= 1: " + logCleaningBudget);
+        }
+    }
+
+    /**
+     * Validate that the log pool size is not negative.
+     *
+     * @param logPoolSize to be validated.
+     */
+    public static void validateLogPoolSize(final int logPoolSize) {
+        if (logPoolSize < 0) {
+            throw new IllegalStateException("Log pool size must be >= 0: " + logPoolSize);
+        }
+    }
+
+    /**
+     * Validate that the number of agent shards is at least one.
+     *
+     * @param shardCount to be validated.
+     */
+    public static void validateShardCount(final int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalStateException("Shard count must be >= 1: " + shardCount);
+        }
+    }
+
     public static IdleStrategy agentIdleStrategy(final String name) {
         IdleStrategy idleStrategy = null;
 
@@ -481,6 +797,14 @@ public class Configuration {
         return agentIdleStrategy(SHARED_IDLE_STRATEGY);
     }
 
+    public static IdleStrategy logCleanerIdleStrategy() {
+        return agentIdleStrategy(LOG_CLEANER_IDLE_STRATEGY);
+    }
+
+    public static IdleStrategy logPoolIdleStrategy() {
+        return new SleepingIdleStrategy(LOG_POOL_IDLE_SLEEP_NS);
+    }
+
     public static FlowControl unicastFlowControlStrategy() {
         FlowControl flowControl = null;
         try {
@@ -503,6 +827,40 @@ public class Configuration {
         return flowControl;
     }
 
+    /**
+     * Create the {@link CongestionControl} for a publication.
+     *
+     * @param name of the congestion control from the channel or null for {@link #CONGESTION_CONTROL_STRATEGY}.
+     * @return a new congestion control.
+     */
+    public static CongestionControl congestionControl(final String name) {
+        final String strategy = null != name ? name : CONGESTION_CONTROL_STRATEGY;
+        CongestionControl congestionControl = null;
+
+        switch (strategy) {
+            case "none":
+                congestionControl = new StaticWindowCongestionControl();
+                break;
+
+            case "loss":
+                congestionControl = new LossBasedCongestionControl();
+                break;
+
+            case "delay":
+                congestionControl = new DelayBasedCongestionControl();
+                break;
+
+            default:
+                try {
+                    congestionControl = (CongestionControl) Class.forName(strategy).newInstance();
+                } catch (final Exception ex) {
+                    LangUtil.rethrowUnchecked(ex);
+                }
+        }
+
+        return congestionControl;
+    }
+
     public static int termBufferLength() {
         return getInteger(TERM_BUFFER_LENGTH_PROP_NAME, TERM_BUFFER_LENGTH_DEFAULT);
     }
@@ -515,6 +873,62 @@ public class Configuration {
         return getInteger(INITIAL_WINDOW_LENGTH_PROP_NAME, INITIAL_WINDOW_LENGTH_DEFAULT);
     }
 
+    public static int maxWindowLength() {
+        return getInteger(MAX_WINDOW_LENGTH_PROP_NAME, MAX_WINDOW_LENGTH_DEFAULT);
+    }
+
+    public static long pacingRate() {
+        return getLong(PACING_RATE_PROP_NAME, PACING_RATE_DEFAULT);
+    }
+
+    public static int pacingBurstLength() {
+        return getInteger(PACING_BURST_LENGTH_PROP_NAME, PACING_BURST_LENGTH_DEFAULT);
+    }
+
+    public static int sendBurstLength() {
+        return getInteger(SEND_BURST_LENGTH_PROP_NAME, SEND_BURST_LENGTH_DEFAULT);
+    }
+
+    public static int retransmitBurstLength() {
+        return getInteger(RETRANSMIT_BURST_LENGTH_PROP_NAME, RETRANSMIT_BURST_LENGTH_DEFAULT);
+    }
+
+    public static int maxRetransmits() {
+        return getInteger(MAX_RETRANSMITS_PROP_NAME, MAX_RETRANSMITS_DEFAULT);
+    }
+
+    public static int sendBurstDatagrams() {
+        return getInteger(SEND_BURST_DATAGRAMS_PROP_NAME, SEND_BURST_DATAGRAMS_DEFAULT);
+    }
+
+    public static int receiveBurstLength() {
+        return getInteger(RECEIVE_BURST_LENGTH_PROP_NAME, RECEIVE_BURST_LENGTH_DEFAULT);
+    }
+
+    public static int receiveBurstDatagrams() {
+        return getInteger(RECEIVE_BURST_DATAGRAMS_PROP_NAME, RECEIVE_BURST_DATAGRAMS_DEFAULT);
+    }
+
+    public static int logCleaningBudget() {
+        return getInteger(LOG_CLEANING_BUDGET_PROP_NAME, LOG_CLEANING_BUDGET_DEFAULT);
+    }
+
+    public static int logPoolSize() {
+        return getInteger(LOG_POOL_SIZE_PROP_NAME, LOG_POOL_SIZE_DEFAULT);
+    }
+
+    public static long logPoolRecycleDelayNs() {
+        return getLong(LOG_POOL_RECYCLE_DELAY_PROP_NAME, LOG_POOL_RECYCLE_DELAY_DEFAULT_NS);
+    }
+
+    public static int senderShardCount() {
+        return getInteger(SENDER_SHARD_COUNT_PROP_NAME, SENDER_SHARD_COUNT_DEFAULT);
+    }
+
+    public static int receiverShardCount() {
+        return getInteger(RECEIVER_SHARD_COUNT_PROP_NAME, RECEIVER_SHARD_COUNT_DEFAULT);
+    }
+
     public static long statusMessageTimeout() {
         return getLong(STATUS_MESSAGE_TIMEOUT_PROP_NAME, STATUS_MESSAGE_TIMEOUT_DEFAULT_NS);
     }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+/**
+ * Strategy for limiting how far the {@link Sender} may run ahead of what receivers have acknowledged so a publication
+ * responds to congestion on the path and not only to the window receivers advertise via {@link FlowControl}.
+ *
+ * All methods are called from the {@link Sender} thread.
+ */
+public interface CongestionControl {
+    /**
+     * Initialize the congestion control strategy.
+     *
+     * @param mtuLength       of the publication.
+     * @param maxWindowLength above which the congestion window will not grow.
+     */
+    void initialize(int mtuLength, int maxWindowLength);
+
+    /**
+     * Data has been acknowledged by a status message advancing the position reached by receivers.
+     *
+     * @param bytesAcked since the previous acknowledgement.
+     * @param now        time in nanoseconds.
+     */
+    void onAck(long bytesAcked, long now);
+
+    /**
+     * Loss has been reported by a NAK for a range which will be retransmitted.
+     *
+     * @param length of the range lost.
+     * @param now    time in nanoseconds.
+     */
+    void onLoss(int length, long now);
+
+    /**
+     * A sample of the round trip time to the receivers.
+     *
+     * @param rttNs round trip time in nanoseconds.
+     * @param now   time in nanoseconds.
+     */
+    void onRttSample(long rttNs, long now);
+
+    /**
+     * The length of the congestion window beyond the acknowledged position up to which the sender may send.
+     *
+     * @return the length of the congestion window.
+     */
+    int windowLength();
+}
@@ -17,6 +17,7 @@ package uk.co.real_logic.aeron.driver;
 
 import uk.co.real_logic.aeron.driver.media.ReceiveChannelEndpoint;
 import uk.co.real_logic.aeron.protocol.DataHeaderFlyweight;
+import uk.co.real_logic.aeron.protocol.RttMeasurementFlyweight;
 import uk.co.real_logic.aeron.protocol.SetupFlyweight;
 import uk.co.real_logic.aeron.driver.exceptions.UnknownSubscriptionException;
 import uk.co.real_logic.agrona.collections.BiInt2ObjectMap;
@@ -26,6 +27,7 @@ import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 import java.net.InetSocketAddress;
 
 import static uk.co.real_logic.aeron.driver.DataPacketDispatcher.SessionStatus.*;
+import static uk.co.real_logic.aeron.protocol.RttMeasurementFlyweight.REPLY_FLAG;
 
 /**
  * Handling of dispatching data packets to {@link PublicationImage}s streams.
@@ -158,6 +160,17 @@ public class DataPacketDispatcher implements DataPacketHandler, SetupMessageHand
         }
     }
 
+    public void onRttMeasurement(final RttMeasurementFlyweight header) {
+        final Int2ObjectHashMap<PublicationImage> imageBySessionIdMap = sessionsByStreamIdMap.get(header.streamId());
+
+        if (null != imageBySessionIdMap && REPLY_FLAG == (header.flags() & REPLY_FLAG)) {
+            final PublicationImage image = imageBySessionIdMap.get(header.sessionId());
+            if (null != image) {
+                image.onRttMeasurement(header.echoTimestamp(), header.receptionDelta());
+            }
+        }
+    }
+
     private boolean isNotAlreadyInProgressOrOnCoolDown(final int streamId, final int sessionId) {
         final SessionStatus status = ignoredSessionsMap.get(sessionId, streamId);
 
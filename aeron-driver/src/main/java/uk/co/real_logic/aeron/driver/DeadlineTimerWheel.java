@@ -0,0 +1,260 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import uk.co.real_logic.agrona.BitUtil;
+
+import java.util.Arrays;
+
+/**
+ * Hashed timer wheel of deadlines identified by long timer ids so a timeout can be scheduled, cancelled, and expired
+ * without allocation or scanning everything which has a timeout.
+ *
+ * Deadlines are hashed to a spoke of the wheel by tick. Polling checks the spoke for the current tick, and those
+ * passed over since the last poll, so the work done is proportional to the timers on those spokes rather than all
+ * timers. A deadline for a later rotation of the wheel stays on its spoke until it is due. Spokes grow when full,
+ * which is the only allocation after construction.
+ *
+ * Not thread safe. Timers must be scheduled, cancelled, and polled from a single thread.
+ */
+public class DeadlineTimerWheel {
+    /**
+     * Deadline of an empty slot and the timer id returned for no timer.
+     */
+    public static final long NULL_TIMER = Long.MAX_VALUE;
+
+    /**
+     * Default number of timers each spoke holds before it needs to grow.
+     */
+    public static final int INITIAL_SPOKE_CAPACITY_DEFAULT = 16;
+
+    /**
+     * Handler for the expiry of a timer.
+     */
+    @FunctionalInterface
+    public interface TimerHandler {
+        /**
+         * Called when a timer has expired.
+         *
+         * @param now     time in nanoseconds.
+         * @param timerId of the timer which has expired.
+         * @return true if the expiry is consumed otherwise false to keep the timer and stop polling until the next poll.
+         */
+        boolean onTimerExpiry(long now, long timerId);
+    }
+
+    private final long startTime;
+    private final int resolutionBitsToShift;
+    private final int ticksPerWheel;
+    private final int tickMask;
+    private int spokeCapacity;
+    private int spokeBitsToShift;
+    private long currentTick;
+    private int pollIndex;
+    private int timerCount;
+    private long[] wheel;
+
+    /**
+     * Create a timer wheel.
+     *
+     * @param tickResolutionNs for the spokes which must be a power of 2.
+     * @param ticksPerWheel    the number of spokes which must be a power of 2.
+     * @param startTime        in nanoseconds from which ticks are counted.
+     */
+    public DeadlineTimerWheel(final long tickResolutionNs, final int ticksPerWheel, final long startTime) {
+        this(tickResolutionNs, ticksPerWheel, INITIAL_SPOKE_CAPACITY_DEFAULT, startTime);
+    }
+
+    /**
+     * Create a timer wheel with spokes which start small, for when many wheels are mostly empty, and grow on demand.
+     *
+     * @param tickResolutionNs     for the spokes which must be a power of 2.
+     * @param ticksPerWheel        the number of spokes which must be a power of 2.
+     * @param initialSpokeCapacity number of timers each spoke holds before growing which must be a power of 2.
+     * @param startTime            in nanoseconds from which ticks are counted.
+     */
+    public DeadlineTimerWheel(
+            final long tickResolutionNs, final int ticksPerWheel, final int initialSpokeCapacity, final long startTime) {
+        if (1 != Long.bitCount(tickResolutionNs) ||
+                !BitUtil.isPowerOfTwo(ticksPerWheel) ||
+                !BitUtil.isPowerOfTwo(initialSpokeCapacity)) {
+            throw new IllegalArgumentException(
+                "tick resolution, ticks per wheel, and initial spoke capacity must be powers of 2: " +
+                tickResolutionNs + ", " + ticksPerWheel + ", " + initialSpokeCapacity);
+        }
+
+        this.startTime = startTime;
+        this.resolutionBitsToShift = Long.numberOfTrailingZeros(tickResolutionNs);
+        this.ticksPerWheel = ticksPerWheel;
+        this.tickMask = ticksPerWheel - 1;
+        this.spokeCapacity = initialSpokeCapacity;
+        this.spokeBitsToShift = Integer.numberOfTrailingZeros(initialSpokeCapacity);
+        this.wheel = new long[ticksPerWheel * initialSpokeCapacity];
+
+        Arrays.fill(wheel, NULL_TIMER);
+    }
+
+    /**
+     * The number of timers scheduled and not yet expired or cancelled.
+     *
+     * @return number of timers scheduled and not yet expired or cancelled.
+     */
+    public int timerCount() {
+        return timerCount;
+    }
+
+    /**
+     * Schedule a timer for a deadline. The timer expires on the first poll after the deadline has passed.
+     *
+     * @param deadline in nanoseconds after which the timer expires.
+     * @return the id of the timer to be used for cancelling it and given on expiry.
+     */
+    public long scheduleTimer(final long deadline) {
+        final long deadlineTick = Math.max((deadline - startTime) >> resolutionBitsToShift, currentTick);
+        final int spokeIndex = (int) deadlineTick & tickMask;
+        final int spokeStart = spokeIndex << spokeBitsToShift;
+        long timerId = NULL_TIMER;
+
+        for (int i = 0; i < spokeCapacity; i++) {
+            if (NULL_TIMER == wheel[spokeStart + i]) {
+                wheel[spokeStart + i] = deadline;
+                timerId = timerId(spokeIndex, i);
+                break;
+            }
+        }
+
+        if (NULL_TIMER == timerId) {
+            final int slotIndex = spokeCapacity;
+            increaseSpokeCapacity();
+            wheel[(spokeIndex << spokeBitsToShift) + slotIndex] = deadline;
+            timerId = timerId(spokeIndex, slotIndex);
+        }
+
+        timerCount++;
+
+        return timerId;
+    }
+
+    /**
+     * Cancel a timer which has been scheduled.
+     *
+     * @param timerId of the timer to cancel.
+     * @return true if the timer was scheduled and has been cancelled otherwise false.
+     */
+    public boolean cancelTimer(final long timerId) {
+        final int spokeIndex = (int) (timerId >>> 32);
+        final int slotIndex = (int) timerId;
+        boolean isCancelled = false;
+
+        if (NULL_TIMER != timerId && spokeIndex < ticksPerWheel && slotIndex < spokeCapacity) {
+            final int wheelIndex = (spokeIndex << spokeBitsToShift) + slotIndex;
+
+            if (NULL_TIMER != wheel[wheelIndex]) {
+                wheel[wheelIndex] = NULL_TIMER;
+                timerCount--;
+                isCancelled = true;
+            }
+        }
+
+        return isCancelled;
+    }
+
+    /**
+     * Expire the timers which are due, advancing the wheel to the current time.
+     *
+     * @param now         time in nanoseconds.
+     * @param handler     to be called for each timer which has expired.
+     * @param expiryLimit on the number of timers to expire in this poll.
+     * @return the number of timers which have expired.
+     */
+    public int poll(final long now, final TimerHandler handler, final int expiryLimit) {
+        int timersExpired = 0;
+        final long nowTick = (now - startTime) >> resolutionBitsToShift;
+        int ticksPolled = 0;
+
+        while (timerCount > 0 && timersExpired < expiryLimit) {
+            final int spokeIndex = (int) currentTick & tickMask;
+            boolean isStopped = false;
+
+            while (pollIndex < spokeCapacity) {
+                final int wheelIndex = (spokeIndex << spokeBitsToShift) + pollIndex;
+                final long deadline = wheel[wheelIndex];
+
+                if (now > deadline) {
+                    if (timersExpired >= expiryLimit) {
+                        isStopped = true;
+                        break;
+                    }
+
+                    wheel[wheelIndex] = NULL_TIMER;
+                    timerCount--;
+
+                    if (!handler.onTimerExpiry(now, timerId(spokeIndex, pollIndex))) {
+                        wheel[wheelIndex] = deadline;
+                        timerCount++;
+                        isStopped = true;
+                        break;
+                    }
+
+                    timersExpired++;
+                }
+
+                pollIndex++;
+            }
+
+            if (isStopped || currentTick >= nowTick) {
+                if (!isStopped) {
+                    pollIndex = 0;
+                }
+
+                break;
+            }
+
+            pollIndex = 0;
+            currentTick++;
+
+            if (++ticksPolled >= ticksPerWheel) {
+                currentTick = nowTick;
+            }
+        }
+
+        if (0 == timerCount && currentTick < nowTick) {
+            currentTick = nowTick;
+            pollIndex = 0;
+        }
+
+        return timersExpired;
+    }
+
+    private static long timerId(final int spokeIndex, final int slotIndex) {
+        return ((long) spokeIndex << 32) | slotIndex;
+    }
+
+    private void increaseSpokeCapacity() {
+        final int newSpokeCapacity = spokeCapacity << 1;
+        final int newSpokeBitsToShift = Integer.numberOfTrailingZeros(newSpokeCapacity);
+        final long[] newWheel = new long[ticksPerWheel * newSpokeCapacity];
+        Arrays.fill(newWheel, NULL_TIMER);
+
+        for (int i = 0; i < ticksPerWheel; i++) {
+            System.arraycopy(wheel, i << spokeBitsToShift, newWheel, i << newSpokeBitsToShift, spokeCapacity);
+        }
+
+        spokeCapacity = newSpokeCapacity;
+        spokeBitsToShift = newSpokeBitsToShift;
+        wheel = newWheel;
+    }
+}
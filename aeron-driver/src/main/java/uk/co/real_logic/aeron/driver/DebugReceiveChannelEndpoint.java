@@ -25,6 +25,8 @@ import java.nio.ByteBuffer;
 /**
  * Debug implementation which can record transmission frames to the {@link MediaDriver.Context#eventLogger()} and introduce
  * loss via {@link MediaDriver.Context#controlLossGenerator()} and {@link MediaDriver.Context#dataLossGenerator()} .
+ *
+ * Zero-copy receive is disabled so every frame passes through {@link #dispatch(UnsafeBuffer, int, InetSocketAddress)}.
  */
 public class DebugReceiveChannelEndpoint extends ReceiveChannelEndpoint {
     private final LossGenerator dataLossGenerator;
@@ -32,7 +34,7 @@ public class DebugReceiveChannelEndpoint extends ReceiveChannelEndpoint {
 
     public DebugReceiveChannelEndpoint(
             final UdpChannel udpChannel, final DataPacketDispatcher dispatcher, final MediaDriver.Context context) {
-        super(udpChannel, dispatcher, context);
+        super(udpChannel, dispatcher, context, false);
 
         dataLossGenerator = context.dataLossGenerator();
         controlLossGenerator = context.controlLossGenerator();
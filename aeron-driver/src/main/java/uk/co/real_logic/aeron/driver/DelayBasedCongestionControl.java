@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import static uk.co.real_logic.aeron.driver.Configuration.*;
+
+/**
+ * Delay based congestion control in the manner of TCP Vegas.
+ *
+ * The data queued in the network is estimated from how far the round trip time has risen above the lowest seen. While
+ * it is below alpha MTUs the window grows, by the bytes acknowledged in slow start then by an MTU per window
+ * acknowledged, and once above beta MTUs the window is reduced to drain the excess. Loss reduces the window by a
+ * quarter, at most once per round trip.
+ */
+public class DelayBasedCongestionControl implements CongestionControl {
+    private int mtuLength;
+    private long minWindowLength;
+    private long maxWindowLength;
+    private long windowLength;
+    private long baseRttNs = Long.MAX_VALUE;
+    private long rttNs;
+    private long timeOfLastReduction;
+    private boolean hasReduced = false;
+    private boolean isSlowStart = true;
+    private boolean isGrowing = true;
+
+    /**
+     * {@inheritDoc}
+     */
+    public void initialize(final int mtuLength, final int maxWindowLength) {
+        this.mtuLength = mtuLength;
+        this.maxWindowLength = maxWindowLength;
+        minWindowLength = Math.min(maxWindowLength, (long) mtuLength * CONGESTION_WINDOW_MIN_MTUS_DEFAULT);
+        windowLength = Math.min(maxWindowLength, (long) mtuLength * CONGESTION_WINDOW_INITIAL_MTUS_DEFAULT);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onAck(final long bytesAcked, final long now) {
+        if (isGrowing) {
+            final long increment = isSlowStart ? bytesAcked : (mtuLength * bytesAcked) / windowLength;
+
+            windowLength = Math.min(maxWindowLength, windowLength + Math.max(1, increment));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onLoss(final int length, final long now) {
+        if (!hasReduced || now > (timeOfLastReduction + Math.max(rttNs, CONGESTION_LOSS_MIN_INTERVAL_DEFAULT_NS))) {
+            windowLength = Math.max(minWindowLength, windowLength - (windowLength >> 2));
+            isSlowStart = false;
+            timeOfLastReduction = now;
+            hasReduced = true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onRttSample(final long rttNs, final long now) {
+        this.rttNs = rttNs;
+        baseRttNs = Math.min(baseRttNs, rttNs);
+
+        final long queuedLength = (long) ((double) windowLength * (rttNs - baseRttNs) / rttNs);
+        final long alphaLength = (long) mtuLength * DELAY_CONGESTION_ALPHA_MTUS_DEFAULT;
+        final long betaLength = (long) mtuLength * DELAY_CONGESTION_BETA_MTUS_DEFAULT;
+
+        isGrowing = queuedLength < alphaLength;
+        if (!isGrowing) {
+            isSlowStart = false;
+        }
+
+        if (queuedLength > betaLength) {
+            windowLength = Math.max(minWindowLength, windowLength - (queuedLength - betaLength));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int windowLength() {
+        return (int) windowLength;
+    }
+}
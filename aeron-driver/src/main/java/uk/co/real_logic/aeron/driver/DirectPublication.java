@@ -37,11 +37,13 @@ public class DirectPublication implements DriverManagedResource {
     private long tripLimit = 0;
     private final int sessionId;
     private final int streamId;
+    private final int termLength;
     private final int termWindowLength;
     private final int positionBitsToShift;
     private final LogBufferPartition[] logPartitions;
     private final ArrayList<ReadablePosition> subscriberPositions = new ArrayList<>();
     private final RawLog rawLog;
+    private final LogBufferCleaner logBufferCleaner;
 
     private final Position publisherLimit;
     private long consumerPosition = 0;
@@ -60,6 +62,8 @@ public class DirectPublication implements DriverManagedResource {
         this.logPartitions = rawLog.partitions();
 
         final int termLength = rawLog.termLength();
+        this.termLength = termLength;
+        this.logBufferCleaner = new LogBufferCleaner(logPartitions, termLength, 0);
         this.termWindowLength = Configuration.ipcPublicationTermWindowLength(termLength);
         this.positionBitsToShift = Integer.numberOfTrailingZeros(termLength);
         this.rawLog = rawLog;
@@ -89,7 +93,12 @@ public class DirectPublication implements DriverManagedResource {
         return publisherLimit.id();
     }
 
+    public LogBufferCleaner logBufferCleaner() {
+        return logBufferCleaner;
+    }
+
     public void close() {
+        logBufferCleaner.close();
         rawLog.close();
         publisherLimit.close();
         subscriberPositions.forEach(ReadablePosition::close);
@@ -116,7 +125,11 @@ public class DirectPublication implements DriverManagedResource {
             maxSubscriberPosition = Math.max(maxSubscriberPosition, position);
         }
 
-        final long proposedLimit = subscriberPositions.isEmpty() ? 0L : minSubscriberPosition + termWindowLength;
+        long proposedLimit = 0L;
+        if (!subscriberPositions.isEmpty()) {
+            logBufferCleaner.cleanLimit(minSubscriberPosition - termLength);
+            proposedLimit = Math.min(minSubscriberPosition + termWindowLength, logBufferCleaner.writeLimit() - termLength);
+        }
 
         if (proposedLimit > tripLimit) {
             publisherLimit.setOrdered(proposedLimit);
@@ -129,19 +142,6 @@ public class DirectPublication implements DriverManagedResource {
         return workCount;
     }
 
-    public int cleanLogBuffer() {
-        int workCount = 0;
-
-        for (final LogBufferPartition partition : logPartitions) {
-            if (partition.status() == NEEDS_CLEANING) {
-                partition.clean();
-                workCount = 1;
-            }
-        }
-
-        return workCount;
-    }
-
     public long joiningPosition() {
         long maxSubscriberPosition = producerPosition();
 
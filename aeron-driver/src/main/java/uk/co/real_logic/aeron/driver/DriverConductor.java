@@ -16,6 +16,7 @@
 package uk.co.real_logic.aeron.driver;
 
 import uk.co.real_logic.aeron.command.CorrelatedMessageFlyweight;
+import uk.co.real_logic.aeron.command.DestinationMessageFlyweight;
 import uk.co.real_logic.aeron.command.PublicationMessageFlyweight;
 import uk.co.real_logic.aeron.command.RemoveMessageFlyweight;
 import uk.co.real_logic.aeron.command.SubscriptionMessageFlyweight;
@@ -34,6 +35,7 @@ import uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor;
 import uk.co.real_logic.aeron.protocol.DataHeaderFlyweight;
 import uk.co.real_logic.agrona.BitUtil;
 import uk.co.real_logic.agrona.MutableDirectBuffer;
+import uk.co.real_logic.agrona.collections.Long2ObjectHashMap;
 import uk.co.real_logic.agrona.concurrent.*;
 import uk.co.real_logic.agrona.concurrent.ringbuffer.RingBuffer;
 import uk.co.real_logic.agrona.concurrent.status.Position;
@@ -43,6 +45,7 @@ import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -67,14 +70,15 @@ public class DriverConductor implements Agent {
 
     private final Context context;
     private final RawLogFactory rawLogFactory;
+    private final LogCleaner logCleaner;
     private final ReceiverProxy receiverProxy;
     private final SenderProxy senderProxy;
     private final ClientProxy clientProxy;
     private final DriverConductorProxy fromReceiverConductorProxy;
     private final RingBuffer toDriverCommands;
     private final RingBuffer toEventReader;
-    private final OneToOneConcurrentArrayQueue<DriverConductorCmd> fromReceiverDriverConductorCmdQueue;
-    private final OneToOneConcurrentArrayQueue<DriverConductorCmd> fromSenderDriverConductorCmdQueue;
+    private final QueuedPipe<DriverConductorCmd> fromReceiverDriverConductorCmdQueue;
+    private final QueuedPipe<DriverConductorCmd> fromSenderDriverConductorCmdQueue;
     private final HashMap<String, SendChannelEndpoint> sendChannelEndpointByChannelMap = new HashMap<>();
     private final HashMap<String, ReceiveChannelEndpoint> receiveChannelEndpointByChannelMap = new HashMap<>();
     private final ArrayList<PublicationLink> publicationLinks = new ArrayList<>();
@@ -83,11 +87,16 @@ public class DriverConductor implements Agent {
     private final ArrayList<PublicationImage> publicationImages = new ArrayList<>();
     private final ArrayList<AeronClient> clients = new ArrayList<>();
     private final ArrayList<DirectPublication> directPublications = new ArrayList<>();
+    private final Long2ObjectHashMap<ManagedResourceTimer> resourceTimerByIdMap = new Long2ObjectHashMap<>();
+    private final IdentityHashMap<DriverManagedResource, ManagedResourceTimer> resourceTimerByResourceMap =
+            new IdentityHashMap<>();
+    private final DeadlineTimerWheel timerWheel;
 
     private final PublicationMessageFlyweight publicationMsgFlyweight = new PublicationMessageFlyweight();
     private final SubscriptionMessageFlyweight subscriptionMsgFlyweight = new SubscriptionMessageFlyweight();
     private final CorrelatedMessageFlyweight correlatedMsgFlyweight = new CorrelatedMessageFlyweight();
     private final RemoveMessageFlyweight removeMsgFlyweight = new RemoveMessageFlyweight();
+    private final DestinationMessageFlyweight destinationMsgFlyweight = new DestinationMessageFlyweight();
 
     private final EpochClock epochClock;
     private final NanoClock nanoClock;
@@ -95,6 +104,7 @@ public class DriverConductor implements Agent {
     private final EventLogger logger;
     private final Consumer<DriverConductorCmd> onDriverConductorCmdFunc = this::onDriverConductorCmd;
     private final MessageHandler onClientCommandFunc = this::onClientCommand;
+    private final DeadlineTimerWheel.TimerHandler onResourceCheckTimeoutFunc = this::onResourceCheckTimeout;
     private final MessageHandler onEventFunc;
 
     public DriverConductor(final Context ctx) {
@@ -107,6 +117,7 @@ public class DriverConductor implements Agent {
         receiverProxy = ctx.receiverProxy();
         senderProxy = ctx.senderProxy();
         rawLogFactory = ctx.rawLogBuffersFactory();
+        logCleaner = ctx.logCleaner();
         epochClock = ctx.epochClock();
         nanoClock = ctx.nanoClock();
         toDriverCommands = ctx.toDriverCommands();
@@ -121,6 +132,7 @@ public class DriverConductor implements Agent {
         toDriverCommands.consumerHeartbeatTime(epochClock.time());
 
         final long now = nanoClock.nanoTime();
+        timerWheel = new DeadlineTimerWheel(TIMER_WHEEL_TICK_RESOLUTION_NS, TIMER_WHEEL_TICKS_PER_WHEEL, now);
         timeOfLastTimeoutCheck = now;
         timeOfLastToDriverPositionChange = now;
         lastConsumerCommandPosition = toDriverCommands.consumerPosition();
@@ -170,13 +182,17 @@ public class DriverConductor implements Agent {
         final ArrayList<NetworkPublication> networkPublications = this.networkPublications;
         for (int i = 0, size = networkPublications.size(); i < size; i++) {
             final NetworkPublication publication = networkPublications.get(i);
-            workCount += publication.updatePublishersLimit() + publication.cleanLogBuffer();
+            workCount += publication.updatePublishersLimit();
         }
 
         final ArrayList<DirectPublication> directPublications = this.directPublications;
         for (int i = 0, size = directPublications.size(); i < size; i++) {
             final DirectPublication directPublication = directPublications.get(i);
-            workCount += directPublication.updatePublishersLimit() + directPublication.cleanLogBuffer();
+            workCount += directPublication.updatePublishersLimit();
+        }
+
+        if (!logCleaner.isDedicated()) {
+            workCount += logCleaner.doWork();
         }
 
         return workCount;
@@ -195,6 +211,7 @@ public class DriverConductor implements Agent {
             final ReceiveChannelEndpoint channelEndpoint) {
         channelEndpoint.validateSenderMtuLength(senderMtuLength);
         channelEndpoint.validateWindowMaxLength(context.initialWindowLength());
+        final int maxWindowLength = maxWindowLength(channelEndpoint);
 
         final UdpChannel udpChannel = channelEndpoint.udpChannel();
         final String channel = udpChannel.originalUriString();
@@ -210,6 +227,16 @@ public class DriverConductor implements Agent {
             final RawLog rawLog = newPublicationImageLog(
                     sessionId, streamId, initialTermId, termBufferLength, senderMtuLength, udpChannel, imageCorrelationId);
 
+            final AtomicCounter rttCounter = newCounter("receiver rtt", channel, sessionId, streamId, imageCorrelationId);
+            final FeedbackDelayGenerator nakDelayGenerator = udpChannel.isMulticast() ?
+                    NAK_MULTICAST_DELAY_GENERATOR :
+                    new RttAdaptiveDelayGenerator(
+                            rttCounter::get,
+                            RTT_DELAY_MULTIPLIER_DEFAULT,
+                            RTT_MIN_DELAY_DEFAULT_NS,
+                            NAK_UNICAST_DELAY_DEFAULT_NS,
+                            true);
+
             final PublicationImage image = new PublicationImage(
                     imageCorrelationId,
                     imageLivenessTimeoutNs,
@@ -221,10 +248,14 @@ public class DriverConductor implements Agent {
                     activeTermId,
                     initialTermOffset,
                     context.initialWindowLength(),
+                    Math.min(context.initialWindowLength(), Math.max(senderMtuLength, MIN_WINDOW_LENGTH_DEFAULT)),
+                    Math.max(context.initialWindowLength(), maxWindowLength),
                     rawLog,
-                    udpChannel.isMulticast() ? NAK_MULTICAST_DELAY_GENERATOR : NAK_UNICAST_DELAY_GENERATOR,
+                    nakDelayGenerator,
                     subscriberPositions.stream().map(SubscriberPosition::position).collect(toList()),
                     newPosition("receiver hwm", channel, sessionId, streamId, imageCorrelationId),
+                    rttCounter,
+                    newCounter("receiver window", channel, sessionId, streamId, imageCorrelationId),
                     nanoClock,
                     context.systemCounters(),
                     sourceAddress);
@@ -232,7 +263,8 @@ public class DriverConductor implements Agent {
             subscriberPositions.forEach(
                     (subscriberPosition) -> subscriberPosition.subscription().addImage(image, subscriberPosition.position()));
 
-            publicationImages.add(image);
+            addManagedResource(publicationImages, image);
+            logCleaner.addLog(image.logBufferCleaner());
             receiverProxy.newPublicationImage(channelEndpoint, image);
 
             clientProxy.onAvailableImage(
@@ -327,28 +359,74 @@ public class DriverConductor implements Agent {
                 .collect(toList());
     }
 
-    private <T extends DriverManagedResource> void onCheckManagedResources(final ArrayList<T> list, final long time) {
-        for (int i = list.size() - 1; i >= 0; i--) {
-            final DriverManagedResource resource = list.get(i);
+    /**
+     * Add a resource to the list it is kept in and schedule its first check for liveness and cleanup.
+     *
+     * Each resource is checked on its own timer every {@link Configuration#HEARTBEAT_TIMEOUT_NS} so the checks are
+     * spread over the duty cycles rather than all resources being scanned at once.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends DriverManagedResource> void addManagedResource(final ArrayList<T> list, final T resource) {
+        final ManagedResourceTimer timer = new ManagedResourceTimer(
+                resource, (ArrayList<DriverManagedResource>) list, list.size());
+        list.add(resource);
+
+        resourceTimerByResourceMap.put(resource, timer);
+        scheduleResourceCheck(timer, nanoClock.nanoTime());
+    }
 
-            resource.onTimeEvent(time, this);
+    /**
+     * Remove a resource from the list it is kept in, by moving the last resource into its place, and cancel its check.
+     */
+    private void removeManagedResource(final DriverManagedResource resource) {
+        final ManagedResourceTimer timer = resourceTimerByResourceMap.remove(resource);
+        if (null != timer) {
+            final long timerId = timer.timerId();
+            if (DeadlineTimerWheel.NULL_TIMER != timerId) {
+                timerWheel.cancelTimer(timerId);
+                resourceTimerByIdMap.remove(timerId);
+            }
+
+            removeFromList(timer);
+        }
+    }
+
+    private void removeFromList(final ManagedResourceTimer timer) {
+        final ArrayList<DriverManagedResource> resources = timer.resources();
+        final int index = timer.index();
+        final int lastIndex = resources.size() - 1;
+        final DriverManagedResource lastResource = resources.remove(lastIndex);
+
+        if (index != lastIndex) {
+            resources.set(index, lastResource);
+            resourceTimerByResourceMap.get(lastResource).index(index);
+        }
+    }
+
+    private void scheduleResourceCheck(final ManagedResourceTimer timer, final long now) {
+        final long timerId = timerWheel.scheduleTimer(now + HEARTBEAT_TIMEOUT_NS);
+        timer.timerId(timerId);
+        resourceTimerByIdMap.put(timerId, timer);
+    }
+
+    private boolean onResourceCheckTimeout(final long now, final long timerId) {
+        final ManagedResourceTimer timer = resourceTimerByIdMap.remove(timerId);
+
+        if (null != timer) {
+            final DriverManagedResource resource = timer.resource();
+
+            resource.onTimeEvent(now, this);
 
             if (resource.hasReachedEndOfLife()) {
                 resource.delete();
-                list.remove(i);
+                resourceTimerByResourceMap.remove(resource);
+                removeFromList(timer);
+            } else {
+                scheduleResourceCheck(timer, now);
             }
         }
-    }
-
-    private void onHeartbeatCheckTimeouts(final long nanoTimeNow) {
-        toDriverCommands.consumerHeartbeatTime(epochClock.time());
 
-        onCheckManagedResources(clients, nanoTimeNow);
-        onCheckManagedResources(publicationLinks, nanoTimeNow);
-        onCheckManagedResources(networkPublications, nanoTimeNow);
-        onCheckManagedResources(subscriptionLinks, nanoTimeNow);
-        onCheckManagedResources(publicationImages, nanoTimeNow);
-        onCheckManagedResources(directPublications, nanoTimeNow);
+        return true;
     }
 
     private void onCheckForBlockedToDriverCommands(final long nanoTimeNow) {
@@ -387,8 +465,30 @@ public class DriverConductor implements Agent {
                     if (IPC_CHANNEL.equals(channel)) {
                         onAddDirectPublication(streamId, correlationId, clientId);
                     } else {
-                        onAddNetworkPublication(channel, streamId, correlationId, clientId);
+                        onAddNetworkPublication(channel, streamId, correlationId, clientId, false);
+                    }
+                    break;
+                }
+
+                case ADD_EXCLUSIVE_PUBLICATION: {
+                    logger.log(EventCode.CMD_IN_ADD_EXCLUSIVE_PUBLICATION, buffer, index, length);
+
+                    final PublicationMessageFlyweight publicationMessageFlyweight = publicationMsgFlyweight;
+                    publicationMessageFlyweight.wrap(buffer, index);
+                    flyweight = publicationMessageFlyweight;
+
+                    final String channel = publicationMessageFlyweight.channel();
+                    if (IPC_CHANNEL.equals(channel)) {
+                        throw new ControlProtocolException(
+                                INVALID_CHANNEL, "Exclusive publications are not supported on: " + channel);
                     }
+
+                    onAddNetworkPublication(
+                            channel,
+                            publicationMessageFlyweight.streamId(),
+                            publicationMessageFlyweight.correlationId(),
+                            publicationMessageFlyweight.clientId(),
+                            true);
                     break;
                 }
 
@@ -432,6 +532,32 @@ public class DriverConductor implements Agent {
                     break;
                 }
 
+                case ADD_DESTINATION: {
+                    logger.log(EventCode.CMD_IN_ADD_DESTINATION, buffer, index, length);
+
+                    final DestinationMessageFlyweight destinationMessageFlyweight = destinationMsgFlyweight;
+                    destinationMessageFlyweight.wrap(buffer, index);
+                    flyweight = destinationMessageFlyweight;
+                    onAddDestination(
+                            destinationMessageFlyweight.registrationCorrelationId(),
+                            destinationMessageFlyweight.channel(),
+                            destinationMessageFlyweight.correlationId());
+                    break;
+                }
+
+                case REMOVE_DESTINATION: {
+                    logger.log(EventCode.CMD_IN_REMOVE_DESTINATION, buffer, index, length);
+
+                    final DestinationMessageFlyweight destinationMessageFlyweight = destinationMsgFlyweight;
+                    destinationMessageFlyweight.wrap(buffer, index);
+                    flyweight = destinationMessageFlyweight;
+                    onRemoveDestination(
+                            destinationMessageFlyweight.registrationCorrelationId(),
+                            destinationMessageFlyweight.channel(),
+                            destinationMessageFlyweight.correlationId());
+                    break;
+                }
+
                 case CLIENT_KEEPALIVE: {
                     logger.log(EventCode.CMD_IN_KEEPALIVE_CLIENT, buffer, index, length);
 
@@ -452,35 +578,51 @@ public class DriverConductor implements Agent {
     }
 
     private int processTimers(final long now) {
-        int workCount = 0;
+        int workCount = timerWheel.poll(now, onResourceCheckTimeoutFunc, Integer.MAX_VALUE);
 
         if (now > (timeOfLastTimeoutCheck + HEARTBEAT_TIMEOUT_NS)) {
-            onHeartbeatCheckTimeouts(now);
+            toDriverCommands.consumerHeartbeatTime(epochClock.time());
             onCheckForBlockedToDriverCommands(now);
             timeOfLastTimeoutCheck = now;
-            workCount = 1;
+            workCount += 1;
         }
 
         return workCount;
     }
 
     private void onAddNetworkPublication(
-            final String channel, final int streamId, final long registrationId, final long clientId) {
+            final String channel,
+            final int streamId,
+            final long registrationId,
+            final long clientId,
+            final boolean isExclusive) {
         final UdpChannel udpChannel = UdpChannel.parse(channel);
         final SendChannelEndpoint channelEndpoint = getOrCreateSendChannelEndpoint(udpChannel);
 
-        NetworkPublication publication = channelEndpoint.getPublication(streamId);
+        NetworkPublication publication = isExclusive ? null : channelEndpoint.getPublication(streamId);
         if (null == publication) {
             final int sessionId = nextSessionId + nextSessionId();
             final int initialTermId = BitUtil.generateRandomisedId();
 
+            final AtomicCounter senderRtt = newCounter("sender rtt", channel, sessionId, streamId, registrationId);
+            final FeedbackDelayGenerator lingerGenerator = udpChannel.isMulticast() ?
+                    RETRANSMIT_UNICAST_LINGER_GENERATOR :
+                    new RttAdaptiveDelayGenerator(
+                            senderRtt::get,
+                            RTT_DELAY_MULTIPLIER_DEFAULT,
+                            RTT_MIN_DELAY_DEFAULT_NS,
+                            RETRANSMIT_UNICAST_LINGER_DEFAULT_NS,
+                            false);
+
             final RetransmitHandler retransmitHandler = new RetransmitHandler(
                     nanoClock,
                     context.systemCounters(),
                     RETRANSMIT_UNICAST_DELAY_GENERATOR,
-                    RETRANSMIT_UNICAST_LINGER_GENERATOR,
+                    lingerGenerator,
                     initialTermId,
-                    context.termBufferLength());
+                    context.termBufferLength(),
+                    context.retransmitBurstLength(),
+                    context.maxRetransmits());
 
             publication = new NetworkPublication(
                     channelEndpoint,
@@ -488,28 +630,69 @@ public class DriverConductor implements Agent {
                     newNetworkPublicationLog(sessionId, streamId, initialTermId, udpChannel, registrationId),
                     newPosition("sender pos", channel, sessionId, streamId, registrationId),
                     newPosition("publisher limit", channel, sessionId, streamId, registrationId),
+                    senderRtt,
+                    newCounter("sender cwnd", channel, sessionId, streamId, registrationId),
                     sessionId,
                     streamId,
                     initialTermId,
                     context.mtuLength(),
+                    context.sendBurstLength(),
+                    context.sendBurstDatagrams(),
                     context.systemCounters(),
-                    udpChannel.isMulticast() ?
-                            context.multicastSenderFlowControlSupplier().get() : context.unicastSenderFlowControlSupplier().get(),
+                    newSenderFlowControl(udpChannel),
+                    congestionControl(udpChannel.congestionControl()),
+                    newPacer(udpChannel),
                     retransmitHandler);
 
-            channelEndpoint.addPublication(publication);
-            networkPublications.add(publication);
+            if (isExclusive) {
+                channelEndpoint.addExclusivePublication(publication);
+            } else {
+                channelEndpoint.addPublication(publication);
+            }
+
+            addManagedResource(networkPublications, publication);
+            logCleaner.addLog(publication.logBufferCleaner());
             senderProxy.newNetworkPublication(publication);
         }
 
         linkPublication(registrationId, publication, getOrAddClient(clientId));
 
-        clientProxy.onPublicationReady(
-                registrationId,
-                streamId,
-                publication.sessionId(),
-                publication.rawLog().logFileName(),
-                publication.publisherLimitId());
+        if (isExclusive) {
+            clientProxy.onExclusivePublicationReady(
+                    registrationId,
+                    streamId,
+                    publication.sessionId(),
+                    publication.rawLog().logFileName(),
+                    publication.publisherLimitId());
+        } else {
+            clientProxy.onPublicationReady(
+                    registrationId,
+                    streamId,
+                    publication.sessionId(),
+                    publication.rawLog().logFileName(),
+                    publication.publisherLimitId());
+        }
+    }
+
+    private FlowControl newSenderFlowControl(final UdpChannel udpChannel) {
+        final FlowControl flowControl;
+        if (udpChannel.isManualControlMode()) {
+            flowControl = new MinMulticastFlowControl();
+        } else if (udpChannel.isMulticast()) {
+            flowControl = context.multicastSenderFlowControlSupplier().get();
+        } else {
+            flowControl = context.unicastSenderFlowControlSupplier().get();
+        }
+
+        return flowControl;
+    }
+
+    private TokenBucketPacer newPacer(final UdpChannel udpChannel) {
+        final long pacingRate = udpChannel.pacingRate() >= 0 ? udpChannel.pacingRate() : context.pacingRate();
+        final int pacingBurstLength = udpChannel.pacingBurstLength() >= 0 ?
+                udpChannel.pacingBurstLength() : context.pacingBurstLength();
+
+        return new TokenBucketPacer(pacingRate, Math.max(context.mtuLength(), pacingBurstLength), nanoClock.nanoTime());
     }
 
     private void onAddDirectPublication(final int streamId, final long registrationId, final long clientId) {
@@ -535,7 +718,7 @@ public class DriverConductor implements Agent {
             throw new ControlProtocolException(GENERIC_ERROR, "registration id already in use.");
         }
 
-        publicationLinks.add(new PublicationLink(
+        addManagedResource(publicationLinks, new PublicationLink(
                 registrationId,
                 publication,
                 client,
@@ -617,26 +800,46 @@ public class DriverConductor implements Agent {
     }
 
     private void onRemovePublication(final long registrationId, final long correlationId) {
-        PublicationLink publicationLink = null;
-        final ArrayList<PublicationLink> publicationLinks = this.publicationLinks;
-        for (int i = 0, size = publicationLinks.size(); i < size; i++) {
-            final PublicationLink link = publicationLinks.get(i);
-            if (registrationId == link.registrationId()) {
-                publicationLink = link;
-                publicationLinks.remove(i);
-                break;
-            }
-        }
-
+        final PublicationLink publicationLink = findPublicationLink(publicationLinks, registrationId);
         if (null == publicationLink) {
             throw new ControlProtocolException(UNKNOWN_PUBLICATION, "Unknown publication: " + registrationId);
         }
 
+        removeManagedResource(publicationLink);
         publicationLink.close();
 
         clientProxy.operationSucceeded(correlationId);
     }
 
+    private void onAddDestination(final long registrationId, final String destinationChannel, final long correlationId) {
+        final SendChannelEndpoint channelEndpoint = findManualControlSendChannelEndpoint(registrationId);
+        senderProxy.addDestination(channelEndpoint, UdpChannel.parse(destinationChannel).remoteData());
+
+        clientProxy.operationSucceeded(correlationId);
+    }
+
+    private void onRemoveDestination(final long registrationId, final String destinationChannel, final long correlationId) {
+        final SendChannelEndpoint channelEndpoint = findManualControlSendChannelEndpoint(registrationId);
+        senderProxy.removeDestination(channelEndpoint, UdpChannel.parse(destinationChannel).remoteData());
+
+        clientProxy.operationSucceeded(correlationId);
+    }
+
+    private SendChannelEndpoint findManualControlSendChannelEndpoint(final long registrationId) {
+        final PublicationLink publicationLink = findPublicationLink(publicationLinks, registrationId);
+        if (null == publicationLink || !(publicationLink.publication() instanceof NetworkPublication)) {
+            throw new ControlProtocolException(UNKNOWN_PUBLICATION, "Unknown publication: " + registrationId);
+        }
+
+        final SendChannelEndpoint channelEndpoint = ((NetworkPublication) publicationLink.publication()).sendChannelEndpoint();
+        if (!channelEndpoint.udpChannel().isManualControlMode()) {
+            throw new ControlProtocolException(
+                    INVALID_CHANNEL, "Channel is not in manual control mode: " + channelEndpoint.originalUriString());
+        }
+
+        return channelEndpoint;
+    }
+
     private void onAddNetworkSubscription(
             final String channel, final int streamId, final long registrationId, final long clientId) {
         final ReceiveChannelEndpoint channelEndpoint = getOrCreateReceiveChannelEndpoint(UdpChannel.parse(channel));
@@ -649,7 +852,7 @@ public class DriverConductor implements Agent {
         final AeronClient client = getOrAddClient(clientId);
         final SubscriptionLink subscription = new SubscriptionLink(registrationId, channelEndpoint, streamId, client);
 
-        subscriptionLinks.add(subscription);
+        addManagedResource(subscriptionLinks, subscription);
         clientProxy.operationSucceeded(registrationId);
 
         publicationImages
@@ -685,7 +888,7 @@ public class DriverConductor implements Agent {
 
         final SubscriptionLink subscriptionLink = new SubscriptionLink(registrationId, streamId, publication, position, client);
 
-        subscriptionLinks.add(subscriptionLink);
+        addManagedResource(subscriptionLinks, subscriptionLink);
         publication.addSubscription(position);
 
         clientProxy.operationSucceeded(registrationId);
@@ -707,7 +910,7 @@ public class DriverConductor implements Agent {
         if (null == channelEndpoint) {
             channelEndpoint = context.receiveChannelEndpointSupplier().newInstance(
                     udpChannel,
-                    new DataPacketDispatcher(fromReceiverConductorProxy, receiverProxy.receiver()),
+                    new DataPacketDispatcher(fromReceiverConductorProxy, receiverProxy.receiver(udpChannel)),
                     context);
 
             receiveChannelEndpointByChannelMap.put(udpChannel.canonicalForm(), channelEndpoint);
@@ -718,11 +921,12 @@ public class DriverConductor implements Agent {
     }
 
     private void onRemoveSubscription(final long registrationId, final long correlationId) {
-        final SubscriptionLink link = removeSubscriptionLink(subscriptionLinks, registrationId);
+        final SubscriptionLink link = findSubscriptionLink(subscriptionLinks, registrationId);
         if (null == link) {
             throw new ControlProtocolException(UNKNOWN_SUBSCRIPTION, "Unknown subscription link: " + registrationId);
         }
 
+        removeManagedResource(link);
         link.close();
         final ReceiveChannelEndpoint channelEndpoint = link.channelEndpoint();
 
@@ -762,7 +966,7 @@ public class DriverConductor implements Agent {
         AeronClient client = findClient(clients, clientId);
         if (null == client) {
             client = new AeronClient(clientId, clientLivenessTimeoutNs, nanoClock.nanoTime());
-            clients.add(client);
+            addManagedResource(clients, client);
         }
 
         return client;
@@ -782,7 +986,8 @@ public class DriverConductor implements Agent {
 
             directPublication = new DirectPublication(imageCorrelationId, sessionId, streamId, publisherLimit, rawLog);
 
-            directPublications.add(directPublication);
+            addManagedResource(directPublications, directPublication);
+            logCleaner.addLog(directPublication.logBufferCleaner());
         }
 
         return directPublication;
@@ -794,10 +999,31 @@ public class DriverConductor implements Agent {
         return new UnsafeBufferPosition(context.counterValuesBuffer(), positionId, context.countersManager());
     }
 
+    private int maxWindowLength(final ReceiveChannelEndpoint channelEndpoint) {
+        int maxWindowLength = context.maxWindowLength();
+
+        if (0 == maxWindowLength) {
+            maxWindowLength = channelEndpoint.soRcvbuf();
+        } else {
+            channelEndpoint.validateWindowMaxLength(maxWindowLength);
+        }
+
+        return maxWindowLength;
+    }
+
+    private AtomicCounter newCounter(
+            final String name, final String channel, final int sessionId, final int streamId, final long correlationId) {
+        return context.countersManager().newCounter(counterLabel(name, channel, sessionId, streamId, correlationId));
+    }
+
     private int allocateCounter(
             final String type, final String channel, final int sessionId, final int streamId, final long correlationId) {
-        return context.countersManager().allocate(String.format(
-                "%s: %s %d %d %d", type, channel, sessionId, streamId, correlationId));
+        return context.countersManager().allocate(counterLabel(type, channel, sessionId, streamId, correlationId));
+    }
+
+    private static String counterLabel(
+            final String type, final String channel, final int sessionId, final int streamId, final long correlationId) {
+        return String.format("%s: %s %d %d %d", type, channel, sessionId, streamId, correlationId);
     }
 
     private long nextImageCorrelationId() {
@@ -833,7 +1059,7 @@ public class DriverConductor implements Agent {
         return publicationLink;
     }
 
-    private static SubscriptionLink removeSubscriptionLink(
+    private static SubscriptionLink findSubscriptionLink(
             final ArrayList<SubscriptionLink> subscriptionLinks, final long registrationId) {
         SubscriptionLink subscriptionLink = null;
 
@@ -841,7 +1067,6 @@ public class DriverConductor implements Agent {
             final SubscriptionLink link = subscriptionLinks.get(i);
             if (link.registrationId() == registrationId) {
                 subscriptionLink = link;
-                subscriptionLinks.remove(i);
                 break;
             }
         }
@@ -28,9 +28,10 @@ public interface FlowControl {
      * @param termOffset           within the current active term for the receiver.
      * @param receiverWindowLength supported by the receiver.
      * @param address              of the receiver.
+     * @param now                  time in nanoseconds.
      * @return the new position limit to be employed by the sender.
      */
-    long onStatusMessage(int termId, int termOffset, int receiverWindowLength, InetSocketAddress address);
+    long onStatusMessage(int termId, int termOffset, int receiverWindowLength, InetSocketAddress address, long now);
 
     /**
      * Initialize the flow control strategy
@@ -47,4 +48,13 @@ public interface FlowControl {
      * @return the position limit to be employed by the sender.
      */
     long onIdle(long now);
+
+    /**
+     * Stop tracking a receiver, such as a destination removed from a channel in manual control mode, so it no longer
+     * limits the sender.
+     *
+     * @param address of the receiver.
+     */
+    default void onRemoveReceiver(final InetSocketAddress address) {
+    }
 }
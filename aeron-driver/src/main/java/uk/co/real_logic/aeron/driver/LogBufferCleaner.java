@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import uk.co.real_logic.aeron.logbuffer.LogBufferPartition;
+
+import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.CLEAN;
+import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.PARTITION_COUNT;
+import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.indexByPosition;
+
+/**
+ * Tracks how far the terms of a log buffer have been zeroed behind its consumers so the partitions can be reused.
+ *
+ * The owner of the log sets a limit up to which the log may be cleaned and the {@link LogCleaner} zeroes towards it
+ * in steps of a bounded number of bytes so a large term does not stall the agent doing the cleaning. A position in
+ * the log can only be written once the same offset in the term which previously used the partition has been cleaned,
+ * see {@link #writeLimit()}.
+ *
+ * Steps may run on a dedicated {@link LogCleaner} thread so {@link #close()} waits for a step in progress to complete
+ * before the owner unmaps the log.
+ */
+public class LogBufferCleaner {
+    private final LogBufferPartition[] partitions;
+    private final int positionBitsToShift;
+    private final int termLengthMask;
+    private final int termLength;
+    private volatile long cleanPosition;
+    private volatile long cleanLimit;
+    private volatile boolean isClosed = false;
+
+    public LogBufferCleaner(final LogBufferPartition[] partitions, final int termLength, final long initialPosition) {
+        this.partitions = partitions;
+        this.termLength = termLength;
+        this.termLengthMask = termLength - 1;
+        this.positionBitsToShift = Integer.numberOfTrailingZeros(termLength);
+        this.cleanPosition = initialPosition;
+        this.cleanLimit = initialPosition;
+    }
+
+    /**
+     * Position in the log below which all previously written data has been zeroed.
+     *
+     * @return position in the log below which all previously written data has been zeroed.
+     */
+    public long cleanPosition() {
+        return cleanPosition;
+    }
+
+    /**
+     * Position in the log up to which data can be written without overwriting data which has not been cleaned.
+     *
+     * @return position in the log up to which data can be written.
+     */
+    public long writeLimit() {
+        return cleanPosition + ((long) PARTITION_COUNT * termLength);
+    }
+
+    /**
+     * Advance the limit up to which the log can be cleaned. Called by the owner of the log as its consumers progress.
+     *
+     * @param position up to which the log is no longer required.
+     */
+    public void cleanLimit(final long position) {
+        if (position > cleanLimit) {
+            cleanLimit = position;
+        }
+    }
+
+    /**
+     * The number of bytes between the clean position and the limit up to which the log can be cleaned.
+     *
+     * @return the number of bytes waiting to be cleaned.
+     */
+    public long lag() {
+        return Math.max(0, cleanLimit - cleanPosition);
+    }
+
+    /**
+     * Zero the next region of the log towards the clean limit. A step does not cross a term boundary.
+     *
+     * @param budget max number of bytes to be zeroed.
+     * @return the number of bytes zeroed.
+     */
+    public synchronized int clean(final int budget) {
+        int bytesCleaned = 0;
+
+        if (!isClosed) {
+            final long cleanPosition = this.cleanPosition;
+            final int termOffset = (int) cleanPosition & termLengthMask;
+            final long available = Math.min(cleanLimit - cleanPosition, termLength - termOffset);
+            final int length = (int) Math.min(available, budget);
+
+            if (length > 0) {
+                final LogBufferPartition partition = partitions[indexByPosition(cleanPosition, positionBitsToShift)];
+                partition.termBuffer().setMemory(termOffset, length, (byte) 0);
+                if (termOffset + length == termLength) {
+                    partition.statusOrdered(CLEAN);
+                }
+
+                this.cleanPosition = cleanPosition + length;
+                bytesCleaned = length;
+            }
+        }
+
+        return bytesCleaned;
+    }
+
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    /**
+     * Stop any further cleaning of the log, waiting for a step in progress to complete.
+     */
+    public synchronized void close() {
+        isClosed = true;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import uk.co.real_logic.agrona.concurrent.Agent;
+import uk.co.real_logic.agrona.concurrent.AtomicCounter;
+import uk.co.real_logic.agrona.concurrent.OneToOneConcurrentArrayQueue;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Zeroes log buffers behind their consumers within a budget of bytes per duty cycle.
+ *
+ * The log given first call on the budget rotates each duty cycle so every log makes progress.
+ *
+ * By default the duty cycle is run as part of the {@link DriverConductor}. When dedicated it runs as its own
+ * {@link Agent} and new logs are handed over via a queue.
+ */
+public class LogCleaner implements Agent {
+    private final int cleaningBudget;
+    private final OneToOneConcurrentArrayQueue<LogBufferCleaner> newLogQueue;
+    private final AtomicCounter bytesCleaned;
+    private final AtomicCounter cleaningLag;
+    private final ArrayList<LogBufferCleaner> logs = new ArrayList<>();
+    private final Consumer<LogBufferCleaner> onNewLogFunc = logs::add;
+    private int startIndex = 0;
+
+    /**
+     * Construct a cleaner to be run as part of the {@link DriverConductor} duty cycle.
+     *
+     * @param cleaningBudget max number of bytes zeroed per duty cycle.
+     * @param systemCounters for reporting progress.
+     */
+    public LogCleaner(final int cleaningBudget, final SystemCounters systemCounters) {
+        this(cleaningBudget, null, systemCounters);
+    }
+
+    /**
+     * Construct a cleaner which, when given a queue, is to be run as a dedicated agent.
+     *
+     * @param cleaningBudget max number of bytes zeroed per duty cycle.
+     * @param newLogQueue    via which new logs are handed over from the {@link DriverConductor} or null if not dedicated.
+     * @param systemCounters for reporting progress.
+     */
+    public LogCleaner(
+            final int cleaningBudget,
+            final OneToOneConcurrentArrayQueue<LogBufferCleaner> newLogQueue,
+            final SystemCounters systemCounters) {
+        this.cleaningBudget = cleaningBudget;
+        this.newLogQueue = newLogQueue;
+        this.bytesCleaned = systemCounters.logBytesCleaned();
+        this.cleaningLag = systemCounters.logCleaningLag();
+    }
+
+    public String roleName() {
+        return "log-cleaner";
+    }
+
+    public boolean isDedicated() {
+        return null != newLogQueue;
+    }
+
+    /**
+     * Add a log to be cleaned. Called from the {@link DriverConductor} thread.
+     *
+     * @param logBufferCleaner for the log to be cleaned until it is closed.
+     */
+    public void addLog(final LogBufferCleaner logBufferCleaner) {
+        if (isDedicated()) {
+            while (!newLogQueue.offer(logBufferCleaner)) {
+                Thread.yield();
+            }
+        } else {
+            logs.add(logBufferCleaner);
+        }
+    }
+
+    public int doWork() throws Exception {
+        int workCount = 0;
+
+        if (isDedicated()) {
+            workCount += newLogQueue.drain(onNewLogFunc);
+        }
+
+        int budget = cleaningBudget;
+        long lag = 0;
+
+        final ArrayList<LogBufferCleaner> logs = this.logs;
+        for (int i = logs.size() - 1; i >= 0; i--) {
+            if (logs.get(i).isClosed()) {
+                logs.remove(i);
+            }
+        }
+
+        final int size = logs.size();
+        if (startIndex >= size) {
+            startIndex = 0;
+        }
+
+        for (int i = 0, index = startIndex; i < size; i++) {
+            final LogBufferCleaner log = logs.get(index);
+            if (budget > 0) {
+                budget -= log.clean(budget);
+            }
+
+            lag += log.lag();
+
+            if (++index == size) {
+                index = 0;
+            }
+        }
+
+        startIndex++;
+
+        final int bytesCleaned = cleaningBudget - budget;
+        if (bytesCleaned > 0) {
+            this.bytesCleaned.addOrdered(bytesCleaned);
+            workCount += 1;
+        }
+
+        cleaningLag.setOrdered(lag);
+
+        return workCount;
+    }
+}
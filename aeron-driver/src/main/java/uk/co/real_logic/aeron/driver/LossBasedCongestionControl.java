@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import static uk.co.real_logic.aeron.driver.Configuration.*;
+
+/**
+ * Loss based congestion control in the manner of TCP Reno.
+ *
+ * The window grows by the bytes acknowledged in slow start, then by an MTU per window acknowledged, and halves on
+ * loss. Loss is reacted to at most once per round trip so the NAKs for one loss event do not collapse the window.
+ */
+public class LossBasedCongestionControl implements CongestionControl {
+    private int mtuLength;
+    private long minWindowLength;
+    private long maxWindowLength;
+    private long windowLength;
+    private long slowStartThreshold;
+    private long rttNs;
+    private long timeOfLastReduction;
+    private boolean hasReduced = false;
+
+    /**
+     * {@inheritDoc}
+     */
+    public void initialize(final int mtuLength, final int maxWindowLength) {
+        this.mtuLength = mtuLength;
+        this.maxWindowLength = maxWindowLength;
+        minWindowLength = Math.min(maxWindowLength, (long) mtuLength * CONGESTION_WINDOW_MIN_MTUS_DEFAULT);
+        windowLength = Math.min(maxWindowLength, (long) mtuLength * CONGESTION_WINDOW_INITIAL_MTUS_DEFAULT);
+        slowStartThreshold = maxWindowLength;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onAck(final long bytesAcked, final long now) {
+        final long increment = windowLength < slowStartThreshold ? bytesAcked : (mtuLength * bytesAcked) / windowLength;
+
+        windowLength = Math.min(maxWindowLength, windowLength + Math.max(1, increment));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onLoss(final int length, final long now) {
+        if (!hasReduced || now > (timeOfLastReduction + Math.max(rttNs, CONGESTION_LOSS_MIN_INTERVAL_DEFAULT_NS))) {
+            slowStartThreshold = Math.max(minWindowLength, windowLength >> 1);
+            windowLength = slowStartThreshold;
+            timeOfLastReduction = now;
+            hasReduced = true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onRttSample(final long rttNs, final long now) {
+        this.rttNs = rttNs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int windowLength() {
+        return (int) windowLength;
+    }
+}
@@ -15,26 +15,35 @@
  */
 package uk.co.real_logic.aeron.driver;
 
+import uk.co.real_logic.aeron.logbuffer.TermGapIndex;
 import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 
+import static uk.co.real_logic.aeron.driver.Configuration.NAK_MAX_GAPS_DEFAULT;
 import static uk.co.real_logic.aeron.logbuffer.TermGapScanner.GapHandler;
-import static uk.co.real_logic.aeron.logbuffer.TermGapScanner.scanForGap;
 
 /**
  * Detecting and handling of gaps in a stream
  *
- * This detector only notifies a single NAK at a time.
+ * All the gaps in the active term, up to {@link Configuration#NAK_MAX_GAPS_DEFAULT}, are tracked and notified together in a single NAK. The gaps are
+ * kept in a {@link TermGapIndex} so frames already received are not rescanned on each duty cycle.
  */
 public class LossDetector implements GapHandler {
     private static final long TIMER_INACTIVE = -1;
 
     private final FeedbackDelayGenerator delayGenerator;
     private final NakMessageSender nakMessageSender;
-    private final Gap scannedGap = new Gap();
-    private final Gap activeGap = new Gap();
+    private final TermGapIndex gapIndex = new TermGapIndex(NAK_MAX_GAPS_DEFAULT);
+    private final int[] scannedTermOffsets = new int[NAK_MAX_GAPS_DEFAULT];
+    private final int[] scannedLengths = new int[NAK_MAX_GAPS_DEFAULT];
+    private final int[] activeTermOffsets = new int[NAK_MAX_GAPS_DEFAULT];
+    private final int[] activeLengths = new int[NAK_MAX_GAPS_DEFAULT];
 
     private long expire = TIMER_INACTIVE;
     private int rebuildOffset = 0;
+    private int scannedTermId;
+    private int scannedGapCount = 0;
+    private int activeTermId;
+    private int activeGapCount = 0;
 
     /**
      * Create a loss handler for a channel.
@@ -89,20 +98,23 @@ public class LossDetector implements GapHandler {
 
             final int activeTermId = initialTermId + rebuildTermsCount;
             final int activeTermLimit = (rebuildTermsCount == hwmTermsCount) ? hwmTermOffset : termBuffer.capacity();
-            rebuildOffset = activeTermLimit;
 
-            rebuildOffset = scanForGap(termBuffer, activeTermId, rebuildTermOffset, activeTermLimit, this);
-            if (rebuildOffset < activeTermLimit) {
-                final Gap gap = scannedGap;
-                if (TIMER_INACTIVE == expire || !gap.matches(activeGap.termId, activeGap.termOffset)) {
-                    activateGap(now, gap.termId, gap.termOffset, gap.length);
+            scannedGapCount = 0;
+            rebuildOffset = gapIndex.scan(termBuffer, activeTermId, rebuildTermOffset, activeTermLimit, this);
+            if (scannedGapCount > 0) {
+                if (TIMER_INACTIVE == expire || hasNewGap()) {
+                    activateGaps(now);
                     workCount = 1;
+                } else {
+                    copyScannedToActiveGaps();
                 }
-
-                rebuildOffset = gap.termOffset;
+            } else {
+                expire = TIMER_INACTIVE;
+                activeGapCount = 0;
             }
         } else {
             expire = TIMER_INACTIVE;
+            activeGapCount = 0;
             rebuildOffset = rebuildTermOffset;
         }
 
@@ -119,25 +131,61 @@ public class LossDetector implements GapHandler {
      * @param termOffset in the NAK
      */
     public void onNak(final long now, final int termId, final int termOffset) {
-        if (TIMER_INACTIVE != expire && activeGap.matches(termId, termOffset)) {
+        if (TIMER_INACTIVE != expire && isActiveGap(termId, termOffset)) {
             expire = now + determineNakDelay();
         }
     }
 
     public void onGap(final int termId, final UnsafeBuffer buffer, final int offset, final int length) {
-        scannedGap.reset(termId, offset, length);
+        scannedTermId = termId;
+        scannedTermOffsets[scannedGapCount] = offset;
+        scannedLengths[scannedGapCount] = length;
+        scannedGapCount++;
     }
 
-    private void activateGap(final long now, final int termId, final int termOffset, final int length) {
-        activeGap.reset(termId, termOffset, length);
-        if (determineNakDelay() == -1) {
-            return;
+    private boolean hasNewGap() {
+        boolean hasNewGap = false;
+        for (int i = 0; i < scannedGapCount; i++) {
+            if (!isActiveGap(scannedTermId, scannedTermOffsets[i])) {
+                hasNewGap = true;
+                break;
+            }
         }
 
-        expire = now + determineNakDelay();
+        return hasNewGap;
+    }
 
-        if (delayGenerator.shouldFeedbackImmediately()) {
-            sendNakMessage();
+    private boolean isActiveGap(final int termId, final int termOffset) {
+        boolean isActive = false;
+        if (termId == activeTermId) {
+            for (int i = 0; i < activeGapCount; i++) {
+                if (termOffset == activeTermOffsets[i]) {
+                    isActive = true;
+                    break;
+                }
+            }
+        }
+
+        return isActive;
+    }
+
+    private void copyScannedToActiveGaps() {
+        activeTermId = scannedTermId;
+        activeGapCount = scannedGapCount;
+        System.arraycopy(scannedTermOffsets, 0, activeTermOffsets, 0, scannedGapCount);
+        System.arraycopy(scannedLengths, 0, activeLengths, 0, scannedGapCount);
+    }
+
+    private void activateGaps(final long now) {
+        copyScannedToActiveGaps();
+
+        final long delay = determineNakDelay();
+        if (-1 != delay) {
+            expire = now + delay;
+
+            if (delayGenerator.shouldFeedbackImmediately()) {
+                sendNakMessage();
+            }
         }
     }
 
@@ -154,26 +202,10 @@ public class LossDetector implements GapHandler {
     }
 
     private void sendNakMessage() {
-        nakMessageSender.onLossDetected(activeGap.termId, activeGap.termOffset, activeGap.length);
+        nakMessageSender.onLossDetected(activeTermId, activeGapCount, activeTermOffsets, activeLengths);
     }
 
     private long determineNakDelay() {
         return delayGenerator.generateDelay();
     }
-
-    static final class Gap {
-        int termId;
-        int termOffset;
-        int length;
-
-        public void reset(final int termId, final int termOffset, final int length) {
-            this.termId = termId;
-            this.termOffset = termOffset;
-            this.length = length;
-        }
-
-        public boolean matches(final int termId, final int termOffset) {
-            return termId == this.termId && termOffset == this.termOffset;
-        }
-    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import java.util.ArrayList;
+
+/**
+ * Timer for the next check of a {@link DriverManagedResource} by the {@link DriverConductor}, holding the list the
+ * resource is kept in and its index in that list so it can be removed in constant time.
+ */
+final class ManagedResourceTimer {
+    private final DriverManagedResource resource;
+    private final ArrayList<DriverManagedResource> resources;
+    private int index;
+    private long timerId = DeadlineTimerWheel.NULL_TIMER;
+
+    ManagedResourceTimer(
+            final DriverManagedResource resource, final ArrayList<DriverManagedResource> resources, final int index) {
+        this.resource = resource;
+        this.resources = resources;
+        this.index = index;
+    }
+
+    public DriverManagedResource resource() {
+        return resource;
+    }
+
+    public ArrayList<DriverManagedResource> resources() {
+        return resources;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public void index(final int index) {
+        this.index = index;
+    }
+
+    public long timerId() {
+        return timerId;
+    }
+
+    public void timerId(final long timerId) {
+        this.timerId = timerId;
+    }
+}
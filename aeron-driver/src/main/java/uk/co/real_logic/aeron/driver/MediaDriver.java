@@ -18,6 +18,7 @@ package uk.co.real_logic.aeron.driver;
 import uk.co.real_logic.aeron.CncFileDescriptor;
 import uk.co.real_logic.aeron.CommonContext;
 import uk.co.real_logic.aeron.driver.buffer.RawLogFactory;
+import uk.co.real_logic.aeron.driver.buffer.RawLogPool;
 import uk.co.real_logic.aeron.driver.cmd.DriverConductorCmd;
 import uk.co.real_logic.aeron.driver.cmd.ReceiverCmd;
 import uk.co.real_logic.aeron.driver.cmd.SenderCmd;
@@ -43,6 +44,7 @@ import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -134,17 +136,25 @@ public final class MediaDriver implements AutoCloseable {
         validateSufficientSocketBufferLengths(context);
 
         context
-                .toConductorFromReceiverCommandQueue(new OneToOneConcurrentArrayQueue<>(CMD_QUEUE_CAPACITY))
-                .toConductorFromSenderCommandQueue(new OneToOneConcurrentArrayQueue<>(CMD_QUEUE_CAPACITY))
                 .receiverCommandQueue(new OneToOneConcurrentArrayQueue<>(CMD_QUEUE_CAPACITY))
                 .senderCommandQueue(new OneToOneConcurrentArrayQueue<>(CMD_QUEUE_CAPACITY))
                 .conclude();
 
-        final Receiver receiver = new Receiver(context);
-        final Sender sender = new Sender(context);
+        final Receiver[] receivers = new Receiver[context.receiverShardCount()];
+        for (int i = 0; i < receivers.length; i++) {
+            receivers[i] = new Receiver(
+                    context, i, context.receiverTransportPollers().get(i), context.receiverCommandQueues().get(i));
+        }
+        final Receiver receiver = receivers[0];
+        final Sender[] senders = new Sender[context.senderShardCount()];
+        for (int i = 0; i < senders.length; i++) {
+            senders[i] = new Sender(
+                    context, i, context.senderTransportPollers().get(i), context.senderCommandQueues().get(i));
+        }
+        final Sender sender = senders[0];
         final DriverConductor conductor = new DriverConductor(context);
 
-        context.receiverProxy().receiver(receiver);
+        context.receiverProxy().receivers(receivers);
         context.senderProxy().sender(sender);
         context.fromReceiverDriverConductorProxy().driverConductor(conductor);
         context.fromSenderDriverConductorProxy().driverConductor(conductor);
@@ -153,9 +163,10 @@ public final class MediaDriver implements AutoCloseable {
         final AtomicCounter errorCounter = context.systemCounters().errors();
         final ErrorHandler errorHandler = context.errorHandler();
 
+        final List<AgentRunner> agentRunners;
         switch (context.threadingMode) {
             case SHARED:
-                runners = Collections.singletonList(
+                agentRunners = Collections.singletonList(
                         new AgentRunner(
                                 context.sharedIdleStrategy,
                                 errorHandler,
@@ -165,7 +176,7 @@ public final class MediaDriver implements AutoCloseable {
                 break;
 
             case SHARED_NETWORK:
-                runners = Arrays.asList(
+                agentRunners = Arrays.asList(
                         new AgentRunner(
                                 context.sharedNetworkIdleStrategy,
                                 errorHandler,
@@ -175,14 +186,49 @@ public final class MediaDriver implements AutoCloseable {
                 );
                 break;
 
+            case SHARDED:
+                final List<AgentRunner> shardedRunners = new ArrayList<>();
+                for (final Sender shard : senders) {
+                    shardedRunners.add(
+                            new AgentRunner(context.senderIdleStrategySupplier.get(), errorHandler, errorCounter, shard));
+                }
+                for (final Receiver shard : receivers) {
+                    shardedRunners.add(
+                            new AgentRunner(context.receiverIdleStrategySupplier.get(), errorHandler, errorCounter, shard));
+                }
+                shardedRunners.add(new AgentRunner(context.conductorIdleStrategy, errorHandler, errorCounter, conductor));
+                agentRunners = shardedRunners;
+                break;
+
             default:
             case DEDICATED:
-                runners = Arrays.asList(
+                agentRunners = Arrays.asList(
                         new AgentRunner(context.senderIdleStrategy, errorHandler, errorCounter, sender),
                         new AgentRunner(context.receiverIdleStrategy, errorHandler, errorCounter, receiver),
                         new AgentRunner(context.conductorIdleStrategy, errorHandler, errorCounter, conductor)
                 );
         }
+
+        final RawLogPool rawLogPool = context.rawLogBuffersFactory().pool();
+        final LogCleaner logCleaner = context.logCleaner();
+        if (null != rawLogPool || logCleaner.isDedicated()) {
+            final List<AgentRunner> allRunners = new ArrayList<>();
+            // pool is closed before the conductor which then frees the logs left in the pool on its own thread
+            if (null != rawLogPool) {
+                allRunners.add(
+                        new AgentRunner(Configuration.logPoolIdleStrategy(), errorHandler, errorCounter, rawLogPool));
+            }
+
+            allRunners.addAll(agentRunners);
+
+            if (logCleaner.isDedicated()) {
+                allRunners.add(new AgentRunner(context.logCleanerIdleStrategy, errorHandler, errorCounter, logCleaner));
+            }
+
+            runners = allRunners;
+        } else {
+            runners = agentRunners;
+        }
     }
 
     /**
@@ -256,8 +302,8 @@ public final class MediaDriver implements AutoCloseable {
     }
 
     private void freeSocketsForReuseOnWindows() {
-        ctx.receiverTransportPoller().selectNowWithoutProcessing();
-        ctx.senderTransportPoller().selectNowWithoutProcessing();
+        ctx.receiverTransportPollers().forEach(DataTransportPoller::selectNowWithoutProcessing);
+        ctx.senderTransportPollers().forEach(ControlTransportPoller::selectNowWithoutProcessing);
     }
 
     private MediaDriver start() {
@@ -358,10 +404,14 @@ public final class MediaDriver implements AutoCloseable {
         private Supplier<FlowControl> multicastSenderFlowControlSupplier;
         private EpochClock epochClock;
         private NanoClock nanoClock;
-        private OneToOneConcurrentArrayQueue<DriverConductorCmd> toConductorFromReceiverCommandQueue;
-        private OneToOneConcurrentArrayQueue<DriverConductorCmd> toConductorFromSenderCommandQueue;
+        private QueuedPipe<DriverConductorCmd> toConductorFromReceiverCommandQueue;
+        private QueuedPipe<DriverConductorCmd> toConductorFromSenderCommandQueue;
         private OneToOneConcurrentArrayQueue<ReceiverCmd> receiverCommandQueue;
+        private List<OneToOneConcurrentArrayQueue<ReceiverCmd>> receiverCommandQueues;
+        private List<DataTransportPoller> receiverTransportPollers;
         private OneToOneConcurrentArrayQueue<SenderCmd> senderCommandQueue;
+        private List<OneToOneConcurrentArrayQueue<SenderCmd>> senderCommandQueues;
+        private List<ControlTransportPoller> senderTransportPollers;
         private ReceiverProxy receiverProxy;
         private SenderProxy senderProxy;
         private DriverConductorProxy fromReceiverDriverConductorProxy;
@@ -369,8 +419,12 @@ public final class MediaDriver implements AutoCloseable {
         private IdleStrategy conductorIdleStrategy;
         private IdleStrategy senderIdleStrategy;
         private IdleStrategy receiverIdleStrategy;
+        private Supplier<IdleStrategy> senderIdleStrategySupplier;
+        private Supplier<IdleStrategy> receiverIdleStrategySupplier;
         private IdleStrategy sharedNetworkIdleStrategy;
         private IdleStrategy sharedIdleStrategy;
+        private IdleStrategy logCleanerIdleStrategy;
+        private LogCleaner logCleaner;
         private ClientProxy clientProxy;
         private RingBuffer toDriverCommands;
         private RingBuffer toEventReader;
@@ -389,6 +443,9 @@ public final class MediaDriver implements AutoCloseable {
         private int ipcPublicationTermBufferLength;
         private int maxImageTermBufferLength;
         private int initialWindowLength;
+        private int maxWindowLength;
+        private long pacingRate;
+        private int pacingBurstLength;
         private int eventBufferLength;
         private long statusMessageTimeout;
         private long dataLossSeed;
@@ -396,6 +453,19 @@ public final class MediaDriver implements AutoCloseable {
         private double dataLossRate;
         private double controlLossRate;
         private int mtuLength;
+        private int sendBurstLength;
+        private int sendBurstDatagrams;
+        private int retransmitBurstLength;
+        private int maxRetransmits;
+        private int receiveBurstLength;
+        private int receiveBurstDatagrams;
+        private boolean receiveZeroCopy;
+        private int senderShardCount;
+        private int receiverShardCount;
+        private int logCleaningBudget;
+        private boolean logCleanerDedicated;
+        private int logPoolSize;
+        private long logPoolRecycleDelayNs;
 
         private boolean warnIfDirectoriesExist;
         private EventLogger eventLogger;
@@ -413,12 +483,28 @@ public final class MediaDriver implements AutoCloseable {
             termBufferLength(Configuration.termBufferLength());
             termBufferMaxLength(Configuration.termBufferLengthMax());
             initialWindowLength(Configuration.initialWindowLength());
+            maxWindowLength(Configuration.maxWindowLength());
+            pacingRate(Configuration.pacingRate());
+            pacingBurstLength(Configuration.pacingBurstLength());
             statusMessageTimeout(Configuration.statusMessageTimeout());
             dataLossRate(Configuration.dataLossRate());
             dataLossSeed(Configuration.dataLossSeed());
             controlLossRate(Configuration.controlLossRate());
             controlLossSeed(Configuration.controlLossSeed());
             mtuLength(Configuration.MTU_LENGTH);
+            sendBurstLength(Configuration.sendBurstLength());
+            sendBurstDatagrams(Configuration.sendBurstDatagrams());
+            retransmitBurstLength(Configuration.retransmitBurstLength());
+            maxRetransmits(Configuration.maxRetransmits());
+            receiveBurstLength(Configuration.receiveBurstLength());
+            receiveBurstDatagrams(Configuration.receiveBurstDatagrams());
+            receiveZeroCopy(getBoolean(RECEIVE_ZERO_COPY_PROP_NAME));
+            senderShardCount(Configuration.senderShardCount());
+            receiverShardCount(Configuration.receiverShardCount());
+            logCleaningBudget(Configuration.logCleaningBudget());
+            logCleanerDedicated(getBoolean(LOG_CLEANER_DEDICATED_PROP_NAME));
+            logPoolSize(Configuration.logPoolSize());
+            logPoolRecycleDelayNs(Configuration.logPoolRecycleDelayNs());
 
             eventBufferLength = EventConfiguration.bufferLength();
 
@@ -435,9 +521,15 @@ public final class MediaDriver implements AutoCloseable {
 
                 receiverTransportPoller(new DataTransportPoller());
                 senderTransportPoller(new ControlTransportPoller());
+                concludeSenderShards();
+                concludeReceiverShards();
 
                 Configuration.validateTermBufferLength(termBufferLength());
                 Configuration.validateInitialWindowLength(initialWindowLength(), mtuLength());
+                Configuration.validateSendBurst(sendBurstLength(), sendBurstDatagrams(), mtuLength());
+                Configuration.validateReceiveBurst(receiveBurstLength(), receiveBurstDatagrams());
+                Configuration.validateLogCleaningBudget(logCleaningBudget());
+                Configuration.validateLogPoolSize(logPoolSize());
 
                 cncByteBuffer = mapNewFile(
                         cncFile(),
@@ -465,15 +557,26 @@ public final class MediaDriver implements AutoCloseable {
                 concludeCounters();
 
                 receiverProxy(new ReceiverProxy(
-                        threadingMode, receiverCommandQueue(), systemCounters.receiverProxyFails()));
-                senderProxy(new SenderProxy(threadingMode, senderCommandQueue(), systemCounters.senderProxyFails()));
+                        threadingMode, receiverCommandQueues(), systemCounters.receiverProxyFails()));
+                senderProxy(new SenderProxy(threadingMode, senderCommandQueues(), systemCounters.senderProxyFails()));
                 fromReceiverDriverConductorProxy(new DriverConductorProxy(
                         threadingMode, toConductorFromReceiverCommandQueue, systemCounters.conductorProxyFails()));
                 fromSenderDriverConductorProxy(new DriverConductorProxy(
                         threadingMode, toConductorFromSenderCommandQueue, systemCounters.conductorProxyFails()));
 
-                rawLogBuffersFactory(new RawLogFactory(aeronDirectoryName(),
-                        publicationTermBufferLength, maxImageTermBufferLength, ipcPublicationTermBufferLength, eventLogger));
+                concludeLogCleaner();
+
+                rawLogBuffersFactory(new RawLogFactory(
+                        aeronDirectoryName(),
+                        publicationTermBufferLength,
+                        maxImageTermBufferLength,
+                        ipcPublicationTermBufferLength,
+                        logPoolSize,
+                        logPoolRecycleDelayNs,
+                        nanoClock,
+                        systemCounters.logPoolHits(),
+                        systemCounters.logPoolMisses(),
+                        eventLogger));
 
                 concludeIdleStrategies();
                 concludeLossGenerators();
@@ -497,6 +600,30 @@ public final class MediaDriver implements AutoCloseable {
                 threadingMode = Configuration.threadingMode();
             }
 
+            if (ThreadingMode.SHARDED != threadingMode) {
+                senderShardCount = 1;
+                receiverShardCount = 1;
+            }
+
+            if (ThreadingMode.SHARED == threadingMode) {
+                logCleanerDedicated = false;
+            }
+
+            Configuration.validateShardCount(senderShardCount);
+            Configuration.validateShardCount(receiverShardCount);
+
+            if (null == toConductorFromReceiverCommandQueue) {
+                toConductorFromReceiverCommandQueue = receiverShardCount > 1 ?
+                        new ManyToOneConcurrentArrayQueue<>(CMD_QUEUE_CAPACITY) :
+                        new OneToOneConcurrentArrayQueue<>(CMD_QUEUE_CAPACITY);
+            }
+
+            if (null == toConductorFromSenderCommandQueue) {
+                toConductorFromSenderCommandQueue = senderShardCount > 1 ?
+                        new ManyToOneConcurrentArrayQueue<>(CMD_QUEUE_CAPACITY) :
+                        new OneToOneConcurrentArrayQueue<>(CMD_QUEUE_CAPACITY);
+            }
+
             final ByteBuffer eventByteBuffer = ByteBuffer.allocateDirect(eventBufferLength);
 
             if (null == eventLogger) {
@@ -540,14 +667,12 @@ public final class MediaDriver implements AutoCloseable {
             return this;
         }
 
-        public Context toConductorFromReceiverCommandQueue(
-                final OneToOneConcurrentArrayQueue<DriverConductorCmd> conductorCommandQueue) {
+        public Context toConductorFromReceiverCommandQueue(final QueuedPipe<DriverConductorCmd> conductorCommandQueue) {
             this.toConductorFromReceiverCommandQueue = conductorCommandQueue;
             return this;
         }
 
-        public Context toConductorFromSenderCommandQueue(
-                final OneToOneConcurrentArrayQueue<DriverConductorCmd> conductorCommandQueue) {
+        public Context toConductorFromSenderCommandQueue(final QueuedPipe<DriverConductorCmd> conductorCommandQueue) {
             this.toConductorFromSenderCommandQueue = conductorCommandQueue;
             return this;
         }
@@ -622,6 +747,30 @@ public final class MediaDriver implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Supplier of the idle strategy for each {@link Sender} shard in {@link ThreadingMode#SHARDED} mode. A new
+         * instance is required per shard as idle strategies hold state for the thread which uses them.
+         *
+         * @param supplier of an idle strategy per sender shard.
+         * @return this Context for fluent API.
+         */
+        public Context senderIdleStrategySupplier(final Supplier<IdleStrategy> supplier) {
+            this.senderIdleStrategySupplier = supplier;
+            return this;
+        }
+
+        /**
+         * Supplier of the idle strategy for each {@link Receiver} shard in {@link ThreadingMode#SHARDED} mode. A new
+         * instance is required per shard as idle strategies hold state for the thread which uses them.
+         *
+         * @param supplier of an idle strategy per receiver shard.
+         * @return this Context for fluent API.
+         */
+        public Context receiverIdleStrategySupplier(final Supplier<IdleStrategy> supplier) {
+            this.receiverIdleStrategySupplier = supplier;
+            return this;
+        }
+
         public Context sharedNetworkIdleStrategy(final IdleStrategy strategy) {
             this.sharedNetworkIdleStrategy = strategy;
             return this;
@@ -632,6 +781,16 @@ public final class MediaDriver implements AutoCloseable {
             return this;
         }
 
+        public Context logCleanerIdleStrategy(final IdleStrategy strategy) {
+            this.logCleanerIdleStrategy = strategy;
+            return this;
+        }
+
+        public Context logCleaner(final LogCleaner logCleaner) {
+            this.logCleaner = logCleaner;
+            return this;
+        }
+
         public Context clientProxy(final ClientProxy clientProxy) {
             this.clientProxy = clientProxy;
             return this;
@@ -667,11 +826,61 @@ public final class MediaDriver implements AutoCloseable {
             return this;
         }
 
+        public Context maxWindowLength(final int maxWindowLength) {
+            this.maxWindowLength = maxWindowLength;
+            return this;
+        }
+
+        public Context pacingRate(final long pacingRate) {
+            this.pacingRate = pacingRate;
+            return this;
+        }
+
+        public Context pacingBurstLength(final int pacingBurstLength) {
+            this.pacingBurstLength = pacingBurstLength;
+            return this;
+        }
+
         public Context statusMessageTimeout(final long statusMessageTimeout) {
             this.statusMessageTimeout = statusMessageTimeout;
             return this;
         }
 
+        public Context sendBurstLength(final int sendBurstLength) {
+            this.sendBurstLength = sendBurstLength;
+            return this;
+        }
+
+        public Context sendBurstDatagrams(final int sendBurstDatagrams) {
+            this.sendBurstDatagrams = sendBurstDatagrams;
+            return this;
+        }
+
+        public Context retransmitBurstLength(final int retransmitBurstLength) {
+            this.retransmitBurstLength = retransmitBurstLength;
+            return this;
+        }
+
+        public Context maxRetransmits(final int maxRetransmits) {
+            this.maxRetransmits = maxRetransmits;
+            return this;
+        }
+
+        public Context receiveBurstLength(final int receiveBurstLength) {
+            this.receiveBurstLength = receiveBurstLength;
+            return this;
+        }
+
+        public Context receiveBurstDatagrams(final int receiveBurstDatagrams) {
+            this.receiveBurstDatagrams = receiveBurstDatagrams;
+            return this;
+        }
+
+        public Context receiveZeroCopy(final boolean receiveZeroCopy) {
+            this.receiveZeroCopy = receiveZeroCopy;
+            return this;
+        }
+
         public Context warnIfDirectoriesExist(final boolean value) {
             this.warnIfDirectoriesExist = value;
             return this;
@@ -742,6 +951,73 @@ public final class MediaDriver implements AutoCloseable {
             return this;
         }
 
+        /**
+         * Number of {@link Sender} agents to run when in {@link ThreadingMode#SHARDED} mode. Other modes have one.
+         *
+         * @param senderShardCount number of {@link Sender} agents to run when in {@link ThreadingMode#SHARDED} mode.
+         * @return this Context for fluent API.
+         */
+        public Context senderShardCount(final int senderShardCount) {
+            this.senderShardCount = senderShardCount;
+            return this;
+        }
+
+        /**
+         * Number of {@link Receiver} agents to run when in {@link ThreadingMode#SHARDED} mode. Other modes have one.
+         *
+         * @param receiverShardCount number of {@link Receiver} agents to run when in {@link ThreadingMode#SHARDED} mode.
+         * @return this Context for fluent API.
+         */
+        public Context receiverShardCount(final int receiverShardCount) {
+            this.receiverShardCount = receiverShardCount;
+            return this;
+        }
+
+        /**
+         * Max bytes of log buffer zeroed by the {@link LogCleaner} in one duty cycle.
+         *
+         * @param logCleaningBudget max bytes of log buffer zeroed in one duty cycle.
+         * @return this Context for fluent API.
+         */
+        public Context logCleaningBudget(final int logCleaningBudget) {
+            this.logCleaningBudget = logCleaningBudget;
+            return this;
+        }
+
+        /**
+         * Run the {@link LogCleaner} as a dedicated agent rather than as part of the {@link DriverConductor} duty cycle.
+         * Ignored for {@link ThreadingMode#SHARED}.
+         *
+         * @param logCleanerDedicated true to run the {@link LogCleaner} on its own thread.
+         * @return this Context for fluent API.
+         */
+        public Context logCleanerDedicated(final boolean logCleanerDedicated) {
+            this.logCleanerDedicated = logCleanerDedicated;
+            return this;
+        }
+
+        /**
+         * Number of log buffers kept mapped and ready for use for each publication term length, 0 to disable pooling.
+         *
+         * @param logPoolSize number of log buffers kept ready for each term length.
+         * @return this Context for fluent API.
+         */
+        public Context logPoolSize(final int logPoolSize) {
+            this.logPoolSize = logPoolSize;
+            return this;
+        }
+
+        /**
+         * Time a closed log is held before it is zeroed and reused so clients have finished with their mapping of it.
+         *
+         * @param logPoolRecycleDelayNs before a closed log is returned to the pool.
+         * @return this Context for fluent API.
+         */
+        public Context logPoolRecycleDelayNs(final long logPoolRecycleDelayNs) {
+            this.logPoolRecycleDelayNs = logPoolRecycleDelayNs;
+            return this;
+        }
+
         public Context dataLossGenerator(final LossGenerator generator) {
             this.dataLossGenerator = generator;
             return this;
@@ -789,11 +1065,11 @@ public final class MediaDriver implements AutoCloseable {
             return nanoClock;
         }
 
-        public OneToOneConcurrentArrayQueue<DriverConductorCmd> toConductorFromReceiverCommandQueue() {
+        public QueuedPipe<DriverConductorCmd> toConductorFromReceiverCommandQueue() {
             return toConductorFromReceiverCommandQueue;
         }
 
-        public OneToOneConcurrentArrayQueue<DriverConductorCmd> toConductorFromSenderCommandQueue() {
+        public QueuedPipe<DriverConductorCmd> toConductorFromSenderCommandQueue() {
             return toConductorFromSenderCommandQueue;
         }
 
@@ -821,10 +1097,26 @@ public final class MediaDriver implements AutoCloseable {
             return receiverCommandQueue;
         }
 
+        public List<OneToOneConcurrentArrayQueue<ReceiverCmd>> receiverCommandQueues() {
+            return receiverCommandQueues;
+        }
+
+        public List<DataTransportPoller> receiverTransportPollers() {
+            return receiverTransportPollers;
+        }
+
         public OneToOneConcurrentArrayQueue<SenderCmd> senderCommandQueue() {
             return senderCommandQueue;
         }
 
+        public List<OneToOneConcurrentArrayQueue<SenderCmd>> senderCommandQueues() {
+            return senderCommandQueues;
+        }
+
+        public List<ControlTransportPoller> senderTransportPollers() {
+            return senderTransportPollers;
+        }
+
         public ReceiverProxy receiverProxy() {
             return receiverProxy;
         }
@@ -853,6 +1145,14 @@ public final class MediaDriver implements AutoCloseable {
             return receiverIdleStrategy;
         }
 
+        public Supplier<IdleStrategy> senderIdleStrategySupplier() {
+            return senderIdleStrategySupplier;
+        }
+
+        public Supplier<IdleStrategy> receiverIdleStrategySupplier() {
+            return receiverIdleStrategySupplier;
+        }
+
         public IdleStrategy sharedNetworkIdleStrategy() {
             return sharedNetworkIdleStrategy;
         }
@@ -861,6 +1161,14 @@ public final class MediaDriver implements AutoCloseable {
             return sharedIdleStrategy;
         }
 
+        public IdleStrategy logCleanerIdleStrategy() {
+            return logCleanerIdleStrategy;
+        }
+
+        public LogCleaner logCleaner() {
+            return logCleaner;
+        }
+
         public ClientProxy clientProxy() {
             return clientProxy;
         }
@@ -901,10 +1209,78 @@ public final class MediaDriver implements AutoCloseable {
             return initialWindowLength;
         }
 
+        public int maxWindowLength() {
+            return maxWindowLength;
+        }
+
+        public long pacingRate() {
+            return pacingRate;
+        }
+
+        public int pacingBurstLength() {
+            return pacingBurstLength;
+        }
+
         public long statusMessageTimeout() {
             return statusMessageTimeout;
         }
 
+        public int sendBurstLength() {
+            return sendBurstLength;
+        }
+
+        public int sendBurstDatagrams() {
+            return sendBurstDatagrams;
+        }
+
+        public int retransmitBurstLength() {
+            return retransmitBurstLength;
+        }
+
+        public int maxRetransmits() {
+            return maxRetransmits;
+        }
+
+        public int receiveBurstLength() {
+            return receiveBurstLength;
+        }
+
+        public int receiveBurstDatagrams() {
+            return receiveBurstDatagrams;
+        }
+
+        public boolean receiveZeroCopy() {
+            return receiveZeroCopy;
+        }
+
+        public int senderShardCount() {
+            return senderShardCount;
+        }
+
+        public int receiverShardCount() {
+            return receiverShardCount;
+        }
+
+        public int logCleaningBudget() {
+            return logCleaningBudget;
+        }
+
+        public boolean logCleanerDedicated() {
+            return logCleanerDedicated;
+        }
+
+        public int logPoolSize() {
+            return logPoolSize;
+        }
+
+        public long logPoolRecycleDelayNs() {
+            return logPoolRecycleDelayNs;
+        }
+
+        public ThreadingMode threadingMode() {
+            return threadingMode;
+        }
+
         public boolean warnIfDirectoriesExist() {
             return warnIfDirectoriesExist;
         }
@@ -1004,7 +1380,33 @@ public final class MediaDriver implements AutoCloseable {
             }
 
             if (null == systemCounters) {
-                systemCounters = new SystemCounters(countersManager);
+                systemCounters = new SystemCounters(countersManager, senderShardCount, receiverShardCount);
+            }
+        }
+
+        private void concludeSenderShards() {
+            senderCommandQueues = new ArrayList<>(senderShardCount);
+            senderTransportPollers = new ArrayList<>(senderShardCount);
+
+            senderCommandQueues.add(senderCommandQueue);
+            senderTransportPollers.add(senderTransportPoller);
+
+            for (int i = 1; i < senderShardCount; i++) {
+                senderCommandQueues.add(new OneToOneConcurrentArrayQueue<>(CMD_QUEUE_CAPACITY));
+                senderTransportPollers.add(new ControlTransportPoller());
+            }
+        }
+
+        private void concludeReceiverShards() {
+            receiverCommandQueues = new ArrayList<>(receiverShardCount);
+            receiverTransportPollers = new ArrayList<>(receiverShardCount);
+
+            receiverCommandQueues.add(receiverCommandQueue);
+            receiverTransportPollers.add(receiverTransportPoller);
+
+            for (int i = 1; i < receiverShardCount; i++) {
+                receiverCommandQueues.add(new OneToOneConcurrentArrayQueue<>(CMD_QUEUE_CAPACITY));
+                receiverTransportPollers.add(new DataTransportPoller());
             }
         }
 
@@ -1021,6 +1423,14 @@ public final class MediaDriver implements AutoCloseable {
                 receiverIdleStrategy(Configuration.receiverIdleStrategy());
             }
 
+            if (null == senderIdleStrategySupplier) {
+                senderIdleStrategySupplier(Configuration::senderIdleStrategy);
+            }
+
+            if (null == receiverIdleStrategySupplier) {
+                receiverIdleStrategySupplier(Configuration::receiverIdleStrategy);
+            }
+
             if (null == sharedNetworkIdleStrategy) {
                 sharedNetworkIdleStrategy(Configuration.sharedNetworkIdleStrategy());
             }
@@ -1028,6 +1438,19 @@ public final class MediaDriver implements AutoCloseable {
             if (null == sharedIdleStrategy) {
                 sharedIdleStrategy(Configuration.sharedIdleStrategy());
             }
+
+            if (null == logCleanerIdleStrategy) {
+                logCleanerIdleStrategy(Configuration.logCleanerIdleStrategy());
+            }
+        }
+
+        private void concludeLogCleaner() {
+            if (null == logCleaner) {
+                logCleaner = logCleanerDedicated ?
+                        new LogCleaner(
+                                logCleaningBudget, new OneToOneConcurrentArrayQueue<>(CMD_QUEUE_CAPACITY), systemCounters) :
+                        new LogCleaner(logCleaningBudget, systemCounters);
+            }
         }
 
         private void concludeLossGenerators() {
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+import static uk.co.real_logic.aeron.driver.Configuration.MIN_FLOW_CONTROL_RECEIVER_TIMEOUT_NS;
+import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.computePosition;
+
+/**
+ * Multicast sender flow control strategy that limits the sender to the slowest live receiver.
+ *
+ * Min of right edges.
+ * Receivers are tracked by source address and dropped when no status message has been received from them
+ * within the receiver timeout.
+ *
+ * Receiver state is held in parallel arrays so that steady state status message processing does not allocate.
+ */
+public class MinMulticastFlowControl implements FlowControl {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final long receiverTimeoutNs;
+    private long positionLimit = 0;
+    private int positionBitsToShift;
+    private int initialTermId;
+    private int receiverCount = 0;
+    private InetSocketAddress[] receiverAddresses = new InetSocketAddress[INITIAL_CAPACITY];
+    private long[] receiverPositionLimits = new long[INITIAL_CAPACITY];
+    private long[] receiverTimeOfLastStatusMessage = new long[INITIAL_CAPACITY];
+
+    public MinMulticastFlowControl() {
+        this(MIN_FLOW_CONTROL_RECEIVER_TIMEOUT_NS);
+    }
+
+    public MinMulticastFlowControl(final long receiverTimeoutNs) {
+        this.receiverTimeoutNs = receiverTimeoutNs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long onStatusMessage(
+            final int termId,
+            final int termOffset,
+            final int receiverWindowLength,
+            final InetSocketAddress address,
+            final long now) {
+        final long position = computePosition(termId, termOffset, positionBitsToShift, initialTermId);
+        final long newPositionLimit = position + receiverWindowLength;
+
+        final int index = receiverIndex(address);
+        if (index < 0) {
+            addReceiver(address, newPositionLimit, now);
+        } else {
+            receiverPositionLimits[index] = newPositionLimit;
+            receiverTimeOfLastStatusMessage[index] = now;
+        }
+
+        return computePositionLimit(now);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void initialize(final int initialTermId, final int termBufferCapacity) {
+        this.initialTermId = initialTermId;
+        positionBitsToShift = Long.numberOfTrailingZeros(termBufferCapacity);
+        positionLimit = computePosition(initialTermId, 0, positionBitsToShift, initialTermId);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long onIdle(final long now) {
+        return computePositionLimit(now);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onRemoveReceiver(final InetSocketAddress address) {
+        final int index = receiverIndex(address);
+        if (index >= 0) {
+            removeReceiver(index);
+        }
+    }
+
+    /**
+     * The number of receivers currently being tracked.
+     *
+     * @return the number of receivers currently being tracked.
+     */
+    public int receiverCount() {
+        return receiverCount;
+    }
+
+    private long computePositionLimit(final long now) {
+        long minPositionLimit = Long.MAX_VALUE;
+
+        for (int i = receiverCount - 1; i >= 0; i--) {
+            if (now > (receiverTimeOfLastStatusMessage[i] + receiverTimeoutNs)) {
+                removeReceiver(i);
+            } else {
+                minPositionLimit = Math.min(minPositionLimit, receiverPositionLimits[i]);
+            }
+        }
+
+        if (receiverCount > 0) {
+            positionLimit = minPositionLimit;
+        }
+
+        return positionLimit;
+    }
+
+    private int receiverIndex(final InetSocketAddress address) {
+        int index = -1;
+
+        final InetSocketAddress[] receiverAddresses = this.receiverAddresses;
+        for (int i = 0, size = receiverCount; i < size; i++) {
+            if (receiverAddresses[i].equals(address)) {
+                index = i;
+                break;
+            }
+        }
+
+        return index;
+    }
+
+    private void addReceiver(final InetSocketAddress address, final long positionLimit, final long now) {
+        if (receiverCount == receiverAddresses.length) {
+            final int newCapacity = receiverCount * 2;
+            receiverAddresses = Arrays.copyOf(receiverAddresses, newCapacity);
+            receiverPositionLimits = Arrays.copyOf(receiverPositionLimits, newCapacity);
+            receiverTimeOfLastStatusMessage = Arrays.copyOf(receiverTimeOfLastStatusMessage, newCapacity);
+        }
+
+        final int index = receiverCount++;
+        receiverAddresses[index] = address;
+        receiverPositionLimits[index] = positionLimit;
+        receiverTimeOfLastStatusMessage[index] = now;
+    }
+
+    private void removeReceiver(final int index) {
+        final int lastIndex = --receiverCount;
+
+        receiverAddresses[index] = receiverAddresses[lastIndex];
+        receiverPositionLimits[index] = receiverPositionLimits[lastIndex];
+        receiverTimeOfLastStatusMessage[index] = receiverTimeOfLastStatusMessage[lastIndex];
+        receiverAddresses[lastIndex] = null;
+    }
+}
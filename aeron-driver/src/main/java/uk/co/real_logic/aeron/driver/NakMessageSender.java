@@ -21,11 +21,12 @@ package uk.co.real_logic.aeron.driver;
 @FunctionalInterface
 public interface NakMessageSender {
     /**
-     * Called when a gap has not been filled.
+     * Called when gaps have not been filled.
      *
-     * @param termId     for the gap
-     * @param termOffset for the beginning of the gap
-     * @param length     of the gap
+     * @param termId      for the gaps
+     * @param gapCount    number of gaps
+     * @param termOffsets for the beginning of each gap
+     * @param lengths     of each gap
      */
-    void onLossDetected(int termId, int termOffset, int length);
+    void onLossDetected(int termId, int gapCount, int[] termOffsets, int[] lengths);
 }
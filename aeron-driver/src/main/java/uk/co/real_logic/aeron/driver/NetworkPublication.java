@@ -22,6 +22,7 @@ import uk.co.real_logic.aeron.logbuffer.LogBufferUnblocker;
 import uk.co.real_logic.aeron.protocol.DataHeaderFlyweight;
 import uk.co.real_logic.aeron.protocol.HeaderFlyweight;
 import uk.co.real_logic.aeron.protocol.SetupFlyweight;
+import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 import uk.co.real_logic.agrona.concurrent.NanoClock;
 import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.agrona.concurrent.status.Position;
@@ -32,6 +33,7 @@ import java.nio.ByteBuffer;
 import static uk.co.real_logic.aeron.driver.Configuration.PUBLICATION_HEARTBEAT_TIMEOUT_NS;
 import static uk.co.real_logic.aeron.driver.Configuration.PUBLICATION_LINGER_NS;
 import static uk.co.real_logic.aeron.driver.Configuration.PUBLICATION_SETUP_TIMEOUT_NS;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.frameLengthVolatile;
 import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.*;
 import static uk.co.real_logic.aeron.logbuffer.TermScanner.*;
 
@@ -54,6 +56,7 @@ class NetworkPublicationPadding2 extends NetworkPublicationConductorFields {
 class NetworkPublicationReceiverFields extends NetworkPublicationPadding2 {
     protected long timeOfLastSendOrHeartbeat;
     protected long senderPositionLimit = 0;
+    protected long ackedPosition = 0;
     protected long timeOfLastSetup;
     protected boolean trackSenderLimits = true;
     protected boolean shouldSendSetupFrame = true;
@@ -72,9 +75,12 @@ public class NetworkPublication
         implements RetransmitSender, AutoCloseable, DriverManagedResource {
     private final int positionBitsToShift;
     private final int initialTermId;
+    private final int termLength;
     private final int termLengthMask;
     private final int mtuLength;
     private final int termWindowLength;
+    private final int sendBurstLength;
+    private final int sendBurstDatagrams;
 
     private volatile boolean hasStatusMessageBeenReceived = false;
     private boolean reachedEndOfLife = false;
@@ -83,6 +89,8 @@ public class NetworkPublication
     private final ByteBuffer[] sendBuffers;
     private final Position publisherLimit;
     private final Position senderPosition;
+    private final AtomicCounter senderRtt;
+    private final AtomicCounter congestionWindow;
     private final SendChannelEndpoint channelEndpoint;
     private final SystemCounters systemCounters;
     private final ByteBuffer heartbeatFrameBuffer = ByteBuffer.allocateDirect(DataHeaderFlyweight.HEADER_LENGTH);
@@ -90,8 +98,12 @@ public class NetworkPublication
     private final ByteBuffer setupFrameBuffer = ByteBuffer.allocateDirect(SetupFlyweight.HEADER_LENGTH);
     private final SetupFlyweight setupHeader = new SetupFlyweight(setupFrameBuffer);
     private final FlowControl flowControl;
+    private final CongestionControl congestionControl;
+    private final TokenBucketPacer pacer;
     private final RetransmitHandler retransmitHandler;
     private final RawLog rawLog;
+    private final LogBufferCleaner logBufferCleaner;
+    private final NanoClock clock;
 
     public NetworkPublication(
             final SendChannelEndpoint channelEndpoint,
@@ -99,29 +111,45 @@ public class NetworkPublication
             final RawLog rawLog,
             final Position senderPosition,
             final Position publisherLimit,
+            final AtomicCounter senderRtt,
+            final AtomicCounter congestionWindow,
             final int sessionId,
             final int streamId,
             final int initialTermId,
             final int mtuLength,
+            final int sendBurstLength,
+            final int sendBurstDatagrams,
             final SystemCounters systemCounters,
             final FlowControl flowControl,
+            final CongestionControl congestionControl,
+            final TokenBucketPacer pacer,
             final RetransmitHandler retransmitHandler) {
         this.channelEndpoint = channelEndpoint;
         this.rawLog = rawLog;
+        this.clock = clock;
         this.senderPosition = senderPosition;
         this.systemCounters = systemCounters;
         this.flowControl = flowControl;
+        this.congestionControl = congestionControl;
+        this.pacer = pacer;
         this.retransmitHandler = retransmitHandler;
         this.publisherLimit = publisherLimit;
+        this.senderRtt = senderRtt;
+        this.congestionWindow = congestionWindow;
         this.mtuLength = mtuLength;
+        this.sendBurstLength = sendBurstLength;
+        this.sendBurstDatagrams = sendBurstDatagrams;
         this.initialTermId = initialTermId;
 
         logPartitions = rawLog.partitions();
         sendBuffers = rawLog.sliceTerms();
 
-        final int termLength = rawLog.termLength();
+        termLength = rawLog.termLength();
         termLengthMask = termLength - 1;
+        logBufferCleaner = new LogBufferCleaner(logPartitions, termLength, 0);
         flowControl.initialize(initialTermId, termLength);
+        congestionControl.initialize(mtuLength, termLength);
+        congestionWindow.setOrdered(congestionControl.windowLength());
 
         timeOfLastSendOrHeartbeat = clock.nanoTime() - PUBLICATION_HEARTBEAT_TIMEOUT_NS - 1;
         timeOfLastSetup = clock.nanoTime() - PUBLICATION_SETUP_TIMEOUT_NS - 1;
@@ -135,12 +163,17 @@ public class NetworkPublication
     }
 
     public void close() {
+        logBufferCleaner.close();
         rawLog.close();
         publisherLimit.close();
         senderPosition.close();
+        senderRtt.close();
+        congestionWindow.close();
     }
 
     public int send(final long now) {
+        retransmitHandler.resetBurstLength();
+
         final long senderPosition = this.senderPosition.get();
         final int activeTermId = computeTermIdFromPosition(senderPosition, positionBitsToShift, initialTermId);
         final int termOffset = (int) senderPosition & termLengthMask;
@@ -181,29 +214,12 @@ public class NetworkPublication
         }
     }
 
-    /**
-     * This is performed on the {@link DriverConductor} thread
-     *
-     * @return amount of work done
-     */
-    public int cleanLogBuffer() {
-        int workCount = 0;
-
-        for (final LogBufferPartition partition : logPartitions) {
-            if (partition.status() == NEEDS_CLEANING) {
-                partition.clean();
-                workCount = 1;
-            }
-        }
-
-        return workCount;
-    }
-
     public long timeOfFlush() {
         return timeOfFlush;
     }
 
-    public void resend(final int termId, int termOffset, final int length) {
+    public int resend(final int termId, int termOffset, final int length) {
+        int resendLength = 0;
         final long senderPosition = this.senderPosition.get();
         final int activeTermId = computeTermIdFromPosition(senderPosition, positionBitsToShift, initialTermId);
 
@@ -226,23 +242,36 @@ public class NetworkPublication
                 sendBuffer.limit(termOffset + available).position(termOffset);
 
                 if (available != channelEndpoint.send(sendBuffer)) {
-                    systemCounters.dataPacketShortSends().orderedIncrement();
+                    systemCounters.dataPacketShortSends().increment();
                     break;
                 }
 
                 bytesSent = available + padding(scanOutcome);
                 remainingBytes -= bytesSent;
+                resendLength += bytesSent;
             }
             while (remainingBytes > 0);
 
-            systemCounters.retransmitsSent().orderedIncrement();
+            systemCounters.retransmitsSent().increment();
         }
+
+        return resendLength;
     }
 
     public void triggerSendSetupFrame() {
         shouldSendSetupFrame = true;
     }
 
+    /**
+     * Called from the {@link Sender} when a destination is removed from the channel so the receiver at that address
+     * no longer holds back the publication.
+     *
+     * @param address of the destination removed.
+     */
+    public void onRemoveDestination(final InetSocketAddress address) {
+        flowControl.onRemoveReceiver(address);
+    }
+
     public boolean isUnreferencedAndFlushed(final long now) {
         boolean isFlushed = false;
         if (0 == refCount) {
@@ -267,16 +296,26 @@ public class NetworkPublication
         return publisherLimit.id();
     }
 
+    public LogBufferCleaner logBufferCleaner() {
+        return logBufferCleaner;
+    }
+
     /**
      * Update the publishers limit for flow control as part of the conductor duty cycle.
      *
+     * The log more than a term behind the sender is no longer required for retransmits so can be cleaned. Publishers
+     * are kept a term short of the region yet to be cleaned to allow for a message which overruns the limit.
+     *
      * @return 1 if the limit has been updated otherwise 0.
      */
     public int updatePublishersLimit() {
         int workCount = 0;
 
-        final long candidatePublisherLimit =
-                hasStatusMessageBeenReceived ? senderPosition.getVolatile() + termWindowLength : 0L;
+        final long senderPosition = this.senderPosition.getVolatile();
+        logBufferCleaner.cleanLimit(senderPosition - termLength);
+
+        final long candidatePublisherLimit = hasStatusMessageBeenReceived ?
+                Math.min(senderPosition + termWindowLength, logBufferCleaner.writeLimit() - termLength) : 0L;
 
         if (publisherLimit.proposeMaxOrdered(candidatePublisherLimit)) {
             workCount = 1;
@@ -287,40 +326,98 @@ public class NetworkPublication
 
     public void onNak(final int termId, final int termOffset, final int length) {
         retransmitHandler.onNak(termId, termOffset, length, this);
+
+        congestionControl.onLoss(length, clock.nanoTime());
+        congestionWindow.setOrdered(congestionControl.windowLength());
+    }
+
+    /**
+     * Called from the {@link Sender} on an RTT measurement from a receiver carrying its estimate of the round trip time.
+     *
+     * @param rtt in nanoseconds as estimated by the receiver, or 0 if not yet measured.
+     */
+    public void onRttMeasurement(final long rtt) {
+        if (rtt > 0) {
+            senderRtt.setOrdered(rtt);
+
+            congestionControl.onRttSample(rtt, clock.nanoTime());
+            congestionWindow.setOrdered(congestionControl.windowLength());
+        }
     }
 
     public void onStatusMessage(
             final int termId, final int termOffset, final int receiverWindowLength, final InetSocketAddress srcAddress) {
-        final long position = flowControl.onStatusMessage(termId, termOffset, receiverWindowLength, srcAddress);
+        final long now = clock.nanoTime();
+        final long position = flowControl.onStatusMessage(termId, termOffset, receiverWindowLength, srcAddress, now);
         senderPositionLimit(position);
+
+        final long receiverPosition = computePosition(termId, termOffset, positionBitsToShift, initialTermId);
+        if (receiverPosition > ackedPosition) {
+            congestionControl.onAck(receiverPosition - ackedPosition, now);
+            congestionWindow.setOrdered(congestionControl.windowLength());
+            ackedPosition = receiverPosition;
+        }
     }
 
     private int sendData(final long now, final long senderPosition, final int termOffset) {
         int bytesSent = 0;
-        final int availableWindow = (int) (senderPositionLimit - senderPosition);
+        final long positionLimit = Math.min(senderPositionLimit, ackedPosition + congestionControl.windowLength());
+        int availableWindow = (int) (positionLimit - senderPosition);
         if (availableWindow > 0) {
-            final int scanLimit = Math.min(availableWindow, mtuLength);
             final int activeIndex = indexByPosition(senderPosition, positionBitsToShift);
+            final UnsafeBuffer termBuffer = logPartitions[activeIndex].termBuffer();
+            final ByteBuffer sendBuffer = sendBuffers[activeIndex];
+            final int termLength = termLengthMask + 1;
 
-            final long scanOutcome = scanForAvailability(logPartitions[activeIndex].termBuffer(), termOffset, scanLimit);
-            final int available = available(scanOutcome);
-            if (available > 0) {
-                final ByteBuffer sendBuffer = sendBuffers[activeIndex];
-                sendBuffer.limit(termOffset + available).position(termOffset);
+            int availableTokens = pacer.available(now);
+            int offset = termOffset;
+            int datagramsSent = 0;
+            do {
+                final int scanLimit = Math.min(Math.min(availableWindow, availableTokens), mtuLength);
+                final long scanOutcome = scanForAvailability(termBuffer, offset, scanLimit);
+                final int available = available(scanOutcome);
+                if (available <= 0) {
+                    if (availableTokens < Math.min(availableWindow, mtuLength) && frameLengthVolatile(termBuffer, offset) > 0) {
+                        systemCounters.senderPacingLimits().increment();
+                    }
+
+                    break;
+                }
 
-                if (available == channelEndpoint.send(sendBuffer)) {
-                    timeOfLastSendOrHeartbeat = now;
-                    trackSenderLimits = true;
+                sendBuffer.limit(offset + available).position(offset);
 
-                    bytesSent = available;
-                    this.senderPosition.setOrdered(senderPosition + bytesSent + padding(scanOutcome));
-                } else {
-                    systemCounters.dataPacketShortSends().orderedIncrement();
+                if (available != channelEndpoint.send(sendBuffer)) {
+                    systemCounters.dataPacketShortSends().increment();
+                    break;
                 }
+
+                final int bytesConsumed = available + padding(scanOutcome);
+                bytesSent += available;
+                offset += bytesConsumed;
+                availableWindow -= bytesConsumed;
+                availableTokens -= available;
+
+                if (++datagramsSent >= sendBurstDatagrams || bytesSent >= sendBurstLength) {
+                    if (availableWindow > 0 && offset < termLength) {
+                        systemCounters.senderBurstLimits().increment();
+                    }
+
+                    break;
+                }
+            }
+            while (availableWindow > 0 && offset < termLength);
+
+            pacer.consume(bytesSent);
+
+            if (offset > termOffset) {
+                timeOfLastSendOrHeartbeat = now;
+                trackSenderLimits = true;
+
+                this.senderPosition.setOrdered(senderPosition + (offset - termOffset));
             }
         } else if (trackSenderLimits) {
             trackSenderLimits = false;
-            systemCounters.senderFlowControlLimits().orderedIncrement();
+            systemCounters.senderFlowControlLimits().increment();
         }
 
         return bytesSent;
@@ -333,7 +430,7 @@ public class NetworkPublication
 
             final int bytesSent = channelEndpoint.send(setupFrameBuffer);
             if (SetupFlyweight.HEADER_LENGTH != bytesSent) {
-                systemCounters.setupMessageShortSends().orderedIncrement();
+                systemCounters.setupMessageShortSends().increment();
             }
 
             timeOfLastSetup = now;
@@ -352,10 +449,10 @@ public class NetworkPublication
 
             final int bytesSent = channelEndpoint.send(heartbeatFrameBuffer);
             if (DataHeaderFlyweight.HEADER_LENGTH != bytesSent) {
-                systemCounters.dataPacketShortSends().orderedIncrement();
+                systemCounters.dataPacketShortSends().increment();
             }
 
-            systemCounters.heartbeatsSent().orderedIncrement();
+            systemCounters.heartbeatsSent().increment();
             timeOfLastSendOrHeartbeat = now;
         }
     }
@@ -22,8 +22,6 @@ public class PendingSetupMessageFromSource {
     private final int streamId;
     private final ReceiveChannelEndpoint channelEndpoint;
 
-    private long timeOfStatusMessage;
-
     public PendingSetupMessageFromSource(
             final int sessionId,
             final int streamId,
@@ -44,12 +42,4 @@ public class PendingSetupMessageFromSource {
     public ReceiveChannelEndpoint channelEndpoint() {
         return channelEndpoint;
     }
-
-    public long timeOfStatusMessage() {
-        return timeOfStatusMessage;
-    }
-
-    public void timeOfStatusMessage(final long now) {
-        timeOfStatusMessage = now;
-    }
 }
@@ -19,16 +19,22 @@ import uk.co.real_logic.aeron.driver.buffer.RawLog;
 import uk.co.real_logic.aeron.driver.media.ReceiveChannelEndpoint;
 import uk.co.real_logic.aeron.logbuffer.TermRebuilder;
 import uk.co.real_logic.aeron.protocol.DataHeaderFlyweight;
+import uk.co.real_logic.aeron.protocol.HeaderFlyweight;
 import uk.co.real_logic.agrona.UnsafeAccess;
+import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 import uk.co.real_logic.agrona.concurrent.NanoClock;
 import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.agrona.concurrent.status.Position;
 import uk.co.real_logic.agrona.concurrent.status.ReadablePosition;
 
 import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
 import java.util.List;
 
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static uk.co.real_logic.agrona.BitUtil.align;
 import static uk.co.real_logic.aeron.driver.PublicationImage.Status.ACTIVE;
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.*;
 import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.*;
 
 class PublicationImagePadding1 {
@@ -43,8 +49,9 @@ class PublicationImageConductorFields extends PublicationImagePadding1 {
     protected volatile long beginLossChange = -1;
     protected volatile long endLossChange = -1;
     protected int lossTermId;
-    protected int lossTermOffset;
-    protected int lossLength;
+    protected int lossGapCount;
+    protected final int[] lossTermOffsets = new int[Configuration.NAK_MAX_GAPS_DEFAULT];
+    protected final int[] lossLengths = new int[Configuration.NAK_MAX_GAPS_DEFAULT];
 }
 
 class PublicationImagePadding2 extends PublicationImageConductorFields {
@@ -56,7 +63,12 @@ class PublicationImageHotFields extends PublicationImagePadding2 {
     protected long lastPacketTimestamp;
     protected long lastStatusMessageTimestamp;
     protected long lastStatusMessagePosition;
+    protected long windowLimit;
     protected long lastChangeNumber = -1;
+    protected long lastRttMeasurementTimestamp;
+    protected long smoothedRtt = 0;
+    protected final int[] nakTermOffsets = new int[Configuration.NAK_MAX_GAPS_DEFAULT];
+    protected final int[] nakLengths = new int[Configuration.NAK_MAX_GAPS_DEFAULT];
 }
 
 class PublicationImagePadding3 extends PublicationImageHotFields {
@@ -89,12 +101,13 @@ public class PublicationImage
     private final int sessionId;
     private final int streamId;
     private final int positionBitsToShift;
+    private final int termLength;
     private final int termLengthMask;
     private final int initialTermId;
-    private final int currentWindowLength;
-    private final int currentGain;
+    private final boolean isMulticast;
 
     private final RawLog rawLog;
+    private final LogBufferCleaner logBufferCleaner;
     private final InetSocketAddress controlAddress;
     private final InetSocketAddress sourceAddress;
     private final ReceiveChannelEndpoint channelEndpoint;
@@ -102,11 +115,21 @@ public class PublicationImage
     private final NanoClock clock;
     private final UnsafeBuffer[] termBuffers = new UnsafeBuffer[PARTITION_COUNT];
     private final Position hwmPosition;
+    private final AtomicCounter rttCounter;
+    private final AtomicCounter windowCounter;
     private final List<ReadablePosition> subscriberPositions;
     private final LossDetector lossDetector;
+    private final ReceiverWindowTuner windowTuner;
 
     private boolean reachedEndOfLife = false;
 
+    private ByteBuffer[] termByteBuffers;
+    private UnsafeBuffer heldTermBuffer;
+    private int heldTermOffset;
+    private int heldFrameLength;
+    private long heldHwmPosition;
+    private long zeroCopyPosition;
+
     public PublicationImage(
             final long correlationId,
             final long imageLivenessTimeoutNs,
@@ -118,10 +141,14 @@ public class PublicationImage
             final int activeTermId,
             final int initialTermOffset,
             final int initialWindowLength,
+            final int minWindowLength,
+            final int maxWindowLength,
             final RawLog rawLog,
             final FeedbackDelayGenerator lossFeedbackDelayGenerator,
             final List<ReadablePosition> subscriberPositions,
             final Position hwmPosition,
+            final AtomicCounter rttCounter,
+            final AtomicCounter windowCounter,
             final NanoClock clock,
             final SystemCounters systemCounters,
             final InetSocketAddress sourceAddress) {
@@ -134,13 +161,17 @@ public class PublicationImage
         this.rawLog = rawLog;
         this.subscriberPositions = subscriberPositions;
         this.hwmPosition = hwmPosition;
+        this.rttCounter = rttCounter;
+        this.windowCounter = windowCounter;
         this.systemCounters = systemCounters;
         this.sourceAddress = sourceAddress;
+        this.isMulticast = channelEndpoint.udpChannel().isMulticast();
 
         this.clock = clock;
         final long time = clock.nanoTime();
         this.timeOfLastStatusChange = time;
         this.lastPacketTimestamp = time;
+        this.lastRttMeasurementTimestamp = time;
 
         for (int i = 0; i < PARTITION_COUNT; i++) {
             termBuffers[i] = rawLog.partitions()[i].termBuffer();
@@ -150,26 +181,39 @@ public class PublicationImage
 
         final int termLength = rawLog.termLength();
 
-        this.currentWindowLength = Math.min(termLength, initialWindowLength);
-        this.currentGain = Math.min(currentWindowLength / 4, termLength / 4);
-
+        this.termLength = termLength;
         this.termLengthMask = termLength - 1;
         this.positionBitsToShift = Integer.numberOfTrailingZeros(termLength);
         this.initialTermId = initialTermId;
 
         final long initialPosition = computePosition(activeTermId, initialTermOffset, positionBitsToShift, initialTermId);
-        this.lastStatusMessagePosition = initialPosition - (currentGain + 1);
+        this.windowTuner = new ReceiverWindowTuner(
+                Math.min(termLength, initialWindowLength),
+                Math.min(termLength, minWindowLength),
+                Math.min(termLength, maxWindowLength),
+                Configuration.WINDOW_ADJUST_MIN_INTERVAL_DEFAULT_NS,
+                time,
+                initialPosition);
+        final int windowLength = windowTuner.windowLength();
+        this.windowCounter.setOrdered(windowLength);
+
+        this.lastStatusMessagePosition = initialPosition - ((windowLength / 4) + 1);
+        this.windowLimit = lastStatusMessagePosition + windowLength;
         this.newStatusMessagePosition = this.lastStatusMessagePosition;
         this.rebuildPosition = initialPosition;
         this.hwmPosition.setOrdered(initialPosition);
+        this.logBufferCleaner = new LogBufferCleaner(rawLog.partitions(), termLength, initialPosition);
     }
 
     /**
      * {@inheritDoc}
      */
     public void close() {
+        logBufferCleaner.close();
         rawLog.close();
         hwmPosition.close();
+        rttCounter.close();
+        windowCounter.close();
         subscriberPositions.forEach(ReadablePosition::close);
     }
 
@@ -250,6 +294,10 @@ public class PublicationImage
         return rawLog;
     }
 
+    public LogBufferCleaner logBufferCleaner() {
+        return logBufferCleaner;
+    }
+
     /**
      * Return status of the image. Retrieved by {@link DriverConductor}.
      *
@@ -283,24 +331,26 @@ public class PublicationImage
     }
 
     /**
-     * Called from the {@link LossDetector} when gap is detected.
+     * Called from the {@link LossDetector} when gaps are detected.
      *
      * @see NakMessageSender
      */
-    public void onLossDetected(final int termId, final int termOffset, final int length) {
+    public void onLossDetected(final int termId, final int gapCount, final int[] termOffsets, final int[] lengths) {
         final long changeNumber = beginLossChange + 1;
 
         beginLossChange = changeNumber;
 
         lossTermId = termId;
-        lossTermOffset = termOffset;
-        lossLength = length;
+        lossGapCount = gapCount;
+        System.arraycopy(termOffsets, 0, lossTermOffsets, 0, gapCount);
+        System.arraycopy(lengths, 0, lossLengths, 0, gapCount);
 
         endLossChange = changeNumber;
     }
 
     /**
-     * Called from the {@link DriverConductor}.
+     * Called from the {@link DriverConductor}. The log more than a term behind the slowest subscriber is released
+     * to the {@link LogCleaner}.
      *
      * @param now in nanoseconds
      * @return if work has been done or not
@@ -335,15 +385,11 @@ public class PublicationImage
         final long newRebuildPosition = (rebuildPosition - rebuildTermOffset) + lossDetector.rebuildOffset();
         this.rebuildPosition = newRebuildPosition;
 
-        final int newTermCount = (int) (newRebuildPosition >>> positionBitsToShift);
-        final int oldTermCount = (int) (oldRebuildPosition >>> positionBitsToShift);
-        if (newTermCount > oldTermCount) {
-            final int oldTermCountIndex = indexByTermCount(oldTermCount);
-            final UnsafeBuffer termBuffer = termBuffers[previousPartitionIndex(oldTermCountIndex)];
-            termBuffer.setMemory(0, termBuffer.capacity(), (byte) 0);
+        if (!subscriberPositions.isEmpty()) {
+            logBufferCleaner.cleanLimit(minSubscriberPosition - termLength);
         }
 
-        if (minSubscriberPosition > (newStatusMessagePosition + currentGain)) {
+        if (minSubscriberPosition > (newStatusMessagePosition + (windowCounter.get() / 4))) {
             newStatusMessagePosition = minSubscriberPosition;
         }
 
@@ -368,12 +414,16 @@ public class PublicationImage
 
         if (isHeartbeat(buffer, length)) {
             hwmCandidate(packetPosition);
-            systemCounters.heartbeatsReceived().orderedIncrement();
-        } else if (isFlowControlUnderRun(windowPosition, packetPosition) || isFlowControlOverRun(windowPosition, proposedPosition)) {
+            systemCounters.heartbeatsReceived().increment();
+        } else if (isFlowControlUnderRun(windowPosition, packetPosition) || isFlowControlOverRun(proposedPosition)) {
             bytesReceived = 0;
         } else {
             final UnsafeBuffer termBuffer = termBuffers[indexByPosition(packetPosition, positionBitsToShift)];
-            TermRebuilder.insert(termBuffer, termOffset, buffer, length);
+            if (channelEndpoint.canHoldPacket() && packetPosition == hwmPosition.get()) {
+                holdPacket(termBuffer, termOffset, buffer, length, packetPosition);
+            } else {
+                TermRebuilder.insert(termBuffer, termOffset, buffer, length);
+            }
 
             hwmCandidate(proposedPosition);
         }
@@ -381,6 +431,81 @@ public class PublicationImage
         return bytesReceived;
     }
 
+    /**
+     * The term buffer positioned at the offset expected for the packet following the held packet so it can be received
+     * into directly. Called from the {@link Receiver} while this image is holding a packet.
+     *
+     * @param capacity required to receive the largest packet.
+     * @return the term buffer positioned for receive or null if the capacity does not fit within the term.
+     */
+    public ByteBuffer zeroCopyReceiveBuffer(final int capacity) {
+        ByteBuffer termByteBuffer = null;
+        final int termOffset = (int) zeroCopyPosition & termLengthMask;
+
+        if (termOffset + capacity <= termLengthMask + 1) {
+            if (null == termByteBuffers) {
+                termByteBuffers = rawLog.sliceTerms();
+            }
+
+            termByteBuffer = termByteBuffers[indexByPosition(zeroCopyPosition, positionBitsToShift)];
+            termByteBuffer.limit(termOffset + capacity).position(termOffset);
+        }
+
+        return termByteBuffer;
+    }
+
+    /**
+     * Accept a packet which has been received directly into the term buffer from {@link #zeroCopyReceiveBuffer(int)}.
+     *
+     * If the packet is not the next in order data for this image then it is copied out to the receive buffer and
+     * the term is zeroed again so it can be dispatched as normal.
+     *
+     * @param length        of the packet received.
+     * @param receiveBuffer to which the packet is copied if not accepted.
+     * @return true if the packet has been accepted in place otherwise false.
+     */
+    public boolean insertZeroCopyPacket(final int length, final UnsafeBuffer receiveBuffer) {
+        final long packetPosition = zeroCopyPosition;
+        final long proposedPosition = packetPosition + length;
+        final int termOffset = (int) packetPosition & termLengthMask;
+        final UnsafeBuffer termBuffer = termBuffers[indexByPosition(packetPosition, positionBitsToShift)];
+
+        final boolean isInOrder =
+                length >= DataHeaderFlyweight.HEADER_LENGTH &&
+                frameLength(termBuffer, termOffset) > 0 &&
+                frameVersion(termBuffer, termOffset) == HeaderFlyweight.CURRENT_VERSION &&
+                isDataOrPadding(frameType(termBuffer, termOffset)) &&
+                termBuffer.getInt(termOffset + DataHeaderFlyweight.TERM_OFFSET_FIELD_OFFSET, LITTLE_ENDIAN) == termOffset &&
+                termBuffer.getInt(termOffset + DataHeaderFlyweight.SESSION_ID_FIELD_OFFSET, LITTLE_ENDIAN) == sessionId &&
+                termBuffer.getInt(termOffset + DataHeaderFlyweight.STREAM_ID_FIELD_OFFSET, LITTLE_ENDIAN) == streamId &&
+                termBuffer.getInt(termOffset + DataHeaderFlyweight.TERM_ID_FIELD_OFFSET, LITTLE_ENDIAN) ==
+                        computeTermIdFromPosition(packetPosition, positionBitsToShift, initialTermId) &&
+                proposedPosition <= windowLimit &&
+                proposedPosition <= logBufferCleaner.writeLimit();
+
+        if (isInOrder) {
+            zeroCopyPosition = packetPosition + align(length, FRAME_ALIGNMENT);
+            hwmCandidate(proposedPosition);
+        } else {
+            receiveBuffer.putBytes(0, termBuffer, termOffset, length);
+            termBuffer.setMemory(termOffset, length, (byte) 0);
+        }
+
+        return isInOrder;
+    }
+
+    /**
+     * Make the held packet, and so any packets received in place behind it, visible to subscribers.
+     *
+     * The high water mark is only moved past the held packet once its frame length has been written so loss detection
+     * does not see it as a gap.
+     */
+    public void commitHeldPacket() {
+        frameLengthOrdered(heldTermBuffer, heldTermOffset, heldFrameLength);
+        heldTermBuffer = null;
+        hwmPosition.proposeMaxOrdered(heldHwmPosition);
+    }
+
     /**
      * To be called from the {@link Receiver} to see if a image should be garbage collected.
      *
@@ -412,13 +537,16 @@ public class PublicationImage
             if (statusMessagePosition != lastStatusMessagePosition || now > (lastStatusMessageTimestamp + statusMessageTimeout)) {
                 final int termId = computeTermIdFromPosition(statusMessagePosition, positionBitsToShift, initialTermId);
                 final int termOffset = (int) statusMessagePosition & termLengthMask;
+                final int windowLength = adjustWindow(now, statusMessagePosition);
 
                 channelEndpoint.sendStatusMessage(
-                        controlAddress, sessionId, streamId, termId, termOffset, currentWindowLength, (byte) 0);
+                        controlAddress, sessionId, streamId, termId, termOffset, windowLength, (byte) 0);
 
                 lastStatusMessageTimestamp = now;
                 lastStatusMessagePosition = statusMessagePosition;
-                systemCounters.statusMessagesSent().orderedIncrement();
+                // the source may already have sent up to a previously advertised window so the limit never moves back
+                windowLimit = Math.max(windowLimit, statusMessagePosition + windowLength);
+                systemCounters.statusMessagesSent().increment();
                 workCount = 1;
             }
         }
@@ -426,6 +554,52 @@ public class PublicationImage
         return workCount;
     }
 
+    /**
+     * Called from the {@link Receiver} to send a measurement of the round trip time to the source when one is due.
+     *
+     * Only unicast images measure the round trip time. For multicast the measurement would go to the control group
+     * and draw a reply to every receiver.
+     *
+     * @param now                    time in nanoseconds.
+     * @param rttMeasurementInterval between measurements in nanoseconds.
+     * @return number of work items processed.
+     */
+    public int sendPendingRttMeasurement(final long now, final long rttMeasurementInterval) {
+        int workCount = 0;
+
+        if (!isMulticast && ACTIVE == status && now > (lastRttMeasurementTimestamp + rttMeasurementInterval)) {
+            channelEndpoint.sendRttMeasurement(controlAddress, sessionId, streamId, now, smoothedRtt);
+            lastRttMeasurementTimestamp = now;
+            workCount = 1;
+        }
+
+        return workCount;
+    }
+
+    /**
+     * Called from the {@link Receiver} on a reply from the source to a measurement of the round trip time.
+     *
+     * The sample is smoothed with a weight of 1/8 as for TCP and made available via the RTT counter for the image.
+     *
+     * @param echoTimestamp  in nanoseconds at which the measurement was sent.
+     * @param receptionDelta in nanoseconds between the source receiving the measurement and replying.
+     */
+    public void onRttMeasurement(final long echoTimestamp, final long receptionDelta) {
+        final long rtt = Math.max(1, clock.nanoTime() - echoTimestamp - receptionDelta);
+
+        smoothedRtt = 0 == smoothedRtt ? rtt : smoothedRtt + ((rtt - smoothedRtt) >> 3);
+        rttCounter.setOrdered(smoothedRtt);
+    }
+
+    /**
+     * The smoothed round trip time to the source as last measured, which may be read from any thread.
+     *
+     * @return smoothed round trip time in nanoseconds or 0 if not yet measured.
+     */
+    public long smoothedRtt() {
+        return rttCounter.get();
+    }
+
     /**
      * Called from the {@link Receiver} to send a pending NAK.
      *
@@ -437,15 +611,17 @@ public class PublicationImage
 
         if (changeNumber != lastChangeNumber) {
             final int termId = lossTermId;
-            final int termOffset = lossTermOffset;
-            final int length = lossLength;
+            final int gapCount = lossGapCount;
+            System.arraycopy(lossTermOffsets, 0, nakTermOffsets, 0, gapCount);
+            System.arraycopy(lossLengths, 0, nakLengths, 0, gapCount);
 
             UnsafeAccess.UNSAFE.loadFence(); // LoadLoad required so value loads don't move past version check below.
 
             if (changeNumber == beginLossChange) {
-                channelEndpoint.sendNakMessage(controlAddress, sessionId, streamId, termId, termOffset, length);
+                channelEndpoint.sendNakMessages(
+                        controlAddress, sessionId, streamId, termId, gapCount, nakTermOffsets, nakLengths);
                 lastChangeNumber = changeNumber;
-                systemCounters.nakMessagesSent().orderedIncrement();
+                systemCounters.nakMessagesSent().add(gapCount);
                 workCount = 1;
             }
         }
@@ -533,30 +709,67 @@ public class PublicationImage
         return minSubscriberPosition >= rebuildPosition;
     }
 
+    private void holdPacket(
+            final UnsafeBuffer termBuffer,
+            final int termOffset,
+            final UnsafeBuffer buffer,
+            final int length,
+            final long packetPosition) {
+        heldFrameLength = buffer.getInt(0, LITTLE_ENDIAN);
+        buffer.putInt(0, 0);
+        termBuffer.putBytes(termOffset, buffer, 0, length);
+
+        heldTermBuffer = termBuffer;
+        heldTermOffset = termOffset;
+        heldHwmPosition = packetPosition;
+        zeroCopyPosition = packetPosition + align(length, FRAME_ALIGNMENT);
+        channelEndpoint.onPacketHeld(this);
+    }
+
+    private static boolean isDataOrPadding(final int frameType) {
+        return HeaderFlyweight.HDR_TYPE_DATA == frameType || HeaderFlyweight.HDR_TYPE_PAD == frameType;
+    }
+
     private boolean isHeartbeat(final UnsafeBuffer buffer, final int length) {
         return length == DataHeaderFlyweight.HEADER_LENGTH && buffer.getInt(0) == 0;
     }
 
+    private int adjustWindow(final long now, final long statusMessagePosition) {
+        final int oldWindowLength = windowTuner.windowLength();
+        final int windowLength = windowTuner.onStatusMessage(now, statusMessagePosition, hwmPosition.get(), smoothedRtt);
+
+        if (windowLength != oldWindowLength) {
+            windowCounter.setOrdered(windowLength);
+        }
+
+        return windowLength;
+    }
+
     private void hwmCandidate(final long proposedPosition) {
         lastPacketTimestamp = clock.nanoTime();
-        hwmPosition.proposeMaxOrdered(proposedPosition);
+
+        if (null != heldTermBuffer) {
+            heldHwmPosition = Math.max(heldHwmPosition, proposedPosition);
+        } else {
+            hwmPosition.proposeMaxOrdered(proposedPosition);
+        }
     }
 
     private boolean isFlowControlUnderRun(final long windowPosition, final long packetPosition) {
         final boolean isFlowControlUnderRun = packetPosition < windowPosition;
 
         if (isFlowControlUnderRun) {
-            systemCounters.flowControlUnderRuns().orderedIncrement();
+            systemCounters.flowControlUnderRuns().increment();
         }
 
         return isFlowControlUnderRun;
     }
 
-    private boolean isFlowControlOverRun(final long windowPosition, final long proposedPosition) {
-        final boolean isFlowControlOverRun = proposedPosition > (windowPosition + currentWindowLength);
+    private boolean isFlowControlOverRun(final long proposedPosition) {
+        final boolean isFlowControlOverRun = proposedPosition > Math.min(windowLimit, logBufferCleaner.writeLimit());
 
         if (isFlowControlOverRun) {
-            systemCounters.flowControlOverRuns().orderedIncrement();
+            systemCounters.flowControlOverRuns().increment();
         }
 
         return isFlowControlOverRun;
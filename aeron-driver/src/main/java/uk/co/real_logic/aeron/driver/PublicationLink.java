@@ -56,6 +56,10 @@ public class PublicationLink implements DriverManagedResource {
         return registrationId;
     }
 
+    public DriverManagedResource publication() {
+        return publication;
+    }
+
     public void onTimeEvent(final long time, final DriverConductor conductor) {
         if (client.hasTimedOut(time)) {
             reachedEndOfLife = true;
@@ -17,6 +17,7 @@ package uk.co.real_logic.aeron.driver;
 
 import uk.co.real_logic.aeron.driver.cmd.ReceiverCmd;
 import uk.co.real_logic.aeron.driver.media.*;
+import uk.co.real_logic.agrona.collections.Long2ObjectHashMap;
 import uk.co.real_logic.agrona.concurrent.Agent;
 import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 import uk.co.real_logic.agrona.concurrent.NanoClock;
@@ -30,23 +31,52 @@ import java.util.function.Consumer;
  */
 public class Receiver implements Agent, Consumer<ReceiverCmd> {
     private final long statusMessageTimeout;
+    private final long rttMeasurementInterval;
     private final DataTransportPoller dataTransportPoller;
     private final OneToOneConcurrentArrayQueue<ReceiverCmd> commandQueue;
     private final AtomicCounter totalBytesReceived;
+    private final AtomicCounter shardBytesReceived;
+    private final AtomicCounter shardDutyCycles;
     private final NanoClock clock;
+    private final String roleName;
     private final ArrayList<PublicationImage> publicationImages = new ArrayList<>();
-    private final ArrayList<PendingSetupMessageFromSource> pendingSetupMessages = new ArrayList<>();
+    private final Long2ObjectHashMap<PendingSetupMessageFromSource> pendingSetupMessageByTimerIdMap =
+            new Long2ObjectHashMap<>();
+    private final DeadlineTimerWheel timerWheel;
+    private final DeadlineTimerWheel.TimerHandler onPendingSetupTimeoutFunc = this::onPendingSetupTimeout;
 
     public Receiver(final MediaDriver.Context ctx) {
-        statusMessageTimeout = ctx.statusMessageTimeout();
-        dataTransportPoller = ctx.receiverTransportPoller();
-        commandQueue = ctx.receiverCommandQueue();
-        totalBytesReceived = ctx.systemCounters().bytesReceived();
-        clock = ctx.nanoClock();
+        this(ctx, 0, ctx.receiverTransportPoller(), ctx.receiverCommandQueue());
+    }
+
+    /**
+     * Construct a Receiver which owns one shard of the receive channel endpoints and their images.
+     *
+     * @param ctx                 for the media driver.
+     * @param shardIndex          of the shard this Receiver owns.
+     * @param dataTransportPoller for the receive channel endpoints of the shard.
+     * @param commandQueue        on which commands for the shard arrive.
+     */
+    public Receiver(
+            final MediaDriver.Context ctx,
+            final int shardIndex,
+            final DataTransportPoller dataTransportPoller,
+            final OneToOneConcurrentArrayQueue<ReceiverCmd> commandQueue) {
+        this.statusMessageTimeout = ctx.statusMessageTimeout();
+        this.rttMeasurementInterval = Configuration.RTT_MEASUREMENT_INTERVAL_DEFAULT_NS;
+        this.dataTransportPoller = dataTransportPoller;
+        this.commandQueue = commandQueue;
+        this.totalBytesReceived = ctx.systemCounters().bytesReceived();
+        this.shardBytesReceived = ctx.systemCounters().receiverShardBytesReceived(shardIndex);
+        this.shardDutyCycles = ctx.systemCounters().receiverShardDutyCycles(shardIndex);
+        this.clock = ctx.nanoClock();
+        this.roleName = ThreadingMode.SHARDED == ctx.threadingMode() ? "receiver-" + shardIndex : "receiver";
+        this.timerWheel = new DeadlineTimerWheel(
+                Configuration.TIMER_WHEEL_TICK_RESOLUTION_NS, Configuration.TIMER_WHEEL_TICKS_PER_WHEEL, clock.nanoTime());
     }
 
     public String roleName() {
-        return "receiver";
+        return roleName;
     }
 
     public int doWork() throws Exception {
@@ -62,20 +92,23 @@ public class Receiver implements Agent, Consumer<ReceiverCmd> {
             } else {
                 workCount += image.sendPendingStatusMessage(now, statusMessageTimeout);
                 workCount += image.sendPendingNak();
+                workCount += image.sendPendingRttMeasurement(now, rttMeasurementInterval);
             }
         }
 
-        timeoutPendingSetupMessages(now);
+        workCount += timerWheel.poll(now, onPendingSetupTimeoutFunc, Integer.MAX_VALUE);
 
-        totalBytesReceived.addOrdered(bytesReceived);
+        totalBytesReceived.add(bytesReceived);
+        shardBytesReceived.addOrdered(bytesReceived);
+        shardDutyCycles.orderedIncrement();
 
         return workCount + bytesReceived;
     }
 
     public void addPendingSetupMessage(final int sessionId, final int streamId, final ReceiveChannelEndpoint channelEndpoint) {
         final PendingSetupMessageFromSource cmd = new PendingSetupMessageFromSource(sessionId, streamId, channelEndpoint);
-        cmd.timeOfStatusMessage(clock.nanoTime());
-        pendingSetupMessages.add(cmd);
+        final long deadline = clock.nanoTime() + Configuration.PENDING_SETUPS_TIMEOUT_NS;
+        pendingSetupMessageByTimerIdMap.put(timerWheel.scheduleTimer(deadline), cmd);
     }
 
     public void onAddSubscription(final ReceiveChannelEndpoint channelEndpoint, final int streamId) {
@@ -110,14 +143,13 @@ public class Receiver implements Agent, Consumer<ReceiverCmd> {
         cmd.execute(this);
     }
 
-    private void timeoutPendingSetupMessages(final long now) {
-        for (int i = pendingSetupMessages.size() - 1; i >= 0; i--) {
-            final PendingSetupMessageFromSource cmd = pendingSetupMessages.get(i);
+    private boolean onPendingSetupTimeout(final long now, final long timerId) {
+        final PendingSetupMessageFromSource cmd = pendingSetupMessageByTimerIdMap.remove(timerId);
 
-            if (now > (cmd.timeOfStatusMessage() + Configuration.PENDING_SETUPS_TIMEOUT_NS)) {
-                pendingSetupMessages.remove(i);
-                cmd.channelEndpoint().dispatcher().removePendingSetup(cmd.sessionId(), cmd.streamId());
-            }
+        if (null != cmd) {
+            cmd.channelEndpoint().dispatcher().removePendingSetup(cmd.sessionId(), cmd.streamId());
         }
+
+        return true;
     }
 }
@@ -17,41 +17,70 @@ package uk.co.real_logic.aeron.driver;
 
 import uk.co.real_logic.aeron.driver.cmd.*;
 import uk.co.real_logic.aeron.driver.media.ReceiveChannelEndpoint;
+import uk.co.real_logic.aeron.driver.media.UdpChannel;
 import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Queue;
 
 import static uk.co.real_logic.aeron.driver.ThreadingMode.SHARED;
 
 /**
  * Proxy for offering into the {@link Receiver} Thread's command queue.
+ *
+ * When there is more than one {@link Receiver} shard, commands are routed to the command queue of the shard which owns
+ * the {@link ReceiveChannelEndpoint} concerned.
  */
 public class ReceiverProxy {
     private final ThreadingMode threadingMode;
-    private final Queue<ReceiverCmd> commandQueue;
+    private final List<? extends Queue<ReceiverCmd>> commandQueues;
     private final AtomicCounter failCount;
 
+    private Receiver[] receivers;
     private Receiver receiver;
 
     public ReceiverProxy(final ThreadingMode threadingMode, final Queue<ReceiverCmd> commandQueue, final AtomicCounter failCount) {
+        this(threadingMode, Collections.singletonList(commandQueue), failCount);
+    }
+
+    public ReceiverProxy(
+            final ThreadingMode threadingMode,
+            final List<? extends Queue<ReceiverCmd>> commandQueues,
+            final AtomicCounter failCount) {
         this.threadingMode = threadingMode;
-        this.commandQueue = commandQueue;
+        this.commandQueues = commandQueues;
         this.failCount = failCount;
     }
 
     public void receiver(final Receiver receiver) {
-        this.receiver = receiver;
+        receivers(receiver);
+    }
+
+    public void receivers(final Receiver... receivers) {
+        this.receivers = receivers;
+        this.receiver = receivers[0];
     }
 
     public Receiver receiver() {
         return receiver;
     }
 
+    /**
+     * The {@link Receiver} shard which owns a given channel.
+     *
+     * @param udpChannel for which the owning {@link Receiver} is required.
+     * @return the {@link Receiver} shard which owns the channel.
+     */
+    public Receiver receiver(final UdpChannel udpChannel) {
+        return receivers[udpChannel.shardIndex(receivers.length)];
+    }
+
     public void addSubscription(final ReceiveChannelEndpoint mediaEndpoint, final int streamId) {
         if (isSharedThread()) {
             receiver.onAddSubscription(mediaEndpoint, streamId);
         } else {
-            offer(new AddSubscriptionCmd(mediaEndpoint, streamId));
+            offer(mediaEndpoint, new AddSubscriptionCmd(mediaEndpoint, streamId));
         }
     }
 
@@ -59,7 +88,7 @@ public class ReceiverProxy {
         if (isSharedThread()) {
             receiver.onRemoveSubscription(mediaEndpoint, streamId);
         } else {
-            offer(new RemoveSubscriptionCmd(mediaEndpoint, streamId));
+            offer(mediaEndpoint, new RemoveSubscriptionCmd(mediaEndpoint, streamId));
         }
     }
 
@@ -67,7 +96,7 @@ public class ReceiverProxy {
         if (isSharedThread()) {
             receiver.onNewPublicationImage(channelEndpoint, image);
         } else {
-            offer(new NewPublicationImageCmd(channelEndpoint, image));
+            offer(channelEndpoint, new NewPublicationImageCmd(channelEndpoint, image));
         }
     }
 
@@ -75,7 +104,7 @@ public class ReceiverProxy {
         if (isSharedThread()) {
             receiver.onRegisterReceiveChannelEndpoint(channelEndpoint);
         } else {
-            offer(new RegisterReceiveChannelEndpointCmd(channelEndpoint));
+            offer(channelEndpoint, new RegisterReceiveChannelEndpointCmd(channelEndpoint));
         }
     }
 
@@ -83,7 +112,7 @@ public class ReceiverProxy {
         if (isSharedThread()) {
             receiver.onCloseReceiveChannelEndpoint(channelEndpoint);
         } else {
-            offer(new CloseReceiveChannelEndpointCmd(channelEndpoint));
+            offer(channelEndpoint, new CloseReceiveChannelEndpointCmd(channelEndpoint));
         }
     }
 
@@ -91,7 +120,7 @@ public class ReceiverProxy {
         if (isSharedThread()) {
             receiver.onRemoveCoolDown(channelEndpoint, sessionId, streamId);
         } else {
-            offer(new RemoveCoolDownCmd(channelEndpoint, sessionId, streamId));
+            offer(channelEndpoint, new RemoveCoolDownCmd(channelEndpoint, sessionId, streamId));
         }
     }
 
@@ -99,7 +128,9 @@ public class ReceiverProxy {
         return threadingMode == SHARED;
     }
 
-    private void offer(final ReceiverCmd cmd) {
+    private void offer(final ReceiveChannelEndpoint channelEndpoint, final ReceiverCmd cmd) {
+        final Queue<ReceiverCmd> commandQueue = commandQueues.get(channelEndpoint.udpChannel().shardIndex(commandQueues.size()));
+
         while (!commandQueue.offer(cmd)) {
             failCount.orderedIncrement();
             Thread.yield();
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+/**
+ * Tunes the window a receiver advertises for an image from the rate at which subscribers consume and the round trip
+ * time to the source.
+ *
+ * The window doubles, up to the max, while subscribers keep up and the bandwidth delay product for the consumption
+ * rate needs more than half the window, so a window limited stream is not capped at window / RTT. The window halves,
+ * down to the min, when subscribers lag and most of the window sits unconsumed.
+ */
+public class ReceiverWindowTuner {
+    private final int minWindowLength;
+    private final int maxWindowLength;
+    private final long minAdjustIntervalNs;
+    private int windowLength;
+    private long lastAdjustTimestamp;
+    private long lastConsumptionPosition;
+
+    /**
+     * Create a tuner for the window of an image.
+     *
+     * @param initialWindowLength to start with which will be clamped to the min and max.
+     * @param minWindowLength     below which the window will not shrink.
+     * @param maxWindowLength     above which the window will not grow.
+     * @param minAdjustIntervalNs between adjustments of the window.
+     * @param now                 time in nanoseconds from which consumption is measured.
+     * @param initialPosition     from which consumption is measured.
+     */
+    public ReceiverWindowTuner(
+            final int initialWindowLength,
+            final int minWindowLength,
+            final int maxWindowLength,
+            final long minAdjustIntervalNs,
+            final long now,
+            final long initialPosition) {
+        this.minWindowLength = minWindowLength;
+        this.maxWindowLength = maxWindowLength;
+        this.minAdjustIntervalNs = minAdjustIntervalNs;
+        this.windowLength = Math.max(minWindowLength, Math.min(maxWindowLength, initialWindowLength));
+        this.lastAdjustTimestamp = now;
+        this.lastConsumptionPosition = initialPosition;
+    }
+
+    /**
+     * The current length of the window.
+     *
+     * @return current length of the window.
+     */
+    public int windowLength() {
+        return windowLength;
+    }
+
+    /**
+     * Called when a status message is to be sent so the window can be adjusted if an adjustment is due.
+     *
+     * Adjustments are made no more often than once per round trip so the effect of the last one can be observed.
+     *
+     * @param now                 time in nanoseconds.
+     * @param consumptionPosition reached by all subscribers as reported in the status message.
+     * @param hwmPosition         of data received.
+     * @param rttInNs             smoothed round trip time in nanoseconds or 0 if not yet measured.
+     * @return the length of the window to be advertised.
+     */
+    public int onStatusMessage(final long now, final long consumptionPosition, final long hwmPosition, final long rttInNs) {
+        final long elapsed = now - lastAdjustTimestamp;
+
+        if (elapsed >= Math.max(minAdjustIntervalNs, rttInNs)) {
+            final long backlog = hwmPosition - consumptionPosition;
+
+            if (backlog > (windowLength - (windowLength >> 2))) {
+                windowLength = Math.max(minWindowLength, windowLength >> 1);
+            } else if (rttInNs > 0 && backlog <= (windowLength >> 1)) {
+                final double consumptionRate = (double) (consumptionPosition - lastConsumptionPosition) / elapsed;
+                final double bandwidthDelayProduct = consumptionRate * rttInNs;
+
+                if ((bandwidthDelayProduct * 2) > windowLength) {
+                    windowLength = (int) Math.min(maxWindowLength, (long) windowLength << 1);
+                }
+            }
+
+            lastAdjustTimestamp = now;
+            lastConsumptionPosition = consumptionPosition;
+        }
+
+        return windowLength;
+    }
+}
@@ -20,29 +20,52 @@ import uk.co.real_logic.agrona.collections.Long2ObjectHashMap;
 import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 import uk.co.real_logic.agrona.concurrent.NanoClock;
 
+import java.util.Arrays;
+
 import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.computePosition;
 
 /**
  * Tracking and handling of retransmit request, NAKs, for senders and receivers
  *
- * A max number of retransmits is permitted by {@link #MAX_RETRANSMITS}. Additional received NAKs will be
- * ignored if this maximum is reached.
+ * The number of retransmits active at once grows on demand up to a configured max. Additional received NAKs are
+ * dropped, and counted, when this max is reached.
+ *
+ * A NAK which overlaps a retransmit yet to be sent is merged into it, and the part of a NAK covered by a retransmit
+ * which has been sent is dropped. Retransmits are sent up to a burst length per {@link Sender} duty cycle, restored by
+ * {@link #resetBurstLength()}, so they interleave with new data. What does not fit in the burst is deferred to
+ * following duty cycles.
+ *
+ * Delay and linger timeouts are kept in a {@link DeadlineTimerWheel} so each duty cycle only deals with the
+ * retransmits which are due rather than scanning all those which are active. The wheel starts with one slot per
+ * spoke and grows on demand as most publications have few retransmits active.
  */
-public class RetransmitHandler {
-    /**
-     * Maximum number of concurrent retransmits
-     */
-    public static final int MAX_RETRANSMITS = Configuration.MAX_RETRANSMITS_DEFAULT;
+public class RetransmitHandler implements DeadlineTimerWheel.TimerHandler {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int TIMER_TICKS_PER_WHEEL = 16;
+    private static final int TIMER_INITIAL_SPOKE_CAPACITY = 1;
 
-    private final RetransmitAction[] retransmitActionPool = new RetransmitAction[MAX_RETRANSMITS];
     private final Long2ObjectHashMap<RetransmitAction> activeRetransmitByPositionMap = new Long2ObjectHashMap<>();
+    private final Long2ObjectHashMap<RetransmitAction> retransmitByTimerIdMap = new Long2ObjectHashMap<>();
+    private final DeadlineTimerWheel timerWheel;
     private final NanoClock nanoClock;
     private final AtomicCounter invalidPackets;
+    private final AtomicCounter retransmitsDeferred;
+    private final AtomicCounter retransmitsMerged;
+    private final AtomicCounter retransmitCapacityDrops;
     private final FeedbackDelayGenerator delayGenerator;
     private final FeedbackDelayGenerator lingerTimeoutGenerator;
     private final int initialTermId;
     private final int capacity;
     private final int positionBitsToShift;
+    private final int retransmitBurstLength;
+    private final int maxRetransmits;
+    private int remainingBurstLength;
+    private int activeCount = 0;
+    private int allocatedCount = 0;
+    private int sendingCount = 0;
+    private RetransmitAction[] retransmitActionPool = new RetransmitAction[INITIAL_CAPACITY];
+    private RetransmitAction[] sendingActions = new RetransmitAction[INITIAL_CAPACITY];
+    private RetransmitSender timeoutRetransmitSender;
 
     /**
      * Create a retransmit handler.
@@ -53,6 +76,8 @@ public class RetransmitHandler {
      * @param lingerTimeoutGenerator to use for linger timeout
      * @param initialTermId          to use for the retransmission
      * @param capacity               of the term buffer
+     * @param retransmitBurstLength  max bytes to retransmit per duty cycle, see {@link #resetBurstLength()}
+     * @param maxRetransmits         max number of retransmits active at once
      */
     public RetransmitHandler(
             final NanoClock nanoClock,
@@ -60,18 +85,27 @@ public class RetransmitHandler {
             final FeedbackDelayGenerator delayGenerator,
             final FeedbackDelayGenerator lingerTimeoutGenerator,
             final int initialTermId,
-            final int capacity) {
+            final int capacity,
+            final int retransmitBurstLength,
+            final int maxRetransmits) {
         this.nanoClock = nanoClock;
         this.invalidPackets = systemCounters.invalidPackets();
+        this.retransmitsDeferred = systemCounters.retransmitsDeferred();
+        this.retransmitsMerged = systemCounters.retransmitsMerged();
+        this.retransmitCapacityDrops = systemCounters.retransmitCapacityDrops();
         this.delayGenerator = delayGenerator;
         this.lingerTimeoutGenerator = lingerTimeoutGenerator;
         this.initialTermId = initialTermId;
         this.capacity = capacity;
         this.positionBitsToShift = Integer.numberOfTrailingZeros(capacity);
-
-        for (int i = 0; i < MAX_RETRANSMITS; i++) {
-            retransmitActionPool[i] = new RetransmitAction();
-        }
+        this.retransmitBurstLength = retransmitBurstLength;
+        this.remainingBurstLength = retransmitBurstLength;
+        this.maxRetransmits = maxRetransmits;
+        this.timerWheel = new DeadlineTimerWheel(
+                Configuration.TIMER_WHEEL_TICK_RESOLUTION_NS,
+                TIMER_TICKS_PER_WHEEL,
+                TIMER_INITIAL_SPOKE_CAPACITY,
+                nanoClock.nanoTime());
     }
 
     /**
@@ -84,25 +118,32 @@ public class RetransmitHandler {
      */
     public void onNak(final int termId, final int termOffset, final int length, final RetransmitSender retransmitSender) {
         if (!isInvalid(termOffset)) {
-            final long position = computePosition(termId, termOffset, positionBitsToShift, initialTermId);
+            int nakOffset = termOffset;
+            int nakEnd = (int) Math.min((long) termOffset + length, capacity);
+            boolean isMerged = false;
 
-            if (activeRetransmitByPositionMap.size() < MAX_RETRANSMITS &&
-                    null == activeRetransmitByPositionMap.get(position)) {
-                final RetransmitAction action = assignRetransmitAction();
-                action.termId = termId;
-                action.termOffset = termOffset;
-                action.length = Math.min(length, capacity - termOffset);
-                action.position = position;
+            for (int i = 0; i < activeCount; i++) {
+                final RetransmitAction action = retransmitActionPool[i];
+                final int actionEnd = action.termOffset + action.length;
 
-                final long delay = determineRetransmitDelay();
-                if (0 == delay) {
-                    perform(action, retransmitSender);
-                    action.linger(determineLingerTimeout());
-                } else {
-                    action.delay(delay);
+                if (termId == action.termId && nakOffset < actionEnd && action.termOffset < nakEnd) {
+                    if (State.DELAYED == action.state || (State.SENDING == action.state && nakOffset >= action.termOffset)) {
+                        action.merge(nakOffset, nakEnd);
+                        retransmitsMerged.increment();
+                        isMerged = true;
+                        break;
+                    }
+
+                    if (nakOffset >= action.termOffset) {
+                        nakOffset = Math.min(nakEnd, actionEnd);
+                    } else if (nakEnd <= actionEnd) {
+                        nakEnd = action.termOffset;
+                    }
                 }
+            }
 
-                activeRetransmitByPositionMap.put(position, action);
+            if (!isMerged && nakEnd > nakOffset) {
+                newRetransmitAction(termId, nakOffset, nakEnd - nakOffset, retransmitSender);
             }
         }
     }
@@ -126,43 +167,89 @@ public class RetransmitHandler {
     }
 
     /**
-     * Called to process any outstanding timeouts.
+     * Called at the start of each duty cycle to restore the burst length shared by retransmits sent from
+     * {@link #processTimeouts(long, RetransmitSender)} and immediate retransmits sent from
+     * {@link #onNak(int, int, int, RetransmitSender)}.
+     */
+    public void resetBurstLength() {
+        remainingBurstLength = retransmitBurstLength;
+    }
+
+    /**
+     * Called to process any outstanding timeouts and send retransmits which are due, up to the remaining burst length.
+     *
+     * Retransmits deferred from previous calls are continued before those whose delay has just expired.
      *
      * @param now              time in nanoseconds
      * @param retransmitSender to call on retransmissions
      * @return count of expired actions performed
      */
     public int processTimeouts(final long now, final RetransmitSender retransmitSender) {
-        int result = 0;
-
-        if (activeRetransmitByPositionMap.size() > 0) {
-            for (final RetransmitAction action : retransmitActionPool) {
-                switch (action.state) {
-                    case DELAYED:
-                        if (now > action.expire) {
-                            action.onDelayTimeout(retransmitSender);
-                            result++;
-                        }
-                        break;
+        if (sendingCount > 0) {
+            final int count = sendingCount;
+            sendingCount = 0;
 
-                    case LINGERING:
-                        if (now > action.expire) {
-                            action.onLingerTimeout();
-                            result++;
-                        }
-                        break;
-                }
+            for (int i = 0; i < count; i++) {
+                final RetransmitAction action = sendingActions[i];
+                sendingActions[i] = null;
+                action.send(retransmitSender);
             }
         }
 
+        timeoutRetransmitSender = retransmitSender;
+        final int result = timerWheel.poll(now, this, Integer.MAX_VALUE);
+        timeoutRetransmitSender = null;
+
         return result;
     }
 
+    public boolean onTimerExpiry(final long now, final long timerId) {
+        final RetransmitAction action = retransmitByTimerIdMap.remove(timerId);
+
+        if (null != action) {
+            action.timerId = DeadlineTimerWheel.NULL_TIMER;
+
+            if (State.DELAYED == action.state) {
+                action.onDelayTimeout(timeoutRetransmitSender);
+            } else if (State.LINGERING == action.state) {
+                action.onLingerTimeout();
+            }
+        }
+
+        return true;
+    }
+
+    private void newRetransmitAction(
+            final int termId, final int termOffset, final int length, final RetransmitSender retransmitSender) {
+        final long position = computePosition(termId, termOffset, positionBitsToShift, initialTermId);
+
+        if (null == activeRetransmitByPositionMap.get(position)) {
+            if (activeCount < maxRetransmits) {
+                final RetransmitAction action = assignRetransmitAction();
+                action.termId = termId;
+                action.termOffset = termOffset;
+                action.length = length;
+                action.position = position;
+
+                activeRetransmitByPositionMap.put(position, action);
+
+                final long delay = determineRetransmitDelay();
+                if (0 == delay) {
+                    action.sendImmediately(retransmitSender);
+                } else {
+                    action.delay(delay);
+                }
+            } else {
+                retransmitCapacityDrops.increment();
+            }
+        }
+    }
+
     private boolean isInvalid(final int termOffset) {
         final boolean isInvalid = termOffset >= (capacity - DataHeaderFlyweight.HEADER_LENGTH);
 
         if (isInvalid) {
-            invalidPackets.orderedIncrement();
+            invalidPackets.increment();
         }
 
         return isInvalid;
@@ -176,57 +263,139 @@ public class RetransmitHandler {
         return lingerTimeoutGenerator.generateDelay();
     }
 
-    private void perform(final RetransmitAction action, final RetransmitSender retransmitSender) {
-        retransmitSender.resend(action.termId, action.termOffset, action.length);
-    }
-
     private RetransmitAction assignRetransmitAction() {
-        for (final RetransmitAction action : retransmitActionPool) {
-            if (State.INACTIVE == action.state) {
-                return action;
+        if (activeCount == allocatedCount) {
+            if (allocatedCount == retransmitActionPool.length) {
+                final int newLength = Math.min(allocatedCount << 1, maxRetransmits);
+                retransmitActionPool = Arrays.copyOf(retransmitActionPool, newLength);
+                sendingActions = Arrays.copyOf(sendingActions, newLength);
             }
+
+            retransmitActionPool[allocatedCount] = new RetransmitAction();
+            retransmitActionPool[allocatedCount].index = allocatedCount;
+            allocatedCount++;
         }
 
-        throw new IllegalStateException("no more INACTIVE RetransmitActions");
+        return retransmitActionPool[activeCount++];
+    }
+
+    private void releaseRetransmitAction(final RetransmitAction action) {
+        final int lastIndex = --activeCount;
+        final RetransmitAction lastAction = retransmitActionPool[lastIndex];
+
+        retransmitActionPool[action.index] = lastAction;
+        lastAction.index = action.index;
+        retransmitActionPool[lastIndex] = action;
+        action.index = lastIndex;
     }
 
     private enum State {
         DELAYED,
+        SENDING,
         LINGERING,
         INACTIVE
     }
 
     final class RetransmitAction {
-        long expire;
+        long timerId = DeadlineTimerWheel.NULL_TIMER;
         long position;
+        int index;
         int termId;
         int termOffset;
         int length;
+        int sentLength;
+        boolean isDeferred;
         State state = State.INACTIVE;
 
         public void delay(final long delay) {
             state = State.DELAYED;
-            expire = nanoClock.nanoTime() + delay;
+            scheduleTimer(nanoClock.nanoTime() + delay);
         }
 
         public void linger(final long timeout) {
             state = State.LINGERING;
-            expire = nanoClock.nanoTime() + timeout;
+            scheduleTimer(nanoClock.nanoTime() + timeout);
         }
 
         public void onDelayTimeout(final RetransmitSender retransmitSender) {
-            perform(this, retransmitSender);
-            linger(determineLingerTimeout());
+            sendImmediately(retransmitSender);
+        }
+
+        public void sendImmediately(final RetransmitSender retransmitSender) {
+            state = State.SENDING;
+            sentLength = 0;
+            isDeferred = false;
+            send(retransmitSender);
+        }
+
+        /**
+         * Send as much of the range as the remaining burst allows, lingering once it has all been sent or once nothing
+         * more can be sent for it. What is left is deferred to the next call of
+         * {@link #processTimeouts(long, RetransmitSender)} and counted as deferred only the first time.
+         */
+        public void send(final RetransmitSender retransmitSender) {
+            if (remainingBurstLength > 0) {
+                final int bytesSent = retransmitSender.resend(
+                        termId, termOffset + sentLength, Math.min(length - sentLength, remainingBurstLength));
+
+                remainingBurstLength -= Math.max(0, bytesSent);
+                sentLength += bytesSent;
+
+                if (bytesSent <= 0 || sentLength >= length) {
+                    linger(determineLingerTimeout());
+                }
+            }
+
+            if (State.SENDING == state) {
+                sendingActions[sendingCount++] = this;
+
+                if (!isDeferred) {
+                    isDeferred = true;
+                    retransmitsDeferred.increment();
+                }
+            }
+        }
+
+        public void merge(final int nakOffset, final int nakEnd) {
+            final int newEnd = Math.max(termOffset + length, nakEnd);
+
+            if (nakOffset < termOffset) {
+                final long nakPosition = computePosition(termId, nakOffset, positionBitsToShift, initialTermId);
+
+                if (null == activeRetransmitByPositionMap.get(nakPosition)) {
+                    activeRetransmitByPositionMap.remove(position);
+                    activeRetransmitByPositionMap.put(nakPosition, this);
+                    termOffset = nakOffset;
+                    position = nakPosition;
+                }
+            }
+
+            length = newEnd - termOffset;
         }
 
         public void onLingerTimeout() {
-            activeRetransmitByPositionMap.remove(position);
-            state = State.INACTIVE;
+            deactivate();
         }
 
         public void cancel() {
+            deactivate();
+        }
+
+        private void scheduleTimer(final long deadline) {
+            timerId = timerWheel.scheduleTimer(deadline);
+            retransmitByTimerIdMap.put(timerId, this);
+        }
+
+        private void deactivate() {
+            if (DeadlineTimerWheel.NULL_TIMER != timerId) {
+                timerWheel.cancelTimer(timerId);
+                retransmitByTimerIdMap.remove(timerId);
+                timerId = DeadlineTimerWheel.NULL_TIMER;
+            }
+
             activeRetransmitByPositionMap.remove(position);
             state = State.INACTIVE;
+            releaseRetransmitAction(this);
         }
     }
 }
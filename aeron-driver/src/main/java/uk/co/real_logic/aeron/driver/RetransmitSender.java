@@ -26,6 +26,7 @@ public interface RetransmitSender {
      * @param termId     for the NAK
      * @param termOffset for the NAK
      * @param length     for the NAK
+     * @return the number of bytes of the term covered by what was sent, which may be rounded up to whole frames.
      */
-    void resend(int termId, int termOffset, int length);
+    int resend(int termId, int termOffset, int length);
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Delay generator that scales with the smoothed round trip time so loss recovery on a low latency network is not held
+ * up by a delay tuned for a wide area network.
+ *
+ * Until a round trip time has been measured the max delay is used.
+ */
+public class RttAdaptiveDelayGenerator implements FeedbackDelayGenerator {
+    private final LongSupplier rttSupplier;
+    private final int rttMultiplier;
+    private final long minDelayInNs;
+    private final long maxDelayInNs;
+    private final boolean immediateFeedback;
+
+    /**
+     * Create a delay generator driven by a round trip time estimate.
+     *
+     * @param rttSupplier       of the smoothed round trip time in nanoseconds, or 0 if not yet measured
+     * @param rttMultiplier     applied to the round trip time to give the delay
+     * @param minDelayInNs      lower bound for the delay
+     * @param maxDelayInNs      upper bound for the delay and the delay used until the round trip time is measured
+     * @param immediateFeedback or not
+     */
+    public RttAdaptiveDelayGenerator(
+            final LongSupplier rttSupplier,
+            final int rttMultiplier,
+            final long minDelayInNs,
+            final long maxDelayInNs,
+            final boolean immediateFeedback) {
+        this.rttSupplier = rttSupplier;
+        this.rttMultiplier = rttMultiplier;
+        this.minDelayInNs = minDelayInNs;
+        this.maxDelayInNs = maxDelayInNs;
+        this.immediateFeedback = immediateFeedback;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long generateDelay() {
+        final long rttInNs = rttSupplier.getAsLong();
+        long delayInNs = maxDelayInNs;
+
+        if (rttInNs > 0) {
+            delayInNs = Math.max(minDelayInNs, Math.min(maxDelayInNs, rttInNs * rttMultiplier));
+        }
+
+        return delayInNs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean shouldFeedbackImmediately() {
+        return immediateFeedback;
+    }
+}
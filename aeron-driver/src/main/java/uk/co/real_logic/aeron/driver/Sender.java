@@ -23,6 +23,7 @@ import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 import uk.co.real_logic.agrona.concurrent.NanoClock;
 import uk.co.real_logic.agrona.concurrent.OneToOneConcurrentArrayQueue;
 
+import java.net.InetSocketAddress;
 import java.util.function.Consumer;
 
 /**
@@ -35,17 +36,39 @@ public class Sender implements Agent, Consumer<SenderCmd> {
     private final OneToOneConcurrentArrayQueue<SenderCmd> commandQueue;
     private final DriverConductorProxy conductorProxy;
     private final AtomicCounter totalBytesSent;
+    private final AtomicCounter shardBytesSent;
+    private final AtomicCounter shardDutyCycles;
     private final NanoClock nanoClock;
+    private final String roleName;
 
     private NetworkPublication[] networkPublications = EMPTY_PUBLICATIONS;
     private int roundRobinIndex = 0;
 
     public Sender(final MediaDriver.Context ctx) {
-        this.controlTransportPoller = ctx.senderTransportPoller();
-        this.commandQueue = ctx.senderCommandQueue();
+        this(ctx, 0, ctx.senderTransportPoller(), ctx.senderCommandQueue());
+    }
+
+    /**
+     * Construct a Sender which owns one shard of the send channel endpoints.
+     *
+     * @param ctx                    for the media driver.
+     * @param shardIndex             of the shard this Sender owns.
+     * @param controlTransportPoller for the send channel endpoints of the shard.
+     * @param commandQueue           on which commands for the shard arrive.
+     */
+    public Sender(
+            final MediaDriver.Context ctx,
+            final int shardIndex,
+            final ControlTransportPoller controlTransportPoller,
+            final OneToOneConcurrentArrayQueue<SenderCmd> commandQueue) {
+        this.controlTransportPoller = controlTransportPoller;
+        this.commandQueue = commandQueue;
         this.conductorProxy = ctx.fromSenderDriverConductorProxy();
         this.totalBytesSent = ctx.systemCounters().bytesSent();
+        this.shardBytesSent = ctx.systemCounters().senderShardBytesSent(shardIndex);
+        this.shardDutyCycles = ctx.systemCounters().senderShardDutyCycles(shardIndex);
         this.nanoClock = ctx.nanoClock();
+        this.roleName = ThreadingMode.SHARDED == ctx.threadingMode() ? "sender-" + shardIndex : "sender";
     }
 
     public int doWork() {
@@ -54,11 +77,13 @@ public class Sender implements Agent, Consumer<SenderCmd> {
         final int bytesSent = doSend(now);
         final int bytesReceived = controlTransportPoller.pollTransports();
 
+        shardDutyCycles.orderedIncrement();
+
         return workCount + bytesSent + bytesReceived;
     }
 
     public String roleName() {
-        return "sender";
+        return roleName;
     }
 
     public void onRegisterSendChannelEndpoint(final SendChannelEndpoint channelEndpoint) {
@@ -83,6 +108,26 @@ public class Sender implements Agent, Consumer<SenderCmd> {
         conductorProxy.closeResource(publication);
     }
 
+    public void onAddDestination(final SendChannelEndpoint channelEndpoint, final InetSocketAddress address) {
+        channelEndpoint.addDestination(address);
+
+        for (final NetworkPublication publication : networkPublications) {
+            if (publication.sendChannelEndpoint() == channelEndpoint) {
+                publication.triggerSendSetupFrame();
+            }
+        }
+    }
+
+    public void onRemoveDestination(final SendChannelEndpoint channelEndpoint, final InetSocketAddress address) {
+        channelEndpoint.removeDestination(address);
+
+        for (final NetworkPublication publication : networkPublications) {
+            if (publication.sendChannelEndpoint() == channelEndpoint) {
+                publication.onRemoveDestination(address);
+            }
+        }
+    }
+
     public void accept(final SenderCmd cmd) {
         cmd.execute(this);
     }
@@ -105,7 +150,8 @@ public class Sender implements Agent, Consumer<SenderCmd> {
             bytesSent += publications[i].send(now);
         }
 
-        totalBytesSent.addOrdered(bytesSent);
+        totalBytesSent.add(bytesSent);
+        shardBytesSent.addOrdered(bytesSent);
 
         return bytesSent;
     }
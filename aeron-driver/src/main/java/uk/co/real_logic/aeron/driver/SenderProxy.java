@@ -19,22 +19,35 @@ import uk.co.real_logic.aeron.driver.cmd.*;
 import uk.co.real_logic.aeron.driver.media.SendChannelEndpoint;
 import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.List;
 import java.util.Queue;
 
 import static uk.co.real_logic.aeron.driver.ThreadingMode.SHARED;
 
 /**
  * Proxy for offering into the Sender Thread's command queue.
+ *
+ * When there is more than one {@link Sender} shard, commands are routed to the command queue of the shard which owns
+ * the {@link SendChannelEndpoint} concerned.
  */
 public class SenderProxy {
     private final ThreadingMode threadingMode;
-    private final Queue<SenderCmd> commandQueue;
+    private final List<? extends Queue<SenderCmd>> commandQueues;
     private final AtomicCounter failCount;
     private Sender sender;
 
     public SenderProxy(final ThreadingMode threadingMode, final Queue<SenderCmd> commandQueue, final AtomicCounter failCount) {
+        this(threadingMode, Collections.singletonList(commandQueue), failCount);
+    }
+
+    public SenderProxy(
+            final ThreadingMode threadingMode,
+            final List<? extends Queue<SenderCmd>> commandQueues,
+            final AtomicCounter failCount) {
         this.threadingMode = threadingMode;
-        this.commandQueue = commandQueue;
+        this.commandQueues = commandQueues;
         this.failCount = failCount;
     }
 
@@ -46,7 +59,7 @@ public class SenderProxy {
         if (isSharedThread()) {
             sender.onRegisterSendChannelEndpoint(channelEndpoint);
         } else {
-            offer(new RegisterSendChannelEndpointCmd(channelEndpoint));
+            offer(channelEndpoint, new RegisterSendChannelEndpointCmd(channelEndpoint));
         }
     }
 
@@ -54,7 +67,7 @@ public class SenderProxy {
         if (isSharedThread()) {
             sender.onCloseSendChannelEndpoint(channelEndpoint);
         } else {
-            offer(new CloseSendChannelEndpointCmd(channelEndpoint));
+            offer(channelEndpoint, new CloseSendChannelEndpointCmd(channelEndpoint));
         }
     }
 
@@ -62,7 +75,7 @@ public class SenderProxy {
         if (isSharedThread()) {
             sender.onRemoveNetworkPublication(publication);
         } else {
-            offer(new RemovePublicationCmd(publication));
+            offer(publication.sendChannelEndpoint(), new RemovePublicationCmd(publication));
         }
     }
 
@@ -70,7 +83,23 @@ public class SenderProxy {
         if (isSharedThread()) {
             sender.onNewNetworkPublication(publication);
         } else {
-            offer(new NewPublicationCmd(publication));
+            offer(publication.sendChannelEndpoint(), new NewPublicationCmd(publication));
+        }
+    }
+
+    public void addDestination(final SendChannelEndpoint channelEndpoint, final InetSocketAddress address) {
+        if (isSharedThread()) {
+            sender.onAddDestination(channelEndpoint, address);
+        } else {
+            offer(channelEndpoint, new AddDestinationCmd(channelEndpoint, address));
+        }
+    }
+
+    public void removeDestination(final SendChannelEndpoint channelEndpoint, final InetSocketAddress address) {
+        if (isSharedThread()) {
+            sender.onRemoveDestination(channelEndpoint, address);
+        } else {
+            offer(channelEndpoint, new RemoveDestinationCmd(channelEndpoint, address));
         }
     }
 
@@ -78,7 +107,9 @@ public class SenderProxy {
         return threadingMode == SHARED;
     }
 
-    private void offer(final SenderCmd cmd) {
+    private void offer(final SendChannelEndpoint channelEndpoint, final SenderCmd cmd) {
+        final Queue<SenderCmd> commandQueue = commandQueues.get(channelEndpoint.udpChannel().shardIndex(commandQueues.size()));
+
         while (!commandQueue.offer(cmd)) {
             failCount.orderedIncrement();
             Thread.yield();
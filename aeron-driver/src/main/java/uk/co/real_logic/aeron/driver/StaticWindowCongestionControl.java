@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+/**
+ * Congestion control which does not respond to congestion so the sender is limited by {@link FlowControl} alone.
+ */
+public class StaticWindowCongestionControl implements CongestionControl {
+    private int windowLength;
+
+    /**
+     * {@inheritDoc}
+     */
+    public void initialize(final int mtuLength, final int maxWindowLength) {
+        windowLength = maxWindowLength;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onAck(final long bytesAcked, final long now) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onLoss(final int length, final long now) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void onRttSample(final long rttNs, final long now) {
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int windowLength() {
+        return windowLength;
+    }
+}
@@ -18,6 +18,13 @@ package uk.co.real_logic.aeron.driver;
 import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 import uk.co.real_logic.agrona.concurrent.CountersManager;
 
+/**
+ * Counters for the driver as a whole.
+ *
+ * Counters updated from the {@link Sender} or {@link Receiver} paths can have a writer per shard, and some are shared
+ * by both, so they are updated with atomic adds via {@link AtomicCounter#increment()} and
+ * {@link AtomicCounter#add(long)}. The per shard counters have a single writer and can use ordered updates.
+ */
 public class SystemCounters implements AutoCloseable {
     private final AtomicCounter bytesSent;
     private final AtomicCounter bytesReceived;
@@ -27,6 +34,9 @@ public class SystemCounters implements AutoCloseable {
     private final AtomicCounter nakMessagesSent;
     private final AtomicCounter nakMessagesReceived;
     private final AtomicCounter retransmitsSent;
+    private final AtomicCounter retransmitsDeferred;
+    private final AtomicCounter retransmitsMerged;
+    private final AtomicCounter retransmitCapacityDrops;
     private final AtomicCounter statusMessagesSent;
     private final AtomicCounter statusMessagesReceived;
     private final AtomicCounter heartbeatsSent;
@@ -41,10 +51,28 @@ public class SystemCounters implements AutoCloseable {
     private final AtomicCounter nakMessageShortSends;
     private final AtomicCounter clientKeepAlives;
     private final AtomicCounter senderFlowControlLimits;
+    private final AtomicCounter senderBurstLimits;
+    private final AtomicCounter senderPacingLimits;
     private final AtomicCounter unblockedPublications;
     private final AtomicCounter unblockedCommands;
+    private final AtomicCounter datagramsReceived;
+    private final AtomicCounter datagramReadPolls;
+    private final AtomicCounter receiveBurstLimits;
+    private final AtomicCounter zeroCopyReceives;
+    private final AtomicCounter logBytesCleaned;
+    private final AtomicCounter logCleaningLag;
+    private final AtomicCounter logPoolHits;
+    private final AtomicCounter logPoolMisses;
+    private final AtomicCounter[] senderShardBytesSent;
+    private final AtomicCounter[] senderShardDutyCycles;
+    private final AtomicCounter[] receiverShardBytesReceived;
+    private final AtomicCounter[] receiverShardDutyCycles;
 
     public SystemCounters(final CountersManager countersManager) {
+        this(countersManager, 1, 1);
+    }
+
+    public SystemCounters(final CountersManager countersManager, final int senderShardCount, final int receiverShardCount) {
         bytesSent = countersManager.newCounter("Bytes sent");
         bytesReceived = countersManager.newCounter("Bytes received");
         receiverProxyFails = countersManager.newCounter("Failed offers to ReceiverProxy");
@@ -57,6 +85,9 @@ public class SystemCounters implements AutoCloseable {
         heartbeatsSent = countersManager.newCounter("Heartbeats sent");
         heartbeatsReceived = countersManager.newCounter("Heartbeats received");
         retransmitsSent = countersManager.newCounter("Retransmits sent");
+        retransmitsDeferred = countersManager.newCounter("Retransmits deferred");
+        retransmitsMerged = countersManager.newCounter("Retransmits merged");
+        retransmitCapacityDrops = countersManager.newCounter("NAKs dropped at retransmit capacity");
         flowControlUnderRuns = countersManager.newCounter("Flow control under runs");
         flowControlOverRuns = countersManager.newCounter("Flow control over runs");
         invalidPackets = countersManager.newCounter("Invalid packets");
@@ -67,8 +98,32 @@ public class SystemCounters implements AutoCloseable {
         nakMessageShortSends = countersManager.newCounter("NAK Message short sends");
         clientKeepAlives = countersManager.newCounter("Client keep-alives");
         senderFlowControlLimits = countersManager.newCounter("Sender flow control limits applied");
+        senderBurstLimits = countersManager.newCounter("Sender burst limits applied");
+        senderPacingLimits = countersManager.newCounter("Sender pacing limits applied");
         unblockedPublications = countersManager.newCounter("Unblocked Publications");
         unblockedCommands = countersManager.newCounter("Unblocked Control Commands");
+        datagramsReceived = countersManager.newCounter("Datagrams received");
+        datagramReadPolls = countersManager.newCounter("Transport polls with datagrams");
+        receiveBurstLimits = countersManager.newCounter("Receive burst limits applied");
+        zeroCopyReceives = countersManager.newCounter("Zero-copy receives");
+        logBytesCleaned = countersManager.newCounter("Log bytes cleaned");
+        logCleaningLag = countersManager.newCounter("Log cleaning lag bytes");
+        logPoolHits = countersManager.newCounter("Log pool hits");
+        logPoolMisses = countersManager.newCounter("Log pool misses");
+
+        senderShardBytesSent = new AtomicCounter[senderShardCount];
+        senderShardDutyCycles = new AtomicCounter[senderShardCount];
+        for (int i = 0; i < senderShardCount; i++) {
+            senderShardBytesSent[i] = countersManager.newCounter("Sender " + i + " bytes sent");
+            senderShardDutyCycles[i] = countersManager.newCounter("Sender " + i + " duty cycles");
+        }
+
+        receiverShardBytesReceived = new AtomicCounter[receiverShardCount];
+        receiverShardDutyCycles = new AtomicCounter[receiverShardCount];
+        for (int i = 0; i < receiverShardCount; i++) {
+            receiverShardBytesReceived[i] = countersManager.newCounter("Receiver " + i + " bytes received");
+            receiverShardDutyCycles[i] = countersManager.newCounter("Receiver " + i + " duty cycles");
+        }
     }
 
     public void close() {
@@ -84,6 +139,9 @@ public class SystemCounters implements AutoCloseable {
         heartbeatsSent.close();
         heartbeatsReceived.close();
         retransmitsSent.close();
+        retransmitsDeferred.close();
+        retransmitsMerged.close();
+        retransmitCapacityDrops.close();
         flowControlUnderRuns.close();
         flowControlOverRuns.close();
         invalidPackets.close();
@@ -94,8 +152,28 @@ public class SystemCounters implements AutoCloseable {
         nakMessageShortSends.close();
         clientKeepAlives.close();
         senderFlowControlLimits.close();
+        senderBurstLimits.close();
+        senderPacingLimits.close();
         unblockedPublications.close();
         unblockedCommands.close();
+        datagramsReceived.close();
+        datagramReadPolls.close();
+        receiveBurstLimits.close();
+        zeroCopyReceives.close();
+        logBytesCleaned.close();
+        logCleaningLag.close();
+        logPoolHits.close();
+        logPoolMisses.close();
+
+        for (int i = 0; i < senderShardBytesSent.length; i++) {
+            senderShardBytesSent[i].close();
+            senderShardDutyCycles[i].close();
+        }
+
+        for (int i = 0; i < receiverShardBytesReceived.length; i++) {
+            receiverShardBytesReceived[i].close();
+            receiverShardDutyCycles[i].close();
+        }
     }
 
     public AtomicCounter bytesSent() {
@@ -130,6 +208,18 @@ public class SystemCounters implements AutoCloseable {
         return retransmitsSent;
     }
 
+    public AtomicCounter retransmitsDeferred() {
+        return retransmitsDeferred;
+    }
+
+    public AtomicCounter retransmitsMerged() {
+        return retransmitsMerged;
+    }
+
+    public AtomicCounter retransmitCapacityDrops() {
+        return retransmitCapacityDrops;
+    }
+
     public AtomicCounter statusMessagesSent() {
         return statusMessagesSent;
     }
@@ -186,6 +276,14 @@ public class SystemCounters implements AutoCloseable {
         return senderFlowControlLimits;
     }
 
+    public AtomicCounter senderBurstLimits() {
+        return senderBurstLimits;
+    }
+
+    public AtomicCounter senderPacingLimits() {
+        return senderPacingLimits;
+    }
+
     public AtomicCounter unblockedPublications() {
         return unblockedPublications;
     }
@@ -193,4 +291,52 @@ public class SystemCounters implements AutoCloseable {
     public AtomicCounter unblockedCommands() {
         return unblockedCommands;
     }
+
+    public AtomicCounter datagramsReceived() {
+        return datagramsReceived;
+    }
+
+    public AtomicCounter datagramReadPolls() {
+        return datagramReadPolls;
+    }
+
+    public AtomicCounter receiveBurstLimits() {
+        return receiveBurstLimits;
+    }
+
+    public AtomicCounter zeroCopyReceives() {
+        return zeroCopyReceives;
+    }
+
+    public AtomicCounter logBytesCleaned() {
+        return logBytesCleaned;
+    }
+
+    public AtomicCounter logCleaningLag() {
+        return logCleaningLag;
+    }
+
+    public AtomicCounter logPoolHits() {
+        return logPoolHits;
+    }
+
+    public AtomicCounter logPoolMisses() {
+        return logPoolMisses;
+    }
+
+    public AtomicCounter senderShardBytesSent(final int shardIndex) {
+        return senderShardBytesSent[shardIndex];
+    }
+
+    public AtomicCounter senderShardDutyCycles(final int shardIndex) {
+        return senderShardDutyCycles[shardIndex];
+    }
+
+    public AtomicCounter receiverShardBytesReceived(final int shardIndex) {
+        return receiverShardBytesReceived[shardIndex];
+    }
+
+    public AtomicCounter receiverShardDutyCycles(final int shardIndex) {
+        return receiverShardDutyCycles[shardIndex];
+    }
 }
@@ -32,5 +32,11 @@ public enum ThreadingMode {
     /**
      * One thread shared by all 3 agents.
      */
-    SHARED
+    SHARED,
+
+    /**
+     * Like {@link #DEDICATED} but with the sending and receiving work split across a number of {@link Sender} and
+     * {@link Receiver} agents, each on its own thread and owning a subset of the channel endpoints.
+     */
+    SHARDED
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket for pacing the data a {@link NetworkPublication} sends so a publication which has been idle does not
+ * release a whole window at line rate and overflow the socket buffers of receivers.
+ *
+ * Tokens are bytes which refill at the rate up to the burst length. A rate of 0 disables pacing.
+ */
+public class TokenBucketPacer {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long rateInBytesPerSecond;
+    private final long burstLength;
+    private final long timeToFillNs;
+    private long tokens;
+    private long timeOfLastRefill;
+
+    /**
+     * Create a pacer which starts with a full bucket.
+     *
+     * @param rateInBytesPerSecond at which the bucket refills, or 0 for no pacing.
+     * @param burstLength          in bytes the bucket can hold.
+     * @param now                  time in nanoseconds.
+     */
+    public TokenBucketPacer(final long rateInBytesPerSecond, final int burstLength, final long now) {
+        this.rateInBytesPerSecond = rateInBytesPerSecond;
+        this.burstLength = burstLength;
+        this.timeToFillNs = rateInBytesPerSecond > 0 ? (burstLength * NANOS_PER_SECOND) / rateInBytesPerSecond : 0;
+        this.tokens = burstLength;
+        this.timeOfLastRefill = now;
+    }
+
+    /**
+     * Refill the bucket for the time elapsed and return the bytes which may be sent.
+     *
+     * Only the time accounted for by whole bytes is taken so the fraction of a byte left over carries to the next refill.
+     *
+     * @param now time in nanoseconds.
+     * @return the number of bytes which may be sent now.
+     */
+    public int available(final long now) {
+        int available = Integer.MAX_VALUE;
+
+        if (rateInBytesPerSecond > 0) {
+            final long elapsedNs = Math.min(now - timeOfLastRefill, timeToFillNs);
+            final long refill = (elapsedNs * rateInBytesPerSecond) / NANOS_PER_SECOND;
+
+            if (refill > 0) {
+                tokens = Math.min(burstLength, tokens + refill);
+                timeOfLastRefill = tokens < burstLength ?
+                        timeOfLastRefill + ((refill * NANOS_PER_SECOND) / rateInBytesPerSecond) :
+                        now;
+            }
+
+            available = (int) tokens;
+        }
+
+        return available;
+    }
+
+    /**
+     * Take tokens from the bucket for bytes which have been sent.
+     *
+     * @param length in bytes which have been sent.
+     */
+    public void consume(final int length) {
+        if (rateInBytesPerSecond > 0) {
+            tokens -= length;
+        }
+    }
+}
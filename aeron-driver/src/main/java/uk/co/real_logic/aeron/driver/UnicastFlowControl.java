@@ -34,7 +34,11 @@ public class UnicastFlowControl implements FlowControl {
      * {@inheritDoc}
      */
     public long onStatusMessage(
-            final int termId, final int termOffset, final int receiverWindowLength, final InetSocketAddress address) {
+            final int termId,
+            final int termOffset,
+            final int receiverWindowLength,
+            final InetSocketAddress address,
+            final long now) {
         final long position = computePosition(termId, termOffset, positionBitsToShift, initialTermId);
         final long newPositionLimit = position + receiverWindowLength;
         positionLimit = Math.max(positionLimit, newPositionLimit);
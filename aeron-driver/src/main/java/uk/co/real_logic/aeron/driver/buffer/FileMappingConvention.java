@@ -25,15 +25,18 @@ import java.io.File;
  * Root directory is the "aeron.data.dir"
  * Source publications are under "${aeron.data.dir}/publications"
  * Rebuilt publications are under "${aeron.data.dir}/images"
+ * Pooled logs, not yet in use, are under "${aeron.data.dir}/pool"
  *
  * Both publications and images share the same structure of "sessionId/streamId/consumptionTermId".
  */
 class FileMappingConvention {
     public static final String PUBLICATIONS = "publications";
     public static final String IMAGES = "images";
+    public static final String POOL = "pool";
 
     private final File publicationsDir;
     private final File imagesDir;
+    private final File poolDir;
 
     FileMappingConvention(final String dataDirName) {
         final File dataDir = new File(dataDirName);
@@ -41,6 +44,7 @@ class FileMappingConvention {
 
         publicationsDir = new File(dataDir, PUBLICATIONS);
         imagesDir = new File(dataDir, IMAGES);
+        poolDir = new File(dataDir, POOL);
     }
 
     /**
@@ -61,6 +65,15 @@ class FileMappingConvention {
         return imagesDir;
     }
 
+    /**
+     * Get the directory used for pooled log files which are not yet in use.
+     *
+     * @return the directory used for pooled log files.
+     */
+    public File poolDir() {
+        return poolDir;
+    }
+
     public static File streamLocation(
             final File rootDir,
             final String channel,
@@ -41,9 +41,11 @@ class MappedRawLog implements RawLog {
     private final int termLength;
     private final LogBufferPartition[] partitions;
     private final EventLogger logger;
-    private final File logFile;
     private final MappedByteBuffer[] mappedBuffers;
     private final UnsafeBuffer logMetaDataBuffer;
+    private File logFile;
+    private RawLogPool pool;
+    private long timeOfRecycle;
 
     MappedRawLog(final File location, final FileChannel blankTemplate, final int termLength, final EventLogger logger) {
         this.termLength = termLength;
@@ -100,7 +102,19 @@ class MappedRawLog implements RawLog {
         return termLength;
     }
 
+    /**
+     * Return the log to the pool it was taken from, if it has room, otherwise unmap and delete it.
+     */
     public void close() {
+        if (null == pool || !pool.recycle(this)) {
+            free();
+        }
+    }
+
+    /**
+     * Unmap and delete the log file.
+     */
+    void free() {
         for (final MappedByteBuffer buffer : mappedBuffers) {
             IoUtil.unmap(buffer);
         }
@@ -110,6 +124,51 @@ class MappedRawLog implements RawLog {
         }
     }
 
+    /**
+     * Associate the log with the pool to which it is returned on close.
+     *
+     * @param pool to which the log is returned on close.
+     */
+    void pool(final RawLogPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Time at which the log was handed back to the pool.
+     *
+     * @param time at which the log was handed back to the pool.
+     */
+    void timeOfRecycle(final long time) {
+        this.timeOfRecycle = time;
+    }
+
+    long timeOfRecycle() {
+        return timeOfRecycle;
+    }
+
+    /**
+     * Rename the log file while keeping it mapped.
+     *
+     * @param location to which the file is moved.
+     */
+    void moveTo(final File location) {
+        if (!logFile.renameTo(location)) {
+            throw new IllegalStateException("Failed to move log file " + logFile + " to " + location);
+        }
+
+        logFile = location;
+    }
+
+    /**
+     * Zero the terms and meta data so the log can be reused as if newly created.
+     */
+    void zero() {
+        for (final MappedByteBuffer buffer : mappedBuffers) {
+            final UnsafeBuffer unsafeBuffer = new UnsafeBuffer(buffer);
+            unsafeBuffer.setMemory(0, unsafeBuffer.capacity(), (byte) 0);
+        }
+    }
+
     public Stream<LogBufferPartition> stream() {
         return Stream.of(partitions);
     }
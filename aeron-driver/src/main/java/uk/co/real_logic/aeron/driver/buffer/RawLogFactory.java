@@ -18,6 +18,8 @@ package uk.co.real_logic.aeron.driver.buffer;
 import uk.co.real_logic.aeron.driver.event.EventLogger;
 import uk.co.real_logic.agrona.IoUtil;
 import uk.co.real_logic.agrona.LangUtil;
+import uk.co.real_logic.agrona.concurrent.AtomicCounter;
+import uk.co.real_logic.agrona.concurrent.NanoClock;
 
 import java.io.File;
 import java.nio.channels.FileChannel;
@@ -27,6 +29,8 @@ import static uk.co.real_logic.aeron.driver.buffer.FileMappingConvention.streamL
 
 /**
  * Factory for creating new {@link RawLog} in the source publications or rebuilt publication images directories as appropriate.
+ *
+ * When constructed with a pool size the logs for publications are taken from a {@link RawLogPool} when available.
  */
 public class RawLogFactory implements AutoCloseable {
     private final int publicationTermBufferLength;
@@ -36,6 +40,7 @@ public class RawLogFactory implements AutoCloseable {
     private final File publicationsDir;
     private final File imagesDir;
     private final EventLogger logger;
+    private final RawLogPool pool;
 
     public RawLogFactory(
             final String dataDirectoryName,
@@ -43,6 +48,45 @@ public class RawLogFactory implements AutoCloseable {
             final int imagesTermBufferMaxLength,
             final int ipcPublicationTermBufferLength,
             final EventLogger logger) {
+        this(
+                dataDirectoryName,
+                publicationTermBufferLength,
+                imagesTermBufferMaxLength,
+                ipcPublicationTermBufferLength,
+                0,
+                0,
+                null,
+                null,
+                null,
+                logger);
+    }
+
+    /**
+     * Construct a factory which pools logs of the publication and IPC publication term lengths. Images of the same
+     * term length as publications also use the pool.
+     *
+     * @param dataDirectoryName              in which the log files are created.
+     * @param publicationTermBufferLength    for network publications.
+     * @param imagesTermBufferMaxLength      max term length for images.
+     * @param ipcPublicationTermBufferLength for IPC publications.
+     * @param poolSize                       number of logs to keep ready for each term length, 0 for no pool.
+     * @param poolRecycleDelayNs             time a closed log is held before it is zeroed and reused.
+     * @param nanoClock                      for timing the recycle delay.
+     * @param poolHits                       counter for logs taken from the pool.
+     * @param poolMisses                     counter for logs created as the pool had none available.
+     * @param logger                         for reporting errors.
+     */
+    public RawLogFactory(
+            final String dataDirectoryName,
+            final int publicationTermBufferLength,
+            final int imagesTermBufferMaxLength,
+            final int ipcPublicationTermBufferLength,
+            final int poolSize,
+            final long poolRecycleDelayNs,
+            final NanoClock nanoClock,
+            final AtomicCounter poolHits,
+            final AtomicCounter poolMisses,
+            final EventLogger logger) {
         this.logger = logger;
 
         final FileMappingConvention fileMappingConvention = new FileMappingConvention(dataDirectoryName);
@@ -61,12 +105,44 @@ public class RawLogFactory implements AutoCloseable {
         final long blankTemplateLength = computeLogLength(maxTermLength);
 
         blankTemplate = createTemplateFile(dataDirectoryName, "blankTemplate", blankTemplateLength);
+
+        if (poolSize > 0) {
+            final int[] termLengths = publicationTermBufferLength == ipcPublicationTermBufferLength ?
+                    new int[]{publicationTermBufferLength} :
+                    new int[]{publicationTermBufferLength, ipcPublicationTermBufferLength};
+
+            pool = new RawLogPool(
+                    fileMappingConvention.poolDir(),
+                    blankTemplate,
+                    poolSize,
+                    termLengths,
+                    poolRecycleDelayNs,
+                    nanoClock,
+                    poolHits,
+                    poolMisses,
+                    logger);
+        } else {
+            pool = null;
+        }
+    }
+
+    /**
+     * The pool from which logs are taken, to be run as an agent, or null if logs are not pooled.
+     *
+     * @return the pool from which logs are taken or null if logs are not pooled.
+     */
+    public RawLogPool pool() {
+        return pool;
     }
 
     /**
-     * Close the template files.
+     * Free the logs left in the pool, once its agent has been closed, and close the template files.
      */
     public void close() {
+        if (null != pool) {
+            pool.close();
+        }
+
         try {
             blankTemplate.close();
         } catch (final Exception ex) {
@@ -135,6 +211,18 @@ public class RawLogFactory implements AutoCloseable {
             final int termBufferLength) {
         final File location = streamLocation(rootDir, channel, sessionId, streamId, correlationId);
 
-        return new MappedRawLog(location, blankTemplate, termBufferLength, logger);
+        MappedRawLog rawLog = null;
+        if (null != pool) {
+            rawLog = pool.acquire(termBufferLength);
+        }
+
+        if (null == rawLog) {
+            rawLog = new MappedRawLog(location, blankTemplate, termBufferLength, logger);
+            rawLog.pool(pool);
+        } else {
+            rawLog.moveTo(location);
+        }
+
+        return rawLog;
     }
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver.buffer;
+
+import uk.co.real_logic.aeron.driver.event.EventLogger;
+import uk.co.real_logic.agrona.IoUtil;
+import uk.co.real_logic.agrona.concurrent.Agent;
+import uk.co.real_logic.agrona.concurrent.AtomicCounter;
+import uk.co.real_logic.agrona.concurrent.NanoClock;
+import uk.co.real_logic.agrona.concurrent.OneToOneConcurrentArrayQueue;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Pool of mapped {@link RawLog}s, ready to be used, for each of a set of term lengths.
+ *
+ * Creating a log file, extending it, and copying in the blank template is slow so this is done on the pool's own
+ * {@link Agent} ahead of need rather than on the {@link uk.co.real_logic.aeron.driver.DriverConductor}. Logs closed by
+ * the conductor are handed back to the pool agent which holds them until clients can no longer have them mapped, then
+ * zeroes them and makes them available again while the pool is below its size, otherwise they are deleted.
+ *
+ * {@link #acquire(int)}, {@link #recycle(MappedRawLog)}, and {@link #close()} are called from the conductor thread.
+ */
+public class RawLogPool implements Agent {
+    private final int poolSize;
+    private final int[] termLengths;
+    private final int[] lingeringLogCounts;
+    private final long recycleDelayNs;
+    private final OneToOneConcurrentArrayQueue<MappedRawLog>[] availableLogs;
+    private final OneToOneConcurrentArrayQueue<MappedRawLog> recycledLogs;
+    private final ArrayDeque<MappedRawLog> lingeringLogs = new ArrayDeque<>();
+    private final FileChannel blankTemplate;
+    private final File poolDir;
+    private final NanoClock nanoClock;
+    private final EventLogger logger;
+    private final AtomicCounter hits;
+    private final AtomicCounter misses;
+    private final Consumer<MappedRawLog> onRecycledLogFunc = this::onRecycledLog;
+    private volatile boolean isClosed = false;
+    private long nextLogId = 0;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public RawLogPool(
+            final File poolDir,
+            final FileChannel blankTemplate,
+            final int poolSize,
+            final int[] termLengths,
+            final long recycleDelayNs,
+            final NanoClock nanoClock,
+            final AtomicCounter hits,
+            final AtomicCounter misses,
+            final EventLogger logger) {
+        this.poolDir = poolDir;
+        this.blankTemplate = blankTemplate;
+        this.poolSize = poolSize;
+        this.termLengths = termLengths;
+        this.recycleDelayNs = recycleDelayNs;
+        this.nanoClock = nanoClock;
+        this.hits = hits;
+        this.misses = misses;
+        this.logger = logger;
+
+        IoUtil.ensureDirectoryExists(poolDir, FileMappingConvention.POOL);
+
+        lingeringLogCounts = new int[termLengths.length];
+        availableLogs = new OneToOneConcurrentArrayQueue[termLengths.length];
+        for (int i = 0; i < termLengths.length; i++) {
+            availableLogs[i] = new OneToOneConcurrentArrayQueue<>(poolSize);
+        }
+
+        recycledLogs = new OneToOneConcurrentArrayQueue<>(poolSize * termLengths.length);
+    }
+
+    public String roleName() {
+        return "log-pool";
+    }
+
+    public int doWork() throws Exception {
+        int workCount = recycledLogs.drain(onRecycledLogFunc);
+        workCount += reuseLingeringLogs(nanoClock.nanoTime());
+
+        for (int i = 0; i < termLengths.length; i++) {
+            final OneToOneConcurrentArrayQueue<MappedRawLog> logs = availableLogs[i];
+            if (logs.size() < poolSize) {
+                final MappedRawLog rawLog = new MappedRawLog(nextPoolFile(), blankTemplate, termLengths[i], logger);
+                rawLog.pool(this);
+                logs.offer(rawLog);
+                workCount++;
+            }
+        }
+
+        return workCount;
+    }
+
+    /**
+     * Free the logs held by the agent for the recycle delay. Those in the queues shared with the conductor are freed
+     * by {@link #close()} on the conductor thread.
+     */
+    public void onClose() {
+        isClosed = true;
+
+        MappedRawLog rawLog;
+        while (null != (rawLog = lingeringLogs.poll())) {
+            rawLog.free();
+        }
+    }
+
+    /**
+     * Free the logs still available or waiting to be recycled. Called from the conductor thread once the pool agent
+     * has been closed so the conductor is the only thread left using the queues.
+     */
+    public void close() {
+        recycledLogs.drain(MappedRawLog::free);
+        for (final OneToOneConcurrentArrayQueue<MappedRawLog> logs : availableLogs) {
+            logs.drain(MappedRawLog::free);
+        }
+    }
+
+    /**
+     * Take a log of a given term length from the pool.
+     *
+     * @param termLength of the log required.
+     * @return a log ready to be used or null if none are available.
+     */
+    public MappedRawLog acquire(final int termLength) {
+        MappedRawLog rawLog = null;
+
+        final int index = indexOf(termLength);
+        if (index >= 0) {
+            rawLog = availableLogs[index].poll();
+
+            if (null == rawLog) {
+                misses.orderedIncrement();
+            } else {
+                hits.orderedIncrement();
+            }
+        }
+
+        return rawLog;
+    }
+
+    /**
+     * Hand a closed log back to the pool to be zeroed and reused once the recycle delay has passed.
+     *
+     * @param rawLog which has been closed.
+     * @return true if the pool has taken the log otherwise false and the log should be freed.
+     */
+    public boolean recycle(final MappedRawLog rawLog) {
+        return !isClosed && indexOf(rawLog.termLength()) >= 0 && recycledLogs.offer(rawLog);
+    }
+
+    private void onRecycledLog(final MappedRawLog rawLog) {
+        final int index = indexOf(rawLog.termLength());
+
+        if (lingeringLogCounts[index] < poolSize) {
+            rawLog.timeOfRecycle(nanoClock.nanoTime());
+            lingeringLogs.offer(rawLog);
+            lingeringLogCounts[index]++;
+        } else {
+            rawLog.free();
+        }
+    }
+
+    private int reuseLingeringLogs(final long now) {
+        int workCount = 0;
+
+        MappedRawLog rawLog;
+        while (null != (rawLog = lingeringLogs.peek()) && now >= (rawLog.timeOfRecycle() + recycleDelayNs)) {
+            lingeringLogs.poll();
+
+            final int index = indexOf(rawLog.termLength());
+            lingeringLogCounts[index]--;
+
+            final OneToOneConcurrentArrayQueue<MappedRawLog> logs = availableLogs[index];
+            if (logs.size() < poolSize) {
+                rawLog.moveTo(nextPoolFile());
+                rawLog.zero();
+                logs.offer(rawLog);
+            } else {
+                rawLog.free();
+            }
+
+            workCount++;
+        }
+
+        return workCount;
+    }
+
+    private File nextPoolFile() {
+        return new File(poolDir, (nextLogId++) + ".logbuffer");
+    }
+
+    private int indexOf(final int termLength) {
+        int index = -1;
+        for (int i = 0; i < termLengths.length; i++) {
+            if (termLengths[i] == termLength) {
+                index = i;
+                break;
+            }
+        }
+
+        return index;
+    }
+}
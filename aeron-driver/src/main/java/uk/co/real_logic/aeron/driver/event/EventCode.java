@@ -47,7 +47,12 @@ public enum EventCode {
 
     INVALID_VERSION(22, EventDissector::dissectAsCommand),
 
-    CHANNEL_CREATION(23, EventDissector::dissectAsString);
+    CHANNEL_CREATION(23, EventDissector::dissectAsString),
+    CMD_IN_ADD_DESTINATION(24, EventDissector::dissectAsCommand),
+    CMD_IN_REMOVE_DESTINATION(25, EventDissector::dissectAsCommand),
+
+    CMD_IN_ADD_EXCLUSIVE_PUBLICATION(26, EventDissector::dissectAsCommand),
+    CMD_OUT_EXCLUSIVE_PUBLICATION_READY(27, EventDissector::dissectAsCommand);
 
     private static final Int2ObjectHashMap<EventCode> EVENT_CODE_BY_ID_MAP = new Int2ObjectHashMap<>();
 
@@ -50,14 +50,18 @@ public class EventConfiguration {
             EventCode.EXCEPTION,
             EventCode.MALFORMED_FRAME_LENGTH,
             EventCode.CMD_IN_ADD_PUBLICATION,
+            EventCode.CMD_IN_ADD_EXCLUSIVE_PUBLICATION,
             EventCode.CMD_IN_ADD_SUBSCRIPTION,
             EventCode.CMD_IN_KEEPALIVE_CLIENT,
             EventCode.CMD_IN_REMOVE_PUBLICATION,
             EventCode.CMD_IN_REMOVE_SUBSCRIPTION,
+            EventCode.CMD_IN_ADD_DESTINATION,
+            EventCode.CMD_IN_REMOVE_DESTINATION,
             EventCode.REMOVE_IMAGE_CLEANUP,
             EventCode.REMOVE_PUBLICATION_CLEANUP,
             EventCode.REMOVE_SUBSCRIPTION_CLEANUP,
             EventCode.CMD_OUT_PUBLICATION_READY,
+            EventCode.CMD_OUT_EXCLUSIVE_PUBLICATION_READY,
             EventCode.CMD_OUT_AVAILABLE_IMAGE,
             EventCode.CMD_OUT_ON_UNAVAILABLE_IMAGE,
             EventCode.CMD_OUT_ON_OPERATION_SUCCESS,
@@ -41,6 +41,7 @@ public class EventDissector {
     private static final CorrelatedMessageFlyweight CORRELATED_MSG = new CorrelatedMessageFlyweight();
     private static final ImageMessageFlyweight IMAGE_MSG = new ImageMessageFlyweight();
     private static final RemoveMessageFlyweight REMOVE_MSG = new RemoveMessageFlyweight();
+    private static final DestinationMessageFlyweight DESTINATION_MSG = new DestinationMessageFlyweight();
 
     public static String dissectAsFrame(final EventCode code, final MutableDirectBuffer buffer, final int offset) {
         final StringBuilder builder = new StringBuilder();
@@ -95,6 +96,7 @@ public class EventDissector {
 
         switch (code) {
             case CMD_IN_ADD_PUBLICATION:
+            case CMD_IN_ADD_EXCLUSIVE_PUBLICATION:
                 final PublicationMessageFlyweight pubCommand = PUB_MESSAGE;
                 pubCommand.wrap(buffer, offset + relativeOffset);
                 builder.append(dissect(pubCommand));
@@ -113,7 +115,15 @@ public class EventDissector {
                 builder.append(dissect(removeCmd));
                 break;
 
+            case CMD_IN_ADD_DESTINATION:
+            case CMD_IN_REMOVE_DESTINATION:
+                final DestinationMessageFlyweight destinationCmd = DESTINATION_MSG;
+                destinationCmd.wrap(buffer, offset + relativeOffset);
+                builder.append(dissect(destinationCmd));
+                break;
+
             case CMD_OUT_PUBLICATION_READY:
+            case CMD_OUT_EXCLUSIVE_PUBLICATION_READY:
                 final PublicationBuffersReadyFlyweight publicationReadyEvent = PUBLICATION_READY;
                 publicationReadyEvent.wrap(buffer, offset + relativeOffset);
                 builder.append(dissect(publicationReadyEvent));
@@ -373,6 +383,15 @@ public class EventDissector {
                 msg.correlationId());
     }
 
+    private static String dissect(final DestinationMessageFlyweight msg) {
+        return String.format(
+                "%s %d [%d:%d]",
+                msg.channel(),
+                msg.registrationCorrelationId(),
+                msg.clientId(),
+                msg.correlationId());
+    }
+
     public static int frameType(final MutableDirectBuffer buffer, final int termOffset) {
         return buffer.getShort(FrameDescriptor.typeOffset(termOffset), LITTLE_ENDIAN) & 0xFFFF;
     }
@@ -21,6 +21,7 @@ import uk.co.real_logic.aeron.protocol.*;
 import uk.co.real_logic.agrona.LangUtil;
 import uk.co.real_logic.agrona.collections.Int2ObjectHashMap;
 import uk.co.real_logic.agrona.collections.MutableInteger;
+import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 
 import java.io.IOException;
@@ -34,6 +35,11 @@ import static uk.co.real_logic.aeron.protocol.HeaderFlyweight.*;
 /**
  * Aggregator of multiple subscriptions onto a single transport session for receiving of data and setup frames
  * plus sending status and NAK frames.
+ *
+ * With zero-copy receive enabled an in order data packet is held back from subscribers by its {@link PublicationImage}
+ * so the packets which follow it within the same poll can be received directly into the term buffer at the expected
+ * offset, falling back to the receive buffer when they are for another image or not in order. The held packet is
+ * committed, making all of them visible to subscribers and to loss detection, once the poll completes.
  */
 public class ReceiveChannelEndpoint extends UdpChannelTransport {
     private final DataPacketDispatcher dispatcher;
@@ -41,41 +47,61 @@ public class ReceiveChannelEndpoint extends UdpChannelTransport {
 
     private final ByteBuffer smBuffer = ByteBuffer.allocateDirect(StatusMessageFlyweight.HEADER_LENGTH);
     private final StatusMessageFlyweight smHeader = new StatusMessageFlyweight(smBuffer);
-    private final ByteBuffer nakBuffer = ByteBuffer.allocateDirect(NakFlyweight.HEADER_LENGTH);
+    private final ByteBuffer nakBuffer =
+            ByteBuffer.allocateDirect(NakFlyweight.HEADER_LENGTH * Configuration.NAK_MAX_GAPS_DEFAULT);
     private final NakFlyweight nakHeader = new NakFlyweight(nakBuffer);
+    private final ByteBuffer rttmBuffer = ByteBuffer.allocateDirect(RttMeasurementFlyweight.HEADER_LENGTH);
+    private final RttMeasurementFlyweight rttmHeader = new RttMeasurementFlyweight(rttmBuffer);
 
     private final SetupFlyweight setupHeader;
+    private final RttMeasurementFlyweight rttmReplyHeader;
     private final DataHeaderFlyweight dataHeader;
     private final Int2ObjectHashMap<MutableInteger> refCountByStreamIdMap = new Int2ObjectHashMap<>();
 
+    private final boolean isZeroCopyReceive;
+    private final AtomicCounter zeroCopyReceives;
+    private boolean isHoldingPackets = false;
+    private PublicationImage heldImage;
+
     private volatile boolean isClosed = false;
 
     public ReceiveChannelEndpoint(
             final UdpChannel udpChannel,
             final DataPacketDispatcher dispatcher,
             final MediaDriver.Context context) {
+        this(udpChannel, dispatcher, context, context.receiveZeroCopy());
+    }
+
+    protected ReceiveChannelEndpoint(
+            final UdpChannel udpChannel,
+            final DataPacketDispatcher dispatcher,
+            final MediaDriver.Context context,
+            final boolean isZeroCopyReceive) {
         super(
                 udpChannel,
                 udpChannel.remoteData(),
                 udpChannel.remoteData(),
                 null,
-                context.eventLogger());
+                context);
 
         smHeader
                 .version(HeaderFlyweight.CURRENT_VERSION)
                 .headerType(HeaderFlyweight.HDR_TYPE_SM)
                 .frameLength(StatusMessageFlyweight.HEADER_LENGTH);
 
-        nakHeader
+        rttmHeader
                 .version(HeaderFlyweight.CURRENT_VERSION)
-                .headerType(HeaderFlyweight.HDR_TYPE_NAK)
-                .frameLength(NakFlyweight.HEADER_LENGTH);
+                .headerType(HeaderFlyweight.HDR_TYPE_RTTM)
+                .frameLength(RttMeasurementFlyweight.HEADER_LENGTH);
 
         dataHeader = new DataHeaderFlyweight(receiveBuffer);
         setupHeader = new SetupFlyweight(receiveBuffer);
+        rttmReplyHeader = new RttMeasurementFlyweight(receiveBuffer);
 
         this.dispatcher = dispatcher;
         this.systemCounters = context.systemCounters();
+        this.isZeroCopyReceive = isZeroCopyReceive;
+        this.zeroCopyReceives = systemCounters.zeroCopyReceives();
     }
 
     /**
@@ -163,6 +189,10 @@ public class ReceiveChannelEndpoint extends UdpChannelTransport {
         sendStatusMessage(controlAddress, sessionId, streamId, 0, 0, 0, StatusMessageFlyweight.SEND_SETUP_FLAG);
     }
 
+    public int soRcvbuf() {
+        return getOption(StandardSocketOptions.SO_RCVBUF);
+    }
+
     public void validateWindowMaxLength(final int windowMaxLength) {
         final int soRcvbuf = getOption(StandardSocketOptions.SO_RCVBUF);
 
@@ -216,46 +246,152 @@ public class ReceiveChannelEndpoint extends UdpChannelTransport {
 
             final int bytesSent = sendTo(smBuffer, controlAddress);
             if (StatusMessageFlyweight.HEADER_LENGTH != bytesSent) {
-                systemCounters.statusMessageShortSends().orderedIncrement();
+                systemCounters.statusMessageShortSends().increment();
             }
         }
     }
 
-    public void sendNakMessage(
+    /**
+     * Send a measurement of the round trip time to the source which it will echo back in a reply.
+     *
+     * @param controlAddress to send the measurement to.
+     * @param sessionId      of the image.
+     * @param streamId       of the image.
+     * @param timestamp      in nanoseconds at which the measurement is sent.
+     * @param rtt            in nanoseconds as currently estimated by the image so the source can use it too.
+     */
+    public void sendRttMeasurement(
             final InetSocketAddress controlAddress,
             final int sessionId,
             final int streamId,
-            final int termId,
-            final int termOffset,
-            final int length) {
+            final long timestamp,
+            final long rtt) {
         if (!isClosed) {
-            nakBuffer.clear();
-            nakHeader
-                    .streamId(streamId)
+            rttmBuffer.clear();
+            rttmHeader
                     .sessionId(sessionId)
-                    .termId(termId)
-                    .termOffset(termOffset)
-                    .length(length);
+                    .streamId(streamId)
+                    .echoTimestamp(timestamp)
+                    .receptionDelta(0)
+                    .rtt(rtt);
+
+            sendTo(rttmBuffer, controlAddress);
+        }
+    }
+
+    /**
+     * Send a NAK for each of a number of gaps in a term with the NAK frames packed into a single datagram.
+     *
+     * @param controlAddress to send the NAKs to.
+     * @param sessionId      of the image.
+     * @param streamId       of the image.
+     * @param termId         in which the gaps exist.
+     * @param gapCount       number of gaps up to {@link Configuration#NAK_MAX_GAPS_DEFAULT}.
+     * @param termOffsets    at which each gap begins.
+     * @param lengths        of each gap.
+     */
+    public void sendNakMessages(
+            final InetSocketAddress controlAddress,
+            final int sessionId,
+            final int streamId,
+            final int termId,
+            final int gapCount,
+            final int[] termOffsets,
+            final int[] lengths) {
+        if (!isClosed) {
+            for (int i = 0; i < gapCount; i++) {
+                nakHeader.wrap(nakBuffer, i * NakFlyweight.HEADER_LENGTH, NakFlyweight.HEADER_LENGTH);
+                nakHeader
+                        .version(HeaderFlyweight.CURRENT_VERSION)
+                        .headerType(HeaderFlyweight.HDR_TYPE_NAK)
+                        .frameLength(NakFlyweight.HEADER_LENGTH);
+                nakHeader
+                        .streamId(streamId)
+                        .sessionId(sessionId)
+                        .termId(termId)
+                        .termOffset(termOffsets[i])
+                        .length(lengths[i]);
+            }
+
+            final int length = gapCount * NakFlyweight.HEADER_LENGTH;
+            nakBuffer.clear().limit(length);
 
             final int bytesSent = sendTo(nakBuffer, controlAddress);
-            if (NakFlyweight.HEADER_LENGTH != bytesSent) {
-                systemCounters.nakMessageShortSends().orderedIncrement();
+            if (length != bytesSent) {
+                systemCounters.nakMessageShortSends().increment();
             }
         }
     }
 
+    /**
+     * Can a {@link PublicationImage} hold back an in order packet from subscribers so following packets can be received
+     * directly into its term buffer?
+     *
+     * @return true if an in order packet may be held.
+     */
+    public boolean canHoldPacket() {
+        return isHoldingPackets && null == heldImage;
+    }
+
+    /**
+     * Called from a {@link PublicationImage} that is holding back an in order packet until the current poll completes.
+     *
+     * @param image holding the packet.
+     */
+    public void onPacketHeld(final PublicationImage image) {
+        heldImage = image;
+    }
+
     public int pollForData() {
-        int bytesReceived = 0;
-        final InetSocketAddress srcAddress = receive();
+        return isZeroCopyReceive ? pollForDataZeroCopy() : super.pollForData();
+    }
 
-        if (null != srcAddress) {
-            final int length = receiveByteBuffer.position();
+    private int pollForDataZeroCopy() {
+        int bytesReceived = 0;
+        int bytesRead = 0;
+        int datagramCount = 0;
 
-            if (isValidFrame(receiveBuffer, length)) {
-                bytesReceived = dispatch(receiveBuffer, length, srcAddress);
+        isHoldingPackets = true;
+        try {
+            while (datagramCount < receiveBurstDatagrams && bytesRead < receiveBurstLength) {
+                final PublicationImage image = heldImage;
+                final ByteBuffer termByteBuffer = null != image ? image.zeroCopyReceiveBuffer(receiveBufferCapacity()) : null;
+                final InetSocketAddress srcAddress;
+                final int length;
+
+                if (null != termByteBuffer) {
+                    final int termOffset = termByteBuffer.position();
+                    srcAddress = receive(termByteBuffer);
+                    length = termByteBuffer.position() - termOffset;
+                } else {
+                    srcAddress = receive();
+                    length = receiveByteBuffer.position();
+                }
+
+                if (null == srcAddress) {
+                    break;
+                }
+
+                bytesRead += length;
+                datagramCount++;
+
+                if (null != termByteBuffer && image.insertZeroCopyPacket(length, receiveBuffer)) {
+                    zeroCopyReceives.increment();
+                    bytesReceived += length;
+                } else if (isValidFrame(receiveBuffer, length)) {
+                    bytesReceived += dispatch(receiveBuffer, length, srcAddress);
+                }
+            }
+        } finally {
+            isHoldingPackets = false;
+            if (null != heldImage) {
+                heldImage.commitHeldPacket();
+                heldImage = null;
             }
         }
 
+        onPollComplete(datagramCount, bytesRead);
+
         return bytesReceived;
     }
 
@@ -270,6 +406,12 @@ public class ReceiveChannelEndpoint extends UdpChannelTransport {
             case HDR_TYPE_SETUP:
                 dispatcher.onSetupMessage(this, setupHeader, buffer, srcAddress);
                 break;
+
+            case HDR_TYPE_RTTM:
+                if (length >= RttMeasurementFlyweight.HEADER_LENGTH) {
+                    dispatcher.onRttMeasurement(rttmReplyHeader);
+                }
+                break;
         }
 
         return bytesReceived;
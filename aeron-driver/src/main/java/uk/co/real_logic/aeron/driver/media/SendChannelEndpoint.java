@@ -16,9 +16,12 @@
 package uk.co.real_logic.aeron.driver.media;
 
 import uk.co.real_logic.aeron.driver.*;
+import uk.co.real_logic.aeron.protocol.HeaderFlyweight;
 import uk.co.real_logic.aeron.protocol.NakFlyweight;
+import uk.co.real_logic.aeron.protocol.RttMeasurementFlyweight;
 import uk.co.real_logic.aeron.protocol.StatusMessageFlyweight;
 import uk.co.real_logic.agrona.LangUtil;
+import uk.co.real_logic.agrona.collections.ArrayUtil;
 import uk.co.real_logic.agrona.collections.BiInt2ObjectMap;
 import uk.co.real_logic.agrona.collections.Int2ObjectHashMap;
 import uk.co.real_logic.agrona.concurrent.AtomicCounter;
@@ -30,20 +33,35 @@ import java.net.PortUnreachableException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 
+import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.frameLength;
 import static uk.co.real_logic.aeron.logbuffer.FrameDescriptor.frameType;
 import static uk.co.real_logic.aeron.protocol.HeaderFlyweight.HDR_TYPE_NAK;
+import static uk.co.real_logic.aeron.protocol.HeaderFlyweight.HDR_TYPE_RTTM;
 import static uk.co.real_logic.aeron.protocol.HeaderFlyweight.HDR_TYPE_SM;
+import static uk.co.real_logic.aeron.protocol.RttMeasurementFlyweight.REPLY_FLAG;
 import static uk.co.real_logic.aeron.protocol.StatusMessageFlyweight.SEND_SETUP_FLAG;
 
 /**
  * Aggregator of multiple {@link NetworkPublication}s onto a single transport session for
- * sending data and setup frames plus the receiving of status and NAK frames.
+ * sending data and setup frames plus the receiving of status and NAK frames. RTT measurements from receivers are
+ * echoed back to them immediately.
+ *
+ * When the channel is in manual control mode the transport is not connected and each frame is sent to every
+ * destination which has been added so the publications share a single log buffer across many unicast receivers.
  */
 public class SendChannelEndpoint extends UdpChannelTransport {
+    private static final InetSocketAddress[] EMPTY_DESTINATIONS = new InetSocketAddress[0];
+
+    private InetSocketAddress[] destinations = EMPTY_DESTINATIONS;
+
     private final NakFlyweight nakMessage;
     private final StatusMessageFlyweight statusMessage;
+    private final RttMeasurementFlyweight rttMeasurement;
+    private final ByteBuffer rttmReplyBuffer = ByteBuffer.allocateDirect(RttMeasurementFlyweight.HEADER_LENGTH);
+    private final RttMeasurementFlyweight rttmReplyHeader = new RttMeasurementFlyweight(rttmReplyBuffer);
 
     private final Int2ObjectHashMap<NetworkPublication> driversPublicationByStreamId = new Int2ObjectHashMap<>();
+    private final Int2ObjectHashMap<NetworkPublication> driversExclusivePublicationBySessionId = new Int2ObjectHashMap<>();
     private final BiInt2ObjectMap<NetworkPublication> sendersPublicationByStreamAndSessionId = new BiInt2ObjectMap<>();
 
     private final AtomicCounter statusMessagesReceived;
@@ -54,14 +72,21 @@ public class SendChannelEndpoint extends UdpChannelTransport {
                 udpChannel,
                 udpChannel.remoteControl(),
                 udpChannel.localControl(),
-                udpChannel.remoteData(),
-                context.eventLogger());
+                udpChannel.isManualControlMode() ? null : udpChannel.remoteData(),
+                context);
 
         this.nakMessagesReceived = context.systemCounters().nakMessagesReceived();
         this.statusMessagesReceived = context.systemCounters().statusMessagesReceived();
 
         nakMessage = new NakFlyweight(receiveBuffer);
         statusMessage = new StatusMessageFlyweight(receiveBuffer);
+        rttMeasurement = new RttMeasurementFlyweight(receiveBuffer);
+
+        rttmReplyHeader
+                .version(HeaderFlyweight.CURRENT_VERSION)
+                .flags(REPLY_FLAG)
+                .headerType(HDR_TYPE_RTTM)
+                .frameLength(RttMeasurementFlyweight.HEADER_LENGTH);
     }
 
     /**
@@ -94,6 +119,16 @@ public class SendChannelEndpoint extends UdpChannelTransport {
         driversPublicationByStreamId.put(publication.streamId(), publication);
     }
 
+    /**
+     * Called from the {@link DriverConductor} to associate an exclusive publication, which is not shared with other
+     * publishers of the same stream, by its sessionId.
+     *
+     * @param publication to associate
+     */
+    public void addExclusivePublication(final NetworkPublication publication) {
+        driversExclusivePublicationBySessionId.put(publication.sessionId(), publication);
+    }
+
     /**
      * Called from the {@link DriverConductor} to remove an association of a publication.
      *
@@ -101,7 +136,14 @@ public class SendChannelEndpoint extends UdpChannelTransport {
      * @return publication removed
      */
     public NetworkPublication removePublication(final NetworkPublication publication) {
-        return driversPublicationByStreamId.remove(publication.streamId());
+        final NetworkPublication removed;
+        if (driversPublicationByStreamId.get(publication.streamId()) == publication) {
+            removed = driversPublicationByStreamId.remove(publication.streamId());
+        } else {
+            removed = driversExclusivePublicationBySessionId.remove(publication.sessionId());
+        }
+
+        return removed;
     }
 
     /**
@@ -110,7 +152,7 @@ public class SendChannelEndpoint extends UdpChannelTransport {
      * @return number of publications associated.
      */
     public int sessionCount() {
-        return driversPublicationByStreamId.size();
+        return driversPublicationByStreamId.size() + driversExclusivePublicationBySessionId.size();
     }
 
     /**
@@ -132,52 +174,122 @@ public class SendChannelEndpoint extends UdpChannelTransport {
     }
 
     /**
-     * Send contents of a {@link ByteBuffer} to connected address.
+     * Called from the {@link Sender} to add a destination to a channel in manual control mode.
+     *
+     * @param address of the destination to add.
+     */
+    public void addDestination(final InetSocketAddress address) {
+        if (ArrayUtil.UNKNOWN_INDEX == destinationIndex(address)) {
+            destinations = ArrayUtil.add(destinations, address);
+        }
+    }
+
+    /**
+     * Called from the {@link Sender} to remove a destination from a channel in manual control mode.
+     *
+     * @param address of the destination to remove.
+     */
+    public void removeDestination(final InetSocketAddress address) {
+        final int index = destinationIndex(address);
+        if (ArrayUtil.UNKNOWN_INDEX != index) {
+            destinations = ArrayUtil.remove(destinations, index);
+        }
+    }
+
+    /**
+     * The number of destinations currently added to a channel in manual control mode.
+     *
+     * @return the number of destinations currently added.
+     */
+    public int destinationCount() {
+        return destinations.length;
+    }
+
+    /**
+     * Send contents of a {@link ByteBuffer} to connected address, or to each destination when in manual control mode.
      * This is used on the send size for performance over sentTo().
      *
      * @param buffer to send
-     * @return number of bytes sent
+     * @return number of bytes sent, which is the least sent to any one destination when in manual control mode.
      */
     public int send(final ByteBuffer buffer) {
         int byteSent = 0;
-        try {
-            byteSent = sendDatagramChannel.write(buffer);
-        } catch (final PortUnreachableException | ClosedChannelException ex) {
-            // ignore
-        } catch (final IOException ex) {
-            LangUtil.rethrowUnchecked(ex);
+        if (null != connectAddress) {
+            try {
+                byteSent = sendDatagramChannel.write(buffer);
+            } catch (final PortUnreachableException | ClosedChannelException ex) {
+                // ignore
+            } catch (final IOException ex) {
+                LangUtil.rethrowUnchecked(ex);
+            }
+        } else {
+            byteSent = sendToDestinations(buffer);
         }
 
         return byteSent;
     }
 
-    public int pollForData() {
-        int bytesReceived = 0;
-        final InetSocketAddress srcAddress = receive();
+    private int destinationIndex(final InetSocketAddress address) {
+        int index = ArrayUtil.UNKNOWN_INDEX;
 
-        if (null != srcAddress) {
-            final int length = receiveByteBuffer.position();
+        final InetSocketAddress[] destinations = this.destinations;
+        for (int i = 0, length = destinations.length; i < length; i++) {
+            if (destinations[i].equals(address)) {
+                index = i;
+                break;
+            }
+        }
 
-            if (isValidFrame(receiveBuffer, length)) {
-                bytesReceived = dispatch(receiveBuffer, length, srcAddress);
+        return index;
+    }
+
+    private int sendToDestinations(final ByteBuffer buffer) {
+        final int position = buffer.position();
+        int minBytesSent = buffer.remaining();
+
+        for (final InetSocketAddress destination : destinations) {
+            int bytesSent = 0;
+            try {
+                buffer.position(position);
+                bytesSent = sendDatagramChannel.send(buffer, destination);
+            } catch (final PortUnreachableException | ClosedChannelException ex) {
+                // ignore
+            } catch (final IOException ex) {
+                LangUtil.rethrowUnchecked(ex);
             }
+
+            minBytesSent = Math.min(minBytesSent, bytesSent);
         }
 
-        return bytesReceived;
+        return minBytesSent;
     }
 
     protected int dispatch(final UnsafeBuffer buffer, final int length, final InetSocketAddress srcAddress) {
         int framesRead = 0;
         switch (frameType(buffer, 0)) {
             case HDR_TYPE_NAK:
-                onNakMessage(nakMessage);
-                framesRead = 1;
+                for (int offset = 0; offset + NakFlyweight.HEADER_LENGTH <= length; offset += NakFlyweight.HEADER_LENGTH) {
+                    if (HDR_TYPE_NAK != frameType(buffer, offset) || NakFlyweight.HEADER_LENGTH != frameLength(buffer, offset)) {
+                        break;
+                    }
+
+                    nakMessage.wrap(buffer, offset, NakFlyweight.HEADER_LENGTH);
+                    onNakMessage(nakMessage);
+                    framesRead++;
+                }
                 break;
 
             case HDR_TYPE_SM:
                 onStatusMessage(statusMessage, srcAddress);
                 framesRead = 1;
                 break;
+
+            case HDR_TYPE_RTTM:
+                if (length >= RttMeasurementFlyweight.HEADER_LENGTH) {
+                    onRttMeasurement(rttMeasurement, srcAddress);
+                    framesRead = 1;
+                }
+                break;
         }
 
         return framesRead;
@@ -197,15 +309,50 @@ public class SendChannelEndpoint extends UdpChannelTransport {
                         srcAddress);
             }
 
-            statusMessagesReceived.orderedIncrement();
+            statusMessagesReceived.increment();
         }
     }
 
+    private void onRttMeasurement(final RttMeasurementFlyweight msg, final InetSocketAddress srcAddress) {
+        final NetworkPublication publication = sendersPublicationByStreamAndSessionId.get(msg.sessionId(), msg.streamId());
+
+        if (null != publication && 0 == (msg.flags() & REPLY_FLAG)) {
+            publication.onRttMeasurement(msg.rtt());
+
+            rttmReplyBuffer.clear();
+            rttmReplyHeader
+                    .sessionId(msg.sessionId())
+                    .streamId(msg.streamId())
+                    .echoTimestamp(msg.echoTimestamp())
+                    .receptionDelta(0)
+                    .rtt(msg.rtt());
+
+            sendTo(rttmReplyBuffer, srcAddress);
+        }
+    }
+
+    private int sendTo(final ByteBuffer buffer, final InetSocketAddress address) {
+        int bytesSent = 0;
+        if (null != connectAddress) {
+            bytesSent = send(buffer);
+        } else {
+            try {
+                bytesSent = sendDatagramChannel.send(buffer, address);
+            } catch (final PortUnreachableException | ClosedChannelException ex) {
+                // ignore
+            } catch (final IOException ex) {
+                LangUtil.rethrowUnchecked(ex);
+            }
+        }
+
+        return bytesSent;
+    }
+
     private void onNakMessage(final NakFlyweight msg) {
         final NetworkPublication publication = sendersPublicationByStreamAndSessionId.get(msg.sessionId(), msg.streamId());
         if (null != publication) {
             publication.onNak(msg.termId(), msg.termOffset(), msg.length());
-            nakMessagesReceived.orderedIncrement();
+            nakMessagesReceived.increment();
         }
     }
 }
@@ -16,6 +16,7 @@
 package uk.co.real_logic.aeron.driver.media;
 
 import uk.co.real_logic.aeron.ErrorCode;
+import uk.co.real_logic.aeron.driver.ThreadingMode;
 import uk.co.real_logic.aeron.driver.UriUtil;
 import uk.co.real_logic.aeron.driver.uri.AeronUri;
 import uk.co.real_logic.aeron.driver.uri.InterfaceSearchAddress;
@@ -41,6 +42,20 @@ import static uk.co.real_logic.aeron.driver.Strings.isEmpty;
  * <code>
  * udp://[interface[:port]@]ip:port
  * </code>
+ *
+ * A multi-destination channel for publications is specified with a control address and manual control mode:
+ * <code>
+ * aeron:udp?control=ip:port|control-mode=manual
+ * </code>
+ * Destinations for such a channel are added and removed at runtime rather than being given in the URI.
+ *
+ * An optional "shard" parameter pins the channel to an agent shard when running in {@link ThreadingMode#SHARDED} mode.
+ *
+ * An optional "congestion-control" parameter selects the {@link uk.co.real_logic.aeron.driver.CongestionControl} for
+ * publications on the channel, e.g. "none", "loss", "delay", or a class name.
+ *
+ * Optional "pacing-rate", in bytes per second, and "pacing-burst", in bytes, parameters pace publications on the
+ * channel with a token bucket so bursts do not overflow the socket buffers of receivers.
  */
 public final class UdpChannel {
     private static final String UDP_MEDIA_ID = "udp";
@@ -49,14 +64,26 @@ public final class UdpChannel {
     private static final String LOCAL_KEY = "local";
     private static final String INTERFACE_KEY = "interface";
     private static final String GROUP_KEY = "group";
-
-    private static final String[] UNICAST_KEYS = {LOCAL_KEY, REMOTE_KEY};
+    private static final String CONTROL_KEY = "control";
+    private static final String CONTROL_MODE_KEY = "control-mode";
+    private static final String MANUAL_CONTROL_MODE = "manual";
+    private static final String SHARD_KEY = "shard";
+    private static final String CONGESTION_CONTROL_KEY = "congestion-control";
+    private static final String PACING_RATE_KEY = "pacing-rate";
+    private static final String PACING_BURST_KEY = "pacing-burst";
+
+    private static final String[] UNICAST_KEYS = {LOCAL_KEY, REMOTE_KEY, CONTROL_KEY};
     private static final String[] MULTICAST_KEYS = {GROUP_KEY, INTERFACE_KEY};
 
     private final InetSocketAddress remoteData;
     private final InetSocketAddress localData;
     private final InetSocketAddress remoteControl;
     private final InetSocketAddress localControl;
+    private final boolean isManualControlMode;
+    private final int shard;
+    private final String congestionControl;
+    private final long pacingRate;
+    private final int pacingBurstLength;
 
     private final String uriStr;
     private final String canonicalForm;
@@ -75,7 +102,12 @@ public final class UdpChannel {
 
             validateConfiguration(uri);
 
-            final Context context = new Context().uriStr(uriStr);
+            final Context context = new Context()
+                    .uriStr(uriStr)
+                    .shard(Integer.parseInt(uri.get(SHARD_KEY, "-1")))
+                    .congestionControl(uri.get(CONGESTION_CONTROL_KEY))
+                    .pacingRate(Long.parseLong(uri.get(PACING_RATE_KEY, "-1")))
+                    .pacingBurstLength(Integer.parseInt(uri.get(PACING_BURST_KEY, "-1")));
 
             if (isMulticast(uri)) {
                 final InetSocketAddress dataAddress = uri.getSocketAddress(GROUP_KEY);
@@ -102,6 +134,17 @@ public final class UdpChannel {
                         .localInterface(localInterface)
                         .protocolFamily(protocolFamily)
                         .canonicalForm(canonicalise(localAddress, dataAddress));
+            } else if (isManualControlMode(uri)) {
+                final InetSocketAddress controlAddress = uri.getSocketAddress(CONTROL_KEY);
+                final InetSocketAddress wildcardAddress = new InetSocketAddress(0);
+
+                context.remoteControlAddress(wildcardAddress)
+                        .remoteDataAddress(wildcardAddress)
+                        .localControlAddress(controlAddress)
+                        .localDataAddress(controlAddress)
+                        .protocolFamily(getProtocolFamily(controlAddress.getAddress()))
+                        .isManualControlMode(true)
+                        .canonicalForm(canonicalise(controlAddress, wildcardAddress));
             } else {
                 final InetSocketAddress remoteAddress = uri.getSocketAddress(REMOTE_KEY);
                 final InetSocketAddress localAddress = uri.getSocketAddress(LOCAL_KEY, 0, new InetSocketAddress(0));
@@ -135,9 +178,26 @@ public final class UdpChannel {
         return uri.containsKey(GROUP_KEY);
     }
 
+    private static boolean isManualControlMode(final AeronUri uri) {
+        return MANUAL_CONTROL_MODE.equals(uri.get(CONTROL_MODE_KEY));
+    }
+
     private static void validateConfiguration(final AeronUri uri) {
         validateMedia(uri);
         validateUnicastXorMulticast(uri);
+        validateControlMode(uri);
+    }
+
+    private static void validateControlMode(final AeronUri uri) {
+        final String controlMode = uri.get(CONTROL_MODE_KEY);
+
+        if (null != controlMode && !MANUAL_CONTROL_MODE.equals(controlMode)) {
+            throw new IllegalArgumentException("Unsupported control mode: " + controlMode);
+        }
+
+        if (isManualControlMode(uri) && (!uri.containsKey(CONTROL_KEY) || uri.containsKey(REMOTE_KEY))) {
+            throw new IllegalArgumentException("Manual control mode requires a control address and no remote address");
+        }
     }
 
     private static void validateMedia(final AeronUri uri) {
@@ -282,6 +342,11 @@ public final class UdpChannel {
         this.localData = context.localData;
         this.remoteControl = context.remoteControl;
         this.localControl = context.localControl;
+        this.isManualControlMode = context.isManualControlMode;
+        this.shard = context.shard;
+        this.congestionControl = context.congestionControl;
+        this.pacingRate = context.pacingRate;
+        this.pacingBurstLength = context.pacingBurstLength;
         this.uriStr = context.uriStr;
         this.canonicalForm = context.canonicalForm;
         this.localInterface = context.localInterface;
@@ -358,6 +423,55 @@ public final class UdpChannel {
         return remoteData.getAddress().isMulticastAddress();
     }
 
+    /**
+     * Does channel have its destinations managed manually rather than given by the URI.
+     *
+     * @return does channel have its destinations managed manually rather than given by the URI.
+     */
+    public boolean isManualControlMode() {
+        return isManualControlMode;
+    }
+
+    /**
+     * The index of the agent shard which should own this channel. This is the "shard" URI parameter when given,
+     * otherwise a stable hash of the canonical form, so all channels with the same canonical form share a shard.
+     *
+     * @param shardCount the number of shards to choose between.
+     * @return the index of the agent shard which should own this channel.
+     */
+    public int shardIndex(final int shardCount) {
+        final int hash = shard >= 0 ? shard : canonicalForm.hashCode() & Integer.MAX_VALUE;
+
+        return hash % shardCount;
+    }
+
+    /**
+     * The congestion control for publications on the channel as given by the "congestion-control" URI parameter.
+     *
+     * @return the congestion control for publications on the channel or null if the driver default is to be used.
+     */
+    public String congestionControl() {
+        return congestionControl;
+    }
+
+    /**
+     * The rate at which publications on the channel are paced as given by the "pacing-rate" URI parameter.
+     *
+     * @return the pacing rate in bytes per second, 0 for no pacing, or -1 if the driver default is to be used.
+     */
+    public long pacingRate() {
+        return pacingRate;
+    }
+
+    /**
+     * The burst allowed to publications on the channel when paced as given by the "pacing-burst" URI parameter.
+     *
+     * @return the pacing burst length in bytes or -1 if the driver default is to be used.
+     */
+    public int pacingBurstLength() {
+        return pacingBurstLength;
+    }
+
     /**
      * Local interface to be used by the channel
      *
@@ -386,6 +500,11 @@ public final class UdpChannel {
         private InetSocketAddress localData;
         private InetSocketAddress remoteControl;
         private InetSocketAddress localControl;
+        private boolean isManualControlMode;
+        private int shard;
+        private String congestionControl;
+        private long pacingRate;
+        private int pacingBurstLength;
         private String uriStr;
         private String canonicalForm;
         private NetworkInterface localInterface;
@@ -416,6 +535,31 @@ public final class UdpChannel {
             return this;
         }
 
+        public Context shard(final int shard) {
+            this.shard = shard;
+            return this;
+        }
+
+        public Context congestionControl(final String congestionControl) {
+            this.congestionControl = congestionControl;
+            return this;
+        }
+
+        public Context pacingRate(final long pacingRate) {
+            this.pacingRate = pacingRate;
+            return this;
+        }
+
+        public Context pacingBurstLength(final int pacingBurstLength) {
+            this.pacingBurstLength = pacingBurstLength;
+            return this;
+        }
+
+        public Context isManualControlMode(final boolean isManualControlMode) {
+            this.isManualControlMode = isManualControlMode;
+            return this;
+        }
+
         public Context canonicalForm(final String canonicalForm) {
             this.canonicalForm = canonicalForm;
             return this;
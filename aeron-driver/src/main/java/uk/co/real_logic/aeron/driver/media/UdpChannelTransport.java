@@ -16,10 +16,12 @@
 package uk.co.real_logic.aeron.driver.media;
 
 import uk.co.real_logic.aeron.driver.Configuration;
+import uk.co.real_logic.aeron.driver.MediaDriver;
 import uk.co.real_logic.aeron.driver.event.EventCode;
 import uk.co.real_logic.aeron.driver.event.EventLogger;
 import uk.co.real_logic.aeron.protocol.HeaderFlyweight;
 import uk.co.real_logic.agrona.LangUtil;
+import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 
 import java.io.IOException;
@@ -42,17 +44,29 @@ public abstract class UdpChannelTransport implements AutoCloseable {
     protected InetSocketAddress bindSocketAddress;
     protected InetSocketAddress endPointSocketAddress;
     protected InetSocketAddress connectAddress;
+    protected boolean isReceiveConnected;
     protected final UdpChannel udpChannel;
     protected final EventLogger logger;
 
+    protected final int receiveBurstLength;
+    protected final int receiveBurstDatagrams;
+    private final AtomicCounter datagramsReceived;
+    private final AtomicCounter datagramReadPolls;
+    private final AtomicCounter receiveBurstLimits;
+
     public UdpChannelTransport(
             final UdpChannel udpChannel,
             final InetSocketAddress endPointSocketAddress,
             final InetSocketAddress bindSocketAddress,
             final InetSocketAddress connectAddress,
-            final EventLogger logger) {
+            final MediaDriver.Context context) {
         this.udpChannel = udpChannel;
-        this.logger = logger;
+        this.logger = context.eventLogger();
+        this.receiveBurstLength = context.receiveBurstLength();
+        this.receiveBurstDatagrams = context.receiveBurstDatagrams();
+        this.datagramsReceived = context.systemCounters().datagramsReceived();
+        this.datagramReadPolls = context.systemCounters().datagramReadPolls();
+        this.receiveBurstLimits = context.systemCounters().receiveBurstLimits();
         this.endPointSocketAddress = endPointSocketAddress;
         this.bindSocketAddress = bindSocketAddress;
         this.connectAddress = connectAddress;
@@ -98,6 +112,7 @@ public abstract class UdpChannelTransport implements AutoCloseable {
 
             sendDatagramChannel.configureBlocking(false);
             receiveDatagramChannel.configureBlocking(false);
+            isReceiveConnected = receiveDatagramChannel.isConnected();
         } catch (final IOException ex) {
             throw new RuntimeException(String.format(
                     "channel \"%s\" : %s", udpChannel.originalUriString(), ex.toString()), ex);
@@ -194,9 +209,66 @@ public abstract class UdpChannelTransport implements AutoCloseable {
     /**
      * Attempt to receive waiting data.
      *
+     * Datagrams are read until the socket is drained or the receive burst, in datagrams or bytes, has been used up
+     * so that a busy endpoint does not require a full duty cycle for every datagram.
+     *
      * @return number of bytes received.
      */
-    public abstract int pollForData();
+    public int pollForData() {
+        int bytesReceived = 0;
+        int bytesRead = 0;
+        int datagramCount = 0;
+
+        while (datagramCount < receiveBurstDatagrams && bytesRead < receiveBurstLength) {
+            final InetSocketAddress srcAddress = receive();
+            if (null == srcAddress) {
+                break;
+            }
+
+            final int length = receiveByteBuffer.position();
+            bytesRead += length;
+            datagramCount++;
+
+            if (isValidFrame(receiveBuffer, length)) {
+                bytesReceived += dispatch(receiveBuffer, length, srcAddress);
+            }
+        }
+
+        onPollComplete(datagramCount, bytesRead);
+
+        return bytesReceived;
+    }
+
+    /**
+     * Record the datagrams read by a poll against the receive burst counters.
+     *
+     * The counters are shared by the endpoints of the {@link uk.co.real_logic.aeron.driver.Sender} and
+     * {@link uk.co.real_logic.aeron.driver.Receiver} agents, which run on different threads, so they are updated with
+     * atomic adds.
+     *
+     * @param datagramCount read by the poll.
+     * @param bytesRead     by the poll.
+     */
+    protected void onPollComplete(final int datagramCount, final int bytesRead) {
+        if (datagramCount > 0) {
+            datagramsReceived.add(datagramCount);
+            datagramReadPolls.increment();
+
+            if (datagramCount == receiveBurstDatagrams || bytesRead >= receiveBurstLength) {
+                receiveBurstLimits.increment();
+            }
+        }
+    }
+
+    /**
+     * Dispatch a valid frame which has been received into the receive buffer.
+     *
+     * @param buffer     containing the frame.
+     * @param length     of the frame.
+     * @param srcAddress from which the frame was received.
+     * @return number of bytes or frames received depending on the endpoint.
+     */
+    protected abstract int dispatch(UnsafeBuffer buffer, int length, InetSocketAddress srcAddress);
 
     public boolean isValidFrame(final UnsafeBuffer receiveBuffer, final int length) {
         boolean isFrameValid = true;
@@ -212,12 +284,39 @@ public abstract class UdpChannelTransport implements AutoCloseable {
         return isFrameValid;
     }
 
+    /**
+     * Receive a datagram into the receive buffer.
+     *
+     * A connected channel can only receive from the address it is connected to so the datagram is read without
+     * the source address being resolved and the connect address is returned. Otherwise the channel returns the source
+     * address which it caches and reuses while consecutive datagrams come from the same source so steady state
+     * reception from a single source does not allocate.
+     *
+     * @return the source address of the datagram or null if no datagram was waiting.
+     */
     protected final InetSocketAddress receive() {
         receiveByteBuffer.clear();
 
+        return receive(receiveByteBuffer);
+    }
+
+    /**
+     * Receive a datagram into a buffer from its current position up to its limit.
+     *
+     * @param buffer into which the datagram is received.
+     * @return the source address of the datagram or null if no datagram was waiting.
+     * @see #receive()
+     */
+    protected final InetSocketAddress receive(final ByteBuffer buffer) {
         InetSocketAddress address = null;
         try {
-            address = (InetSocketAddress) receiveDatagramChannel.receive(receiveByteBuffer);
+            if (isReceiveConnected) {
+                if (receiveDatagramChannel.read(buffer) > 0) {
+                    address = connectAddress;
+                }
+            } else {
+                address = (InetSocketAddress) receiveDatagramChannel.receive(buffer);
+            }
         } catch (final PortUnreachableException | ClosedChannelException ignored) {
             // do nothing
         } catch (final Exception ex) {
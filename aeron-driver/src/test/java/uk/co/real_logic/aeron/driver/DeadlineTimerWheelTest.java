@@ -0,0 +1,154 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class DeadlineTimerWheelTest {
+    private static final long RESOLUTION_NS = 1 << 20;
+    private static final int TICKS_PER_WHEEL = 8;
+
+    private final DeadlineTimerWheel wheel = new DeadlineTimerWheel(RESOLUTION_NS, TICKS_PER_WHEEL, 0);
+    private final List<Long> expiredTimerIds = new ArrayList<>();
+    private final DeadlineTimerWheel.TimerHandler handler =
+            (now, timerId) -> {
+                expiredTimerIds.add(timerId);
+                return true;
+            };
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectTicksPerWheelWhichIsNotPowerOfTwo() {
+        new DeadlineTimerWheel(RESOLUTION_NS, 10, 0);
+    }
+
+    @Test
+    public void shouldNotExpireTimerBeforeDeadlineHasPassed() {
+        wheel.scheduleTimer(RESOLUTION_NS * 3);
+
+        assertThat(wheel.poll(RESOLUTION_NS * 3, handler, Integer.MAX_VALUE), is(0));
+        assertThat(wheel.timerCount(), is(1));
+    }
+
+    @Test
+    public void shouldExpireTimerAfterDeadline() {
+        final long timerId = wheel.scheduleTimer(RESOLUTION_NS * 3 + 5);
+
+        assertThat(wheel.poll(RESOLUTION_NS * 3 + 5, handler, Integer.MAX_VALUE), is(0));
+        assertThat(wheel.poll(RESOLUTION_NS * 3 + 6, handler, Integer.MAX_VALUE), is(1));
+
+        assertThat(expiredTimerIds, contains(timerId));
+        assertThat(wheel.timerCount(), is(0));
+    }
+
+    @Test
+    public void shouldExpireTimerScheduledInThePastOnNextPoll() {
+        wheel.poll(RESOLUTION_NS * 5, handler, Integer.MAX_VALUE);
+        final long timerId = wheel.scheduleTimer(RESOLUTION_NS);
+
+        assertThat(wheel.poll(RESOLUTION_NS * 5, handler, Integer.MAX_VALUE), is(1));
+        assertThat(expiredTimerIds, contains(timerId));
+    }
+
+    @Test
+    public void shouldNotExpireTimerForLaterRotationOfWheel() {
+        final long deadline = RESOLUTION_NS * (TICKS_PER_WHEEL + 2);
+        final long timerId = wheel.scheduleTimer(deadline);
+
+        assertThat(wheel.poll(RESOLUTION_NS * 3, handler, Integer.MAX_VALUE), is(0));
+        assertThat(wheel.poll(deadline + 1, handler, Integer.MAX_VALUE), is(1));
+        assertThat(expiredTimerIds, contains(timerId));
+    }
+
+    @Test
+    public void shouldNotExpireCancelledTimer() {
+        final long timerId = wheel.scheduleTimer(RESOLUTION_NS);
+
+        assertThat(wheel.cancelTimer(timerId), is(true));
+        assertThat(wheel.cancelTimer(timerId), is(false));
+        assertThat(wheel.poll(RESOLUTION_NS * 2, handler, Integer.MAX_VALUE), is(0));
+        assertThat(wheel.timerCount(), is(0));
+    }
+
+    @Test
+    public void shouldExpireTimersInDeadlineOrderAcrossTicks() {
+        final long secondId = wheel.scheduleTimer(RESOLUTION_NS * 2);
+        final long firstId = wheel.scheduleTimer(RESOLUTION_NS);
+
+        assertThat(wheel.poll(RESOLUTION_NS * 4, handler, Integer.MAX_VALUE), is(2));
+        assertThat(expiredTimerIds, contains(firstId, secondId));
+    }
+
+    @Test
+    public void shouldGrowSpokeWhenFull() {
+        final int timerCount = 100;
+        for (int i = 0; i < timerCount; i++) {
+            wheel.scheduleTimer(RESOLUTION_NS);
+        }
+
+        assertThat(wheel.timerCount(), is(timerCount));
+        assertThat(wheel.poll(RESOLUTION_NS + 1, handler, Integer.MAX_VALUE), is(timerCount));
+        assertThat(wheel.timerCount(), is(0));
+    }
+
+    @Test
+    public void shouldGrowSpokeFromCapacityOfOne() {
+        final DeadlineTimerWheel wheel = new DeadlineTimerWheel(RESOLUTION_NS, TICKS_PER_WHEEL, 1, 0);
+        final long firstId = wheel.scheduleTimer(RESOLUTION_NS);
+        final long secondId = wheel.scheduleTimer(RESOLUTION_NS);
+        final long thirdId = wheel.scheduleTimer(RESOLUTION_NS);
+
+        assertThat(wheel.cancelTimer(secondId), is(true));
+        assertThat(wheel.poll(RESOLUTION_NS + 1, handler, Integer.MAX_VALUE), is(2));
+        assertThat(expiredTimerIds, contains(firstId, thirdId));
+    }
+
+    @Test
+    public void shouldLimitExpiriesPerPoll() {
+        wheel.scheduleTimer(RESOLUTION_NS);
+        wheel.scheduleTimer(RESOLUTION_NS);
+        wheel.scheduleTimer(RESOLUTION_NS * 2);
+
+        assertThat(wheel.poll(RESOLUTION_NS * 3, handler, 2), is(2));
+        assertThat(wheel.poll(RESOLUTION_NS * 3, handler, 2), is(1));
+        assertThat(wheel.timerCount(), is(0));
+    }
+
+    @Test
+    public void shouldKeepTimerWhenHandlerDoesNotConsumeExpiry() {
+        final long timerId = wheel.scheduleTimer(RESOLUTION_NS);
+
+        assertThat(wheel.poll(RESOLUTION_NS + 1, (now, id) -> false, Integer.MAX_VALUE), is(0));
+        assertThat(wheel.timerCount(), is(1));
+        assertThat(wheel.poll(RESOLUTION_NS + 1, handler, Integer.MAX_VALUE), is(1));
+        assertThat(expiredTimerIds, contains(timerId));
+    }
+
+    @Test
+    public void shouldExpireTimersAfterLongIdle() {
+        wheel.scheduleTimer(TimeUnit.SECONDS.toNanos(1));
+        wheel.scheduleTimer(RESOLUTION_NS);
+
+        assertThat(wheel.poll(TimeUnit.SECONDS.toNanos(2), handler, Integer.MAX_VALUE), is(2));
+    }
+}
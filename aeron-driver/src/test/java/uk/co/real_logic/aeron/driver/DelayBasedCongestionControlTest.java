@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.co.real_logic.aeron.driver.Configuration.CONGESTION_WINDOW_INITIAL_MTUS_DEFAULT;
+import static uk.co.real_logic.aeron.driver.Configuration.DELAY_CONGESTION_BETA_MTUS_DEFAULT;
+
+public class DelayBasedCongestionControlTest {
+    private static final int MTU_LENGTH = 1024;
+    private static final int MAX_WINDOW_LENGTH = 64 * 1024;
+    private static final int INITIAL_WINDOW_LENGTH = MTU_LENGTH * CONGESTION_WINDOW_INITIAL_MTUS_DEFAULT;
+    private static final long BASE_RTT_NS = 1_000_000;
+
+    private final DelayBasedCongestionControl congestionControl = new DelayBasedCongestionControl();
+
+    @Before
+    public void setUp() {
+        congestionControl.initialize(MTU_LENGTH, MAX_WINDOW_LENGTH);
+        congestionControl.onRttSample(BASE_RTT_NS, 0);
+    }
+
+    @Test
+    public void shouldGrowWhileRttStaysAtBase() {
+        congestionControl.onAck(INITIAL_WINDOW_LENGTH, 0);
+
+        assertThat(congestionControl.windowLength(), is(INITIAL_WINDOW_LENGTH * 2));
+    }
+
+    @Test
+    public void shouldHoldWindowWhenModeratelyQueued() {
+        congestionControl.onRttSample(BASE_RTT_NS + (BASE_RTT_NS * 3 / 7), 0);
+        congestionControl.onAck(INITIAL_WINDOW_LENGTH, 0);
+
+        assertThat(congestionControl.windowLength(), is(INITIAL_WINDOW_LENGTH));
+    }
+
+    @Test
+    public void shouldDrainExcessQueueWhenRttRises() {
+        congestionControl.onRttSample(BASE_RTT_NS * 2, 0);
+
+        final int queuedLength = INITIAL_WINDOW_LENGTH / 2;
+        final int betaLength = MTU_LENGTH * DELAY_CONGESTION_BETA_MTUS_DEFAULT;
+        assertThat(congestionControl.windowLength(), is(INITIAL_WINDOW_LENGTH - (queuedLength - betaLength)));
+    }
+
+    @Test
+    public void shouldReduceByQuarterOnLoss() {
+        congestionControl.onLoss(MTU_LENGTH, BASE_RTT_NS);
+
+        assertThat(congestionControl.windowLength(), is(INITIAL_WINDOW_LENGTH - (INITIAL_WINDOW_LENGTH / 4)));
+    }
+}
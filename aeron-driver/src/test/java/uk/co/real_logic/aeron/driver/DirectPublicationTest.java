@@ -81,6 +81,11 @@ public class DirectPublicationTest {
 
         ctx.counterValuesBuffer(counterBuffer);
 
+        final SystemCounters mockSystemCounters = mock(SystemCounters.class);
+        when(mockSystemCounters.logBytesCleaned()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.logCleaningLag()).thenReturn(mock(AtomicCounter.class));
+        ctx.logCleaner(new LogCleaner(Configuration.LOG_CLEANING_BUDGET_DEFAULT, mockSystemCounters));
+
         driverProxy = new DriverProxy(fromClientCommands);
         driverConductor = new DriverConductor(ctx);
 
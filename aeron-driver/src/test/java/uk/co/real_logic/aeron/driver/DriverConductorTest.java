@@ -26,6 +26,7 @@ import uk.co.real_logic.aeron.driver.buffer.RawLogFactory;
 import uk.co.real_logic.aeron.driver.event.EventConfiguration;
 import uk.co.real_logic.aeron.driver.event.EventLogger;
 import uk.co.real_logic.aeron.driver.media.ReceiveChannelEndpoint;
+import uk.co.real_logic.aeron.driver.media.SendChannelEndpoint;
 import uk.co.real_logic.aeron.driver.media.UdpChannel;
 import uk.co.real_logic.agrona.concurrent.*;
 import uk.co.real_logic.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
@@ -135,6 +136,9 @@ public class DriverConductorTest {
         ctx.systemCounters(mockSystemCounters);
         when(mockSystemCounters.bytesReceived()).thenReturn(mock(AtomicCounter.class));
         when(mockSystemCounters.clientKeepAlives()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.logBytesCleaned()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.logCleaningLag()).thenReturn(mock(AtomicCounter.class));
+        ctx.logCleaner(new LogCleaner(Configuration.LOG_CLEANING_BUDGET_DEFAULT, mockSystemCounters));
 
         ctx.epochClock(new SystemEpochClock());
         ctx.receiverProxy(receiverProxy);
@@ -237,6 +241,56 @@ public class DriverConductorTest {
         verify(senderProxy, times(4)).removeNetworkPublication(any());
     }
 
+    @Test
+    public void shouldCreateNewSessionForEachExclusivePublication() throws Exception {
+        final long id1 = driverProxy.addPublication(CHANNEL_4000, STREAM_ID_1);
+        final long id2 = driverProxy.addExclusivePublication(CHANNEL_4000, STREAM_ID_1);
+        final long id3 = driverProxy.addExclusivePublication(CHANNEL_4000, STREAM_ID_1);
+        final long id4 = driverProxy.addPublication(CHANNEL_4000, STREAM_ID_1);
+
+        driverConductor.doWork();
+
+        final ArgumentCaptor<NetworkPublication> captor = ArgumentCaptor.forClass(NetworkPublication.class);
+        verify(senderProxy, times(3)).newNetworkPublication(captor.capture());
+
+        final int sharedSessionId = captor.getAllValues().get(0).sessionId();
+        final int exclusiveSessionId1 = captor.getAllValues().get(1).sessionId();
+        final int exclusiveSessionId2 = captor.getAllValues().get(2).sessionId();
+        assertThat(exclusiveSessionId1, not(sharedSessionId));
+        assertThat(exclusiveSessionId2, not(exclusiveSessionId1));
+
+        verify(mockClientProxy).onPublicationReady(eq(id1), eq(STREAM_ID_1), eq(sharedSessionId), any(), anyInt());
+        verify(mockClientProxy).onExclusivePublicationReady(
+                eq(id2), eq(STREAM_ID_1), eq(exclusiveSessionId1), any(), anyInt());
+        verify(mockClientProxy).onExclusivePublicationReady(
+                eq(id3), eq(STREAM_ID_1), eq(exclusiveSessionId2), any(), anyInt());
+        verify(mockClientProxy).onPublicationReady(eq(id4), eq(STREAM_ID_1), eq(sharedSessionId), any(), anyInt());
+    }
+
+    @Test
+    public void shouldKeepSharedPublicationWhenExclusivePublicationIsRemoved() throws Exception {
+        driverProxy.addPublication(CHANNEL_4000, STREAM_ID_1);
+        final long exclusiveId = driverProxy.addExclusivePublication(CHANNEL_4000, STREAM_ID_1);
+        driverProxy.removePublication(exclusiveId);
+
+        driverConductor.doWork();
+
+        final SendChannelEndpoint channelEndpoint = driverConductor.senderChannelEndpoint(UdpChannel.parse(CHANNEL_4000));
+        assertNotNull(channelEndpoint);
+        assertNotNull(channelEndpoint.getPublication(STREAM_ID_1));
+        assertThat(channelEndpoint.sessionCount(), is(1));
+    }
+
+    @Test
+    public void shouldErrorOnAddExclusivePublicationForIpc() throws Exception {
+        driverProxy.addExclusivePublication(CHANNEL_IPC, STREAM_ID_1);
+
+        driverConductor.doWork();
+
+        assertNull(driverConductor.getDirectPublication(STREAM_ID_1));
+        verify(mockClientProxy).onError(eq(INVALID_CHANNEL), argThat(not(isEmptyOrNullString())), any());
+    }
+
     @Test
     public void shouldKeepSubscriptionMediaEndpointUponRemovalOfAllButOneSubscriber() throws Exception {
         final UdpChannel udpChannel = UdpChannel.parse(CHANNEL_4000);
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.aeron.driver.buffer.RawLog;
+import uk.co.real_logic.aeron.logbuffer.LogBufferPartition;
+import uk.co.real_logic.agrona.concurrent.AtomicCounter;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.*;
+
+public class LogCleanerTest {
+    private static final int TERM_BUFFER_LENGTH = TERM_MIN_LENGTH;
+    private static final int BUDGET = TERM_BUFFER_LENGTH / 4;
+
+    private final AtomicCounter mockBytesCleaned = mock(AtomicCounter.class);
+    private final AtomicCounter mockCleaningLag = mock(AtomicCounter.class);
+    private final SystemCounters mockSystemCounters = mock(SystemCounters.class);
+
+    private LogBufferPartition[] partitions;
+    private LogBufferCleaner logBufferCleaner;
+    private LogCleaner logCleaner;
+
+    @Before
+    public void setUp() {
+        when(mockSystemCounters.logBytesCleaned()).thenReturn(mockBytesCleaned);
+        when(mockSystemCounters.logCleaningLag()).thenReturn(mockCleaningLag);
+
+        final RawLog rawLog = LogBufferHelper.newTestLogBuffers(TERM_BUFFER_LENGTH, TERM_META_DATA_LENGTH);
+        partitions = rawLog.partitions();
+        for (final LogBufferPartition partition : partitions) {
+            partition.termBuffer().setMemory(0, TERM_BUFFER_LENGTH, (byte) 0xFF);
+            partition.statusOrdered(NEEDS_CLEANING);
+        }
+
+        logBufferCleaner = new LogBufferCleaner(partitions, TERM_BUFFER_LENGTH, 0);
+        logCleaner = new LogCleaner(BUDGET, mockSystemCounters);
+        logCleaner.addLog(logBufferCleaner);
+    }
+
+    @Test
+    public void shouldNotCleanBeyondCleanLimit() throws Exception {
+        assertThat(logCleaner.doWork(), is(0));
+        assertThat(logBufferCleaner.cleanPosition(), is(0L));
+        assertThat(logBufferCleaner.writeLimit(), is((long) PARTITION_COUNT * TERM_BUFFER_LENGTH));
+        assertThat(partitions[0].termBuffer().getByte(0), is((byte) 0xFF));
+    }
+
+    @Test
+    public void shouldCleanWithinBudgetPerDutyCycle() throws Exception {
+        logBufferCleaner.cleanLimit(TERM_BUFFER_LENGTH);
+
+        assertThat(logCleaner.doWork(), is(1));
+
+        final UnsafeBuffer termBuffer = partitions[0].termBuffer();
+        assertThat(logBufferCleaner.cleanPosition(), is((long) BUDGET));
+        assertThat(termBuffer.getByte(BUDGET - 1), is((byte) 0));
+        assertThat(termBuffer.getByte(BUDGET), is((byte) 0xFF));
+        assertThat(partitions[0].status(), is(NEEDS_CLEANING));
+        verify(mockBytesCleaned).addOrdered(BUDGET);
+        verify(mockCleaningLag).setOrdered(TERM_BUFFER_LENGTH - BUDGET);
+    }
+
+    @Test
+    public void shouldMarkTermCleanWhenFullyCleaned() throws Exception {
+        logBufferCleaner.cleanLimit(TERM_BUFFER_LENGTH);
+
+        for (int i = 0; i < TERM_BUFFER_LENGTH / BUDGET; i++) {
+            logCleaner.doWork();
+        }
+
+        assertThat(logBufferCleaner.cleanPosition(), is((long) TERM_BUFFER_LENGTH));
+        assertThat(logBufferCleaner.lag(), is(0L));
+        assertThat(partitions[0].status(), is(CLEAN));
+        assertThat(partitions[1].status(), is(NEEDS_CLEANING));
+        assertThat(partitions[1].termBuffer().getByte(0), is((byte) 0xFF));
+        assertThat(logCleaner.doWork(), is(0));
+    }
+
+    @Test
+    public void shouldNotCrossTermBoundaryInOneStep() throws Exception {
+        final int cleanLimit = TERM_BUFFER_LENGTH + BUDGET;
+        logBufferCleaner = new LogBufferCleaner(partitions, TERM_BUFFER_LENGTH, TERM_BUFFER_LENGTH - (BUDGET / 2));
+        logBufferCleaner.cleanLimit(cleanLimit);
+
+        assertThat(logBufferCleaner.clean(BUDGET), is(BUDGET / 2));
+        assertThat(partitions[0].status(), is(CLEAN));
+        assertThat(partitions[1].termBuffer().getByte(0), is((byte) 0xFF));
+
+        assertThat(logBufferCleaner.clean(BUDGET), is(BUDGET));
+        assertThat(logBufferCleaner.cleanPosition(), is((long) cleanLimit));
+        assertThat(partitions[1].termBuffer().getByte(BUDGET - 1), is((byte) 0));
+    }
+
+    @Test
+    public void shouldShareBudgetAcrossLogsInTurn() throws Exception {
+        final RawLog otherRawLog = LogBufferHelper.newTestLogBuffers(TERM_BUFFER_LENGTH, TERM_META_DATA_LENGTH);
+        final LogBufferCleaner otherLogBufferCleaner = new LogBufferCleaner(otherRawLog.partitions(), TERM_BUFFER_LENGTH, 0);
+        logCleaner.addLog(otherLogBufferCleaner);
+
+        logBufferCleaner.cleanLimit(TERM_BUFFER_LENGTH);
+        otherLogBufferCleaner.cleanLimit(TERM_BUFFER_LENGTH);
+
+        logCleaner.doWork();
+        logCleaner.doWork();
+
+        assertThat(logBufferCleaner.cleanPosition(), is((long) BUDGET));
+        assertThat(otherLogBufferCleaner.cleanPosition(), is((long) BUDGET));
+    }
+
+    @Test
+    public void shouldStopCleaningWhenClosed() throws Exception {
+        logBufferCleaner.cleanLimit(TERM_BUFFER_LENGTH);
+        logBufferCleaner.close();
+
+        assertThat(logCleaner.doWork(), is(0));
+        assertThat(logBufferCleaner.clean(BUDGET), is(0));
+        assertThat(partitions[0].termBuffer().getByte(0), is((byte) 0xFF));
+    }
+}
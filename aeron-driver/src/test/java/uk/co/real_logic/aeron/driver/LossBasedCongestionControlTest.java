@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static uk.co.real_logic.aeron.driver.Configuration.CONGESTION_WINDOW_INITIAL_MTUS_DEFAULT;
+import static uk.co.real_logic.aeron.driver.Configuration.CONGESTION_WINDOW_MIN_MTUS_DEFAULT;
+
+public class LossBasedCongestionControlTest {
+    private static final int MTU_LENGTH = 1024;
+    private static final int MAX_WINDOW_LENGTH = 64 * 1024;
+    private static final int INITIAL_WINDOW_LENGTH = MTU_LENGTH * CONGESTION_WINDOW_INITIAL_MTUS_DEFAULT;
+    private static final long RTT_NS = 1_000_000;
+
+    private final LossBasedCongestionControl congestionControl = new LossBasedCongestionControl();
+
+    @Before
+    public void setUp() {
+        congestionControl.initialize(MTU_LENGTH, MAX_WINDOW_LENGTH);
+        congestionControl.onRttSample(RTT_NS, 0);
+    }
+
+    @Test
+    public void shouldGrowByBytesAckedInSlowStart() {
+        congestionControl.onAck(INITIAL_WINDOW_LENGTH, 0);
+
+        assertThat(congestionControl.windowLength(), is(INITIAL_WINDOW_LENGTH * 2));
+    }
+
+    @Test
+    public void shouldNotGrowBeyondMax() {
+        for (int i = 0; i < 10; i++) {
+            congestionControl.onAck(congestionControl.windowLength(), 0);
+        }
+
+        assertThat(congestionControl.windowLength(), is(MAX_WINDOW_LENGTH));
+    }
+
+    @Test
+    public void shouldHalveOnLossAndThenGrowByMtuPerWindow() {
+        congestionControl.onLoss(MTU_LENGTH, RTT_NS);
+        final int windowLength = congestionControl.windowLength();
+        assertThat(windowLength, is(INITIAL_WINDOW_LENGTH / 2));
+
+        congestionControl.onAck(windowLength, RTT_NS);
+        assertThat(congestionControl.windowLength(), is(windowLength + MTU_LENGTH));
+    }
+
+    @Test
+    public void shouldReduceOnlyOncePerRtt() {
+        congestionControl.onLoss(MTU_LENGTH, RTT_NS);
+        congestionControl.onLoss(MTU_LENGTH, RTT_NS + 1);
+        assertThat(congestionControl.windowLength(), is(INITIAL_WINDOW_LENGTH / 2));
+
+        congestionControl.onLoss(MTU_LENGTH, (RTT_NS * 2) + 1);
+        assertThat(congestionControl.windowLength(), is(INITIAL_WINDOW_LENGTH / 4));
+    }
+
+    @Test
+    public void shouldNotShrinkBelowMin() {
+        for (int i = 1; i <= 10; i++) {
+            congestionControl.onLoss(MTU_LENGTH, i * RTT_NS * 2);
+        }
+
+        assertThat(congestionControl.windowLength(), is(MTU_LENGTH * CONGESTION_WINDOW_MIN_MTUS_DEFAULT));
+    }
+}
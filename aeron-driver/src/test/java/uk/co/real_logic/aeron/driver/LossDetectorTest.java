@@ -26,6 +26,8 @@ import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 import java.nio.ByteBuffer;
 import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.TERM_MIN_LENGTH;
 import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.computePosition;
@@ -62,13 +64,14 @@ public class LossDetectorTest {
     private final UnsafeBuffer rcvBuffer = new UnsafeBuffer(new byte[MESSAGE_LENGTH]);
     private final DataHeaderFlyweight dataHeader = new DataHeaderFlyweight();
 
+    private final GapNakSender gapNakSender = mock(GapNakSender.class);
+    private final NakMessageSender nakMessageSender = this::onLossDetected;
+
     private LossDetector handler;
-    private NakMessageSender nakMessageSender;
     private long currentTime = 0;
+    private int nakMessageCount = 0;
 
     public LossDetectorTest() {
-        nakMessageSender = mock(NakMessageSender.class);
-
         handler = new LossDetector(DELAY_GENERATOR, nakMessageSender);
         dataHeader.wrap(rcvBuffer);
     }
@@ -82,7 +85,7 @@ public class LossDetectorTest {
         currentTime = TimeUnit.MILLISECONDS.toNanos(100);
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verifyZeroInteractions(nakMessageSender);
+        verifyZeroInteractions(gapNakSender);
     }
 
     @Test
@@ -98,7 +101,7 @@ public class LossDetectorTest {
         currentTime = TimeUnit.MILLISECONDS.toNanos(40);
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verifyZeroInteractions(nakMessageSender);
+        verifyZeroInteractions(gapNakSender);
     }
 
     @Test
@@ -113,7 +116,7 @@ public class LossDetectorTest {
         currentTime = TimeUnit.MILLISECONDS.toNanos(40);
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verify(nakMessageSender).onLossDetected(TERM_ID, offsetOfMessage(1), gapLength());
+        verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(1), gapLength());
     }
 
     @Test
@@ -130,7 +133,7 @@ public class LossDetectorTest {
         currentTime = TimeUnit.MILLISECONDS.toNanos(60);
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verify(nakMessageSender, atLeast(2)).onLossDetected(TERM_ID, offsetOfMessage(1), gapLength());
+        verify(gapNakSender, atLeast(2)).onGapNak(TERM_ID, offsetOfMessage(1), gapLength());
     }
 
     @Test
@@ -147,7 +150,7 @@ public class LossDetectorTest {
         currentTime = TimeUnit.MILLISECONDS.toNanos(25);
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verifyZeroInteractions(nakMessageSender);
+        verifyZeroInteractions(gapNakSender);
     }
 
     @Test
@@ -166,7 +169,7 @@ public class LossDetectorTest {
         currentTime = TimeUnit.MILLISECONDS.toNanos(100);
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verifyZeroInteractions(nakMessageSender);
+        verifyZeroInteractions(gapNakSender);
     }
 
     @Test
@@ -188,10 +191,14 @@ public class LossDetectorTest {
         currentTime = TimeUnit.MILLISECONDS.toNanos(80);
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        final InOrder inOrder = inOrder(nakMessageSender);
-        inOrder.verify(nakMessageSender, atLeast(1)).onLossDetected(TERM_ID, offsetOfMessage(1), gapLength());
-        inOrder.verify(nakMessageSender, atLeast(1)).onLossDetected(TERM_ID, offsetOfMessage(3), gapLength());
-        inOrder.verify(nakMessageSender, never()).onLossDetected(TERM_ID, offsetOfMessage(5), gapLength());
+        final InOrder inOrder = inOrder(gapNakSender);
+        inOrder.verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(1), gapLength());
+        inOrder.verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(3), gapLength());
+        inOrder.verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(5), gapLength());
+        inOrder.verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(3), gapLength());
+        inOrder.verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(5), gapLength());
+        verifyNoMoreInteractions(gapNakSender);
+        assertThat(nakMessageCount, is(2));
     }
 
     @Test
@@ -215,7 +222,7 @@ public class LossDetectorTest {
         currentTime = TimeUnit.MILLISECONDS.toNanos(100);
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verify(nakMessageSender, atLeast(1)).onLossDetected(TERM_ID, offsetOfMessage(3), gapLength());
+        verify(gapNakSender, atLeast(1)).onGapNak(TERM_ID, offsetOfMessage(3), gapLength());
     }
 
     @Test
@@ -230,7 +237,7 @@ public class LossDetectorTest {
 
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verify(nakMessageSender).onLossDetected(TERM_ID, offsetOfMessage(1), gapLength());
+        verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(1), gapLength());
     }
 
     @Test
@@ -243,7 +250,7 @@ public class LossDetectorTest {
 
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verifyZeroInteractions(nakMessageSender);
+        verifyZeroInteractions(gapNakSender);
     }
 
     @Test
@@ -259,7 +266,7 @@ public class LossDetectorTest {
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verify(nakMessageSender).onLossDetected(TERM_ID, offsetOfMessage(1), gapLength());
+        verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(1), gapLength());
     }
 
     @Test
@@ -274,7 +281,7 @@ public class LossDetectorTest {
 
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verify(nakMessageSender).onLossDetected(TERM_ID, offsetOfMessage(1), TERM_BUFFER_LENGTH - (int) rebuildPosition);
+        verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(1), TERM_BUFFER_LENGTH - (int) rebuildPosition);
     }
 
     @Test
@@ -289,8 +296,56 @@ public class LossDetectorTest {
 
         handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
 
-        verify(nakMessageSender).onLossDetected(TERM_ID, offsetOfMessage(3), gapLength());
-        verifyNoMoreInteractions(nakMessageSender);
+        verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(3), gapLength());
+        verifyNoMoreInteractions(gapNakSender);
+    }
+
+    @Test
+    public void shouldNakAllGapsInOneMessage() {
+        handler = getLossHandlerWithImmediate();
+
+        final long rebuildPosition = ACTIVE_TERM_POSITION;
+        final long hwmPosition = ACTIVE_TERM_POSITION + (ALIGNED_FRAME_LENGTH * 6);
+
+        insertDataFrame(offsetOfMessage(0));
+        insertDataFrame(offsetOfMessage(2));
+        insertDataFrame(offsetOfMessage(5));
+
+        handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
+
+        verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(1), gapLength());
+        verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage(3), gapLength() * 2);
+        verifyNoMoreInteractions(gapNakSender);
+        assertThat(nakMessageCount, is(1));
+        assertThat(handler.rebuildOffset(), is(offsetOfMessage(1)));
+    }
+
+    @Test
+    public void shouldLimitGapsInOneMessageToMaxGaps() {
+        handler = getLossHandlerWithImmediate();
+
+        final int gapCount = Configuration.NAK_MAX_GAPS_DEFAULT + 1;
+        final long rebuildPosition = ACTIVE_TERM_POSITION;
+        final long hwmPosition = ACTIVE_TERM_POSITION + (ALIGNED_FRAME_LENGTH * ((gapCount * 2) + 1));
+
+        for (int i = 0; i <= gapCount; i++) {
+            insertDataFrame(offsetOfMessage(i * 2));
+        }
+
+        handler.scan(termBuffer, rebuildPosition, hwmPosition, currentTime, MASK, POSITION_BITS_TO_SHIFT, TERM_ID);
+
+        for (int i = 0; i < Configuration.NAK_MAX_GAPS_DEFAULT; i++) {
+            verify(gapNakSender).onGapNak(TERM_ID, offsetOfMessage((i * 2) + 1), gapLength());
+        }
+        verifyNoMoreInteractions(gapNakSender);
+        assertThat(nakMessageCount, is(1));
+    }
+
+    private void onLossDetected(final int termId, final int gapCount, final int[] termOffsets, final int[] lengths) {
+        nakMessageCount++;
+        for (int i = 0; i < gapCount; i++) {
+            gapNakSender.onGapNak(termId, termOffsets[i], lengths[i]);
+        }
     }
 
     private LossDetector getLossHandlerWithImmediate() {
@@ -323,4 +378,8 @@ public class LossDetectorTest {
     private int gapLength() {
         return ALIGNED_FRAME_LENGTH;
     }
+
+    interface GapNakSender {
+        void onGapNak(int termId, int termOffset, int length);
+    }
 }
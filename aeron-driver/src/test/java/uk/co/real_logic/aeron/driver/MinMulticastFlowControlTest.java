@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class MinMulticastFlowControlTest {
+    private static final int INITIAL_TERM_ID = 7;
+    private static final int TERM_BUFFER_LENGTH = 64 * 1024;
+    private static final int WINDOW_LENGTH = 4096;
+    private static final long RECEIVER_TIMEOUT_NS = 1000;
+
+    private final InetSocketAddress receiverOne = new InetSocketAddress("localhost", 40001);
+    private final InetSocketAddress receiverTwo = new InetSocketAddress("localhost", 40002);
+    private final MinMulticastFlowControl flowControl = new MinMulticastFlowControl(RECEIVER_TIMEOUT_NS);
+
+    @Before
+    public void setUp() {
+        flowControl.initialize(INITIAL_TERM_ID, TERM_BUFFER_LENGTH);
+    }
+
+    @Test
+    public void shouldLimitToSlowestReceiver() {
+        flowControl.onStatusMessage(INITIAL_TERM_ID, 1024, WINDOW_LENGTH, receiverOne, 0);
+
+        assertThat(flowControl.onStatusMessage(INITIAL_TERM_ID, 512, WINDOW_LENGTH, receiverTwo, 0), is(512L + WINDOW_LENGTH));
+        assertThat(flowControl.receiverCount(), is(2));
+    }
+
+    @Test
+    public void shouldTrackReceiverProgress() {
+        flowControl.onStatusMessage(INITIAL_TERM_ID, 1024, WINDOW_LENGTH, receiverOne, 0);
+        flowControl.onStatusMessage(INITIAL_TERM_ID, 512, WINDOW_LENGTH, receiverTwo, 0);
+
+        assertThat(
+                flowControl.onStatusMessage(INITIAL_TERM_ID, 2048, WINDOW_LENGTH, receiverTwo, 1),
+                is(1024L + WINDOW_LENGTH));
+        assertThat(flowControl.receiverCount(), is(2));
+    }
+
+    @Test
+    public void shouldDropReceiverAfterTimeout() {
+        flowControl.onStatusMessage(INITIAL_TERM_ID, 512, WINDOW_LENGTH, receiverTwo, 0);
+        flowControl.onStatusMessage(INITIAL_TERM_ID, 1024, WINDOW_LENGTH, receiverOne, RECEIVER_TIMEOUT_NS);
+
+        assertThat(flowControl.onIdle(RECEIVER_TIMEOUT_NS), is(512L + WINDOW_LENGTH));
+        assertThat(flowControl.onIdle(RECEIVER_TIMEOUT_NS + 1), is(1024L + WINDOW_LENGTH));
+        assertThat(flowControl.receiverCount(), is(1));
+    }
+
+    @Test
+    public void shouldNotLimitByRemovedReceiver() {
+        flowControl.onStatusMessage(INITIAL_TERM_ID, 512, WINDOW_LENGTH, receiverTwo, 0);
+        flowControl.onStatusMessage(INITIAL_TERM_ID, 1024, WINDOW_LENGTH, receiverOne, 0);
+
+        flowControl.onRemoveReceiver(receiverTwo);
+
+        assertThat(flowControl.onIdle(0), is(1024L + WINDOW_LENGTH));
+        assertThat(flowControl.receiverCount(), is(1));
+    }
+
+    @Test
+    public void shouldHoldPositionLimitWhenAllReceiversTimeout() {
+        flowControl.onStatusMessage(INITIAL_TERM_ID, 1024, WINDOW_LENGTH, receiverOne, 0);
+
+        assertThat(flowControl.onIdle(RECEIVER_TIMEOUT_NS + 1), is(1024L + WINDOW_LENGTH));
+        assertThat(flowControl.receiverCount(), is(0));
+    }
+
+    @Test
+    public void shouldGrowReceiverStorage() {
+        final int receiverCount = 20;
+        for (int i = 0; i < receiverCount; i++) {
+            flowControl.onStatusMessage(
+                    INITIAL_TERM_ID, 64 * (i + 1), WINDOW_LENGTH, new InetSocketAddress("localhost", 41000 + i), 0);
+        }
+
+        assertThat(flowControl.receiverCount(), is(receiverCount));
+        assertThat(flowControl.onIdle(0), is(64L + WINDOW_LENGTH));
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.aeron.driver.event.EventLogger;
+import uk.co.real_logic.aeron.driver.media.DataTransportPoller;
+import uk.co.real_logic.aeron.driver.media.ReceiveChannelEndpoint;
+import uk.co.real_logic.aeron.driver.media.SendChannelEndpoint;
+import uk.co.real_logic.aeron.driver.media.UdpChannel;
+import uk.co.real_logic.aeron.protocol.DataHeaderFlyweight;
+import uk.co.real_logic.aeron.protocol.HeaderFlyweight;
+import uk.co.real_logic.agrona.concurrent.AtomicCounter;
+import uk.co.real_logic.agrona.concurrent.CountersManager;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class ReceiveChannelEndpointAllocationTest {
+    private static final int RCV_PORT = 40125;
+    private static final int SRC_PORT = 40126;
+    private static final int SESSION_ID = 0xdeadbeef;
+    private static final int STREAM_ID = 0x44332211;
+    private static final int TERM_ID = 0x99887766;
+    private static final int FRAME_LENGTH = 64;
+    private static final int DATAGRAMS_PER_ROUND = 16;
+    private static final int WARM_UP_ROUNDS = 10_000;
+    private static final int MEASURED_ROUNDS = 1_000;
+    private static final int MAX_ALLOCATING_ROUNDS = MEASURED_ROUNDS / 100;
+
+    private static final UdpChannel SRC_DST = UdpChannel.parse("udp://localhost:" + SRC_PORT + "@localhost:" + RCV_PORT);
+    private static final UdpChannel RCV_DST = UdpChannel.parse("udp://localhost:" + RCV_PORT);
+
+    private final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(FRAME_LENGTH);
+    private final DataHeaderFlyweight dataHeader = new DataHeaderFlyweight(byteBuffer);
+
+    private final DataTransportPoller dataTransportPoller = new DataTransportPoller();
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private SystemCounters systemCounters;
+    private SendChannelEndpoint sendChannelEndpoint;
+    private ReceiveChannelEndpoint receiveChannelEndpoint;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        final CountersManager countersManager = new CountersManager(
+                new UnsafeBuffer(ByteBuffer.allocateDirect(64 * 1024)), new UnsafeBuffer(ByteBuffer.allocateDirect(8 * 1024)));
+        systemCounters = new SystemCounters(countersManager);
+
+        final MediaDriver.Context context = new MediaDriver.Context()
+                .eventLogger(mock(EventLogger.class))
+                .systemCounters(systemCounters);
+
+        final DataPacketDispatcher dispatcher =
+                new DataPacketDispatcher(mock(DriverConductorProxy.class), mock(Receiver.class));
+
+        receiveChannelEndpoint = new ReceiveChannelEndpoint(RCV_DST, dispatcher, context);
+        sendChannelEndpoint = new SendChannelEndpoint(SRC_DST, context);
+
+        receiveChannelEndpoint.openDatagramChannel();
+        receiveChannelEndpoint.registerForRead(dataTransportPoller);
+        sendChannelEndpoint.openDatagramChannel();
+
+        dataHeader
+                .version(HeaderFlyweight.CURRENT_VERSION)
+                .flags(DataHeaderFlyweight.BEGIN_AND_END_FLAGS)
+                .headerType(HeaderFlyweight.HDR_TYPE_DATA)
+                .frameLength(FRAME_LENGTH);
+        dataHeader
+                .sessionId(SESSION_ID)
+                .streamId(STREAM_ID)
+                .termId(TERM_ID);
+    }
+
+    @After
+    public void tearDown() {
+        if (null != sendChannelEndpoint) {
+            sendChannelEndpoint.close();
+        }
+
+        if (null != receiveChannelEndpoint) {
+            receiveChannelEndpoint.close();
+            dataTransportPoller.pollTransports();
+        }
+
+        dataTransportPoller.close();
+    }
+
+    @Test(timeout = 20000)
+    public void shouldNotAllocateInSteadyStateReception() {
+        final AtomicCounter datagramsReceived = systemCounters.datagramsReceived();
+        final long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            sendAndReceiveRound(datagramsReceived);
+        }
+
+        final long measurementOverhead = measurementOverhead(threadId);
+        int allocatingRounds = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            if (sendAndReceiveRound(datagramsReceived, threadId) > measurementOverhead) {
+                allocatingRounds++;
+            }
+        }
+
+        // the odd round may pick up JIT, class loading, or GC noise from the rest of the JVM, reception itself never allocates
+        assertThat(allocatingRounds, lessThanOrEqualTo(MAX_ALLOCATING_ROUNDS));
+    }
+
+    private void sendAndReceiveRound(final AtomicCounter datagramsReceived) {
+        sendDatagrams();
+        receiveDatagrams(datagramsReceived);
+    }
+
+    private long sendAndReceiveRound(final AtomicCounter datagramsReceived, final long threadId) {
+        sendDatagrams();
+
+        final long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        receiveDatagrams(datagramsReceived);
+
+        return threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    }
+
+    private void sendDatagrams() {
+        for (int i = 0; i < DATAGRAMS_PER_ROUND; i++) {
+            dataHeader.termOffset(i * FRAME_LENGTH);
+            byteBuffer.clear();
+            sendChannelEndpoint.send(byteBuffer);
+        }
+    }
+
+    private void receiveDatagrams(final AtomicCounter datagramsReceived) {
+        final long target = datagramsReceived.get() + DATAGRAMS_PER_ROUND;
+        while (datagramsReceived.get() < target) {
+            dataTransportPoller.pollTransports();
+        }
+    }
+
+    private long measurementOverhead(final long threadId) {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            final long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+            overhead = Math.min(overhead, threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore);
+        }
+
+        return overhead;
+    }
+}
@@ -30,12 +30,14 @@ import uk.co.real_logic.aeron.logbuffer.LogBufferPartition;
 import uk.co.real_logic.aeron.logbuffer.TermReader;
 import uk.co.real_logic.aeron.protocol.DataHeaderFlyweight;
 import uk.co.real_logic.aeron.protocol.HeaderFlyweight;
+import uk.co.real_logic.aeron.protocol.RttMeasurementFlyweight;
 import uk.co.real_logic.aeron.protocol.SetupFlyweight;
 import uk.co.real_logic.aeron.protocol.StatusMessageFlyweight;
 import uk.co.real_logic.agrona.ErrorHandler;
 import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 import uk.co.real_logic.agrona.concurrent.NanoClock;
 import uk.co.real_logic.agrona.concurrent.OneToOneConcurrentArrayQueue;
+import uk.co.real_logic.agrona.concurrent.QueuedPipe;
 import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.agrona.concurrent.status.AtomicLongPosition;
 import uk.co.real_logic.agrona.concurrent.status.Position;
@@ -48,6 +50,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static java.lang.Integer.numberOfTrailingZeros;
+import static uk.co.real_logic.agrona.BitUtil.align;
 import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
@@ -81,6 +84,9 @@ public class ReceiverTest {
     private final ControlTransportPoller mockControlTransportPoller = mock(ControlTransportPoller.class);
 
     private final SystemCounters mockSystemCounters = mock(SystemCounters.class);
+    private final AtomicCounter mockZeroCopyReceives = mock(AtomicCounter.class);
+    private final AtomicCounter mockRttCounter = mock(AtomicCounter.class);
+    private final AtomicCounter mockWindowCounter = mock(AtomicCounter.class);
     private final RawLogFactory mockRawLogFactory = mock(RawLogFactory.class);
     private final Position mockHighestReceivedPosition = spy(new AtomicLongPosition());
     private final ByteBuffer dataFrameBuffer = ByteBuffer.allocateDirect(2 * 1024);
@@ -107,7 +113,7 @@ public class ReceiverTest {
     private InetSocketAddress senderAddress = new InetSocketAddress("localhost", 40123);
     private Receiver receiver;
     private ReceiverProxy receiverProxy;
-    private OneToOneConcurrentArrayQueue<DriverConductorCmd> toConductorQueue;
+    private QueuedPipe<DriverConductorCmd> toConductorQueue;
 
     private MediaDriver.Context context = new MediaDriver.Context();
     private ReceiveChannelEndpoint receiveChannelEndpoint;
@@ -118,9 +124,16 @@ public class ReceiverTest {
     public void setUp() throws Exception {
         when(POSITION.getVolatile())
                 .thenReturn(computePosition(ACTIVE_TERM_ID, 0, numberOfTrailingZeros(TERM_BUFFER_LENGTH), ACTIVE_TERM_ID));
+        when(mockWindowCounter.get()).thenReturn((long) Math.min(INITIAL_WINDOW_LENGTH, TERM_BUFFER_LENGTH));
         when(mockSystemCounters.statusMessagesSent()).thenReturn(mock(AtomicCounter.class));
         when(mockSystemCounters.flowControlUnderRuns()).thenReturn(mock(AtomicCounter.class));
         when(mockSystemCounters.bytesReceived()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.receiverShardBytesReceived(0)).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.receiverShardDutyCycles(0)).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.datagramsReceived()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.datagramReadPolls()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.receiveBurstLimits()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.zeroCopyReceives()).thenReturn(mockZeroCopyReceives);
 
         final MediaDriver.Context ctx = new MediaDriver.Context()
                 .toConductorFromReceiverCommandQueue(new OneToOneConcurrentArrayQueue<>(1024))
@@ -188,10 +201,14 @@ public class ReceiverTest {
                 ACTIVE_TERM_ID,
                 INITIAL_TERM_OFFSET,
                 INITIAL_WINDOW_LENGTH,
+                INITIAL_WINDOW_LENGTH,
+                INITIAL_WINDOW_LENGTH,
                 rawLog,
                 mockFeedbackDelayGenerator,
                 POSITIONS,
                 mockHighestReceivedPosition,
+                mockRttCounter,
+                mockWindowCounter,
                 clock,
                 mockSystemCounters,
                 SOURCE_ADDRESS);
@@ -236,6 +253,70 @@ public class ReceiverTest {
         assertThat(statusHeader.frameLength(), is(StatusMessageFlyweight.HEADER_LENGTH));
     }
 
+    @Test(timeout = 10000)
+    public void shouldSendRttMeasurementAndUpdateSmoothedRttOnReply() throws Exception {
+        receiverProxy.registerReceiveChannelEndpoint(receiveChannelEndpoint);
+        receiverProxy.addSubscription(receiveChannelEndpoint, STREAM_ID);
+
+        receiver.doWork();
+
+        fillSetupFrame(setupHeader);
+        receiveChannelEndpoint.onSetupMessage(setupHeader, setupBuffer, senderAddress);
+
+        final PublicationImage image = new PublicationImage(
+                CORRELATION_ID,
+                Configuration.IMAGE_LIVENESS_TIMEOUT_NS,
+                receiveChannelEndpoint,
+                senderAddress,
+                SESSION_ID,
+                STREAM_ID,
+                INITIAL_TERM_ID,
+                ACTIVE_TERM_ID,
+                INITIAL_TERM_OFFSET,
+                INITIAL_WINDOW_LENGTH,
+                INITIAL_WINDOW_LENGTH,
+                INITIAL_WINDOW_LENGTH,
+                rawLog,
+                mockFeedbackDelayGenerator,
+                POSITIONS,
+                mockHighestReceivedPosition,
+                mockRttCounter,
+                mockWindowCounter,
+                clock,
+                mockSystemCounters,
+                SOURCE_ADDRESS);
+
+        toConductorQueue.drain((e) -> receiverProxy.newPublicationImage(receiveChannelEndpoint, image));
+        currentTime += Configuration.RTT_MEASUREMENT_INTERVAL_DEFAULT_NS + 1;
+        receiver.doWork();
+
+        final ByteBuffer rcvBuffer = ByteBuffer.allocateDirect(256);
+        final RttMeasurementFlyweight rttHeader = new RttMeasurementFlyweight(rcvBuffer);
+        do {
+            rcvBuffer.clear();
+            while (null == senderChannel.receive(rcvBuffer)) {
+                Thread.yield();
+            }
+        }
+        while (rttHeader.headerType() != HeaderFlyweight.HDR_TYPE_RTTM);
+
+        assertThat(rttHeader.frameLength(), is(RttMeasurementFlyweight.HEADER_LENGTH));
+        assertThat(rttHeader.sessionId(), is(SESSION_ID));
+        assertThat(rttHeader.streamId(), is(STREAM_ID));
+        assertThat(rttHeader.echoTimestamp(), is(currentTime));
+
+        final long rttNs = 1000;
+        final long receptionDeltaNs = 100;
+        currentTime += rttNs + receptionDeltaNs;
+        rttHeader
+                .receptionDelta(receptionDeltaNs)
+                .flags(RttMeasurementFlyweight.REPLY_FLAG);
+
+        receiveChannelEndpoint.dispatcher().onRttMeasurement(rttHeader);
+
+        verify(mockRttCounter).setOrdered(rttNs);
+    }
+
     @Test
     public void shouldInsertDataIntoLogAfterInitialExchange() throws Exception {
         receiverProxy.registerReceiveChannelEndpoint(receiveChannelEndpoint);
@@ -264,10 +345,14 @@ public class ReceiverTest {
                                     ACTIVE_TERM_ID,
                                     INITIAL_TERM_OFFSET,
                                     INITIAL_WINDOW_LENGTH,
+                                    INITIAL_WINDOW_LENGTH,
+                                    INITIAL_WINDOW_LENGTH,
                                     rawLog,
                                     mockFeedbackDelayGenerator,
                                     POSITIONS,
                                     mockHighestReceivedPosition,
+                                    mockRttCounter,
+                                    mockWindowCounter,
                                     clock,
                                     mockSystemCounters,
                                     SOURCE_ADDRESS));
@@ -327,10 +412,14 @@ public class ReceiverTest {
                                     ACTIVE_TERM_ID,
                                     INITIAL_TERM_OFFSET,
                                     INITIAL_WINDOW_LENGTH,
+                                    INITIAL_WINDOW_LENGTH,
+                                    INITIAL_WINDOW_LENGTH,
                                     rawLog,
                                     mockFeedbackDelayGenerator,
                                     POSITIONS,
                                     mockHighestReceivedPosition,
+                                    mockRttCounter,
+                                    mockWindowCounter,
                                     clock,
                                     mockSystemCounters,
                                     SOURCE_ADDRESS));
@@ -393,10 +482,14 @@ public class ReceiverTest {
                                     ACTIVE_TERM_ID,
                                     INITIAL_TERM_OFFSET,
                                     INITIAL_WINDOW_LENGTH,
+                                    INITIAL_WINDOW_LENGTH,
+                                    INITIAL_WINDOW_LENGTH,
                                     rawLog,
                                     mockFeedbackDelayGenerator,
                                     POSITIONS,
                                     mockHighestReceivedPosition,
+                                    mockRttCounter,
+                                    mockWindowCounter,
                                     clock,
                                     mockSystemCounters,
                                     SOURCE_ADDRESS));
@@ -463,10 +556,14 @@ public class ReceiverTest {
                                     ACTIVE_TERM_ID,
                                     initialTermOffset,
                                     INITIAL_WINDOW_LENGTH,
+                                    INITIAL_WINDOW_LENGTH,
+                                    INITIAL_WINDOW_LENGTH,
                                     rawLog,
                                     mockFeedbackDelayGenerator,
                                     POSITIONS,
                                     mockHighestReceivedPosition,
+                                    mockRttCounter,
+                                    mockWindowCounter,
                                     clock,
                                     mockSystemCounters,
                                     SOURCE_ADDRESS));
@@ -502,6 +599,139 @@ public class ReceiverTest {
         assertThat(TermReader.fragmentsRead(readOutcome), is(1));
     }
 
+    @Test(timeout = 10000)
+    public void shouldReceiveInOrderDataDirectlyIntoTermWithZeroCopy() throws Exception {
+        receiveChannelEndpoint.close();
+        context.receiveZeroCopy(true);
+        receiveChannelEndpoint = new ReceiveChannelEndpoint(
+                UdpChannel.parse(URI),
+                new DataPacketDispatcher(mock(DriverConductorProxy.class), receiver),
+                context);
+
+        receiverProxy.registerReceiveChannelEndpoint(receiveChannelEndpoint);
+        receiverProxy.addSubscription(receiveChannelEndpoint, STREAM_ID);
+        receiver.doWork();
+
+        final PublicationImage image = new PublicationImage(
+                CORRELATION_ID,
+                Configuration.IMAGE_LIVENESS_TIMEOUT_NS,
+                receiveChannelEndpoint,
+                senderAddress,
+                SESSION_ID,
+                STREAM_ID,
+                INITIAL_TERM_ID,
+                ACTIVE_TERM_ID,
+                INITIAL_TERM_OFFSET,
+                INITIAL_WINDOW_LENGTH,
+                INITIAL_WINDOW_LENGTH,
+                INITIAL_WINDOW_LENGTH,
+                rawLog,
+                mockFeedbackDelayGenerator,
+                POSITIONS,
+                mockHighestReceivedPosition,
+                mockRttCounter,
+                mockWindowCounter,
+                clock,
+                mockSystemCounters,
+                SOURCE_ADDRESS);
+        receiverProxy.newPublicationImage(receiveChannelEndpoint, image);
+        receiver.doWork();
+
+        final int frameLength = DataHeaderFlyweight.HEADER_LENGTH + FAKE_PAYLOAD.length;
+        final int alignedFrameLength = align(frameLength, FrameDescriptor.FRAME_ALIGNMENT);
+        final int frameCount = 3;
+        for (int i = 0; i < frameCount; i++) {
+            sendDataFrame(i * alignedFrameLength, frameLength);
+        }
+        sendDataFrame((frameCount + 1) * alignedFrameLength, frameLength);
+
+        int bytesReceived = 0;
+        while (bytesReceived < (frameCount + 1) * frameLength) {
+            bytesReceived += receiveChannelEndpoint.pollForData();
+        }
+
+        final long readOutcome = TermReader.read(
+                termBuffers[ACTIVE_INDEX],
+                INITIAL_TERM_OFFSET,
+                (buffer, offset, length, header) ->
+                {
+                    assertThat(header.type(), is(HeaderFlyweight.HDR_TYPE_DATA));
+                    assertThat(header.sessionId(), is(SESSION_ID));
+                    assertThat(header.frameLength(), is(frameLength));
+                },
+                Integer.MAX_VALUE,
+                header,
+                mockErrorHandler);
+
+        assertThat(TermReader.fragmentsRead(readOutcome), is(frameCount));
+        assertThat(
+                FrameDescriptor.frameLength(termBuffers[ACTIVE_INDEX], (frameCount + 1) * alignedFrameLength), is(frameLength));
+        verify(mockZeroCopyReceives, times(frameCount - 1)).increment();
+    }
+
+    @Test(timeout = 10000)
+    public void shouldNotNakHeldPacketWhenRebuildTrackedDuringZeroCopyPoll() throws Exception {
+        final AtomicCounter mockNakMessagesSent = mock(AtomicCounter.class);
+        when(mockSystemCounters.nakMessagesSent()).thenReturn(mockNakMessagesSent);
+        when(mockFeedbackDelayGenerator.shouldFeedbackImmediately()).thenReturn(true);
+
+        receiveChannelEndpoint.close();
+        context.receiveZeroCopy(true);
+        receiveChannelEndpoint = new ReceiveChannelEndpoint(
+                UdpChannel.parse(URI),
+                new DataPacketDispatcher(mock(DriverConductorProxy.class), receiver),
+                context);
+
+        receiverProxy.registerReceiveChannelEndpoint(receiveChannelEndpoint);
+        receiverProxy.addSubscription(receiveChannelEndpoint, STREAM_ID);
+        receiver.doWork();
+
+        final PublicationImage image = new PublicationImage(
+                CORRELATION_ID,
+                Configuration.IMAGE_LIVENESS_TIMEOUT_NS,
+                receiveChannelEndpoint,
+                senderAddress,
+                SESSION_ID,
+                STREAM_ID,
+                INITIAL_TERM_ID,
+                ACTIVE_TERM_ID,
+                INITIAL_TERM_OFFSET,
+                INITIAL_WINDOW_LENGTH,
+                INITIAL_WINDOW_LENGTH,
+                INITIAL_WINDOW_LENGTH,
+                rawLog,
+                mockFeedbackDelayGenerator,
+                POSITIONS,
+                mockHighestReceivedPosition,
+                mockRttCounter,
+                mockWindowCounter,
+                clock,
+                mockSystemCounters,
+                SOURCE_ADDRESS);
+        receiverProxy.newPublicationImage(receiveChannelEndpoint, image);
+        receiver.doWork();
+
+        // track the rebuild as the conductor would while the first packet of the poll is still held
+        doAnswer((invocation) -> image.trackRebuild(currentTime)).when(mockZeroCopyReceives).increment();
+
+        final int frameLength = DataHeaderFlyweight.HEADER_LENGTH + FAKE_PAYLOAD.length;
+        final int alignedFrameLength = align(frameLength, FrameDescriptor.FRAME_ALIGNMENT);
+        final int frameCount = 3;
+        for (int i = 0; i < frameCount; i++) {
+            sendDataFrame(i * alignedFrameLength, frameLength);
+        }
+
+        int bytesReceived = 0;
+        while (bytesReceived < frameCount * frameLength) {
+            bytesReceived += receiveChannelEndpoint.pollForData();
+        }
+
+        verify(mockZeroCopyReceives, atLeastOnce()).increment();
+        assertThat(image.sendPendingNak(), is(0));
+        verify(mockNakMessagesSent, never()).add(anyLong());
+        assertThat(mockHighestReceivedPosition.get(), is((long) (frameCount - 1) * alignedFrameLength + frameLength));
+    }
+
     @Test
     public void shouldRemoveImageFromDispatcherWithNoActivity() throws Exception {
         receiverProxy.registerReceiveChannelEndpoint(receiveChannelEndpoint);
@@ -563,6 +793,30 @@ public class ReceiverTest {
         }
     }
 
+    private void sendDataFrame(final int termOffset, final int frameLength) throws Exception {
+        fillDataFrame(dataHeader, termOffset, FAKE_PAYLOAD);
+        dataFrameBuffer.position(0).limit(frameLength);
+        senderChannel.send(dataFrameBuffer, UDP_CHANNEL.remoteData());
+    }
+
+    @Test
+    public void shouldRemovePendingSetupOnlyAfterTimeout() throws Exception {
+        final ReceiveChannelEndpoint mockChannelEndpoint = mock(ReceiveChannelEndpoint.class);
+        final DataPacketDispatcher mockDispatcher = mock(DataPacketDispatcher.class);
+        when(mockChannelEndpoint.dispatcher()).thenReturn(mockDispatcher);
+
+        receiver.addPendingSetupMessage(SESSION_ID, STREAM_ID, mockChannelEndpoint);
+
+        currentTime = Configuration.PENDING_SETUPS_TIMEOUT_NS;
+        receiver.doWork();
+        verify(mockDispatcher, never()).removePendingSetup(SESSION_ID, STREAM_ID);
+
+        currentTime += 1;
+        receiver.doWork();
+        receiver.doWork();
+        verify(mockDispatcher).removePendingSetup(SESSION_ID, STREAM_ID);
+    }
+
     private void fillSetupFrame(final SetupFlyweight header) {
         fillSetupFrame(header, 0);
     }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ReceiverWindowTunerTest {
+    private static final int INITIAL_WINDOW_LENGTH = 128 * 1024;
+    private static final int MIN_WINDOW_LENGTH = 32 * 1024;
+    private static final int MAX_WINDOW_LENGTH = 512 * 1024;
+    private static final long MIN_ADJUST_INTERVAL_NS = 1000;
+    private static final long RTT_NS = 1000;
+
+    private long now = 0;
+    private long position = 0;
+
+    private final ReceiverWindowTuner tuner = new ReceiverWindowTuner(
+            INITIAL_WINDOW_LENGTH, MIN_WINDOW_LENGTH, MAX_WINDOW_LENGTH, MIN_ADJUST_INTERVAL_NS, now, position);
+
+    @Test
+    public void shouldGrowWhenConsumerKeepsUpAndBandwidthDelayProductNeedsMore() {
+        assertThat(consume(INITIAL_WINDOW_LENGTH, 0, RTT_NS), is(INITIAL_WINDOW_LENGTH * 2));
+    }
+
+    @Test
+    public void shouldNotGrowBeyondMax() {
+        for (int i = 0; i < 4; i++) {
+            consume(tuner.windowLength(), 0, RTT_NS);
+        }
+
+        assertThat(tuner.windowLength(), is(MAX_WINDOW_LENGTH));
+    }
+
+    @Test
+    public void shouldNotGrowWhenBandwidthDelayProductIsSmall() {
+        assertThat(consume(1024, 0, RTT_NS), is(INITIAL_WINDOW_LENGTH));
+    }
+
+    @Test
+    public void shouldNotGrowUntilRttIsMeasured() {
+        assertThat(consume(INITIAL_WINDOW_LENGTH, 0, 0), is(INITIAL_WINDOW_LENGTH));
+    }
+
+    @Test
+    public void shouldNotGrowWhenSubscribersHaveBacklog() {
+        assertThat(consume(INITIAL_WINDOW_LENGTH, INITIAL_WINDOW_LENGTH * 5 / 8, RTT_NS), is(INITIAL_WINDOW_LENGTH));
+    }
+
+    @Test
+    public void shouldShrinkToMinWhenSubscribersLag() {
+        assertThat(consume(0, INITIAL_WINDOW_LENGTH, RTT_NS), is(INITIAL_WINDOW_LENGTH / 2));
+        assertThat(consume(0, INITIAL_WINDOW_LENGTH, RTT_NS), is(MIN_WINDOW_LENGTH));
+        assertThat(consume(0, INITIAL_WINDOW_LENGTH, RTT_NS), is(MIN_WINDOW_LENGTH));
+    }
+
+    @Test
+    public void shouldNotAdjustMoreOftenThanOncePerRtt() {
+        final long rttNs = MIN_ADJUST_INTERVAL_NS * 4;
+
+        now += MIN_ADJUST_INTERVAL_NS;
+        position += INITIAL_WINDOW_LENGTH;
+        assertThat(tuner.onStatusMessage(now, position, position, rttNs), is(INITIAL_WINDOW_LENGTH));
+
+        now += rttNs;
+        position += INITIAL_WINDOW_LENGTH * 4;
+        assertThat(tuner.onStatusMessage(now, position, position, rttNs), is(INITIAL_WINDOW_LENGTH * 2));
+    }
+
+    private int consume(final int length, final int backlog, final long rttNs) {
+        now += MIN_ADJUST_INTERVAL_NS;
+        position += length;
+
+        return tuner.onStatusMessage(now, position, position + backlog, rttNs);
+    }
+}
@@ -15,6 +15,7 @@
  */
 package uk.co.real_logic.aeron.driver;
 
+import org.junit.Before;
 import org.junit.experimental.theories.DataPoint;
 import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
@@ -27,6 +28,7 @@ import uk.co.real_logic.aeron.logbuffer.TermAppender;
 import uk.co.real_logic.aeron.logbuffer.TermRebuilder;
 import uk.co.real_logic.aeron.protocol.DataHeaderFlyweight;
 import uk.co.real_logic.aeron.protocol.HeaderFlyweight;
+import uk.co.real_logic.agrona.concurrent.AtomicCounter;
 import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 
 import java.nio.ByteBuffer;
@@ -48,6 +50,8 @@ public class RetransmitHandlerTest {
     private static final int SESSION_ID = 0x5E55101D;
     private static final int STREAM_ID = 0x5400E;
     private static final int TERM_ID = 0x7F003355;
+    private static final int BURST_LENGTH = MTU_LENGTH * 4;
+    private static final int MAX_RETRANSMITS = 64;
 
     private static final FeedbackDelayGenerator DELAY_GENERATOR = () -> TimeUnit.MILLISECONDS.toNanos(20);
     private static final FeedbackDelayGenerator ZERO_DELAY_GENERATOR = () -> TimeUnit.MILLISECONDS.toNanos(0);
@@ -65,12 +69,14 @@ public class RetransmitHandlerTest {
 
     private final RetransmitSender retransmitSender = mock(RetransmitSender.class);
     private final SystemCounters systemCounters = mock(SystemCounters.class);
+    private final AtomicCounter retransmitsDeferred = mock(AtomicCounter.class);
+    private final AtomicCounter retransmitsMerged = mock(AtomicCounter.class);
+    private final AtomicCounter retransmitCapacityDrops = mock(AtomicCounter.class);
 
     private final HeaderWriter headerWriter =
             new HeaderWriter(DataHeaderFlyweight.createDefaultHeader(0, 0, 0));
 
-    private RetransmitHandler handler = new RetransmitHandler(
-            () -> currentTime, systemCounters, DELAY_GENERATOR, LINGER_GENERATOR, TERM_ID, TERM_BUFFER_LENGTH);
+    private RetransmitHandler handler;
 
     @DataPoint
     public static final BiConsumer<RetransmitHandlerTest, Integer> SENDER_ADD_DATA_FRAME =
@@ -80,6 +86,15 @@ public class RetransmitHandlerTest {
     public static final BiConsumer<RetransmitHandlerTest, Integer> RECEIVER_ADD_DATA_FRAME =
             RetransmitHandlerTest::addReceivedDataFrame;
 
+    @Before
+    public void setUp() {
+        when(systemCounters.retransmitsDeferred()).thenReturn(retransmitsDeferred);
+        when(systemCounters.retransmitsMerged()).thenReturn(retransmitsMerged);
+        when(systemCounters.retransmitCapacityDrops()).thenReturn(retransmitCapacityDrops);
+
+        handler = newRetransmitHandler(DELAY_GENERATOR);
+    }
+
     @Theory
     public void shouldRetransmitOnNak(final BiConsumer<RetransmitHandlerTest, Integer> creator) {
         createTermBuffer(creator, 5);
@@ -206,9 +221,111 @@ public class RetransmitHandlerTest {
         verifyZeroInteractions(retransmitSender);
     }
 
+    @Theory
+    public void shouldMergeOverlappingNakIntoDelayedRetransmit(final BiConsumer<RetransmitHandlerTest, Integer> creator) {
+        createTermBuffer(creator, 5);
+        handler.onNak(TERM_ID, offsetOfFrame(0), ALIGNED_FRAME_LENGTH * 2, retransmitSender);
+        handler.onNak(TERM_ID, offsetOfFrame(1), ALIGNED_FRAME_LENGTH * 2, retransmitSender);
+        currentTime = TimeUnit.MILLISECONDS.toNanos(100);
+        handler.processTimeouts(currentTime, retransmitSender);
+
+        verify(retransmitSender).resend(TERM_ID, offsetOfFrame(0), ALIGNED_FRAME_LENGTH * 3);
+        verifyNoMoreInteractions(retransmitSender);
+        verify(retransmitsMerged).increment();
+    }
+
+    @Theory
+    public void shouldOnlyRetransmitPartOfNakNotCoveredByLingeringRetransmit(
+            final BiConsumer<RetransmitHandlerTest, Integer> creator) {
+        createTermBuffer(creator, 5);
+        handler = newZeroDelayRetransmitHandler();
+
+        handler.onNak(TERM_ID, offsetOfFrame(0), ALIGNED_FRAME_LENGTH * 2, retransmitSender);
+        handler.onNak(TERM_ID, offsetOfFrame(1), ALIGNED_FRAME_LENGTH * 2, retransmitSender);
+
+        final InOrder inOrder = inOrder(retransmitSender);
+        inOrder.verify(retransmitSender).resend(TERM_ID, offsetOfFrame(0), ALIGNED_FRAME_LENGTH * 2);
+        inOrder.verify(retransmitSender).resend(TERM_ID, offsetOfFrame(2), ALIGNED_FRAME_LENGTH);
+    }
+
+    @Theory
+    public void shouldDeferRetransmitBeyondBurstLength(final BiConsumer<RetransmitHandlerTest, Integer> creator) {
+        createTermBuffer(creator, 5);
+        when(retransmitSender.resend(anyInt(), anyInt(), anyInt())).thenAnswer((invocation) -> invocation.getArguments()[2]);
+        handler = newZeroDelayRetransmitHandler();
+
+        handler.onNak(TERM_ID, 0, BURST_LENGTH + MTU_LENGTH, retransmitSender);
+        handler.onNak(TERM_ID, BURST_LENGTH * 2, MTU_LENGTH, retransmitSender);
+        verify(retransmitsDeferred, times(2)).increment();
+
+        handler.processTimeouts(currentTime, retransmitSender);
+        verify(retransmitSender, times(1)).resend(anyInt(), anyInt(), anyInt());
+        verify(retransmitsDeferred, times(2)).increment();
+
+        handler.resetBurstLength();
+        handler.processTimeouts(currentTime, retransmitSender);
+
+        final InOrder inOrder = inOrder(retransmitSender);
+        inOrder.verify(retransmitSender).resend(TERM_ID, 0, BURST_LENGTH);
+        inOrder.verify(retransmitSender).resend(TERM_ID, BURST_LENGTH, MTU_LENGTH);
+        inOrder.verify(retransmitSender).resend(TERM_ID, BURST_LENGTH * 2, MTU_LENGTH);
+    }
+
+    @Theory
+    public void shouldGrowToMaxRetransmitsAndThenDropNaks(final BiConsumer<RetransmitHandlerTest, Integer> creator) {
+        createTermBuffer(creator, MAX_RETRANSMITS + 1);
+
+        for (int i = 0; i <= MAX_RETRANSMITS; i++) {
+            handler.onNak(TERM_ID, offsetOfFrame(i), ALIGNED_FRAME_LENGTH, retransmitSender);
+        }
+
+        verify(retransmitCapacityDrops).increment();
+
+        currentTime = TimeUnit.MILLISECONDS.toNanos(100);
+        handler.processTimeouts(currentTime, retransmitSender);
+
+        verify(retransmitSender).resend(TERM_ID, offsetOfFrame(MAX_RETRANSMITS - 1), ALIGNED_FRAME_LENGTH);
+        verify(retransmitSender, never()).resend(TERM_ID, offsetOfFrame(MAX_RETRANSMITS), ALIGNED_FRAME_LENGTH);
+    }
+
+    @Theory
+    public void shouldReuseRetransmitsAfterLinger(final BiConsumer<RetransmitHandlerTest, Integer> creator) {
+        createTermBuffer(creator, MAX_RETRANSMITS * 2);
+
+        for (int i = 0; i < MAX_RETRANSMITS; i++) {
+            handler.onNak(TERM_ID, offsetOfFrame(i), ALIGNED_FRAME_LENGTH, retransmitSender);
+        }
+
+        currentTime = TimeUnit.MILLISECONDS.toNanos(40);
+        handler.processTimeouts(currentTime, retransmitSender);
+        currentTime = TimeUnit.MILLISECONDS.toNanos(100);
+        handler.processTimeouts(currentTime, retransmitSender);
+
+        for (int i = MAX_RETRANSMITS; i < MAX_RETRANSMITS * 2; i++) {
+            handler.onNak(TERM_ID, offsetOfFrame(i), ALIGNED_FRAME_LENGTH, retransmitSender);
+        }
+
+        currentTime = TimeUnit.MILLISECONDS.toNanos(200);
+        handler.processTimeouts(currentTime, retransmitSender);
+
+        verify(retransmitSender, times(MAX_RETRANSMITS * 2)).resend(anyInt(), anyInt(), anyInt());
+        verifyZeroInteractions(retransmitCapacityDrops);
+    }
+
     private RetransmitHandler newZeroDelayRetransmitHandler() {
+        return newRetransmitHandler(ZERO_DELAY_GENERATOR);
+    }
+
+    private RetransmitHandler newRetransmitHandler(final FeedbackDelayGenerator delayGenerator) {
         return new RetransmitHandler(
-                () -> currentTime, systemCounters, ZERO_DELAY_GENERATOR, LINGER_GENERATOR, TERM_ID, TERM_BUFFER_LENGTH);
+                () -> currentTime,
+                systemCounters,
+                delayGenerator,
+                LINGER_GENERATOR,
+                TERM_ID,
+                TERM_BUFFER_LENGTH,
+                BURST_LENGTH,
+                MAX_RETRANSMITS);
     }
 
     private void createTermBuffer(final BiConsumer<RetransmitHandlerTest, Integer> creator, final int num) {
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class RttAdaptiveDelayGeneratorTest {
+    private static final int RTT_MULTIPLIER = 2;
+    private static final long MIN_DELAY = 10;
+    private static final long MAX_DELAY = 1000;
+
+    private long rtt = 0;
+    private final RttAdaptiveDelayGenerator generator =
+            new RttAdaptiveDelayGenerator(() -> rtt, RTT_MULTIPLIER, MIN_DELAY, MAX_DELAY, false);
+
+    @Test
+    public void shouldUseMaxDelayUntilRttIsMeasured() {
+        assertThat(generator.generateDelay(), is(MAX_DELAY));
+    }
+
+    @Test
+    public void shouldScaleDelayWithRtt() {
+        rtt = 30;
+
+        assertThat(generator.generateDelay(), is(rtt * RTT_MULTIPLIER));
+    }
+
+    @Test
+    public void shouldBoundDelay() {
+        rtt = 1;
+        assertThat(generator.generateDelay(), is(MIN_DELAY));
+
+        rtt = MAX_DELAY;
+        assertThat(generator.generateDelay(), is(MAX_DELAY));
+    }
+}
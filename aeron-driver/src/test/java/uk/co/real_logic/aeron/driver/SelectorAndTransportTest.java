@@ -23,6 +23,7 @@ import uk.co.real_logic.aeron.logbuffer.FrameDescriptor;
 import uk.co.real_logic.aeron.driver.event.EventLogger;
 import uk.co.real_logic.aeron.protocol.DataHeaderFlyweight;
 import uk.co.real_logic.aeron.protocol.HeaderFlyweight;
+import uk.co.real_logic.aeron.protocol.NakFlyweight;
 import uk.co.real_logic.aeron.protocol.StatusMessageFlyweight;
 import uk.co.real_logic.agrona.BitUtil;
 import uk.co.real_logic.agrona.concurrent.AtomicCounter;
@@ -32,6 +33,7 @@ import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.*;
@@ -54,12 +56,14 @@ public class SelectorAndTransportTest {
 
     private final DataHeaderFlyweight encodeDataHeader = new DataHeaderFlyweight();
     private final StatusMessageFlyweight statusMessage = new StatusMessageFlyweight();
+    private final NakFlyweight nakMessage = new NakFlyweight();
 
     private final InetSocketAddress rcvRemoteAddress = new InetSocketAddress("localhost", SRC_PORT);
 
     private final EventLogger mockTransportLogger = mock(EventLogger.class);
     private final SystemCounters mockSystemCounters = mock(SystemCounters.class);
     private final AtomicCounter mockStatusMessagesReceivedCounter = mock(AtomicCounter.class);
+    private final AtomicCounter mockReceiveBurstLimitsCounter = mock(AtomicCounter.class);
 
     private final DataPacketDispatcher mockDispatcher = mock(DataPacketDispatcher.class);
     private final NetworkPublication mockPublication = mock(NetworkPublication.class);
@@ -74,6 +78,10 @@ public class SelectorAndTransportTest {
     @Before
     public void setup() {
         when(mockSystemCounters.statusMessagesReceived()).thenReturn(mockStatusMessagesReceivedCounter);
+        when(mockSystemCounters.nakMessagesReceived()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.datagramsReceived()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.datagramReadPolls()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.receiveBurstLimits()).thenReturn(mockReceiveBurstLimitsCounter);
         when(mockPublication.streamId()).thenReturn(STREAM_ID);
         when(mockPublication.sessionId()).thenReturn(SESSION_ID);
 
@@ -223,6 +231,66 @@ public class SelectorAndTransportTest {
         assertThat(dataHeadersReceived.get(), is(1));
     }
 
+    @Test(timeout = 1000)
+    public void shouldReadMultipleDatagramsPerPollUpToReceiveBurst() throws Exception {
+        final AtomicInteger dataHeadersReceived = new AtomicInteger(0);
+
+        doAnswer(
+                (invocation) ->
+                {
+                    dataHeadersReceived.incrementAndGet();
+                    return null;
+                })
+                .when(mockDispatcher).onDataPacket(
+                any(ReceiveChannelEndpoint.class),
+                any(DataHeaderFlyweight.class),
+                any(UnsafeBuffer.class),
+                anyInt(),
+                any(InetSocketAddress.class));
+
+        context.receiveBurstDatagrams(2);
+        receiveChannelEndpoint = new ReceiveChannelEndpoint(RCV_DST, mockDispatcher, context);
+        sendChannelEndpoint = new SendChannelEndpoint(SRC_DST, context);
+
+        receiveChannelEndpoint.openDatagramChannel();
+        receiveChannelEndpoint.registerForRead(dataTransportPoller);
+        sendChannelEndpoint.openDatagramChannel();
+        sendChannelEndpoint.registerForRead(controlTransportPoller);
+
+        encodeDataHeader.wrap(buffer);
+        encodeDataHeader
+                .version(HeaderFlyweight.CURRENT_VERSION)
+                .flags(DataHeaderFlyweight.BEGIN_AND_END_FLAGS)
+                .headerType(HeaderFlyweight.HDR_TYPE_DATA)
+                .frameLength(FRAME_LENGTH);
+        encodeDataHeader
+                .sessionId(SESSION_ID)
+                .streamId(STREAM_ID)
+                .termId(TERM_ID);
+
+        processLoop(dataTransportPoller, 5);
+        for (int i = 0; i < 3; i++) {
+            byteBuffer.position(0).limit(FRAME_LENGTH);
+            sendChannelEndpoint.send(byteBuffer);
+        }
+
+        // datagrams may still be in flight when a poll runs so check the limits on each poll rather than its count
+        int pollsAtBurstLimit = 0;
+        while (dataHeadersReceived.get() < 3) {
+            final int before = dataHeadersReceived.get();
+            receiveChannelEndpoint.pollForData();
+            final int readInPoll = dataHeadersReceived.get() - before;
+
+            assertThat(readInPoll, lessThanOrEqualTo(2));
+            if (2 == readInPoll) {
+                pollsAtBurstLimit++;
+            }
+        }
+
+        assertThat(dataHeadersReceived.get(), is(3));
+        verify(mockReceiveBurstLimitsCounter, times(pollsAtBurstLimit)).increment();
+    }
+
     @Test(timeout = 1000)
     public void shouldHandleSmFrameFromReceiverToSender() throws Exception {
         final AtomicInteger controlMessagesReceived = new AtomicInteger(0);
@@ -264,7 +332,62 @@ public class SelectorAndTransportTest {
             processLoop(controlTransportPoller, 1);
         }
 
-        verify(mockStatusMessagesReceivedCounter, times(1)).orderedIncrement();
+        verify(mockStatusMessagesReceivedCounter, times(1)).increment();
+    }
+
+    @Test(timeout = 1000)
+    public void shouldStopDispatchingPackedNakFramesAtFirstFrameWhichIsNotNak() throws Exception {
+        final AtomicInteger naksReceived = new AtomicInteger(0);
+
+        doAnswer(
+                (invocation) ->
+                {
+                    naksReceived.incrementAndGet();
+                    return null;
+                })
+                .when(mockPublication).onNak(anyInt(), anyInt(), anyInt());
+
+        receiveChannelEndpoint = new ReceiveChannelEndpoint(RCV_DST, mockDispatcher, context);
+        sendChannelEndpoint = new SendChannelEndpoint(SRC_DST, context);
+        sendChannelEndpoint.registerForSend(mockPublication);
+
+        receiveChannelEndpoint.openDatagramChannel();
+        receiveChannelEndpoint.registerForRead(dataTransportPoller);
+        sendChannelEndpoint.openDatagramChannel();
+        sendChannelEndpoint.registerForRead(controlTransportPoller);
+
+        nakMessage.wrap(buffer, 0, NakFlyweight.HEADER_LENGTH);
+        nakMessage
+                .streamId(STREAM_ID)
+                .sessionId(SESSION_ID)
+                .termId(TERM_ID)
+                .termOffset(0)
+                .length(FRAME_LENGTH)
+                .version(HeaderFlyweight.CURRENT_VERSION)
+                .flags((short) 0)
+                .headerType(HeaderFlyweight.HDR_TYPE_NAK)
+                .frameLength(NakFlyweight.HEADER_LENGTH);
+
+        statusMessage.wrap(buffer, NakFlyweight.HEADER_LENGTH, StatusMessageFlyweight.HEADER_LENGTH);
+        statusMessage
+                .streamId(STREAM_ID)
+                .sessionId(SESSION_ID)
+                .version(HeaderFlyweight.CURRENT_VERSION)
+                .flags((short) 0)
+                .headerType(HeaderFlyweight.HDR_TYPE_SM)
+                .frameLength(StatusMessageFlyweight.HEADER_LENGTH);
+        byteBuffer.position(0).limit(NakFlyweight.HEADER_LENGTH + StatusMessageFlyweight.HEADER_LENGTH);
+
+        processLoop(dataTransportPoller, 5);
+        receiveChannelEndpoint.sendTo(byteBuffer, rcvRemoteAddress);
+
+        while (naksReceived.get() < 1) {
+            processLoop(controlTransportPoller, 1);
+        }
+
+        verify(mockPublication).onNak(TERM_ID, 0, FRAME_LENGTH);
+        verify(mockPublication, times(1)).onNak(anyInt(), anyInt(), anyInt());
+        verify(mockPublication, never()).onStatusMessage(anyInt(), anyInt(), anyInt(), any(InetSocketAddress.class));
     }
 
     private void processLoop(final UdpTransportPoller transportPoller, final int iterations) throws Exception {
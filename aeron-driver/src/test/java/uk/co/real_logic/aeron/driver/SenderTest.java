@@ -52,6 +52,8 @@ import static uk.co.real_logic.agrona.BitUtil.align;
 public class SenderTest {
     private static final int TERM_BUFFER_LENGTH = LogBufferDescriptor.TERM_MIN_LENGTH;
     private static final int MAX_FRAME_LENGTH = 1024;
+    private static final int SEND_BURST_LENGTH = 4 * MAX_FRAME_LENGTH;
+    private static final int SEND_BURST_DATAGRAMS = 2;
     private static final int SESSION_ID = 1;
     private static final int STREAM_ID = 2;
     private static final int INITIAL_TERM_ID = 3;
@@ -82,6 +84,7 @@ public class SenderTest {
     private final DataHeaderFlyweight dataHeader = new DataHeaderFlyweight();
     private final SetupFlyweight setupHeader = new SetupFlyweight();
     private final SystemCounters mockSystemCounters = mock(SystemCounters.class);
+    private final AtomicCounter mockSenderBurstLimits = mock(AtomicCounter.class);
     private final OneToOneConcurrentArrayQueue<SenderCmd> senderCommandQueue = new OneToOneConcurrentArrayQueue<>(1024);
 
     private final HeaderWriter headerWriter = new HeaderWriter(HEADER);
@@ -106,7 +109,10 @@ public class SenderTest {
         when(mockSendChannelEndpoint.send(anyObject())).thenAnswer(saveByteBufferAnswer);
         when(mockSystemCounters.heartbeatsSent()).thenReturn(mock(AtomicCounter.class));
         when(mockSystemCounters.bytesSent()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.senderShardBytesSent(0)).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.senderShardDutyCycles(0)).thenReturn(mock(AtomicCounter.class));
         when(mockSystemCounters.senderFlowControlLimits()).thenReturn(mock(AtomicCounter.class));
+        when(mockSystemCounters.senderBurstLimits()).thenReturn(mockSenderBurstLimits);
 
         sender = new Sender(
                 new MediaDriver.Context()
@@ -130,12 +136,18 @@ public class SenderTest {
                 rawLog,
                 new AtomicLongPosition(),
                 mock(Position.class),
+                mock(AtomicCounter.class),
+                mock(AtomicCounter.class),
                 SESSION_ID,
                 STREAM_ID,
                 INITIAL_TERM_ID,
                 MAX_FRAME_LENGTH,
+                SEND_BURST_LENGTH,
+                SEND_BURST_DATAGRAMS,
                 mockSystemCounters,
                 flowControl,
+                new StaticWindowCongestionControl(),
+                new TokenBucketPacer(0, SEND_BURST_LENGTH, 0),
                 mockRetransmitHandler);
 
         senderCommandQueue.offer(new NewPublicationCmd(publication));
@@ -183,7 +195,7 @@ public class SenderTest {
 
     @Test
     public void shouldNotSendSetupFrameAfterReceivingStatusMessage() throws Exception {
-        publication.senderPositionLimit(flowControl.onStatusMessage(INITIAL_TERM_ID, 0, 0, rcvAddress));
+        publication.senderPositionLimit(flowControl.onStatusMessage(INITIAL_TERM_ID, 0, 0, rcvAddress, currentTimestamp));
         sender.doWork();
         assertThat(receivedFrames.size(), is(1));
         receivedFrames.remove();
@@ -201,7 +213,7 @@ public class SenderTest {
     @Test
     public void shouldSendSetupFrameAfterReceivingStatusMessageWithSetupBit() throws Exception {
         publication.senderPositionLimit(
-                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress));
+                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress, currentTimestamp));
 
         final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(PAYLOAD.length));
         buffer.putBytes(0, PAYLOAD);
@@ -231,7 +243,7 @@ public class SenderTest {
     @Test
     public void shouldBeAbleToSendOnChannel() throws Exception {
         publication.senderPositionLimit(
-                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress));
+                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress, currentTimestamp));
 
         final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(PAYLOAD.length));
         buffer.putBytes(0, PAYLOAD);
@@ -257,7 +269,7 @@ public class SenderTest {
     @Test
     public void shouldBeAbleToSendOnChannelTwice() throws Exception {
         publication.senderPositionLimit(
-                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, (2 * ALIGNED_FRAME_LENGTH), rcvAddress));
+                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, (2 * ALIGNED_FRAME_LENGTH), rcvAddress, currentTimestamp));
 
         final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(PAYLOAD.length));
         buffer.putBytes(0, PAYLOAD);
@@ -293,6 +305,58 @@ public class SenderTest {
         assertThat(dataHeader.version(), is((short) HeaderFlyweight.CURRENT_VERSION));
     }
 
+    @Test
+    public void shouldSendMultipleDataFramesInSingleDutyCycle() throws Exception {
+        publication.senderPositionLimit(
+                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, (2 * MAX_FRAME_LENGTH), rcvAddress, currentTimestamp));
+
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(MAX_FRAME_LENGTH));
+        final int length = MAX_FRAME_LENGTH - HEADER.capacity();
+
+        termAppenders[0].appendUnfragmentedMessage(headerWriter, buffer, 0, length);
+        termAppenders[0].appendUnfragmentedMessage(headerWriter, buffer, 0, length);
+        sender.doWork();
+
+        assertThat(receivedFrames.size(), is(3));
+        setupHeader.wrap(new UnsafeBuffer(receivedFrames.remove()));
+        assertThat(setupHeader.headerType(), is(HeaderFlyweight.HDR_TYPE_SETUP));
+
+        dataHeader.wrap(new UnsafeBuffer(receivedFrames.remove()));
+        assertThat(dataHeader.frameLength(), is(MAX_FRAME_LENGTH));
+        assertThat(dataHeader.termOffset(), is(0));
+
+        dataHeader.wrap(new UnsafeBuffer(receivedFrames.remove()));
+        assertThat(dataHeader.frameLength(), is(MAX_FRAME_LENGTH));
+        assertThat(dataHeader.termOffset(), is(MAX_FRAME_LENGTH));
+
+        verify(mockSenderBurstLimits, never()).increment();
+    }
+
+    @Test
+    public void shouldLimitDataFramesSentInSingleDutyCycleToBurst() throws Exception {
+        publication.senderPositionLimit(
+                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, (3 * MAX_FRAME_LENGTH), rcvAddress, currentTimestamp));
+
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(MAX_FRAME_LENGTH));
+        final int length = MAX_FRAME_LENGTH - HEADER.capacity();
+
+        termAppenders[0].appendUnfragmentedMessage(headerWriter, buffer, 0, length);
+        termAppenders[0].appendUnfragmentedMessage(headerWriter, buffer, 0, length);
+        termAppenders[0].appendUnfragmentedMessage(headerWriter, buffer, 0, length);
+        sender.doWork();
+
+        assertThat(receivedFrames.size(), is(1 + SEND_BURST_DATAGRAMS));
+        verify(mockSenderBurstLimits, times(1)).increment();
+        receivedFrames.clear();
+
+        sender.doWork();
+
+        assertThat(receivedFrames.size(), is(1));
+        dataHeader.wrap(new UnsafeBuffer(receivedFrames.remove()));
+        assertThat(dataHeader.frameLength(), is(MAX_FRAME_LENGTH));
+        assertThat(dataHeader.termOffset(), is(2 * MAX_FRAME_LENGTH));
+    }
+
     @Test
     public void shouldNotSendUntilStatusMessageReceived() throws Exception {
         final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(PAYLOAD.length));
@@ -305,7 +369,7 @@ public class SenderTest {
         assertThat(setupHeader.headerType(), is(HeaderFlyweight.HDR_TYPE_SETUP));
 
         publication.senderPositionLimit(
-                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress));
+                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress, currentTimestamp));
         sender.doWork();
 
         assertThat(receivedFrames.size(), is(1));
@@ -328,7 +392,7 @@ public class SenderTest {
         buffer.putBytes(0, PAYLOAD);
         termAppenders[0].appendUnfragmentedMessage(headerWriter, buffer, 0, PAYLOAD.length);
         publication.senderPositionLimit(
-                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress));
+                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress, currentTimestamp));
 
         sender.doWork();
 
@@ -354,7 +418,7 @@ public class SenderTest {
     @Test
     public void shouldSendLastDataFrameAsHeartbeatWhenIdle() throws Exception {
         publication.senderPositionLimit(
-                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress));
+                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress, currentTimestamp));
 
         final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(PAYLOAD.length));
         buffer.putBytes(0, PAYLOAD);
@@ -383,7 +447,7 @@ public class SenderTest {
     @Test
     public void shouldSendMultipleDataFramesAsHeartbeatsWhenIdle() {
         publication.senderPositionLimit(
-                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress));
+                flowControl.onStatusMessage(INITIAL_TERM_ID, 0, ALIGNED_FRAME_LENGTH, rcvAddress, currentTimestamp));
 
         final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(PAYLOAD.length));
         buffer.putBytes(0, PAYLOAD);
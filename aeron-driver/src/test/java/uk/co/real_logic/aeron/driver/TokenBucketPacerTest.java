@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.driver;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class TokenBucketPacerTest {
+    private static final long RATE_IN_BYTES_PER_SECOND = 1_000_000;
+    private static final int BURST_LENGTH = 4096;
+    private static final long NANOS_PER_BYTE = TimeUnit.SECONDS.toNanos(1) / RATE_IN_BYTES_PER_SECOND;
+
+    private final TokenBucketPacer pacer = new TokenBucketPacer(RATE_IN_BYTES_PER_SECOND, BURST_LENGTH, 0);
+
+    @Test
+    public void shouldNotLimitWhenDisabled() {
+        final TokenBucketPacer pacer = new TokenBucketPacer(0, BURST_LENGTH, 0);
+        pacer.consume(BURST_LENGTH * 2);
+
+        assertThat(pacer.available(0), is(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldStartWithFullBurst() {
+        assertThat(pacer.available(0), is(BURST_LENGTH));
+    }
+
+    @Test
+    public void shouldRefillAtRate() {
+        pacer.consume(BURST_LENGTH);
+        assertThat(pacer.available(0), is(0));
+
+        assertThat(pacer.available(1000 * NANOS_PER_BYTE), is(1000));
+    }
+
+    @Test
+    public void shouldAccumulateRefillOfLessThanOneByte() {
+        pacer.consume(BURST_LENGTH);
+
+        assertThat(pacer.available(NANOS_PER_BYTE / 2), is(0));
+        assertThat(pacer.available(NANOS_PER_BYTE), is(1));
+    }
+
+    @Test
+    public void shouldKeepFractionOfByteWhenPolledMoreOftenThanRate() {
+        pacer.consume(BURST_LENGTH);
+
+        final long pollIntervalNs = (NANOS_PER_BYTE * 3) / 5;
+        for (int i = 1; i <= 5; i++) {
+            pacer.available(pollIntervalNs * i);
+        }
+
+        assertThat(pacer.available(NANOS_PER_BYTE * 3), is(3));
+    }
+
+    @Test
+    public void shouldNotRefillBeyondBurstAfterBeingIdle() {
+        pacer.consume(1024);
+
+        assertThat(pacer.available(TimeUnit.SECONDS.toNanos(60)), is(BURST_LENGTH));
+    }
+}
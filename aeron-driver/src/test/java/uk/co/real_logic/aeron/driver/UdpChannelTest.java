@@ -29,8 +29,10 @@ import java.net.*;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNull;
 
 public class UdpChannelTest {
     @Test
@@ -53,6 +55,65 @@ public class UdpChannelTest {
         assertThat(udpChannel.remoteControl(), is(new InetSocketAddress("localhost", 40124)));
     }
 
+    @Test
+    public void shouldHandleManualControlModeWithAeronUri() throws Exception {
+        final UdpChannel udpChannel = UdpChannel.parse("aeron:udp?control=localhost:40123|control-mode=manual");
+
+        assertThat(udpChannel.isManualControlMode(), is(true));
+        assertThat(udpChannel.isMulticast(), is(false));
+        assertThat(udpChannel.localData(), is(new InetSocketAddress("localhost", 40123)));
+        assertThat(udpChannel.localControl(), is(new InetSocketAddress("localhost", 40123)));
+        assertThat(udpChannel.remoteData(), is(new InetSocketAddress("0.0.0.0", 0)));
+        assertThat(udpChannel.remoteControl(), is(new InetSocketAddress("0.0.0.0", 0)));
+    }
+
+    @Test(expected = InvalidChannelException.class)
+    public void shouldThrowExceptionForManualControlModeWithRemoteAddress() throws Exception {
+        UdpChannel.parse("aeron:udp?control=localhost:40123|control-mode=manual|remote=localhost:40124");
+    }
+
+    @Test
+    public void shouldUseShardParameterForShardIndex() throws Exception {
+        final UdpChannel udpChannel = UdpChannel.parse("aeron:udp?remote=localhost:40124|shard=3");
+
+        assertThat(udpChannel.shardIndex(4), is(3));
+        assertThat(udpChannel.shardIndex(2), is(1));
+    }
+
+    @Test
+    public void shouldHaveStableShardIndexForSameCanonicalForm() throws Exception {
+        final int shardCount = 7;
+        final UdpChannel udpChannelOne = UdpChannel.parse("udp://localhost:40124");
+        final UdpChannel udpChannelTwo = UdpChannel.parse("aeron:udp?remote=localhost:40124");
+
+        assertThat(udpChannelOne.shardIndex(shardCount), is(udpChannelTwo.shardIndex(shardCount)));
+        assertThat(udpChannelOne.shardIndex(1), is(0));
+    }
+
+    @Test
+    public void shouldSelectCongestionControlByParameter() throws Exception {
+        final UdpChannel udpChannel = UdpChannel.parse("aeron:udp?remote=localhost:40124|congestion-control=loss");
+
+        assertThat(udpChannel.congestionControl(), is("loss"));
+        assertThat(Configuration.congestionControl(udpChannel.congestionControl()), instanceOf(LossBasedCongestionControl.class));
+    }
+
+    @Test
+    public void shouldParsePacingParameters() throws Exception {
+        final UdpChannel udpChannel = UdpChannel.parse("aeron:udp?remote=localhost:40124|pacing-rate=1000000|pacing-burst=65536");
+
+        assertThat(udpChannel.pacingRate(), is(1_000_000L));
+        assertThat(udpChannel.pacingBurstLength(), is(65536));
+    }
+
+    @Test
+    public void shouldUseDefaultCongestionControlWithoutParameter() throws Exception {
+        final UdpChannel udpChannel = UdpChannel.parse("aeron:udp?remote=localhost:40124");
+
+        assertNull(udpChannel.congestionControl());
+        assertThat(Configuration.congestionControl(null), instanceOf(StaticWindowCongestionControl.class));
+    }
+
     @Test
     public void shouldHandleImpliedLocalAddressAndPortFormat() throws Exception {
         final UdpChannel udpChannel = UdpChannel.parse("udp://localhost:40124");
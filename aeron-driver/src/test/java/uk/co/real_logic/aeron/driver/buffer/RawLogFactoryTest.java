@@ -23,14 +23,19 @@ import uk.co.real_logic.aeron.driver.event.EventLogger;
 import uk.co.real_logic.aeron.driver.Configuration;
 import uk.co.real_logic.aeron.driver.media.UdpChannel;
 import uk.co.real_logic.agrona.IoUtil;
+import uk.co.real_logic.agrona.concurrent.AtomicCounter;
+import uk.co.real_logic.agrona.concurrent.NanoClock;
 import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 
 import java.io.File;
 import java.io.IOException;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class RawLogFactoryTest {
     private static final String CHANNEL = "udp://localhost:4321";
@@ -40,9 +45,14 @@ public class RawLogFactoryTest {
     private static final File DATA_DIR = new File(IoUtil.tmpDirName(), "dataDirName");
     private static final int TERM_BUFFER_LENGTH = Configuration.TERM_BUFFER_LENGTH_DEFAULT;
     private static final int TERM_BUFFER_MAX_LENGTH = Configuration.TERM_BUFFER_LENGTH_MAX_DEFAULT;
+    private static final long RECYCLE_DELAY_NS = 1000;
     private RawLogFactory rawLogFactory;
     private UdpChannel udpChannel = UdpChannel.parse(CHANNEL);
     private EventLogger logger = mock(EventLogger.class);
+    private AtomicCounter mockPoolHits = mock(AtomicCounter.class);
+    private AtomicCounter mockPoolMisses = mock(AtomicCounter.class);
+    private long currentTime = 0;
+    private NanoClock nanoClock = () -> currentTime;
 
     @Before
     public void createDataDir() {
@@ -102,6 +112,61 @@ public class RawLogFactoryTest {
                 });
     }
 
+    @Test
+    public void shouldTakePublicationLogFromPoolAndRecycleOnClose() throws Exception {
+        final RawLogFactory pooledRawLogFactory = new RawLogFactory(
+                DATA_DIR.getAbsolutePath(),
+                TERM_BUFFER_LENGTH,
+                TERM_BUFFER_MAX_LENGTH,
+                TERM_BUFFER_LENGTH,
+                1,
+                RECYCLE_DELAY_NS,
+                nanoClock,
+                mockPoolHits,
+                mockPoolMisses,
+                logger);
+        final RawLogPool pool = pooledRawLogFactory.pool();
+
+        try {
+            assertThat(pool.doWork(), is(1));
+            assertThat(pool.doWork(), is(0));
+
+            final String canonicalForm = udpChannel.canonicalForm();
+            final RawLog rawLog = pooledRawLogFactory.newNetworkPublication(canonicalForm, SESSION_ID, STREAM_ID, CREATION_ID);
+            verify(mockPoolHits).orderedIncrement();
+            final File logFile = new File(rawLog.logFileName());
+            assertThat(logFile.getParentFile().getName(), is(not(FileMappingConvention.POOL)));
+            assertThat(logFile.exists(), is(true));
+
+            final UnsafeBuffer term = rawLog.partitions()[0].termBuffer();
+            term.putByte(0, (byte) 7);
+            rawLog.logMetaData().putByte(0, (byte) 7);
+            rawLog.close();
+
+            assertThat(pool.doWork(), is(2));
+            assertThat(logFile.exists(), is(true));
+
+            pooledRawLogFactory.newNetworkPublication(canonicalForm, SESSION_ID, STREAM_ID, CREATION_ID + 1);
+
+            currentTime += RECYCLE_DELAY_NS;
+            assertThat(pool.doWork(), is(1));
+            assertThat(logFile.exists(), is(false));
+
+            final RawLog recycledRawLog = pooledRawLogFactory.newNetworkPublication(
+                    canonicalForm, SESSION_ID, STREAM_ID, CREATION_ID + 2);
+            assertThat(recycledRawLog.partitions()[0].termBuffer().getByte(0), is((byte) 0));
+            assertThat(recycledRawLog.logMetaData().getByte(0), is((byte) 0));
+            verify(mockPoolHits, times(3)).orderedIncrement();
+
+            pooledRawLogFactory.newNetworkedImage(canonicalForm, SESSION_ID, STREAM_ID, CREATION_ID + 3, TERM_BUFFER_LENGTH / 2);
+            pooledRawLogFactory.newNetworkPublication(canonicalForm, SESSION_ID, STREAM_ID, CREATION_ID + 4);
+            verify(mockPoolMisses).orderedIncrement();
+        } finally {
+            pool.onClose();
+            pooledRawLogFactory.close();
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void shouldExceptionIfRequestedTermBufferLengthGreaterThanMax() {
         final String canonicalForm = udpChannel.canonicalForm();
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron.samples;
+
+import uk.co.real_logic.aeron.Aeron;
+import uk.co.real_logic.aeron.ExclusivePublication;
+import uk.co.real_logic.aeron.Publication;
+import uk.co.real_logic.aeron.Subscription;
+import uk.co.real_logic.aeron.driver.MediaDriver;
+import uk.co.real_logic.aeron.logbuffer.FragmentHandler;
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.concurrent.BusySpinIdleStrategy;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.agrona.console.ContinueBarrier;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
+
+/**
+ * Compares the throughput of {@link Publication#offer(DirectBuffer, int, int)} with that of
+ * {@link ExclusivePublication#offer(DirectBuffer, int, int)} from a single thread to an embedded media driver.
+ *
+ * Each run streams the same number of messages through a shared publication then through an exclusive publication
+ * on the same channel and stream and reports the rate achieved by each.
+ */
+public class EmbeddedExclusiveThroughput {
+    private static final String CHANNEL = SampleConfiguration.CHANNEL;
+    private static final int STREAM_ID = SampleConfiguration.STREAM_ID;
+    private static final int MESSAGE_LENGTH = SampleConfiguration.MESSAGE_LENGTH;
+    private static final long NUMBER_OF_MESSAGES = SampleConfiguration.NUMBER_OF_MESSAGES;
+    private static final int FRAGMENT_COUNT_LIMIT = SampleConfiguration.FRAGMENT_COUNT_LIMIT;
+
+    private static final UnsafeBuffer ATOMIC_BUFFER = new UnsafeBuffer(ByteBuffer.allocateDirect(MESSAGE_LENGTH));
+    private static final BusySpinIdleStrategy OFFER_IDLE_STRATEGY = new BusySpinIdleStrategy();
+
+    public static void main(final String[] args) throws Exception {
+        if (1 != args.length) {
+            throw new IllegalArgumentException("must specify properties file to use");
+        }
+
+        MediaDriver.loadPropertiesFile(args[0]);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(1);
+        final FragmentHandler noOpHandler = (buffer, offset, length, header) -> {};
+        final AtomicBoolean running = new AtomicBoolean(true);
+
+        try (final MediaDriver driver = MediaDriver.launch();
+             final Aeron aeron = Aeron.connect(new Aeron.Context().aeronDirectoryName(driver.aeronDirectoryName()));
+             final Subscription subscription = aeron.addSubscription(CHANNEL, STREAM_ID);
+             final Publication publication = aeron.addPublication(CHANNEL, STREAM_ID);
+             final ExclusivePublication exclusivePublication = aeron.addExclusivePublication(CHANNEL, STREAM_ID)) {
+            executor.execute(
+                    () -> SamplesUtil.subscriberLoop(noOpHandler, FRAGMENT_COUNT_LIMIT, running).accept(subscription));
+
+            final ContinueBarrier barrier = new ContinueBarrier("Execute again?");
+
+            do {
+                System.out.format(
+                        "\nStreaming %,d messages of size %d bytes to %s on stream Id %d\n",
+                        NUMBER_OF_MESSAGES, MESSAGE_LENGTH, CHANNEL, STREAM_ID);
+
+                stream("Publication", (buffer) -> publication.offer(buffer, 0, buffer.capacity()));
+                stream("ExclusivePublication", (buffer) -> exclusivePublication.offer(buffer, 0, buffer.capacity()));
+            }
+            while (barrier.await());
+
+            running.set(false);
+            executor.shutdown();
+        }
+    }
+
+    private static void stream(final String name, final ToLongFunction<UnsafeBuffer> offer) {
+        long backPressureCount = 0;
+        final long start = System.nanoTime();
+
+        for (long i = 0; i < NUMBER_OF_MESSAGES; i++) {
+            ATOMIC_BUFFER.putLong(0, i);
+
+            OFFER_IDLE_STRATEGY.reset();
+            while (offer.applyAsLong(ATOMIC_BUFFER) < 0) {
+                OFFER_IDLE_STRATEGY.idle();
+                backPressureCount++;
+            }
+        }
+
+        final long durationNs = System.nanoTime() - start;
+        final double messagesPerSec = (NUMBER_OF_MESSAGES * 1_000_000_000d) / durationNs;
+
+        System.out.format(
+                "%s: %.02g msgs/sec, %.02g bytes/sec, backPressureRatio=%f\n",
+                name,
+                messagesPerSec,
+                messagesPerSec * MESSAGE_LENGTH,
+                (double) backPressureCount / NUMBER_OF_MESSAGES);
+    }
+}
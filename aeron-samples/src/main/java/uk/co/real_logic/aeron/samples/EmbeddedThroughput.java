@@ -26,6 +26,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import uk.co.real_logic.aeron.Aeron;
 import uk.co.real_logic.aeron.Publication;
 import uk.co.real_logic.aeron.Subscription;
+import uk.co.real_logic.aeron.driver.Configuration;
 import uk.co.real_logic.aeron.driver.MediaDriver;
 import uk.co.real_logic.aeron.driver.RateReporter;
 import uk.co.real_logic.aeron.logbuffer.FragmentHandler;
@@ -75,6 +76,9 @@ public class EmbeddedThroughput {
                 System.out.format(
                         "\nStreaming %,d messages of size %d bytes to %s on stream Id %d\n",
                         NUMBER_OF_MESSAGES, MESSAGE_LENGTH, CHANNEL, STREAM_ID);
+                System.out.format(
+                        "Sender burst of %d bytes or %d datagrams per publication per duty cycle\n",
+                        Configuration.sendBurstLength(), Configuration.sendBurstDatagrams());
 
                 printingActive = true;
 
@@ -26,6 +26,7 @@ import java.util.function.IntSupplier;
 
 import uk.co.real_logic.aeron.Aeron;
 import uk.co.real_logic.aeron.Publication;
+import uk.co.real_logic.aeron.driver.Configuration;
 import uk.co.real_logic.aeron.driver.MediaDriver;
 import uk.co.real_logic.aeron.driver.RateReporter;
 import uk.co.real_logic.agrona.CloseHelper;
@@ -85,6 +86,12 @@ public class StreamingPublisher {
                         CHANNEL,
                         STREAM_ID);
 
+                if (EMBEDDED_MEDIA_DRIVER) {
+                    System.out.format(
+                            "Sender burst of %d bytes or %d datagrams per publication per duty cycle\n",
+                            Configuration.sendBurstLength(), Configuration.sendBurstDatagrams());
+                }
+
                 long backPressureCount = 0;
 
                 for (long i = 0; i < NUMBER_OF_MESSAGES; i++) {
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 - 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron;
+
+import org.junit.Test;
+import uk.co.real_logic.aeron.driver.MediaDriver;
+import uk.co.real_logic.aeron.exceptions.RegistrationException;
+import uk.co.real_logic.aeron.logbuffer.FragmentHandler;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static uk.co.real_logic.aeron.logbuffer.LogBufferDescriptor.TERM_MIN_LENGTH;
+
+public class ExclusivePubAndSubTest {
+    private static final String CHANNEL = "aeron:udp?remote=localhost:54325";
+    private static final int STREAM_ID = 1;
+    private static final int FRAGMENT_COUNT_LIMIT = 10;
+    private static final int MESSAGE_LENGTH = 480;
+    private static final int NUM_MESSAGES = (TERM_MIN_LENGTH / (MESSAGE_LENGTH + 32)) * 4;
+
+    @Test(timeout = 10000)
+    public void shouldReceiveFromSharedAndExclusivePublicationsAcrossTerms() throws Exception {
+        final MediaDriver.Context ctx = new MediaDriver.Context().termBufferLength(TERM_MIN_LENGTH);
+        final UnsafeBuffer srcBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(MESSAGE_LENGTH));
+        final long[] sumBySession = new long[2];
+
+        try (final MediaDriver driver = MediaDriver.launch(ctx);
+             final Aeron client = Aeron.connect(new Aeron.Context().aeronDirectoryName(driver.aeronDirectoryName()));
+             final Subscription subscription = client.addSubscription(CHANNEL, STREAM_ID);
+             final Publication publication = client.addPublication(CHANNEL, STREAM_ID);
+             final ExclusivePublication exclusivePublication = client.addExclusivePublication(CHANNEL, STREAM_ID)) {
+            assertThat(exclusivePublication.sessionId(), not(publication.sessionId()));
+
+            final FragmentHandler handler =
+                    (buffer, offset, length, header) ->
+                    {
+                        final int index = header.sessionId() == exclusivePublication.sessionId() ? 1 : 0;
+                        sumBySession[index] += buffer.getInt(offset);
+                    };
+
+            long expectedSum = 0;
+            for (int i = 0; i < NUM_MESSAGES; i++) {
+                srcBuffer.putInt(0, i);
+                expectedSum += i;
+
+                while (publication.offer(srcBuffer) < 0L) {
+                    subscription.poll(handler, FRAGMENT_COUNT_LIMIT);
+                    Thread.yield();
+                }
+
+                while (exclusivePublication.offer(srcBuffer) < 0L) {
+                    subscription.poll(handler, FRAGMENT_COUNT_LIMIT);
+                    Thread.yield();
+                }
+
+                subscription.poll(handler, FRAGMENT_COUNT_LIMIT);
+            }
+
+            while (sumBySession[0] < expectedSum || sumBySession[1] < expectedSum) {
+                if (subscription.poll(handler, FRAGMENT_COUNT_LIMIT) == 0) {
+                    Thread.yield();
+                }
+            }
+
+            assertThat(sumBySession[0], is(expectedSum));
+            assertThat(sumBySession[1], is(expectedSum));
+            assertThat(exclusivePublication.position(), is(publication.position()));
+        } finally {
+            ctx.deleteAeronDirectory();
+        }
+    }
+
+    @Test(timeout = 10000, expected = RegistrationException.class)
+    public void shouldRejectExclusivePublicationOnIpc() throws Exception {
+        final MediaDriver.Context ctx = new MediaDriver.Context();
+
+        try (final MediaDriver driver = MediaDriver.launch(ctx);
+             final Aeron client = Aeron.connect(new Aeron.Context().aeronDirectoryName(driver.aeronDirectoryName()))) {
+            client.addExclusivePublication(CommonContext.IPC_CHANNEL, STREAM_ID);
+        } finally {
+            ctx.deleteAeronDirectory();
+        }
+    }
+}
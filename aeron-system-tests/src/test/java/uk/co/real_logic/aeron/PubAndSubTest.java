@@ -29,8 +29,10 @@ import uk.co.real_logic.aeron.driver.DebugSendChannelEndpointSupplier;
 import uk.co.real_logic.aeron.driver.MediaDriver;
 import uk.co.real_logic.aeron.driver.ThreadingMode;
 import uk.co.real_logic.aeron.logbuffer.FileBlockHandler;
+import uk.co.real_logic.aeron.logbuffer.FragmentedBufferClaim;
 import uk.co.real_logic.aeron.logbuffer.FragmentHandler;
 import uk.co.real_logic.aeron.logbuffer.Header;
+import uk.co.real_logic.aeron.logbuffer.MessageBatch;
 import uk.co.real_logic.agrona.BitUtil;
 import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
 
@@ -38,7 +40,9 @@ import java.nio.channels.FileChannel;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
@@ -690,4 +694,148 @@ public class PubAndSubTest {
                 eq(frameLength),
                 any(Header.class));
     }
+
+    @Theory
+    @Test(timeout = 10000)
+    public void shouldContinueAfterBufferRolloverWithOfferBatch(final String channel) throws Exception {
+        final int termBufferLength = 64 * 1024;
+        final int messageLength = 1000;
+        final int batchSize = 10;
+        final int numBatchesToSend = 20;
+        final int numMessagesToSend = batchSize * numBatchesToSend;
+        final MessageBatch batch = new MessageBatch(batchSize);
+
+        context.termBufferLength(termBufferLength);
+
+        launch(channel);
+
+        final int fragmentsRead[] = new int[1];
+        for (int i = 0; i < numBatchesToSend; i++) {
+            batch.reset();
+            for (int j = 0; j < batchSize; j++) {
+                batch.add(buffer, 0, messageLength);
+            }
+
+            while (!batch.isComplete()) {
+                if (publication.offerBatch(batch) < 0L) {
+                    Thread.yield();
+                }
+
+                fragmentsRead[0] += subscription.poll(fragmentHandler, 10);
+            }
+        }
+
+        SystemTestHelper.executeUntil(
+                () -> fragmentsRead[0] >= numMessagesToSend,
+                (j) ->
+                {
+                    fragmentsRead[0] += subscription.poll(fragmentHandler, 10);
+                    Thread.yield();
+                },
+                Integer.MAX_VALUE,
+                TimeUnit.MILLISECONDS.toNanos(9000));
+
+        verify(fragmentHandler, times(numMessagesToSend)).onFragment(
+                any(UnsafeBuffer.class),
+                anyInt(),
+                eq(messageLength),
+                any(Header.class));
+    }
+
+    @Theory
+    @Test(timeout = 10000)
+    public void shouldReassembleFragmentedClaimsAfterBufferRollover(final String channel) throws Exception {
+        final int termBufferLength = 64 * 1024;
+        final int mtuLength = 4096;
+        final int messageLength = buffer.capacity();
+        final int numFragmentsPerMessage = 3;
+        final int numMessagesToSend = 20;
+        final FragmentedBufferClaim bufferClaim = new FragmentedBufferClaim();
+        final FragmentAssembler assembler = new FragmentAssembler(fragmentHandler);
+
+        context.termBufferLength(termBufferLength)
+                .mtuLength(mtuLength);
+
+        launch(channel);
+
+        final int fragmentsRead[] = new int[1];
+        final FragmentHandler countingHandler =
+                (buffer, offset, length, header) ->
+                {
+                    assembler.onFragment(buffer, offset, length, header);
+                    fragmentsRead[0]++;
+                };
+
+        for (int i = 0; i < numMessagesToSend; i++) {
+            while (publication.tryClaim(messageLength, bufferClaim) < 0L) {
+                subscription.poll(countingHandler, 10);
+                Thread.yield();
+            }
+
+            bufferClaim.putBytes(0, buffer, 0, messageLength);
+            bufferClaim.commit();
+        }
+
+        SystemTestHelper.executeUntil(
+                () -> fragmentsRead[0] >= numMessagesToSend * numFragmentsPerMessage,
+                (j) ->
+                {
+                    subscription.poll(countingHandler, 10);
+                    Thread.yield();
+                },
+                Integer.MAX_VALUE,
+                TimeUnit.MILLISECONDS.toNanos(9000));
+
+        verify(fragmentHandler, times(numMessagesToSend)).onFragment(
+                any(UnsafeBuffer.class),
+                anyInt(),
+                eq(messageLength),
+                any(Header.class));
+    }
+
+    @Theory
+    @Test(timeout = 10000)
+    public void shouldReassembleFragmentedMessagesInPlace(final String channel) throws Exception {
+        final int termBufferLength = 64 * 1024;
+        final int mtuLength = 4096;
+        final int messageLength = buffer.capacity();
+        final int numMessagesToSend = 20;
+        final int messagesRead[] = new int[1];
+        final int messagesInPlace[] = new int[1];
+        final InPlaceFragmentAssembler assembler = new InPlaceFragmentAssembler(
+                (message, header) ->
+                {
+                    assertThat(message.length(), is(messageLength));
+                    assertThat(message.buffer().getByte(message.fragmentOffset(0)), is((byte) messagesRead[0]));
+                    messagesRead[0]++;
+                    if (message.isInPlace()) {
+                        messagesInPlace[0]++;
+                    }
+                });
+
+        context.termBufferLength(termBufferLength)
+                .mtuLength(mtuLength);
+
+        launch(channel);
+
+        for (int i = 0; i < numMessagesToSend; i++) {
+            buffer.putByte(0, (byte) i);
+            while (publication.offer(buffer, 0, messageLength) < 0L) {
+                subscription.poll(assembler, 10);
+                Thread.yield();
+            }
+        }
+
+        SystemTestHelper.executeUntil(
+                () -> messagesRead[0] >= numMessagesToSend,
+                (j) ->
+                {
+                    subscription.poll(assembler, 10);
+                    Thread.yield();
+                },
+                Integer.MAX_VALUE,
+                TimeUnit.MILLISECONDS.toNanos(9000));
+
+        assertThat(messagesInPlace[0], is(numMessagesToSend));
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.aeron;
+
+import org.junit.Test;
+import uk.co.real_logic.aeron.driver.MediaDriver;
+import uk.co.real_logic.aeron.driver.ThreadingMode;
+import uk.co.real_logic.aeron.logbuffer.FragmentHandler;
+import uk.co.real_logic.aeron.logbuffer.Header;
+import uk.co.real_logic.agrona.DirectBuffer;
+import uk.co.real_logic.agrona.concurrent.UnsafeBuffer;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class ShardedDriverTest {
+    public static final String[] PINNED_CHANNELS = {
+            "aeron:udp?remote=localhost:54335|shard=0",
+            "aeron:udp?remote=localhost:54336|shard=1"
+    };
+    public static final String[] HASHED_CHANNELS = {
+            "aeron:udp?remote=localhost:54337",
+            "aeron:udp?remote=localhost:54338",
+            "aeron:udp?remote=localhost:54339",
+            "aeron:udp?remote=localhost:54340"
+    };
+    public static final int STREAM_ID = 1;
+    public static final int FRAGMENT_COUNT_LIMIT = 10;
+    public static final int MESSAGE_COUNT = 100;
+
+    @Test(timeout = 10000)
+    public void shouldExchangeMessagesOnChannelsPinnedToDifferentShards() throws Exception {
+        final MediaDriver.Context ctx = new MediaDriver.Context()
+                .threadingMode(ThreadingMode.SHARDED)
+                .senderShardCount(2)
+                .receiverShardCount(2);
+
+        shouldExchangeMessages(ctx, PINNED_CHANNELS);
+    }
+
+    @Test(timeout = 10000)
+    public void shouldExchangeMessagesOnChannelsHashedAcrossShards() throws Exception {
+        final MediaDriver.Context ctx = new MediaDriver.Context()
+                .threadingMode(ThreadingMode.SHARDED)
+                .senderShardCount(3)
+                .receiverShardCount(2);
+
+        shouldExchangeMessages(ctx, HASHED_CHANNELS);
+    }
+
+    private void shouldExchangeMessages(final MediaDriver.Context ctx, final String[] channels) throws Exception {
+        final int channelCount = channels.length;
+        final Publication[] publications = new Publication[channelCount];
+        final Subscription[] subscriptions = new Subscription[channelCount];
+        final FragmentHandler[] mockFragmentHandlers = new FragmentHandler[channelCount];
+
+        try (final MediaDriver driver = MediaDriver.launch(ctx);
+             final Aeron client = Aeron.connect(new Aeron.Context().aeronDirectoryName(driver.aeronDirectoryName()))) {
+            for (int i = 0; i < channelCount; i++) {
+                publications[i] = client.addPublication(channels[i], STREAM_ID);
+                subscriptions[i] = client.addSubscription(channels[i], STREAM_ID);
+                mockFragmentHandlers[i] = mock(FragmentHandler.class);
+            }
+
+            final UnsafeBuffer srcBuffer = new UnsafeBuffer(new byte[64]);
+
+            for (int m = 0; m < MESSAGE_COUNT; m++) {
+                srcBuffer.putInt(0, m);
+
+                for (final Publication publication : publications) {
+                    while (publication.offer(srcBuffer) < 0L) {
+                        Thread.yield();
+                    }
+                }
+            }
+
+            final int[] fragmentsRead = new int[channelCount];
+            int channelsComplete = 0;
+            while (channelsComplete < channelCount) {
+                channelsComplete = 0;
+                for (int i = 0; i < channelCount; i++) {
+                    fragmentsRead[i] += subscriptions[i].poll(mockFragmentHandlers[i], FRAGMENT_COUNT_LIMIT);
+                    if (fragmentsRead[i] >= MESSAGE_COUNT) {
+                        channelsComplete++;
+                    }
+                }
+
+                Thread.yield();
+            }
+
+            for (final FragmentHandler mockFragmentHandler : mockFragmentHandlers) {
+                verify(mockFragmentHandler, times(MESSAGE_COUNT)).onFragment(
+                        any(DirectBuffer.class), anyInt(), eq(srcBuffer.capacity()), any(Header.class));
+            }
+        } finally {
+            ctx.deleteAeronDirectory();
+        }
+    }
+}